@@ -0,0 +1,159 @@
+package com.georgster.control;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.event.EventDispatcher;
+import discord4j.core.event.domain.Event;
+import discord4j.gateway.ShardInfo;
+import reactor.core.Disposable;
+
+/**
+ * Measures how long synthetic {@code Guild} events hold up an {@link EventDispatcher}'s event loop, with the
+ * blocking routing {@link SoapClientManager} used to do and with the routing it does now.
+ * <p>
+ * With {@code blocking} routing, the listener resolves the event's {@code Guild} on the event loop, as
+ * {@code event.getGuild().block()} did, and then handles the event there. With {@code payload} routing, the listener
+ * looks the client up by the {@code Guild} ID in the event and hands the handling to the {@code Guild's} pool.
+ * The {@code Guild} lookup and the handling are simulated by parking for {@code lookupMicros} and {@code handlerMicros}.
+ * <p>
+ * {@link #throughput()} publishes a burst of events and waits until the event loop has routed all of them, so its
+ * score is the event loop's time per event. {@link #latency()} publishes one event at a time and waits until it has
+ * been routed, sampling the lag between publishing an event and the event loop being done with it.
+ * Run with {@code mvn -P benchmarks package exec:exec}.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayRoutingBenchmark {
+    private static final int BURST = 1000; // How many events throughput() publishes at once
+    private static final int GUILDS = 50; // How many Guilds the events are spread over
+
+    @Param({"blocking", "payload"})
+    public String routing; // How the listener routes events to their client
+
+    @Param({"200"})
+    public long lookupMicros; // How long resolving an event's Guild takes
+
+    @Param({"100"})
+    public long handlerMicros; // How long a client takes to handle an event
+
+    private EventDispatcher dispatcher; // The dispatcher the events are published through
+    private Disposable subscription; // The listener routing the events
+    private ExecutorService guildPool; // Stands in for the Guilds' general thread pools
+    private final Map<Snowflake, Runnable> clients = new ConcurrentHashMap<>(); // Maps each Guild's ID to its handler
+    private volatile CountDownLatch routed; // Counted down each time the event loop is done with an event
+
+    /**
+     * Creates the dispatcher, the clients of every {@code Guild} and the listener routing events to them.
+     */
+    @Setup
+    public void setup() {
+        dispatcher = EventDispatcher.builder().build();
+        guildPool = Executors.newCachedThreadPool();
+        for (long i = 0; i < GUILDS; i++) {
+            clients.put(Snowflake.of(i), () -> park(handlerMicros));
+        }
+        boolean blocking = routing.equals("blocking");
+        subscription = dispatcher.on(SyntheticGuildEvent.class).subscribe(event -> {
+            if (blocking) {
+                park(lookupMicros);
+                clients.get(event.guildId).run();
+            } else {
+                guildPool.execute(clients.get(event.guildId));
+            }
+            routed.countDown();
+        });
+    }
+
+    /**
+     * Stops the listener, the dispatcher and the {@code Guild} pool.
+     */
+    @TearDown
+    public void tearDown() {
+        subscription.dispose();
+        dispatcher.shutdown();
+        guildPool.shutdownNow();
+    }
+
+    /**
+     * Publishes a burst of events spread over every {@code Guild} and waits until the event loop has routed them.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(BURST)
+    public void throughput() throws InterruptedException {
+        routed = new CountDownLatch(BURST);
+        for (int i = 0; i < BURST; i++) {
+            dispatcher.publish(new SyntheticGuildEvent(Snowflake.of(i % GUILDS)));
+        }
+        routed.await();
+    }
+
+    /**
+     * Publishes one event and waits until the event loop has routed it.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void latency() throws InterruptedException {
+        routed = new CountDownLatch(1);
+        dispatcher.publish(new SyntheticGuildEvent(Snowflake.of(0)));
+        routed.await();
+    }
+
+    /**
+     * Parks the current thread for the given time, standing in for a request or other work that blocks.
+     *
+     * @param micros How long to park for.
+     */
+    private static void park(long micros) {
+        long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        for (long left = end - System.nanoTime(); left > 0; left = end - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+
+    /**
+     * An event fired in a {@code Guild}, carrying only the {@code Guild's} ID.
+     */
+    public static final class SyntheticGuildEvent extends Event {
+        private final Snowflake guildId; // The ID of the Guild the event was fired in
+
+        /**
+         * Creates an event fired in the {@code Guild} with the given ID.
+         *
+         * @param guildId The ID of the {@code Guild}.
+         */
+        public SyntheticGuildEvent(Snowflake guildId) {
+            super(null, ShardInfo.create(0, 1));
+            this.guildId = guildId;
+        }
+    }
+}
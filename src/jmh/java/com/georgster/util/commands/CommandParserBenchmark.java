@@ -0,0 +1,136 @@
+package com.georgster.util.commands;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the compiled {@link CommandParser} against the {@link LegacyCommandParser} it replaced, on inputs
+ * representative of the {@code CoinFactoryCommand}, {@code CardCommand}, {@code EloCommand} and CS2 commands.
+ * <p>
+ * The legacy benchmark builds a new parser for every parse, as every execution used to through
+ * {@code ParseableCommand.getCommandParser()}, while the compiled benchmark parses with the one parser the
+ * {@code CommandRegistry} now builds for each command. Run with {@code mvn -P benchmarks package exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandParserBenchmark {
+    private static final Map<String, Case> CASES = Map.of(
+        "factory", new Case("!factory upgrades stats",
+            () -> new ParseBuilder("VO").withIdentifiers("stats", "mine", "s", "info", "i", "help").build(),
+            () -> legacy(new String[] {"VO"}, null, true, "stats", "mine", "s", "info", "i", "help")),
+        "card", new Case("!card market sell golden dragon",
+            () -> new CommandParser("VO"),
+            () -> legacy(new String[] {"VO"}, null, true)),
+        "elo", new Case("!elo leaderboard",
+            () -> new ParseBuilder("1O", "1O", "1O").withIdentifiers("rank", "rating", "r", "leaderboard", "lb", "top",
+                "battle", "fight", "duel", "history", "h", "battles", "stats", "statistics", "s").build(),
+            () -> legacy(new String[] {"1O", "1O", "1O"}, null, true, "rank", "rating", "r", "leaderboard", "lb", "top",
+                "battle", "fight", "duel", "history", "h", "battles", "stats", "statistics", "s")),
+        "cs2", new Case("!cs2 compare s1mple zywoo",
+            () -> new ParseBuilder("1R", "VO").withIdentifiers("link", "unlink", "help", "match", "stats", "compare", "history", "leaderboard", "lb")
+                .withRules("I", ">").build(),
+            () -> legacy(new String[] {"1R", "VO"}, new String[] {"I", ">"}, true, "link", "unlink", "help", "match", "stats", "compare", "history", "leaderboard", "lb")),
+        "cs2link", new Case("!cs2link Some_Faceit_Player",
+            () -> new ParseBuilder("1R").withoutAutoFormatting().build(),
+            () -> legacy(new String[] {"1R"}, null, false))
+    );
+
+    @Param({"factory", "card", "elo", "cs2", "cs2link"})
+    public String command; // The key of the case being measured
+
+    private String input; // The message parsed
+    private CommandParser compiled; // The parser built once for the command
+    private Supplier<LegacyCommandParser> legacyParser; // Builds the parser the command used to build per execution
+
+    /**
+     * Builds the compiled parser of the measured command once, as the {@code CommandRegistry} does.
+     */
+    @Setup
+    public void setup() {
+        Case benchmarkCase = CASES.get(command);
+        input = benchmarkCase.input;
+        compiled = benchmarkCase.compiled.get();
+        legacyParser = benchmarkCase.legacy;
+    }
+
+    /**
+     * Builds a legacy parser and parses the input with it, as every execution did before parsers were compiled.
+     *
+     * @return The parsed arguments.
+     */
+    @Benchmark
+    public List<String> legacy() {
+        return legacyParser.get().parse(input);
+    }
+
+    /**
+     * Parses the input with the command's compiled parser.
+     *
+     * @return The parsed arguments.
+     */
+    @Benchmark
+    public List<String> compiled() {
+        return compiled.parse(input).getArguments();
+    }
+
+    /**
+     * Builds a legacy parser with the given configuration.
+     *
+     * @param pattern The pattern of the parser.
+     * @param rules The rules of the parser, or {@code null} for none.
+     * @param autoFormat Whether the parser formats its input.
+     * @param identifiers The identifiers of the parser.
+     * @return The parser.
+     */
+    private static LegacyCommandParser legacy(String[] pattern, String[] rules, boolean autoFormat, String... identifiers) {
+        LegacyCommandParser parser = new LegacyCommandParser(pattern);
+        parser.addIdentifiers(identifiers);
+        if (rules != null) {
+            parser.setRules(rules);
+        }
+        if (!autoFormat) {
+            parser.disableAutoFormatting();
+        }
+        return parser;
+    }
+
+    /**
+     * A command's input and how to build its parsers.
+     */
+    private static final class Case {
+        private final String input; // The message parsed
+        private final Supplier<CommandParser> compiled; // Builds the compiled parser
+        private final Supplier<LegacyCommandParser> legacy; // Builds the legacy parser
+
+        /**
+         * Creates a case.
+         *
+         * @param input The message parsed.
+         * @param compiled Builds the compiled parser.
+         * @param legacy Builds the legacy parser.
+         */
+        private Case(String input, Supplier<CommandParser> compiled, Supplier<LegacyCommandParser> legacy) {
+            this.input = input;
+            this.compiled = compiled;
+            this.legacy = legacy;
+        }
+    }
+}
@@ -0,0 +1,823 @@
+package com.georgster.util.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.georgster.util.SoapUtility;
+import com.georgster.util.commands.exception.CommandParserException;
+import com.georgster.util.commands.exception.ParserFormatException;
+
+/**
+ * The {@link CommandParser} as it was before its pattern and rules were compiled, kept unchanged apart from returning
+ * the parsed arguments as a {@link List} so {@link CommandParserBenchmark} can measure the two side by side.
+ * <p>
+ * Like the original, a new instance was built by {@link com.georgster.ParseableCommand#getCommandParser()} on every
+ * execution, and every parse re-reads the pattern and rule Strings.
+ */
+final class LegacyCommandParser {
+    private static final List<String> AVAILABLE_RULES = List.of("X", "N", "T", "D", "Z", "C", "S", "F", "L", "M", "I", "<", ">");
+
+    private boolean autoFormat; //Whether or not the parser should automatically format the arguments
+    private List<String> rulesList; //A list of the rules split by spaces
+    private List<String> patternList; //A list of the pattern split by spaces
+    private List<String> identifiers; //A list of the identifiers
+
+    /**
+     * A context for an ongoing {@link LegacyCommandParser#parse(String)}.
+     */
+    protected final class ParseContext {
+        private String inputString;
+        private List<String> currentArgs;
+        private List<String> inputWords;
+
+        /**
+         * Creates a ParseContext from the provided input String.
+         * 
+         * @param input The string given to parse.
+         */
+        protected ParseContext(String input) {
+            this.inputString = input;
+            this.currentArgs = new ArrayList<>();
+            this.inputWords = new ArrayList<>(List.of(inputString.split(" ")));
+            for (int i = 0; i < patternList.size(); i++) {
+                currentArgs.add(" "); // Ensures there are elements at each index when assigning to prevent oob
+            }
+        }
+
+        /**
+         * Simply parses the input by splitting it by spaces and
+         * returns the result.
+         * 
+         * @param input The input to parse.
+         * @return A list of arguments split by spaces.
+         */
+        public static List<String> parseGeneric(String input) {
+            String[] split = input.substring(1).split(" ");
+            return new ArrayList<>(Arrays.asList(split));
+        }
+
+        /**
+         * Assigns the {@code arg} to the argument at the provided {@code index}.
+         * 
+         * @param arg The argument to assign.
+         * @param index The index to assign to.
+         */
+        protected void assign(String arg, int index) {
+            currentArgs.set(index, arg);
+        }
+
+        /**
+         * Returns the currently assigned arguments in this context.
+         * 
+         * @return The currently assigned arguments in this context.
+         */
+        protected List<String> getCurrentArgs() {
+            return currentArgs;
+        }
+
+        /**
+         * Returns the list of input "words" in this context.
+         * 
+         * @return The input "words" in this context.
+         */
+        protected List<String> getInputWords() {
+            return inputWords;
+        }
+
+        /**
+         * Returns if the {@code word} is part of an assigned argument in any way.
+         * If multiple duplicate words are present in the input String, this method
+         * will check how many of each word has been assigned.
+         * <p>
+         * For example, if the input String is "testing this system testing" and only
+         * one instance of "testing" has been assigned in the current arguments, this
+         * method will return false on "testing". However, if both instances of "testing"
+         * have been assigned, this method will return true on "testing".
+         * 
+         * @param word The word to check.
+         * @return True if the word is part of an assigned argument, false otherwise.
+         */
+        protected boolean isPartOfAssigned(String word) {
+            int currentWordFrequency = getCurrentWordFrequency(word);
+            int inputWordFrequency = getInputWordFrequency(word);
+            return currentWordFrequency == inputWordFrequency;
+        }
+
+        /**
+         * Returns the frequency of the provided {@code word} in the input words list.
+         * 
+         * @param word The word to check.
+         * @return The frequency of the provided {@code word} in the input words list.
+         */
+        protected int getInputWordFrequency(String word) {
+            int count = 0;
+            for (String inputWord : inputWords) {
+                if (inputWord.equals(word)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Returns the frequency of the provided {@code word} in the current arguments list.
+         * 
+         * @param word The word to check.
+         * @return The frequency of the provided {@code word} in the current arguments list.
+         */
+        protected int getCurrentWordFrequency(String word) {
+            int count = 0;
+            for (String currentArg : currentArgs) {
+                if (List.of(currentArg.split(" ")).contains(word)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Returns if the provided {@code word} is assigned to an argument.
+         * 
+         * @return True if the provided {@code word} is assigned to an argument, false otherwise.
+         */
+        protected boolean isAssigned(String word) {
+            return currentArgs.contains(word);
+        }
+
+        /**
+         * Returns if the argument at the provided index has been assigned.
+         * 
+         * @param index The index to check for.
+         * @return True if it has been assigned, false otherwise.
+         */
+        protected boolean isFilled(int index) {
+            return !currentArgs.get(index).equals(" ");
+        }
+
+        /**
+         * Returns the input string for this context.
+         * 
+         * @return The input String for this context.
+         */
+        protected String getInputString() {
+            return inputString;
+        }
+
+        /**
+         * Resets and unassigns the argument at the provided index.
+         * 
+         * @param index The index to reset.
+         */
+        protected void reset(int index) {
+            currentArgs.set(index, " ");
+        }
+
+        /**
+         * Finishes and cleans up the arguments in this context.
+         */
+        protected void finish() {
+            currentArgs.removeIf(arg -> arg.equals(" "));
+        }
+
+        /**
+         * Returns how many "words" are in the arguments from the starting to the ending index.
+         * 
+         * @param startIndex The index to start counting from (inclusive).
+         * @param endIndex The index to stop counting at (exclusive).
+         * @return The number of "words" in arguments in the index range.
+         */
+        protected int getWordCountBetween(int startIndex, int endIndex) {
+            int count = 0;
+            for (int i = startIndex; i < endIndex; i++) {
+                count += currentArgs.get(i).split(" ").length;
+            }
+            return count;
+        }
+
+        /**
+         * Returns a String composed of the "words" in the input words list from the starting to ending index.
+         * @param startIndex The index to start adding from (inclusive).
+         * @param endIndex The index to stop adding at (exclusive).
+         * @return A String of the words in the range combined (separated by spaces).
+         */
+        protected String getCombined(int start, int end) {
+            StringBuilder output = new StringBuilder();
+            for (int i = start; i < end; i++) {
+                output.append(inputWords.get(i) + " ");
+            }
+            return output.toString().trim();
+        }
+    }
+
+    /**
+     * Creates a new {@link CommandParser} from the provided pattern.
+     * 
+     * @param pattern The pattern for the parser to use when parsing.
+     * @throws CommandParserException If the pattern is in an invalid format.
+     * @see {@link CommandParser} For pattern rules
+     */
+    LegacyCommandParser(String... pattern) throws CommandParserException {
+        this.patternList = new ArrayList<>();
+
+        validatePattern(pattern);
+        for (String argDescriptor : pattern) {
+            this.patternList.add(argDescriptor.toUpperCase());
+        }
+
+        this.rulesList = new ArrayList<>();
+        this.identifiers = new ArrayList<>();
+        this.autoFormat = true;
+    }
+
+    /**
+     * Validates a {@link CommandParser} pattern, throwing a {@link ParserFormatException} with a descriptive message if invalid.
+     * 
+     * @param pattern The pattern to validate.
+     * @throws ParserFormatException A {@link CommandParserException} with a descriptive message if the pattern is in an invalid format.
+     */
+    private void validatePattern(String... pattern) throws ParserFormatException {
+        if (pattern.length < 1) {
+            throw new ParserFormatException("Pattern length must be greater than 1");
+        }
+
+        for (String argDescriptor : pattern) {
+            if (argDescriptor.length() > 2) {
+                throw new ParserFormatException("Argument Descriptor '" + argDescriptor + "'' may not have more than one count descriptor and one requirement descriptor.");
+            }
+            try {
+                String argCount = argDescriptor.substring(0, 1);
+                String requirementStatus = argDescriptor.substring(1, 2);
+
+                if (!((argCount.equalsIgnoreCase("V") || Integer.parseInt(argCount) > 0) && (requirementStatus.equalsIgnoreCase("O") || requirementStatus.equalsIgnoreCase("R")))) {
+                    throw new ParserFormatException(pattern);
+                }
+            } catch (Exception e) {
+                throw new ParserFormatException(pattern);
+            }
+        }
+    }
+
+    /**
+     * Validates a {@link CommandParser} rules, throwing a {@link ParserFormatException} with a descriptive message if invalid.
+     * 
+     * @param rules The rules to validate.
+     * @throws ParserFormatException A {@link CommandParserException} with a descriptive message if the rules are in an invalid format.
+     */
+    private void validateRules(String... rules) throws ParserFormatException {
+        if (rules.length < 1 || rules.length != patternList.size()) {
+            throw new ParserFormatException("Rules must be provided for all arguments for the pattern for this parser. This parser has " + patternList.size() + " patterned arguments, with " + rules.length + " rules provided.");
+        }
+
+        for (String rule : rules) {
+            try {
+                if (!AVAILABLE_RULES.contains(rule)) {
+                    throw new ParserFormatException("Rule " + rule + "is not a valid rule. Available rules are: " + AVAILABLE_RULES.toString() + "."); 
+                }
+            } catch (Exception e) {
+                throw new ParserFormatException(rules);
+            }
+        }
+    }
+
+    /**
+     * Sets the argument rules for this {@link CommandParser}.
+     * <p>
+     * Rules can be combined for "and" functionality. Combined rules should simply all be together in a single String.
+     * <p>
+     * Valid rules are:
+     * <ul>
+     * <li>"X" - No Rule</li>
+     * <li>"N" - Must be a number</li>
+     * <li>"T" - Must be a time</li>
+     * <li>"D" - Must be a date</li>
+     * <li>"Z" - Must be a future time increment</li>
+     * <li>"C" - Must contain a character</li>
+     * <li>"S" - Must be only characters</li>
+     * <li>"F" - Must be the first argument</li>
+     * <li>"L" - Must be the last argument</li>
+     * <li>"M" - Must be in the middle (not first nor last)</li>
+     * <li>"I" - Must be an identifier</li>
+     * <li>"<" - Must come directly before an identifier</li>
+     * <li>">" - Must come directly after an identifier</li>
+     * </ul>
+     * 
+     * @param rules The rules for this parser.
+     * @throws CommandParserException If the rules are in an invalid format or an invalid rule is input.
+     */
+    public void setRules(String... rules) throws CommandParserException {
+        validateRules(rules);
+
+        rulesList = new ArrayList<>();
+
+        for (String rule : rules) {
+            this.rulesList.add(rule.toUpperCase());
+        }
+    }
+
+    /**
+     * Returns if the {@code arg} matches the {@code rule} for given the provided {@link ParseContext}.
+     * 
+     * @param arg The arg to verify rules for.
+     * @param rule The rule to verify.
+     * @param currentParse The current parse context.
+     * @return True if the rule matches, false otherwise
+     */
+    private boolean matchesRule(String arg, String rule, ParseContext currentParse) {
+        if (rule.contains("X")) {
+            return true;
+        }
+
+        if (rule.contains("N") && !isNumber(arg)) {
+            return false;
+        }
+
+        if (rule.contains("T") && !isTime(arg)) {
+            return false;
+        }
+
+        if (rule.contains("D") && !isDate(arg)) {
+            return false;
+        }
+
+        if (rule.contains("Z") && !isFutureTimeIncrement(arg)) {
+            return false;
+        }
+
+        if (rule.contains("C") && !hasCharacter(arg)) {
+            return false;
+        }
+
+        if (rule.contains("S") && !isOnlyCharacters(arg)) {
+            return false;
+        }
+
+        if (rule.contains("F") && !isFirst(arg, currentParse)) {
+            return false;
+        }
+
+        if (rule.contains("L") && !isLast(arg, currentParse)) {
+            return false;
+        }
+
+        if (rule.contains("M") && !isMiddle(arg, currentParse)) {
+            return false;
+        }
+
+        if (rule.contains("I") && !isIdentifier(arg)) {
+            return false;
+        }
+
+        if (rule.contains("<") && !isBeforeIdentifier(arg, currentParse, identifiers)) {
+            return false;
+        }
+
+        if (rule.contains(">") && !isAfterIdentifier(arg, currentParse, identifiers)) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds identifiers to this parser.
+     * 
+     * @param identifiers The identifiers to add.
+     * @see {@link CommandParser} for identifier information.
+     */
+    public void addIdentifiers(String... identifiers) {
+        for (String identifier : identifiers) {
+            this.identifiers.add(identifier);
+        }
+    }
+
+    /**
+     * Returns the extracted String representing the "count" part of an argument pattern.
+     * 
+     * @param argPattern The pattern to extract from.
+     * @return The "count" part of an argument pattern.
+     */
+    private String getPatternCount(String argPattern) {
+        return argPattern.substring(0, 1);
+    }
+
+    /**
+     * Returns the extracted String representing the "required" part of an argument pattern.
+     * 
+     * @param argPattern The pattern to extract from.
+     * @return The "required" part of an argument pattern.
+     */
+    private String getPatternRequired(String argPattern) {
+        return argPattern.substring(1, 2);
+    }
+
+    /**
+     * Returns true if this parser has at least one required argument in its pattern, false otherwise.
+     * 
+     * @return True if this parser has at least one required argument in its pattern, false otherwise.
+     */
+    private boolean hasRequiredArg() {
+        for (String pattern : patternList) {
+            if (pattern.contains("R")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the given input string based on this parser's pattern, rules and identifiers.
+     * The first arguments which match this parser's configuration will be returned.
+     * <p>
+     * <b>Note:</b> If this parser's pattern has no required arguments, and {@code input} is
+     * empty, the result is an empty argument List, as no pattern or rules were violated.
+     * <p>
+     * If this parser's pattern has required arguments or rules which are violated during parsing,
+     * an {@link IllegalArgumentException} will be thrown.
+     * 
+     * @param input The String-based input to parse.
+     * @return The parsed arguments.
+     */
+    public List<String> parse(String input) throws CommandParserException {
+        if (input.contains(" ")) {
+            input = input.substring(input.indexOf(' ') + 1);
+        } else {
+            input = "";
+        }
+
+        if (input.isEmpty()) {
+            if (!hasRequiredArg()) {
+                return new ArrayList<>();
+            } else {
+                throw new IllegalArgumentException("Input " + input + " does not match pattern " + patternList);
+            }
+        }
+
+        if (autoFormat) {
+            input = input.toLowerCase().trim();
+        }
+
+        if (rulesList.isEmpty()) {
+            patternList.forEach(s -> rulesList.add("X"));
+        }
+
+        ParseContext currentParse = new ParseContext(input);
+
+        parseRequired(currentParse);
+        parseOptional(currentParse);
+        fillAllVariableArgs(currentParse);
+
+        currentParse.finish();
+
+        return currentParse.getCurrentArgs();
+    }
+
+    /**
+     * Parses the required arguments of the parser and returns the resulting
+     * {@link ParseContext}. If some required arguments cannot be assigned, a
+     * {@link CommandParserException} is thrown.
+     * 
+     * @param currentParse The current parse conrtext.
+     * @return The resulting parse context.
+     * @throws CommandParserException if a required argument couldn't be parsed.
+     */
+    private ParseContext parseRequired(ParseContext currentParse) throws CommandParserException {
+        List<String> all = currentParse.getInputWords();
+
+        for (int j = 0; j < patternList.size(); j++) {
+            String argPattern = patternList.get(j);
+            String associatedRule = rulesList.get(j);
+
+            String count = getPatternCount(argPattern);
+            String required = getPatternRequired(argPattern);
+
+            if (required.equals("R")) {
+                for (int i = 0; i < all.size(); i++) {
+                    int requiredSpaces = 0;
+                    if (count.equals("V")) {
+                        requiredSpaces = 1;
+                    } else {
+                        requiredSpaces = Integer.parseInt(count);
+                    }
+
+                    try {
+                        String checkedArg = currentParse.getCombined(i, i + requiredSpaces);
+                        if (matchesRule(checkedArg, associatedRule, currentParse)) {
+                            if (currentParse.isAssigned(checkedArg)) {
+                                if (reassign(currentParse.getCurrentArgs().indexOf(checkedArg), currentParse)) {
+                                    break;
+                                } else {
+                                    throw new IllegalArgumentException("Input " + currentParse.getInputString() + " does not match pattern " + patternList);
+                                }
+                            } else {
+                                currentParse.assign(checkedArg, j);
+                                break;
+                            }
+                        } else if (i == (all.size() - 1)) {
+                            throw new IllegalArgumentException("Input " + currentParse.getInputString() + " does not match pattern " + patternList);
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalArgumentException("Input " + currentParse.getInputString() + " does not match pattern " + patternList);
+                    }
+                }
+            }
+        }
+        return currentParse;
+    }
+
+    /**
+     * Attempts to reassign the argument at the provided index to a new argument index, if possible
+     * based on the given {@link ParseContext}, returning true if successful and false otherwise.
+     * 
+     * @param index The index to reassign.
+     * @param currentParse The context of the current parse.
+     * @return True if successful and false otherwise.
+     */
+    private boolean reassign(int index, ParseContext currentParse) {
+        String currentArg = currentParse.getCurrentArgs().get(index);
+        int requiredSpaces = currentArg.split(" ").length;
+
+        for (int i = 0; i < patternList.size(); i++) {
+            String associatedRule = rulesList.get(i);
+            String count = getPatternCount(patternList.get(i));
+            int ruleCount = 0;
+
+            if (count.equals("V")) {
+                ruleCount = 1;
+            } else {
+                ruleCount = Integer.parseInt(count);
+            }
+
+            if (ruleCount == requiredSpaces && i != index && matchesRule(currentArg, associatedRule, currentParse)) {
+                if (currentParse.isFilled(i)) {
+                    return reassign(i, currentParse);
+                } else {
+                    currentParse.assign(currentArg, i);
+                    currentParse.reset(index);
+                    return fill(index, currentArg.split(" ").length, currentParse);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Attempts to fill the argument at the provided index with a different argument, if possible
+     * based on the given {@link ParseContext}, returning true if successful and false otherwise.
+     * 
+     * @param index The index to fill.
+     * @param currentParse The context of the current parse.
+     * @return True if successful and false otherwise.
+     */
+    private boolean fill(int index, int requiredSpaces, ParseContext currentParse) {
+        List<String> all = currentParse.getInputWords();
+
+        for (int i = 0; i < all.size(); i++) {
+            String checkedArg = currentParse.getCombined(i, i + requiredSpaces);
+
+            if (!currentParse.isAssigned(checkedArg) && matchesRule(checkedArg, rulesList.get(index), currentParse)) {
+                currentParse.assign(checkedArg, index);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses the optional arguments of the parser and returns the resulting
+     * {@link ParseContext}.
+     * 
+     * @param currentParse The current parse conrtext.
+     * @return The resulting parse context.
+     */
+    private ParseContext parseOptional(ParseContext currentParse) {
+        List<String> all = currentParse.getInputWords();
+
+        for (int j = 0; j < patternList.size(); j++) {
+            String argPattern = patternList.get(j);
+            String associatedRule = rulesList.get(j);
+
+            String count = getPatternCount(argPattern);
+            String required = getPatternRequired(argPattern);
+
+            if (required.equals("O")) {
+                for (int i = 0; i < all.size(); i++) {
+                    int requiredSpaces = 0;
+                    if (count.equals("V")) {
+                        requiredSpaces = 1;
+                    } else {
+                        requiredSpaces = Integer.parseInt(count);
+                    }
+
+                    try {
+                        String checkedArg = currentParse.getCombined(i, i + requiredSpaces);
+                        if (matchesRule(checkedArg, associatedRule, currentParse)) {
+                            if (currentParse.isAssigned(checkedArg)) {
+                                if (reassign(currentParse.getCurrentArgs().indexOf(checkedArg), currentParse)) {
+                                    break;
+                                }
+                            } else {
+                                currentParse.assign(checkedArg, j);
+
+                                break;
+                            }
+                        } else if (i == (all.size() - 1)) {
+                            break;
+                        }
+                    } catch (Exception e) {
+                        return currentParse;
+                    }
+                }
+            }
+        }
+        return currentParse;
+    }
+
+    /**
+     * Fills all variable arguments with unassigned words, given they are in sequence and
+     * possible to fill based on the given {@link ParseContext} and returns the resulting {@link ParseContext}.
+     * 
+     * @param currentParse The current parse conrtext.
+     * @return The resulting parse context.
+     */
+    private ParseContext fillAllVariableArgs(ParseContext currentParse) {
+        List<String> all = currentParse.getInputWords();
+        List<String> current = currentParse.getCurrentArgs();
+
+        for (int i = 0; i < patternList.size(); i++) {
+            if (i >= all.size()) { // Edge case where variable optional arguments in the latter half of a pattern would cause oob on short inputs
+                return currentParse;
+            }
+            String argPattern = patternList.get(i);
+            String associatedRule = rulesList.get(i);
+
+            String count = getPatternCount(argPattern);
+            int startingIndex = -1;
+            if (currentParse.isFilled(i)) {
+                startingIndex = all.indexOf(current.get(i));
+            } else {
+                startingIndex = currentParse.getWordCountBetween(0, i + 1);
+            }
+
+            if (count.equals("V")) {
+                int x = 2;
+                for (int j = startingIndex; j < all.size() - 1; j++) {
+                    String word = all.get(j + 1);
+
+                    if (!currentParse.isPartOfAssigned(word) && !isIdentifier(word)) {
+                        String checkedArg = currentParse.getCombined(startingIndex, startingIndex + x);
+                        if (matchesRule(checkedArg, associatedRule, currentParse)) {
+                            currentParse.assign(checkedArg, i);
+                        }
+                    } else {
+                        break;
+                    }
+
+                    x++;
+                }
+            }
+        }
+
+        return currentParse;
+    }
+
+    /**
+     * Returns true if the {@code word} is an identifier, false otherwise.
+     * 
+     * @param word The word to check.
+     * @return true if the {@code word} is an identifier, false otherwise.
+     */
+    private boolean isIdentifier(String word) {
+        return identifiers.contains(word);
+    }
+
+    /**
+     * Returns the pattern of this parser as a list.
+     * 
+     * @return The pattern of this parser as a list.
+     */
+    public List<String> getPattern() {
+        return patternList;
+    }
+
+    /**
+     * Returns the rules of this parser as a list.
+     * 
+     * @return The rules of this parser as a list.
+     */
+    public List<String> getRules() {
+        return rulesList;
+    }
+
+    /**
+     * Disables this parser's default auto-formatting when parsing.
+     */
+    public void disableAutoFormatting() {
+        this.autoFormat = false;
+    }
+
+    // The rule checks of the original ParserRulesAdvice
+
+    private static boolean isNumber(String arg) {
+        try {
+            Integer.parseInt(arg);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isTime(String arg) {
+        try {
+            SoapUtility.timeConverter(arg);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDate(String arg) {
+        try {
+            SoapUtility.convertDate(arg);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean isFutureTimeIncrement(String arg) {
+        try {
+            SoapUtility.calculateFutureDateTime(arg);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean hasCharacter(String arg) {
+        for (int i = 0; i < arg.length(); i++) {
+            if (Character.isLetter(arg.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOnlyCharacters(String arg) {
+        for (int i = 0; i < arg.length(); i++) {
+            if (!Character.isLetter(arg.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFirst(String arg, ParseContext parse) {
+        return parse.getInputWords().indexOf(arg.split(" ")[0]) != 0;
+    }
+
+    private static boolean isLast(String arg, ParseContext parse) {
+        List<String> all = parse.getInputWords();
+        return all.indexOf(arg.split(" ")[0]) != (all.size() - 1);
+    }
+
+    private static boolean isMiddle(String arg, ParseContext parse) {
+        List<String> all = parse.getInputWords();
+        int argIndex = all.indexOf(arg.split(" ")[0]);
+        return argIndex == 0 || argIndex == (all.size() - 1);
+    }
+
+    private static boolean isBeforeIdentifier(String arg, ParseContext parse, List<String> identifiers) {
+        List<String> all = parse.getInputWords();
+        try {
+            String[] argWords = arg.split(" ");
+            int argIndex = all.indexOf(argWords[0]);
+            int increment = argWords.length;
+            return identifiers.contains(all.get(argIndex + increment));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static boolean isAfterIdentifier(String arg, ParseContext parse, List<String> identifiers) {
+        List<String> all = parse.getInputWords();
+        try {
+            int argIndex = all.indexOf(arg.split(" ")[0]);
+            for (String identifier : identifiers) {
+                if (parse.getInputString().contains(identifier)) {
+                    String[] identifierWords = identifier.split(" ");
+                    int identifierIndex = all.indexOf(identifierWords[identifierWords.length - 1]);
+                    // Return if the input arg is after the identifier using the last word of the identifier
+                    if (argIndex > identifierIndex && identifierIndex != -1 && argIndex != -1) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.georgster.util.thread;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the platform thread pools of {@link ThreadPoolFactory} against its virtual thread mode under a synthetic
+ * load of blocking tasks, reporting how many platform threads (including virtual thread carriers) and how much
+ * memory each mode needed.
+ * <p>
+ * Every one of {@code guilds} guilds schedules {@code tasks} general, {@code tasks} event and {@code tasks} command
+ * tasks at once, each of which sleeps for {@code sleepMillis} as a stand-in for a blocking Discord, Mongo or HTTP call.
+ * Each mode must be run in its own JVM, as thread pool managers are created once:
+ * <pre>
+ * java -cp &lt;classpath&gt; com.georgster.util.thread.ThreadModeComparison platform|virtual [guilds] [tasks] [sleepMillis]
+ * </pre>
+ * Unlike the JMH benchmarks, this measures resources rather than time, so it is a plain program.
+ */
+public final class ThreadModeComparison {
+    private static final String CARRIER_PREFIX = "ForkJoinPool-1-worker-"; // The name of the default virtual thread scheduler's carriers
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ThreadModeComparison() {
+        throw new IllegalStateException("Benchmark class");
+    }
+
+    /**
+     * Runs the synthetic load in the given mode and prints the resources it needed.
+     *
+     * @param args The mode, then optionally the number of guilds, tasks of each kind per guild and milliseconds each task sleeps.
+     * @throws InterruptedException If interrupted while waiting for the load to finish.
+     * @throws IOException If the process' memory usage could not be read.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        boolean virtual = args.length > 0 && args[0].equals("virtual");
+        int guilds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int tasks = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        long sleepMillis = args.length > 3 ? Long.parseLong(args[3]) : 50;
+
+        if (virtual && !ThreadPoolFactory.useVirtualThreads()) {
+            throw new IllegalStateException("Virtual threads are not supported by this JVM");
+        }
+        for (int i = 0; i < guilds; i++) {
+            ThreadPoolFactory.createThreadPoolManager(String.valueOf(i), "GUILD" + i);
+        }
+
+        CountDownLatch done = new CountDownLatch(guilds * tasks * 3);
+        AtomicInteger maxCarriers = new AtomicInteger();
+        Runnable task = () -> {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        };
+        long start = System.nanoTime();
+        for (int i = 0; i < guilds; i++) {
+            String guildId = String.valueOf(i);
+            for (int j = 0; j < tasks; j++) {
+                ThreadPoolFactory.scheduleGeneralTask(guildId, task);
+                ThreadPoolFactory.scheduleEventTask(guildId, task);
+                ThreadPoolFactory.scheduleCommandTask(guildId, "USER" + j, task);
+            }
+        }
+        long heapPeak = 0;
+        while (!done.await(10, TimeUnit.MILLISECONDS)) {
+            maxCarriers.accumulateAndGet(countCarriers(), Math::max);
+            heapPeak = Math.max(heapPeak, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("mode=%s guilds=%d tasks=%d elapsed=%dms peakPlatformThreads=%d carriers=%d heapPeak=%dMB rssPeak=%s%n",
+            virtual ? "virtual" : "platform", guilds, guilds * tasks * 3, elapsed,
+            ManagementFactory.getThreadMXBean().getPeakThreadCount(), maxCarriers.get(), heapPeak >> 20, readPeakRss());
+        System.exit(0);
+    }
+
+    /**
+     * Counts the carrier threads of the default virtual thread scheduler that currently exist.
+     *
+     * @return The number of carrier threads.
+     */
+    private static int countCarriers() {
+        return (int) Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().startsWith(CARRIER_PREFIX)).count();
+    }
+
+    /**
+     * Reads the peak resident set size of this process, which includes every platform thread's stack.
+     *
+     * @return The peak resident set size, or {@code "n/a"} if it is not available on this platform.
+     * @throws IOException If the process status could not be read.
+     */
+    private static String readPeakRss() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "n/a";
+        }
+        return Files.readAllLines(status).stream().filter(line -> line.startsWith("VmHWM:"))
+            .map(line -> line.substring("VmHWM:".length()).trim()).findFirst().orElse("n/a");
+    }
+}
@@ -6,6 +6,11 @@ import java.nio.file.Path;
 
 
 import com.georgster.control.SoapClientManager;
+import com.georgster.database.DatabaseService;
+import com.georgster.database.Storage;
+import com.georgster.database.embedded.EmbeddedStorageProvider;
+import com.georgster.logs.MetricsReporter;
+import com.georgster.util.thread.ThreadPoolFactory;
 
 /**
  * The main class for SoapBot.
@@ -22,6 +27,22 @@ public class App {
           System.exit(1);
         }
 
+        if ("embedded".equalsIgnoreCase(System.getProperty("soap.storage"))) {
+          /* Stores everything on the local disk rather than in MongoDB, run with -Dsoap.storage=embedded */
+          Storage.use(new EmbeddedStorageProvider(Path.of(System.getProperty("user.dir"), "storage"), EmbeddedStorageProvider.DEFAULT_COMPACTION_INTERVAL));
+        } else if (Boolean.getBoolean("soap.writebehind")) {
+          /* Buffers database updates and writes them in batches off the command threads, run with -Dsoap.writebehind=true */
+          DatabaseService.enableWriteBehind(DatabaseService.DEFAULT_FLUSH_INTERVAL, DatabaseService.DEFAULT_FLUSH_BATCH_SIZE);
+          MetricsReporter.register(DatabaseService::getWriteBehindMetrics);
+        }
+
+        if ("virtual".equalsIgnoreCase(System.getProperty("soap.threads"))) {
+          /* Runs guild tasks on virtual threads, run with -Dsoap.threads=virtual (and --enable-preview on Java 19 and 20) */
+          ThreadPoolFactory.useVirtualThreads();
+        }
+
+        MetricsReporter.start(MetricsReporter.DEFAULT_INTERVAL); //Periodically logs the metrics of SOAP Bot's systems
+
         /* Creates a manager that will control the SoapClient for each Guild */
         SoapClientManager soapManager = new SoapClientManager(token);
         soapManager.listenToEvents(); //Subscribes the manager to Discord's event stream
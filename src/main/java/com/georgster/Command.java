@@ -105,4 +105,17 @@ public interface Command {
     default boolean shouldDefer() {
         return false;
     }
+
+    /**
+     * Returns how many tokens executing this {@link Command} takes from its user's and {@code Guild's} rate limits.
+     * <p>
+     * Most {@link Command Commands} cost one token. {@link Command Commands} which call external APIs or do a lot of
+     * work on each execution should cost more, so that users can run them less often than cheap ones.
+     * 
+     * @return How many tokens executing this {@link Command} costs, at least one.
+     * @see com.georgster.control.util.CommandLimiter CommandLimiter
+     */
+    default int getCost() {
+        return 1;
+    }
 }
@@ -1,10 +1,15 @@
 package com.georgster.coinfactory.model;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
+import com.georgster.coinfactory.model.upgrades.ProductionPlan;
+import com.georgster.coinfactory.model.upgrades.tracks.FactoryUpgradeRegistry;
 import com.georgster.coinfactory.model.upgrades.tracks.FactoryUpgradeTrack;
 import com.georgster.coinfactory.model.upgrades.tracks.FactoryUpgradeTracks;
 import com.georgster.control.manager.Manageable;
@@ -27,9 +32,16 @@ import discord4j.rest.util.Color;
  * The {@link CoinFactory} will produce coins based on its current {@link FactoryUpgrade FactoryUpgrades} and {@link #getinvestedCoins() production value} each production cycle.
  * <p>
  * {@link FactoryUpgrade FactoryUpgrades} can be purchased and applied to the factory to increase its production rate and will be processed in the order maintained in the {@link #getUpgrades() upgrades} list.
+ * <p>
+ * Production accrues lazily. The factory stores its invested coins as of the {@link #getLastProcessedCycle() last processed cycle},
+ * and the coins produced by every cycle since are computed when the factory is read, then {@link #settle() settled} into the
+ * stored coins before anything which changes production is modified. As each cycle is reproducible, a factory nobody looks at costs nothing.
  */
 public final class CoinFactory implements Manageable {
     private final CoinFactoryContext context; // The context of the factory
+    private transient long pendingCoins; // The coins produced since the last processed cycle, up to pendingThrough
+    private transient long pendingThrough; // The cycle pendingCoins has been computed up to, 0 if not computed
+    private transient ProductionPlan plan; // The compiled production of the current upgrades and prestige, null until needed
 
     /**
      * Constructs a new {@link CoinFactory} with the given member id.
@@ -38,6 +50,7 @@ public final class CoinFactory implements Manageable {
      */
     public CoinFactory(String memberId) {
         this.context = new CoinFactoryContext(memberId);
+        this.context.setLastProcessedCycle(getCurrentCycle()); // Starts producing from the next cycle
     }
 
     /**
@@ -62,17 +75,102 @@ public final class CoinFactory implements Manageable {
     }
 
     /**
-     * Processes the coin production of the factory based on its current {@link FactoryUpgrade FactoryUpgrades}.
+     * Settles the coins produced by every production cycle since the {@link #getLastProcessedCycle() last processed cycle}
+     * up to and including the current one into the factory's {@link #getInvestedCoins() invested coins}.
      * <p>
-     * This method will apply all upgrades to the current {@link #getinvestedCoins() production value} and return the new {@link CoinProductionState}.
+     * Every method which changes the coins or production of the factory settles it first, so past cycles are always
+     * produced with the upgrades the factory had at the time.
      * 
-     * @return the new {@link CoinProductionState} of the factory after applying all upgrades.
+     * @return the number of coins settled.
      */
-    public CoinProductionState process() {
-        CoinProductionState state = new CoinProductionState(context, true);
-        state.processUpgrades();
-        context.addInvestedCoins(state.getWorkingProductionValue());
-        return state;
+    public synchronized long settle() {
+        long cycle = getCurrentCycle();
+        if (context.getLastProcessedCycle() >= cycle) {
+            return 0;
+        }
+
+        long produced = getPendingCoins(cycle);
+        context.addInvestedCoins(produced);
+        context.setLastProcessedCycle(cycle);
+        pendingCoins = 0;
+        pendingThrough = cycle;
+        return produced;
+    }
+
+    /**
+     * Returns the coins produced by every production cycle after the {@link #getLastProcessedCycle() last processed cycle}
+     * up to and including the given one, computing only the cycles which have not been computed before.
+     * <p>
+     * A factory which has never been processed (such as one stored before cycles were tracked) has produced nothing,
+     * and starts producing once it is {@link #settle() settled}.
+     * 
+     * @param cycle the index of the cycle to compute up to.
+     * @return the coins produced since the last processed cycle.
+     */
+    private long getPendingCoins(long cycle) {
+        long lastCycle = context.getLastProcessedCycle();
+        if (lastCycle <= 0 || lastCycle >= cycle) {
+            return 0;
+        }
+
+        if (pendingThrough < lastCycle || pendingThrough > cycle) {
+            pendingCoins = 0;
+            pendingThrough = lastCycle;
+        }
+        if (pendingThrough < cycle) {
+            pendingCoins += getProductionPlan().produce(pendingThrough, cycle);
+            pendingThrough = cycle;
+        }
+        return pendingCoins;
+    }
+
+    /**
+     * Returns the index of the last production cycle this factory was processed for, or 0 if it has never been processed.
+     * 
+     * @return the index of the last production cycle this factory was processed for.
+     */
+    public long getLastProcessedCycle() {
+        return context.getLastProcessedCycle();
+    }
+
+    /**
+     * Returns the index of the production cycle containing the given moment. Cycles start on each
+     * {@link UserProfileManager#FACTORY_PROCESSING_INTERVAL} boundary since the epoch, so every factory shares them.
+     * 
+     * @param epochMillis the moment in milliseconds since the epoch.
+     * @return the index of the cycle containing the moment.
+     */
+    public static long getCycle(long epochMillis) {
+        return epochMillis / UserProfileManager.FACTORY_PROCESSING_INTERVAL;
+    }
+
+    /**
+     * Returns the index of the current production cycle.
+     * 
+     * @return the index of the current production cycle.
+     * @see #getCycle(long)
+     */
+    public static long getCurrentCycle() {
+        return getCycle(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the moment the given production cycle starts, in the bot's timezone.
+     * 
+     * @param cycle the index of the cycle.
+     * @return the moment the cycle starts.
+     */
+    public static LocalDateTime getCycleTime(long cycle) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(cycle * UserProfileManager.FACTORY_PROCESSING_INTERVAL), ZoneId.of("America/New_York"));
+    }
+
+    /**
+     * Returns the moment the next production cycle starts.
+     * 
+     * @return the moment the next production cycle starts as a {@link DateTimed}.
+     */
+    public static DateTimed getNextCycleTime() {
+        return DateTimed.fromLocalDateTime(getCycleTime(getCurrentCycle() + 1));
     }
 
     /**
@@ -89,20 +187,44 @@ public final class CoinFactory implements Manageable {
 
     /**
      * Returns how many coins this factory produces each production cycle based on its current {@link FactoryUpgrade FactoryUpgrades} and {@link #getinvestedCoins() production value}
-     * based on a {@link #simulateProductionCycle() simulated production cycle}.
+     * based on the simulated production cycle of its {@link #getProductionPlan() production plan}.
      * 
      * @return how many coins this factory produces each production cycle.
      */
     public long getProductionRateValue() {
-        return simulateProductionCycle().getWorkingProductionValue();
+        return getProductionPlan().getSimulatedWorkingValue();
+    }
+
+    /**
+     * Returns the {@link ProductionPlan} of this factory's current {@link FactoryUpgrade FactoryUpgrades} and prestige,
+     * compiling it if they have changed since it was last compiled.
+     * 
+     * @return the {@link ProductionPlan} of this factory.
+     */
+    public synchronized ProductionPlan getProductionPlan() {
+        if (plan == null) {
+            plan = new ProductionPlan(context);
+        }
+        return plan;
     }
 
     /**
-     * Returns the current production value of the factory (aka the number of coins invested).
+     * Returns the current production value of the factory (aka the number of coins invested),
+     * including the coins produced since the {@link #getLastProcessedCycle() last processed cycle}.
      * 
      * @return the current production value of the factory.
      */
-    public long getInvestedCoins() {
+    public synchronized long getInvestedCoins() {
+        return context.getInvestedCoins() + getPendingCoins(getCurrentCycle());
+    }
+
+    /**
+     * Returns the invested coins of the factory as of the {@link #getLastProcessedCycle() last processed cycle},
+     * which is what is stored alongside it.
+     * 
+     * @return the invested coins of the factory as of the last processed cycle.
+     */
+    public long getSettledCoins() {
         return context.getInvestedCoins();
     }
 
@@ -152,30 +274,39 @@ public final class CoinFactory implements Manageable {
      * @throws IllegalArgumentException if the upgrade with the given name and reward track name does not exist.
      * @throws InsufficientCoinsException if the factory does not have enough coins to purchase the upgrade.
      */
-    public void purchaseUpgrade(String rewardTrackName, String upgradeName) throws IllegalArgumentException, InsufficientCoinsException {
-        FactoryUpgrade upgrade = FactoryUpgradeTracks.getUpgrade(rewardTrackName, upgradeName);
+    public synchronized void purchaseUpgrade(String rewardTrackName, String upgradeName) throws IllegalArgumentException, InsufficientCoinsException {
+        settle();
+        FactoryUpgrade upgrade = FactoryUpgradeRegistry.getUpgrade(rewardTrackName, upgradeName);
         if (getInvestedCoins() < upgrade.getCost(getPrestige())) {
             throw new InsufficientCoinsException("Cannot purchase upgrade " + upgrade.getName() + " with cost " + upgrade.getCost(getPrestige()) + " when the factory has only produced " + getInvestedCoins() + " coins.");
         } else {
             context.removeInvestedCoins(upgrade.getCost(getPrestige()));
-            upgrade.markAsOwned();
             context.addUpgrade(upgrade);
+            plan = null;
         }
     }
 
     /**
      * Purchases the {@link FactoryUpgrade} using the factory's {@link #getinvestedCoins() invested coins}.
+     * <p>
+     * The given upgrade is marked as owned, and the factory stores the shared instance from the {@link FactoryUpgradeRegistry}.
      * 
      * @param upgrade the upgrade to purchase.
+     * @throws IllegalArgumentException if the upgrade is not an available upgrade.
      * @throws InsufficientCoinsException if the factory does not have enough coins to purchase the upgrade.
      */
-    public void purchaseUpgrade(FactoryUpgrade upgrade) throws InsufficientCoinsException {
+    public synchronized void purchaseUpgrade(FactoryUpgrade upgrade) throws IllegalArgumentException, InsufficientCoinsException {
+        settle();
+        FactoryUpgrade sharedUpgrade = FactoryUpgradeRegistry.getUpgrade(upgrade);
         if (getInvestedCoins() < upgrade.getCost(getPrestige())) {
             throw new InsufficientCoinsException("Cannot purchase upgrade " + upgrade.getName() + " with cost " + upgrade.getCost(getPrestige()) + " when the factory has only produced " + getInvestedCoins() + " coins.");
         } else {
             context.removeInvestedCoins(upgrade.getCost(getPrestige()));
-            upgrade.markAsOwned();
-            context.addUpgrade(upgrade);
+            if (upgrade != sharedUpgrade) {
+                upgrade.markAsOwned();
+            }
+            context.addUpgrade(sharedUpgrade);
+            plan = null;
         }
     }
 
@@ -186,12 +317,13 @@ public final class CoinFactory implements Manageable {
      * @param upgradeName the name of the upgrade to refund.
      * @throws IllegalArgumentException if the upgrade with the given name is not owned by the factory or one does not exist.
      */
-    public void refundUpgrade(String rewardTrackName, String upgradeName) throws IllegalArgumentException {
-        FactoryUpgrade upgrade = FactoryUpgradeTracks.getUpgrade(rewardTrackName, upgradeName);
-        upgrade.markAsUnowned();
-        if (getUpgrades().stream().anyMatch(u -> u.getName().equals(upgrade.getName()))) {
+    public synchronized void refundUpgrade(String rewardTrackName, String upgradeName) throws IllegalArgumentException {
+        settle();
+        FactoryUpgrade upgrade = FactoryUpgradeRegistry.getUpgrade(rewardTrackName, upgradeName);
+        if (hasUpgrade(upgrade)) {
             context.removeUpgrade(upgrade);
             context.addInvestedCoins(upgrade.getRefundValue(getPrestige()));
+            plan = null;
         } else {
             throw new IllegalArgumentException("Cannot refund upgrade " + upgrade.getName() + " because it is not owned by the factory.");
         }
@@ -203,11 +335,13 @@ public final class CoinFactory implements Manageable {
      * @param upgrade the upgrade to refund.
      * @throws IllegalArgumentException if the upgrade is not owned by the factory.
      */
-    public void refundUpgrade(FactoryUpgrade upgrade) throws IllegalArgumentException {
+    public synchronized void refundUpgrade(FactoryUpgrade upgrade) throws IllegalArgumentException {
+        settle();
         upgrade.markAsUnowned();
-        if (getUpgrades().stream().anyMatch(u -> u.getName().equals(upgrade.getName()))) {
+        if (hasUpgrade(upgrade)) {
             context.removeUpgrade(upgrade);
             context.addInvestedCoins(upgrade.getRefundValue(getPrestige()));
+            plan = null;
         } else {
             throw new IllegalArgumentException("Cannot refund upgrade " + upgrade.getName() + " because it is not owned by the factory.");
         }
@@ -219,8 +353,9 @@ public final class CoinFactory implements Manageable {
      * @param upgradeName the name of the upgrade to check for.
      * @return whether the factory has the upgrade with the given name.
      */
-    public boolean hasUpgrade(FactoryUpgrade upgrade) {
-        return getUpgrades().stream().anyMatch(u -> u.getName().equals(upgrade.getName()));
+    public synchronized boolean hasUpgrade(FactoryUpgrade upgrade) {
+        int id = FactoryUpgradeRegistry.indexOf(upgrade);
+        return id != -1 && (context.getOwnedUpgrades() & (1L << id)) != 0;
     }
 
     /**
@@ -232,8 +367,7 @@ public final class CoinFactory implements Manageable {
      * @throws IllegalArgumentException if the upgrade with the given name and reward track name does not exist.
      */
     public boolean hasUpgrade(String rewardTrackName, String upgradeName) throws IllegalArgumentException {
-        FactoryUpgrade upgrade = FactoryUpgradeTracks.getUpgrade(rewardTrackName, upgradeName);
-        return getUpgrades().stream().anyMatch(u -> u.getName().equals(upgrade.getName()));
+        return hasUpgrade(FactoryUpgradeRegistry.getUpgrade(rewardTrackName, upgradeName));
     }
 
     /**
@@ -285,7 +419,8 @@ public final class CoinFactory implements Manageable {
      * @throws IllegalArgumentException if the amount is negative.
      * @throws InsufficientCoinsException if the factory does not have enough coins to withdraw.
      */
-    public void withdraw(long amount, CoinBank bank) throws IllegalArgumentException, InsufficientCoinsException {
+    public synchronized void withdraw(long amount, CoinBank bank) throws IllegalArgumentException, InsufficientCoinsException {
+        settle();
         if (amount < 1) {
             throw new IllegalArgumentException("Cannot withdrawl a negative amount of coins.");
         } else if (context.getInvestedCoins() < amount) {
@@ -304,7 +439,8 @@ public final class CoinFactory implements Manageable {
      * @throws IllegalArgumentException if the amount is negative.
      * @throws InsufficientCoinsException if the {@link CoinBank} does not have enough coins to deposit.
      */
-    public void deposit(long amount, CoinBank bank) throws IllegalArgumentException, InsufficientCoinsException {
+    public synchronized void deposit(long amount, CoinBank bank) throws IllegalArgumentException, InsufficientCoinsException {
+        settle();
         if (amount > 0) {
             bank.withdrawl(amount);
             context.addInvestedCoins(amount);
@@ -320,8 +456,10 @@ public final class CoinFactory implements Manageable {
      * @param newSpot the spot in the {@link #getUpgrades() upgrades} list to swap the upgrade to.
      * @throws IllegalArgumentException if the new spot is out of bounds.
      */
-    public void swap (FactoryUpgrade upgrade, int newSpot) throws IllegalArgumentException {
+    public synchronized void swap (FactoryUpgrade upgrade, int newSpot) throws IllegalArgumentException {
+        settle();
         context.swap(upgrade, newSpot);
+        plan = null;
     }
 
     /**
@@ -334,7 +472,8 @@ public final class CoinFactory implements Manageable {
      * @throws IllegalStateException if the factory does not own all available upgrades.
      * @see {@link #getCurrentUpgradeTracks()} for all available upgrades that must be owned to prestige.
      */
-    public void prestige() throws InsufficientCoinsException, IllegalStateException {
+    public synchronized void prestige() throws InsufficientCoinsException, IllegalStateException {
+        settle();
         boolean canBePrestiged = canBePrestiged();
         boolean ownsAllUpgrades = ownsAllUpgrades();
         long prestigeCost = getPrestigeCost();
@@ -351,6 +490,7 @@ public final class CoinFactory implements Manageable {
         context.clearUpgrades(); // Clear all upgrades
         context.removeInvestedCoins(prestigeCost);
         context.addPrestige(); // Increment prestige level
+        plan = null;
     }
 
     /**
@@ -377,7 +517,7 @@ public final class CoinFactory implements Manageable {
      */
     public long getPrestigeCost() {
         int prestige = getPrestige();
-        return (prestige + 1) * (getCurrentUpgradeTracks().stream().flatMap(track -> track.getUpgrades().stream()).mapToLong(upgrade -> upgrade.getRefundValue(prestige)).sum());
+        return (prestige + 1) * FactoryUpgradeRegistry.getTotalRefundValue(FactoryUpgradeRegistry.getAll(), prestige);
     }
 
     /**
@@ -385,8 +525,8 @@ public final class CoinFactory implements Manageable {
      * 
      * @return True if the factory owns all available upgrades, false otherwise.
      */
-    public boolean ownsAllUpgrades() {
-        return getCurrentUpgradeTracks().stream().allMatch(track -> track.getUpgrades().stream().allMatch(up -> up.isOwned()));
+    public synchronized boolean ownsAllUpgrades() {
+        return FactoryUpgradeRegistry.hasAll(context.getOwnedUpgrades());
     }
 
     /**
@@ -410,16 +550,12 @@ public final class CoinFactory implements Manageable {
     public void purchaseAllAvailableUpgrades() throws InsufficientCoinsException {
         int successfulPurchases = 0;
         int failedPurchases = 0;
-        for (FactoryUpgradeTrack track : getCurrentUpgradeTracks()) {
-            for (FactoryUpgrade upgrade : track.getUpgrades()) {
-                if (!upgrade.isOwned()) {
-                    try {
-                        purchaseUpgrade(upgrade);
-                        successfulPurchases++;
-                    } catch (InsufficientCoinsException e) {
-                        failedPurchases++;
-                    }
-                }
+        for (FactoryUpgrade upgrade : getAvailableUpgrades()) {
+            try {
+                purchaseUpgrade(upgrade);
+                successfulPurchases++;
+            } catch (InsufficientCoinsException e) {
+                failedPurchases++;
             }
         }
 
@@ -434,8 +570,8 @@ public final class CoinFactory implements Manageable {
      * @return the total cost of all available upgrades that can be purchased.
      * @see {@link #getAvailableUpgrades()} for all available upgrades that can be purchased.
      */
-    public long getAvailableUpgradeCost() {
-        return getCurrentUpgradeTracks().stream().flatMap(track -> track.getUpgrades().stream()).filter(upgrade -> !upgrade.isOwned()).mapToLong(upgrade -> upgrade.getCost(getPrestige())).sum();
+    public synchronized long getAvailableUpgradeCost() {
+        return FactoryUpgradeRegistry.getTotalCost(FactoryUpgradeRegistry.getMissing(context.getOwnedUpgrades()), getPrestige());
     }
 
     /**
@@ -443,8 +579,8 @@ public final class CoinFactory implements Manageable {
      * 
      * @return a list of all available upgrades that can be purchased.
      */
-    public List<FactoryUpgrade> getAvailableUpgrades() {
-        return getCurrentUpgradeTracks().stream().flatMap(track -> track.getUpgrades().stream()).filter(upgrade -> !upgrade.isOwned()).toList();
+    public synchronized List<FactoryUpgrade> getAvailableUpgrades() {
+        return FactoryUpgradeRegistry.getUpgrades(FactoryUpgradeRegistry.getMissing(context.getOwnedUpgrades()));
     }
 
     /**
@@ -484,14 +620,14 @@ public final class CoinFactory implements Manageable {
      * @return An {@link EmbedCreateSpec} with the details of this {@link CoinFactory}.
      */
     public EmbedCreateSpec getDetailEmbed(UserProfileManager manager, UserSettings userSettings) {
-        CoinProductionState simulatedState = simulateProductionCycle();
+        ProductionPlan productionPlan = getProductionPlan();
 
         String factoryOwner = new GuildInteractionHandler(manager.getGuild()).getMemberById(getIdentifier()).getUsername();
 
         StringBuilder description = new StringBuilder();
         description.append("***PRESTIGE: " + getPrestige() + "***\n\n");
         description.append("**Invested Coins:** *" + getInvestedCoins() + " coins*\n");
-        description.append("**Production Rate:** *" + simulatedState.getLowestPossibleWorkingValue() + " - " + simulatedState.getHighestPossibleWorkingValue() + " coins per cycle*\n");
+        description.append("**Production Rate:** *" + productionPlan.getLowestPossibleWorkingValue() + " - " + productionPlan.getHighestPossibleWorkingValue() + " coins per cycle*\n");
         DateTimed nextProcessTime = manager.getNextFactoryProcessTime();
         description.append("This Factory will process coins next at *" + nextProcessTime.getFormattedTime(userSettings) + " " + TimezoneOption.getSettingDisplay(userSettings.getTimezoneSetting()) + "* on *" + nextProcessTime.getFormattedDate(userSettings) + "*.\n\n");
         description.append("**Number of Upgrades:** *" + getUpgradeCount() + "*\n");
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
+import com.georgster.coinfactory.model.upgrades.tracks.FactoryUpgradeRegistry;
 
 /**
  * A context of data for a {@link CoinFactory}.
@@ -17,6 +18,11 @@ public final class CoinFactoryContext {
 
     private int prestige; // The number of times the factory has been prestiged
 
+    private long lastProcessedCycle; // The index of the last production cycle the factory was processed for, 0 if never
+
+    private transient long ownedUpgrades; // The FactoryUpgradeRegistry bitset of the upgrades, valid if isOwnedUpgradesValid
+    private transient boolean isOwnedUpgradesValid; // Whether ownedUpgrades reflects the current upgrades
+
     /**
      * Creates a new, default {@link CoinFactoryContext} for a member with the given Snowflake id.
      * <p>
@@ -84,6 +90,7 @@ public final class CoinFactoryContext {
      */
     public void addUpgrade(FactoryUpgrade upgrade) {
         this.upgrades.add(upgrade);
+        this.isOwnedUpgradesValid = false;
     }
 
     /**
@@ -94,6 +101,7 @@ public final class CoinFactoryContext {
      */
     public void removeUpgrade(FactoryUpgrade upgrade) {
         this.upgrades.remove(getUpgrade(upgrade.getName()));
+        this.isOwnedUpgradesValid = false;
     }
 
     /**
@@ -101,6 +109,20 @@ public final class CoinFactoryContext {
      */
     public void clearUpgrades() {
         this.upgrades.clear();
+        this.isOwnedUpgradesValid = false;
+    }
+
+    /**
+     * Returns the {@link FactoryUpgradeRegistry} bitset of the {@link FactoryUpgrade FactoryUpgrades} owned by the factory of this context.
+     * 
+     * @return The bitset of the upgrades owned by the factory of this context.
+     */
+    public long getOwnedUpgrades() {
+        if (!isOwnedUpgradesValid) {
+            ownedUpgrades = FactoryUpgradeRegistry.toBitset(upgrades);
+            isOwnedUpgradesValid = true;
+        }
+        return ownedUpgrades;
     }
 
     /**
@@ -167,6 +189,25 @@ public final class CoinFactoryContext {
         this.prestige++;
     }
 
+    /**
+     * Returns the index of the last production cycle the factory of this context was processed for,
+     * or 0 if it has never been processed.
+     * 
+     * @return The index of the last production cycle the factory of this context was processed for.
+     */
+    public long getLastProcessedCycle() {
+        return lastProcessedCycle;
+    }
+
+    /**
+     * Sets the index of the last production cycle the factory of this context was processed for.
+     * 
+     * @param lastProcessedCycle The index of the last production cycle the factory of this context was processed for.
+     */
+    public void setLastProcessedCycle(long lastProcessedCycle) {
+        this.lastProcessedCycle = lastProcessedCycle;
+    }
+
     /**
      * Swaps the given {@link FactoryUpgrade} with the upgrade at the given spot in the {@link #getUpgrades() upgrades} list.
      * 
@@ -1,8 +1,12 @@
 package com.georgster.coinfactory.model.upgrades;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Random;
 
+import com.georgster.coinfactory.model.CoinFactory;
 import com.georgster.coinfactory.model.CoinFactoryContext;
+import com.georgster.util.SoapNumbers;
 
 /**
  * A state of the coin production of a {@link CoinFactory} that is used to process upgrades and calculate production values.
@@ -24,6 +28,10 @@ import com.georgster.coinfactory.model.CoinFactoryContext;
  * A {@code true process cycle} is a cycle where the state is being processed for a production cycle, and the resulting amount of working coins is
  * intended to be deposited into a {@link CoinFactory}, whereas a {@code simulation cycle} is a cycle where the state is being processed for a simulation of a production cycle,
  * and the resulting amount of working coins is not intended to be deposited into a {@link CoinFactory}.
+ * <p>
+ * Upgrades with a random chance must draw their random numbers from {@link #getRandomDouble(double, double)}, and upgrades which
+ * depend on the time of day from {@link #getCycleTime()}. A true process cycle is seeded from the factory's owner and the cycle index,
+ * so processing the same cycle of the same factory always produces the same amount of coins, no matter when it is processed.
  */
 public final class CoinProductionState {
     public static final double PRESTIGE_MULTIPLIER = 0.1; // The multiplier for the prestige level of the factory
@@ -41,20 +49,87 @@ public final class CoinProductionState {
     private long highestPossibleWorkingValue; // the highest possible working production value of the factory (for coin projections)
 
     private boolean hasProcessedStartingModifiers; // whether the state has processed any upgrades that modify the starting production value (they go first)
+    private boolean hasCurrentUpgradeDrawn; // whether the upgrade currently being processed has drawn a random number
+    private boolean isStartingValueRandom; // whether the starting production value depends on a random number
     private final boolean isTrueProcessCycle; // whether the state is in a true processing cycle (true) or a simulation cycle (false)
+    private final long cycle; // the index of the production cycle the state is processed for
+    private final Random random; // the source of every random chance in the cycle, seeded in a true processing cycle
     
     private final CoinFactoryContext factoryContext;
 
     /**
      * Creates a new {@link CoinProductionState} with the given factory context and whether the state is in a true processing cycle.
+     * <p>
+     * The state is processed for the current production cycle. A true processing cycle is seeded as described in
+     * {@link #CoinProductionState(CoinFactoryContext, long)}, while a simulation cycle is not seeded.
      * 
      * @param factoryContext The context of the {@link CoinFactory} that this state will process coins for.
      * @param isTrueProcessCycle Whether the state is in a true processing cycle (true) or a simulation cycle (false)
      */
     public CoinProductionState(CoinFactoryContext factoryContext, boolean isTrueProcessCycle) {
+        this(factoryContext, factoryContext.getUpgrades(), isTrueProcessCycle, CoinFactory.getCurrentCycle());
+    }
+
+    /**
+     * Creates a new {@link CoinProductionState} in a true processing cycle for the given production cycle.
+     * <p>
+     * Every random chance in the cycle is drawn from a {@link Random} seeded from the factory owner's id and the cycle index,
+     * so the same cycle of the same factory always produces the same result.
+     * 
+     * @param factoryContext The context of the {@link CoinFactory} that this state will process coins for.
+     * @param cycle The index of the production cycle, as given by {@link CoinFactory#getCycle(long)}.
+     */
+    public CoinProductionState(CoinFactoryContext factoryContext, long cycle) {
+        this(factoryContext, factoryContext.getUpgrades(), true, cycle);
+    }
+
+    /**
+     * Creates a new {@link CoinProductionState} in a true processing cycle for the given production cycle, which
+     * processes the given upgrades rather than those of the factory. Used by a {@link ProductionPlan}.
+     * 
+     * @param factoryContext The context of the {@link CoinFactory} that this state will process coins for.
+     * @param upgrades The upgrades to process, in order.
+     * @param cycle The index of the production cycle.
+     */
+    CoinProductionState(CoinFactoryContext factoryContext, List<FactoryUpgrade> upgrades, long cycle) {
+        this(factoryContext, upgrades, true, cycle);
+    }
+
+    /**
+     * Creates a new {@link CoinProductionState} in a true processing cycle for the given production cycle, which continues
+     * from the production values of the given state. Used by a {@link ProductionPlan} to skip the upgrades it has already processed.
+     * 
+     * @param processed The state to continue from, which must have processed its starting modifiers.
+     * @param cycle The index of the production cycle.
+     */
+    CoinProductionState(CoinProductionState processed, long cycle) {
+        this(processed.factoryContext, processed.upgrades, true, cycle);
+        this.currentlyProcessingUpgrade = processed.currentlyProcessingUpgrade;
+        this.startingProductionValue = processed.startingProductionValue;
+        this.baseProductionValue = processed.baseProductionValue;
+        this.workingProductionValue = processed.workingProductionValue;
+        this.lowestPoissbleBaseValue = processed.lowestPoissbleBaseValue;
+        this.highestPossibleBaseValue = processed.highestPossibleBaseValue;
+        this.lowestPossibleWorkingValue = processed.lowestPossibleWorkingValue;
+        this.highestPossibleWorkingValue = processed.highestPossibleWorkingValue;
+        this.hasProcessedStartingModifiers = processed.hasProcessedStartingModifiers;
+        this.isStartingValueRandom = processed.isStartingValueRandom;
+    }
+
+    /**
+     * Creates a new {@link CoinProductionState} for the given production cycle.
+     * 
+     * @param factoryContext The context of the {@link CoinFactory} that this state will process coins for.
+     * @param upgrades The upgrades to process, in order.
+     * @param isTrueProcessCycle Whether the state is in a true processing cycle (true) or a simulation cycle (false)
+     * @param cycle The index of the production cycle.
+     */
+    private CoinProductionState(CoinFactoryContext factoryContext, List<FactoryUpgrade> upgrades, boolean isTrueProcessCycle, long cycle) {
         this.factoryContext = factoryContext;
-        this.upgrades = factoryContext.getUpgrades();
+        this.upgrades = upgrades;
         this.isTrueProcessCycle = isTrueProcessCycle;
+        this.cycle = cycle;
+        this.random = isTrueProcessCycle ? new Random(getSeed(factoryContext.getMemberId(), cycle)) : new Random();
         this.startingProductionValue = 1;
         this.baseProductionValue = startingProductionValue; // base production value of the factory (for multiplicative upgrades)
         this.workingProductionValue = startingProductionValue; // production value of the factory while working (for additive upgrades)
@@ -69,15 +144,51 @@ public final class CoinProductionState {
      * Processes the state by applying all upgrades in the state to the production values of the factory.
      */
     public void processUpgrades() {
-        upgrades.forEach(upgrade -> {
-            currentlyProcessingUpgrade = upgrade;
-            upgrade.applyUpgrade(this);
-        });
+        processStartingModifiers();
+        processUpgrades(0, upgrades.size());
+    }
+
+    /**
+     * Processes the starting modifiers by applying all upgrades in the state once, then
+     * {@link #markFirstBatchProcessed() marks the first batch processed}.
+     */
+    void processStartingModifiers() {
+        upgrades.forEach(this::apply);
         markFirstBatchProcessed();
-        upgrades.forEach(upgrade -> {
-            currentlyProcessingUpgrade = upgrade;
-            upgrade.applyUpgrade(this);
-        });
+    }
+
+    /**
+     * Applies the upgrades in the state between the given indexes to the production values of the factory.
+     * 
+     * @param fromIndex The index of the first upgrade to apply (inclusive)
+     * @param toIndex The index of the last upgrade to apply (exclusive)
+     */
+    void processUpgrades(int fromIndex, int toIndex) {
+        upgrades.subList(fromIndex, toIndex).forEach(this::apply);
+    }
+
+    /**
+     * Applies the given upgrade to the production values of the factory.
+     * 
+     * @param upgrade The upgrade to apply
+     */
+    private void apply(FactoryUpgrade upgrade) {
+        currentlyProcessingUpgrade = upgrade;
+        hasCurrentUpgradeDrawn = false;
+        upgrade.applyUpgrade(this);
+    }
+
+    /**
+     * Returns whether the starting production value depends on a random number, which is the case if an upgrade
+     * changed it after drawing a random number while the starting modifiers were processed.
+     * <p>
+     * Upgrades without a {@link FactoryUpgrade#hasRandomChance() random chance} never draw random numbers, so if this is
+     * {@code false}, the production values after the starting modifiers are the same in every cycle.
+     * 
+     * @return Whether the starting production value depends on a random number
+     */
+    boolean isStartingValueRandom() {
+        return isStartingValueRandom;
     }
 
     /**
@@ -262,6 +373,58 @@ public final class CoinProductionState {
         return isTrueProcessCycle;
     }
 
+    /**
+     * Returns the index of the production cycle this state is processed for.
+     * 
+     * @return The index of the production cycle this state is processed for
+     */
+    public long getCycle() {
+        return cycle;
+    }
+
+    /**
+     * Returns the moment the production cycle this state is processed for starts.
+     * <p>
+     * Upgrades which depend on the time of day must use this rather than the current time, as a cycle
+     * may be processed long after it starts.
+     * 
+     * @return The moment the production cycle this state is processed for starts
+     */
+    public LocalDateTime getCycleTime() {
+        return CoinFactory.getCycleTime(cycle);
+    }
+
+    /**
+     * Returns a random double between the given minimum and maximum values (inclusive) for a random chance in this cycle.
+     * <p>
+     * Upgrades must draw every random number from this method rather than any other source, so that true
+     * processing cycles are reproducible.
+     * 
+     * @param min The minimum value (inclusive)
+     * @param max The maximum value (inclusive)
+     * @return A random double between min and max (inclusive)
+     */
+    public double getRandomDouble(double min, double max) {
+        hasCurrentUpgradeDrawn = true;
+        return SoapNumbers.getRandomDouble(random, min, max);
+    }
+
+    /**
+     * Returns the seed of the given member's factory for the given production cycle.
+     * <p>
+     * The id and cycle are mixed so that neighbouring cycles produce unrelated random numbers.
+     * 
+     * @param memberId The Snowflake id of the member who owns the factory.
+     * @param cycle The index of the production cycle.
+     * @return The seed of the factory for the cycle.
+     */
+    private static long getSeed(String memberId, long cycle) {
+        long seed = memberId.hashCode() * 0x9E3779B97F4A7C15L + cycle;
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return seed ^ (seed >>> 31);
+    }
+
     /**
      * Increases the base production value by the given {@code value}.
      * 
@@ -320,6 +483,7 @@ public final class CoinProductionState {
         
         if (!hasProcessedStartingModifiers) {
             startingProductionValue += value;
+            isStartingValueRandom |= hasCurrentUpgradeDrawn;
         }
 
         startingProductionValue = Math.max(startingProductionValue, 0); // Ensure the starting production value is at least 0
@@ -338,6 +502,7 @@ public final class CoinProductionState {
         if (!hasProcessedStartingModifiers) {
             long additiveValue = (long) (startingProductionValue * multiplier);
             startingProductionValue += additiveValue;
+            isStartingValueRandom |= hasCurrentUpgradeDrawn;
 
             startingProductionValue = Math.max(startingProductionValue, 0); // Ensure the starting production value is at least 0
         }
@@ -353,6 +518,7 @@ public final class CoinProductionState {
         
         if (!hasProcessedStartingModifiers) {
             startingProductionValue -= value;
+            isStartingValueRandom |= hasCurrentUpgradeDrawn;
         }
 
         startingProductionValue = Math.max(startingProductionValue, 0); // Ensure the starting production value is at least 1
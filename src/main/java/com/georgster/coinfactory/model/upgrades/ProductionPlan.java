@@ -0,0 +1,136 @@
+package com.georgster.coinfactory.model.upgrades;
+
+import java.util.List;
+
+import com.georgster.coinfactory.model.CoinFactoryContext;
+
+/**
+ * The upgrades and prestige of a {@link com.georgster.coinfactory.model.CoinFactory CoinFactory} compiled into an
+ * immutable plan for processing its production cycles.
+ * <p>
+ * Every upgrade before the first upgrade with a {@link FactoryUpgrade#hasRandomChance() random chance} produces the same
+ * values in every cycle, as do the starting modifiers unless an upgrade changes them based on a random number. Those are
+ * processed once when the plan is compiled, so each cycle only processes the upgrades from the first random one onwards,
+ * and a factory without random upgrades produces a constant amount without processing any.
+ * <p>
+ * The plan also holds the results of one {@link CoinProductionState simulation cycle} for display. A plan must be compiled
+ * again whenever the upgrades, their order, or the prestige of the factory change.
+ */
+public final class ProductionPlan {
+    private final List<FactoryUpgrade> upgrades; // The upgrades of the factory, in process order
+    private final int firstRandomIndex; // The index of the first upgrade with a random chance, the number of upgrades if none
+    private final CoinProductionState processed; // The state after every upgrade before firstRandomIndex, null if the starting value is random
+    private final CoinFactoryContext factoryContext; // The context of the factory the plan was compiled for
+
+    private final long lowestPossibleWorkingValue; // The lowest possible working production value of a cycle
+    private final long highestPossibleWorkingValue; // The highest possible working production value of a cycle
+    private final long simulatedWorkingValue; // The working production value of the simulation cycle
+
+    /**
+     * Compiles the plan for the factory of the given context as it currently is.
+     *
+     * @param factoryContext The context of the factory.
+     */
+    public ProductionPlan(CoinFactoryContext factoryContext) {
+        this.factoryContext = factoryContext;
+        this.upgrades = List.copyOf(factoryContext.getUpgrades());
+
+        int firstRandom = 0;
+        while (firstRandom < upgrades.size() && !upgrades.get(firstRandom).hasRandomChance()) {
+            firstRandom++;
+        }
+        this.firstRandomIndex = firstRandom;
+
+        CoinProductionState state = new CoinProductionState(factoryContext, upgrades, 0);
+        state.processStartingModifiers();
+        if (state.isStartingValueRandom()) {
+            this.processed = null;
+        } else {
+            state.processUpgrades(0, firstRandomIndex);
+            this.processed = state;
+        }
+
+        CoinProductionState simulation = new CoinProductionState(factoryContext, false);
+        simulation.processUpgrades();
+        this.lowestPossibleWorkingValue = simulation.getLowestPossibleWorkingValue();
+        this.highestPossibleWorkingValue = simulation.getHighestPossibleWorkingValue();
+        this.simulatedWorkingValue = simulation.getWorkingProductionValue();
+    }
+
+    /**
+     * Returns the coins the factory produces in the given production cycle.
+     *
+     * @param cycle The index of the cycle.
+     * @return The coins produced in the cycle.
+     */
+    public long produce(long cycle) {
+        if (processed == null) {
+            CoinProductionState state = new CoinProductionState(factoryContext, upgrades, cycle);
+            state.processUpgrades();
+            return state.getWorkingProductionValue();
+        } else if (!hasRandomChance()) {
+            return processed.getWorkingProductionValue();
+        } else {
+            CoinProductionState state = new CoinProductionState(processed, cycle);
+            state.processUpgrades(firstRandomIndex, upgrades.size());
+            return state.getWorkingProductionValue();
+        }
+    }
+
+    /**
+     * Returns the coins the factory produces in every production cycle after the first given cycle up to and including the second.
+     *
+     * @param fromCycle The index of the cycle to start after.
+     * @param toCycle The index of the last cycle to produce.
+     * @return The coins produced in those cycles.
+     */
+    public long produce(long fromCycle, long toCycle) {
+        if (!hasRandomChance()) {
+            return (toCycle - fromCycle) * produce(toCycle);
+        }
+
+        long produced = 0;
+        for (long cycle = fromCycle + 1; cycle <= toCycle; cycle++) {
+            produced += produce(cycle);
+        }
+        return produced;
+    }
+
+    /**
+     * Returns whether any upgrade in the plan has a random chance, in which case cycles may produce different amounts.
+     *
+     * @return Whether any upgrade in the plan has a random chance.
+     */
+    public boolean hasRandomChance() {
+        return firstRandomIndex < upgrades.size();
+    }
+
+    /**
+     * Returns the lowest possible working production value of a production cycle.
+     *
+     * @return The lowest possible working production value of a production cycle.
+     * @see CoinProductionState#getLowestPossibleWorkingValue()
+     */
+    public long getLowestPossibleWorkingValue() {
+        return lowestPossibleWorkingValue;
+    }
+
+    /**
+     * Returns the highest possible working production value of a production cycle.
+     *
+     * @return The highest possible working production value of a production cycle.
+     * @see CoinProductionState#getHighestPossibleWorkingValue()
+     */
+    public long getHighestPossibleWorkingValue() {
+        return highestPossibleWorkingValue;
+    }
+
+    /**
+     * Returns the working production value of the simulation cycle the plan was compiled with.
+     *
+     * @return The working production value of the simulation cycle.
+     */
+    public long getSimulatedWorkingValue() {
+        return simulatedWorkingValue;
+    }
+}
@@ -0,0 +1,204 @@
+package com.georgster.coinfactory.model.upgrades.tracks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
+
+/**
+ * A static, immutable registry of every available {@link FactoryUpgrade}, built once from
+ * {@link FactoryUpgradeTracks#getAvailableUpgradeTracks()}.
+ * <p>
+ * Each upgrade has one shared instance and a dense integer id, in track order and then level order, so the upgrades
+ * a factory owns can be held as a bitset with one bit per id. The shared instances are stateless and may be owned by
+ * any number of factories, so their {@link FactoryUpgrade#isOwned() owned} flag means nothing; ownership is only ever
+ * held by the bitsets.
+ * <p>
+ * Lookups by track and upgrade name are case insensitive, like those of {@link FactoryUpgradeTracks}.
+ */
+public final class FactoryUpgradeRegistry {
+    private static final FactoryUpgrade[] UPGRADES; // Id -> the shared instance of that upgrade
+    private static final long[] BASE_COSTS; // Id -> the base cost of that upgrade
+    private static final Map<String, Integer> IDS; // Lower case "track:upgrade" name -> the id of that upgrade
+    private static final long ALL_UPGRADES; // The bitset with every upgrade set
+
+    static {
+        List<FactoryUpgrade> upgrades = new ArrayList<>();
+        FactoryUpgradeTracks.getAvailableUpgradeTracks().forEach(track -> upgrades.addAll(track.getUpgrades()));
+        if (upgrades.size() > Long.SIZE) {
+            throw new IllegalStateException("Only " + Long.SIZE + " upgrades fit in an ownership bitset, " + upgrades.size() + " are available");
+        }
+
+        UPGRADES = upgrades.toArray(new FactoryUpgrade[0]);
+        BASE_COSTS = new long[UPGRADES.length];
+        Map<String, Integer> ids = new HashMap<>();
+        for (int id = 0; id < UPGRADES.length; id++) {
+            BASE_COSTS[id] = UPGRADES[id].getBaseCost();
+            ids.put(getKey(UPGRADES[id].getTrackName(), UPGRADES[id].getName()), id);
+        }
+        IDS = Map.copyOf(ids);
+        ALL_UPGRADES = UPGRADES.length == Long.SIZE ? -1L : (1L << UPGRADES.length) - 1;
+    }
+
+    /**
+     * Utility class.
+     */
+    private FactoryUpgradeRegistry() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns the id of the {@link FactoryUpgrade} with the given name in the track with the given name,
+     * or -1 if there is none.
+     *
+     * @param trackName The name of the track
+     * @param upgradeName The name of the upgrade
+     * @return The id of the upgrade, or -1 if there is none
+     */
+    public static int indexOf(String trackName, String upgradeName) {
+        Integer id = IDS.get(getKey(trackName, upgradeName));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the id of the given {@link FactoryUpgrade}, or -1 if it is not an available upgrade.
+     *
+     * @param upgrade The upgrade
+     * @return The id of the upgrade, or -1 if it is not an available upgrade
+     */
+    public static int indexOf(FactoryUpgrade upgrade) {
+        return indexOf(upgrade.getTrackName(), upgrade.getName());
+    }
+
+    /**
+     * Returns the shared instance of the {@link FactoryUpgrade} with the given name in the track with the given name.
+     *
+     * @param trackName The name of the track
+     * @param upgradeName The name of the upgrade
+     * @return The shared instance of the upgrade
+     * @throws IllegalArgumentException If no upgrade with the given name exists in the track with the given name
+     */
+    public static FactoryUpgrade getUpgrade(String trackName, String upgradeName) throws IllegalArgumentException {
+        int id = indexOf(trackName, upgradeName);
+        if (id == -1) {
+            throw new IllegalArgumentException("No upgrade with name " + upgradeName + " in track " + trackName);
+        }
+        return UPGRADES[id];
+    }
+
+    /**
+     * Returns the shared instance of the given {@link FactoryUpgrade}.
+     *
+     * @param upgrade The upgrade
+     * @return The shared instance of the upgrade
+     * @throws IllegalArgumentException If the upgrade is not an available upgrade
+     */
+    public static FactoryUpgrade getUpgrade(FactoryUpgrade upgrade) throws IllegalArgumentException {
+        return getUpgrade(upgrade.getTrackName(), upgrade.getName());
+    }
+
+    /**
+     * Returns the shared instances of every {@link FactoryUpgrade} set in the given bitset, in id order.
+     *
+     * @param upgrades The bitset of upgrades
+     * @return The upgrades set in the bitset
+     */
+    public static List<FactoryUpgrade> getUpgrades(long upgrades) {
+        List<FactoryUpgrade> result = new ArrayList<>(Long.bitCount(upgrades));
+        for (long remaining = upgrades & ALL_UPGRADES; remaining != 0; remaining &= remaining - 1) {
+            result.add(UPGRADES[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bitset of the given upgrades, ignoring any which are not available upgrades.
+     *
+     * @param upgrades The upgrades
+     * @return The bitset with the id of each upgrade set
+     */
+    public static long toBitset(List<FactoryUpgrade> upgrades) {
+        long bitset = 0;
+        for (FactoryUpgrade upgrade : upgrades) {
+            int id = indexOf(upgrade);
+            if (id != -1) {
+                bitset |= 1L << id;
+            }
+        }
+        return bitset;
+    }
+
+    /**
+     * Returns whether the given bitset has every available upgrade set.
+     *
+     * @param upgrades The bitset of upgrades
+     * @return {@code true} if every available upgrade is set, {@code false} otherwise
+     */
+    public static boolean hasAll(long upgrades) {
+        return (upgrades & ALL_UPGRADES) == ALL_UPGRADES;
+    }
+
+    /**
+     * Returns the bitset of every available upgrade which is not set in the given bitset.
+     *
+     * @param upgrades The bitset of upgrades
+     * @return The bitset of every available upgrade not set in the given one
+     */
+    public static long getMissing(long upgrades) {
+        return ~upgrades & ALL_UPGRADES;
+    }
+
+    /**
+     * Returns the total {@link FactoryUpgrade#getCost(int) cost} of every upgrade set in the given bitset at the given prestige level.
+     *
+     * @param upgrades The bitset of upgrades
+     * @param prestigeLevel The prestige level of the factory
+     * @return The total cost of the upgrades
+     */
+    public static long getTotalCost(long upgrades, int prestigeLevel) {
+        double multiplier = (prestigeLevel * 0.5) + 1;
+        long total = 0;
+        for (long remaining = upgrades & ALL_UPGRADES; remaining != 0; remaining &= remaining - 1) {
+            total += (long) (BASE_COSTS[Long.numberOfTrailingZeros(remaining)] * multiplier);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total {@link FactoryUpgrade#getRefundValue(int) refund value} of every upgrade set in the given bitset at the given prestige level.
+     *
+     * @param upgrades The bitset of upgrades
+     * @param prestigeLevel The prestige level of the factory
+     * @return The total refund value of the upgrades
+     */
+    public static long getTotalRefundValue(long upgrades, int prestigeLevel) {
+        double multiplier = (prestigeLevel * 0.5) + 1;
+        long total = 0;
+        for (long remaining = upgrades & ALL_UPGRADES; remaining != 0; remaining &= remaining - 1) {
+            total += ((long) (BASE_COSTS[Long.numberOfTrailingZeros(remaining)] * multiplier)) / 2;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bitset with every available upgrade set.
+     *
+     * @return The bitset with every available upgrade set
+     */
+    public static long getAll() {
+        return ALL_UPGRADES;
+    }
+
+    /**
+     * Returns the key of the upgrade with the given name in the track with the given name.
+     *
+     * @param trackName The name of the track
+     * @param upgradeName The name of the upgrade
+     * @return The key of the upgrade
+     */
+    private static String getKey(String trackName, String upgradeName) {
+        return trackName.toLowerCase() + ":" + upgradeName.toLowerCase();
+    }
+}
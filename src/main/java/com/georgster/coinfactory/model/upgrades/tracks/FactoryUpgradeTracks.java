@@ -50,7 +50,8 @@ public final class FactoryUpgradeTracks {
     /**
      * Creates and returns a list of available {@link FactoryUpgradeTrack FactoryUpgradeTracks} with their respective {@link FactoryUpgrade FactoryUpgrades}.
      * <p>
-     * The returned list will not have any {@link FactoryUpgrade FactoryUpgrades} marked as owned.
+     * The returned list will not have any {@link FactoryUpgrade FactoryUpgrades} marked as owned. New instances are created on every call,
+     * so they can be marked for one factory; use the {@link FactoryUpgradeRegistry} to look up upgrades otherwise.
      * 
      * @return A list of available {@link FactoryUpgradeTrack FactoryUpgradeTracks}
      */
@@ -82,17 +83,16 @@ public final class FactoryUpgradeTracks {
     }
 
     /**
-     * Returns the first {@link FactoryUpgrade} with the given name in the {@link FactoryUpgradeTrack} with the given name.
+     * Returns the shared instance of the {@link FactoryUpgrade} with the given name in the {@link FactoryUpgradeTrack} with the given name
+     * from the {@link FactoryUpgradeRegistry}.
      * 
      * @param trackName The name of the track
      * @param upgradeName The name of the upgrade
      * @return The {@link FactoryUpgrade} with the given name in the {@link FactoryUpgradeTrack} with the given name
      * @throws IllegalArgumentException If no {@link FactoryUpgrade} with the given name exists in the {@link FactoryUpgradeTrack} with the given name
+     * @see FactoryUpgradeRegistry#getUpgrade(String, String)
      */
     public static FactoryUpgrade getUpgrade(String trackName, String upgradeName) throws IllegalArgumentException {
-        return getUpgradeTrack(trackName).getUpgrades().stream()
-                .filter(upgrade -> upgrade.getName().equalsIgnoreCase(upgradeName))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("No upgrade with name " + upgradeName + " in track " + trackName));
+        return FactoryUpgradeRegistry.getUpgrade(trackName, upgradeName);
     }
 }
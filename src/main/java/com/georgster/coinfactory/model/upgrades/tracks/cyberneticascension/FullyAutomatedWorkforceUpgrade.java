@@ -2,7 +2,6 @@ package com.georgster.coinfactory.model.upgrades.tracks.cyberneticascension;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.util.SoapNumbers;
 
 public final class FullyAutomatedWorkforceUpgrade extends FactoryUpgrade {
     
@@ -21,7 +20,7 @@ public final class FullyAutomatedWorkforceUpgrade extends FactoryUpgrade {
             state.registerHighestPossibleWorkingValue(0.1);
             if (!wipe) {
                 state.upgradeWorkingProduction(0.1);
-                if (SoapNumbers.getRandomDouble(0, 1) < 0.01) {
+                if (state.getRandomDouble(0, 1) < 0.01) {
                     state.wipeCoins(1);
                     wipe = true;
                 }
@@ -2,7 +2,6 @@ package com.georgster.coinfactory.model.upgrades.tracks.experimentalscience;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.util.SoapNumbers;
 
 public final class TimeManipulatorUpgrade extends FactoryUpgrade {
     
@@ -19,7 +18,7 @@ public final class TimeManipulatorUpgrade extends FactoryUpgrade {
         state.registerHighestPossibleWorkingValue(0.7);
         state.registerHighestPossibleBaseValue(75);
 
-        if (SoapNumbers.getRandomDouble(0, 1) < 0.5) {
+        if (state.getRandomDouble(0, 1) < 0.5) {
             state.upgradeWorkingProduction(0.7);
         } else {
             state.upgradeBaseProduction(75);
@@ -2,7 +2,6 @@ package com.georgster.coinfactory.model.upgrades.tracks.financialshenanigans;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.util.SoapNumbers;
 
 public final class StockMarketManipulationUpgrade extends FactoryUpgrade {
     
@@ -14,7 +13,7 @@ public final class StockMarketManipulationUpgrade extends FactoryUpgrade {
     }
 
     public void applyUpgrade(CoinProductionState state) {
-        if (SoapNumbers.getRandomDouble(0, 1) < 0.05) {
+        if (state.getRandomDouble(0, 1) < 0.05) {
             state.upgradeBaseProduction(100);
             state.upgradeWorkingProduction(0.5);
         }
@@ -3,7 +3,6 @@ package com.georgster.coinfactory.model.upgrades.tracks.galaticexpansion;
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
 import com.georgster.coinfactory.model.upgrades.tracks.automatedprecision.QuantumComputingIntegrationUpgrade;
-import com.georgster.util.SoapNumbers;
 
 public final class DysonSphereConstructionUpgrade extends FactoryUpgrade {
     
@@ -17,7 +16,7 @@ public final class DysonSphereConstructionUpgrade extends FactoryUpgrade {
     public void applyUpgrade(CoinProductionState state) {
         if (state.getUpgrades().stream().noneMatch(QuantumComputingIntegrationUpgrade.class::isInstance)) {
             state.registerPossibleCoinWipe(0.5);
-            if (SoapNumbers.getRandomDouble(0, 1) < 0.05) {
+            if (state.getRandomDouble(0, 1) < 0.05) {
                 state.wipeCoins(0.5);
             }
         }
@@ -2,7 +2,6 @@ package com.georgster.coinfactory.model.upgrades.tracks.iceyintervention;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.util.SoapNumbers;
 
 public final class GlaciarMovementHarvesterUpgrade extends FactoryUpgrade {
     
@@ -16,7 +15,7 @@ public final class GlaciarMovementHarvesterUpgrade extends FactoryUpgrade {
     public void applyUpgrade(CoinProductionState state) {
         state.registerLowestPossibleWorkingValue(0.2);
         state.registerHighestPossibleWorkingValue(1.5);
-        state.upgradeWorkingProduction(SoapNumbers.getRandomDouble(0.2, 1.5));
+        state.upgradeWorkingProduction(state.getRandomDouble(0.2, 1.5));
     }
 
     /**
@@ -2,7 +2,6 @@ package com.georgster.coinfactory.model.upgrades.tracks.occultengineering;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.util.SoapNumbers;
 
 public final class NecromancersWorkshopUpgrade extends FactoryUpgrade {
     
@@ -15,7 +14,7 @@ public final class NecromancersWorkshopUpgrade extends FactoryUpgrade {
 
     public void applyUpgrade(CoinProductionState state) {
         for (int i = 0; i < state.getUpgrades().size(); i++) {
-            if (SoapNumbers.getRandomDouble(0, 1) < 0.1) {
+            if (state.getRandomDouble(0, 1) < 0.1) {
                 state.upgradeBaseProduction(400);
             }
         }
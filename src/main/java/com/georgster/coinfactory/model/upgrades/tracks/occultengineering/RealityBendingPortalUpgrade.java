@@ -4,8 +4,6 @@ import java.time.LocalDateTime;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.util.DateTimed;
-import com.georgster.util.SoapNumbers;
 
 public final class RealityBendingPortalUpgrade extends FactoryUpgrade {
     
@@ -17,12 +15,12 @@ public final class RealityBendingPortalUpgrade extends FactoryUpgrade {
     }
 
     public void applyUpgrade(CoinProductionState state) {
-        LocalDateTime now = DateTimed.getCurrentLocalDateTime();
+        LocalDateTime now = state.getCycleTime();
 
         // give a 10% chance at 1am, decreasing by 0.4% every hour
         double chance = 0.1 - (now.getHour() * 0.004);
 
-        if (SoapNumbers.getRandomDouble(0, 1) < chance) {
+        if (state.getRandomDouble(0, 1) < chance) {
             state.upgradeWorkingProduction(2.0);
         }
 
@@ -2,7 +2,6 @@ package com.georgster.coinfactory.model.upgrades.tracks.occultengineering;
 
 import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.util.SoapNumbers;
 
 public final class SummoningCircleOfFortuneUpgrade extends FactoryUpgrade {
     
@@ -17,7 +16,7 @@ public final class SummoningCircleOfFortuneUpgrade extends FactoryUpgrade {
         state.registerHighestPossibleBaseValue(50000);
         state.registerHighestPossibleWorkingValue(1.0);
 
-        int random = (int) (SoapNumbers.getRandomDouble(0, 1) * 3);
+        int random = (int) (state.getRandomDouble(0, 1) * 3);
         if (random == 0) {
             state.upgradeBaseProduction(50000);
         } else if (random == 1) {
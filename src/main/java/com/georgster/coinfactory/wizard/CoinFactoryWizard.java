@@ -4,8 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.georgster.coinfactory.model.CoinFactory;
-import com.georgster.coinfactory.model.upgrades.CoinProductionState;
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
+import com.georgster.coinfactory.model.upgrades.ProductionPlan;
 import com.georgster.coinfactory.model.upgrades.tracks.FactoryUpgradeTrack;
 import com.georgster.control.manager.UserProfileManager;
 import com.georgster.control.util.CommandExecutionEvent;
@@ -250,12 +250,12 @@ public final class CoinFactoryWizard extends InputWizard {
      * Displays the current coin investment in the {@link CoinFactory}.
      */
     public void viewCoinInvestment() {
-        CoinProductionState simulatedState = factory.simulateProductionCycle();
+        ProductionPlan productionPlan = factory.getProductionPlan();
 
         StringBuilder prompt = new StringBuilder("**Coin Investment**\n\n");
         prompt.append("**Factory:** ***" + factory.getInvestedCoins() + "*** coins.\n");
         prompt.append("**Coin Bank:** ***" + profile.getBank().getBalance() + "*** coins.\n");
-        prompt.append("**Production Rate:** ***" + simulatedState.getLowestPossibleWorkingValue() + " - " + simulatedState.getHighestPossibleWorkingValue() + "*** coins per process cycle.\n\n");
+        prompt.append("**Production Rate:** ***" + productionPlan.getLowestPossibleWorkingValue() + " - " + productionPlan.getHighestPossibleWorkingValue() + "*** coins per process cycle.\n\n");
         DateTimed nextProcessTime = manager.getNextFactoryProcessTime();
         prompt.append("This Factory will process coins next at *" + nextProcessTime.getFormattedTime(userSettings) + " " + TimezoneOption.getSettingDisplay(userSettings.getTimezoneSetting()) + "* on *" + nextProcessTime.getFormattedDate(userSettings) + "*.\n\n");
         prompt.append("What would you like to do?");
@@ -282,8 +282,7 @@ public final class CoinFactoryWizard extends InputWizard {
         withResponse(response -> {
             try {
                 long coins = Long.parseLong(response);
-                factory.deposit(coins, profile.getBank());
-                manager.update(profile);
+                manager.investFactoryCoins(profile, coins);
                 sendMessage("You have successfully invested **" + coins + "** coins in your Coin Factory." +
                             "\n*Your CoinFactory now has* **" + factory.getInvestedCoins() + "** *coins invested.*", "Coins Invested");
                 goBack();
@@ -308,8 +307,7 @@ public final class CoinFactoryWizard extends InputWizard {
         withResponse(response -> {
             try {
                 long coins = Long.parseLong(response);
-                factory.withdraw(coins, profile.getBank());
-                manager.update(profile);
+                manager.withdrawFactoryCoins(profile, coins);
                 sendMessage("You have successfully withdrawn **" + coins + "** coins from your Coin Factory." +
                             "\n*Your CoinFactory now has* **" + factory.getInvestedCoins() + "** *coins invested.*", "Coins Withdrawn");
                 goBack();
@@ -325,10 +323,10 @@ public final class CoinFactoryWizard extends InputWizard {
      * Allows the user to manage the process order of the {@link FactoryUpgrade FactoryUpgrades} in the {@link CoinFactory}.
      */
     public void switchUpgrades(Integer startingPos) {
-        CoinProductionState simulatedState = factory.simulateProductionCycle();
+        ProductionPlan productionPlan = factory.getProductionPlan();
 
         StringBuilder prompt = new StringBuilder("**Upgrade Process Reordering**\n\n");
-        prompt.append("Your upgrade process order will currently produce **" + simulatedState.getLowestPossibleWorkingValue() + " - " + simulatedState.getHighestPossibleWorkingValue() + "** coins per production cycle.\n");
+        prompt.append("Your upgrade process order will currently produce **" + productionPlan.getLowestPossibleWorkingValue() + " - " + productionPlan.getHighestPossibleWorkingValue() + "** coins per production cycle.\n");
         prompt.append("Current upgrade order is:\n");
 
         List<FactoryUpgrade> upgrades = factory.getUpgrades();
@@ -374,14 +372,14 @@ public final class CoinFactoryWizard extends InputWizard {
      * @param upgradeName the name of the upgrade to switch.
      */
     public void switchUpgrade(String upgradeName) {
-        CoinProductionState simulatedState = factory.simulateProductionCycle();
+        ProductionPlan productionPlan = factory.getProductionPlan();
         List<FactoryUpgrade> upgrades = factory.getUpgrades();
         FactoryUpgrade upgrade = factory.getUpgrade(upgradeName);
         int currentPosition = upgrades.indexOf(upgrade);
 
         StringBuilder prompt = new StringBuilder("**Switching** ***" + upgrade.getName() + "***\n");
         prompt.append("- *" + upgrade.getDescription() + "*\n\n");
-        prompt.append("Your upgrade process order will currently produce **" + simulatedState.getLowestPossibleWorkingValue() + " - " + simulatedState.getHighestPossibleWorkingValue() + "** coins per production cycle.\n");
+        prompt.append("Your upgrade process order will currently produce **" + productionPlan.getLowestPossibleWorkingValue() + " - " + productionPlan.getHighestPossibleWorkingValue() + "** coins per production cycle.\n");
         prompt.append("**" + upgrade.getName()).append("'s** Current Position: *").append(currentPosition + 1).append("*\n");
 
         for (int i = 0; i < upgrades.size(); i++) {
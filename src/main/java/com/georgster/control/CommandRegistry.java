@@ -1,14 +1,20 @@
 package com.georgster.control;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import com.georgster.Command;
+import com.georgster.ParseableCommand;
 import com.georgster.coinfactory.CoinFactoryCommand;
 import com.georgster.collectable.CardCommand;
 import com.georgster.collectable.trade.TradeCommand;
 import com.georgster.control.util.ClientContext;
+import com.georgster.control.util.CommandLimiter;
 import com.georgster.control.util.CommandExecutionEvent;
 import com.georgster.dm.MessageCommand;
 import com.georgster.economy.BankCommand;
@@ -22,6 +28,7 @@ import com.georgster.game.blackjack.BlackjackCommand;
 import com.georgster.game.plinko.PlinkoCommand;
 import com.georgster.game.cs2.CS2Command;
 import com.georgster.gpt.GPTCommand;
+import com.georgster.logs.MetricsReporter;
 import com.georgster.logs.MultiLogger;
 import com.georgster.mentiongroups.MentionGroupCommand;
 import com.georgster.misc.EchoCommand;
@@ -37,11 +44,17 @@ import com.georgster.settings.UserSettingsCommand;
 import com.georgster.summary.SummaryCommand;
 import com.georgster.test.TestCommand;
 import com.georgster.util.DiscordEvent;
+import com.georgster.util.commands.CommandParser;
 import com.georgster.util.thread.ThreadPoolFactory;
 
 import discord4j.core.event.domain.Event;
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.event.domain.message.MessageCreateEvent;
+import discord4j.core.object.entity.User;
+import discord4j.core.object.reaction.ReactionEmoji;
 import discord4j.discordjson.json.ApplicationCommandData;
 import discord4j.discordjson.json.ApplicationCommandRequest;
+import reactor.core.publisher.Mono;
 
 /**
  * The CommandRegistry is responsible for handling all of SOAP Bot's {@link Command Commands}.
@@ -49,50 +62,93 @@ import discord4j.discordjson.json.ApplicationCommandRequest;
 public final class CommandRegistry {
     
     private static boolean registeredGlobalCommands = false;
+    private static final String RATE_LIMITED_MESSAGE = "You are using commands too quickly, please wait a moment and try again."; // Replied to rejected interactions
+    private static final ReactionEmoji RATE_LIMITED_REACTION = ReactionEmoji.unicode("\u23F3"); // Added to rejected messages, an hourglass
+    private static final Map<String, CommandLimiter> LIMITERS = new ConcurrentHashMap<>(); // "Guild name (ID)" -> the limiter of its registry
+
+    static {
+        MetricsReporter.register(CommandRegistry::summarizeLimiters);
+    }
 
     private final ClientContext context;
-    private final List<Class<? extends Command>> commands;
+    private final List<Command> commands; // The single instance of each command for this registry's guild, in registration order
+    private final Map<String, Command> aliases; // Alias -> the command it executes
+    private final Map<Command, CommandParser> parsers; // Each parseable command -> its parser, built once
+    private final CommandLimiter limiter; // Admits or rejects each execution before any work is done for it
 
     /**
      * Creates a Command Register for the associated SoapClient, 
      * registering all of SOAP Bot's pre-defined commands in it.
+     * <p>
+     * Each command is instantiated once here and shared by every execution in the guild, so commands must only
+     * hold state scoped to the {@link ClientContext}, never to a single execution.
      * 
      * @param context the {@link ClientContext} feeding this registry's commands.
      */
     public CommandRegistry(ClientContext context) { //HelpCommand will be unique
         this.context = context;
+        this.limiter = new CommandLimiter();
+        LIMITERS.put(context.getGuild().getName() + " (" + context.getGuild().getId().asString() + ")", limiter);
         context.setCommandRegistry(this);
         
-        commands = new ArrayList<>(List.of(
-            TestCommand.class,
-            PongCommand.class,
-            SoapCommand.class,
-            HelpCommand.class,
-            ReserveCommand.class,
-            ReserveEventCommand.class,
-            UnreserveCommand.class,
-            MessageCommand.class,
-            PlinkoCommand.class,
-            PlayMusicCommand.class,
-            ShowQueueCommand.class,
-            SkipMusicCommand.class,
-            PermissionsCommand.class,
-            HelloWorldCommand.class,
-            PollEventCommand.class,
-            GPTCommand.class,
-            BankCommand.class,
-            EchoCommand.class,
-            BlackjackCommand.class,
-            TradeCommand.class,
-            CardCommand.class,
-            MentionGroupCommand.class,
-            UserSettingsCommand.class,
-            CoinFactoryCommand.class,
-            EloCommand.class,
-            BattleCommand.class,
-            SummaryCommand.class,
-            CS2Command.class
-        ));
+        List<Function<ClientContext, Command>> factories = List.of(
+            c -> new TestCommand(),
+            c -> new PongCommand(),
+            c -> new SoapCommand(),
+            HelpCommand::new,
+            ReserveCommand::new,
+            ReserveEventCommand::new,
+            UnreserveCommand::new,
+            c -> new MessageCommand(),
+            c -> new PlinkoCommand(),
+            PlayMusicCommand::new,
+            ShowQueueCommand::new,
+            SkipMusicCommand::new,
+            PermissionsCommand::new,
+            c -> new HelloWorldCommand(),
+            PollEventCommand::new,
+            GPTCommand::new,
+            BankCommand::new,
+            c -> new EchoCommand(),
+            c -> new BlackjackCommand(),
+            TradeCommand::new,
+            CardCommand::new,
+            MentionGroupCommand::new,
+            c -> new UserSettingsCommand(),
+            CoinFactoryCommand::new,
+            EloCommand::new,
+            BattleCommand::new,
+            SummaryCommand::new,
+            c -> new CS2Command()
+        );
+
+        List<Command> instances = new ArrayList<>(factories.size());
+        Map<String, Command> index = new HashMap<>();
+        Map<Command, CommandParser> compiled = new IdentityHashMap<>();
+        for (Function<ClientContext, Command> factory : factories) {
+            try {
+                Command command = factory.apply(context);
+                instances.add(command);
+                if (command instanceof ParseableCommand) {
+                    try {
+                        compiled.put(command, ((ParseableCommand) command).getCommandParser());
+                    } catch (RuntimeException e) { // Left to be rebuilt, and fail, on each execution as before
+                        MultiLogger.logSystem("Could not build the parser of " + command.getClass().getSimpleName() + ": " + e.getMessage() + "\n", getClass());
+                    }
+                }
+                for (String alias : command.getAliases()) {
+                    Command existing = index.putIfAbsent(alias, command);
+                    if (existing != null) {
+                        MultiLogger.logSystem("Alias " + alias + " of " + command.getClass().getSimpleName() + " is already used by " + existing.getClass().getSimpleName() + "\n", getClass());
+                    }
+                }
+            } catch (Exception e) { //If an Exception is thrown, the command is invalid.
+                e.printStackTrace();
+            }
+        }
+        this.commands = List.copyOf(instances);
+        this.aliases = Map.copyOf(index);
+        this.parsers = compiled;
     }
 
     /**
@@ -102,19 +158,53 @@ public final class CommandRegistry {
      * and/or {@code MessageCreateEvents}.
      * <p>
      * This method is also responsible for creating and firing the {@link CommandExecutionEvent} when the {@link Command}
-     * is found and executed.
+     * is found and executed. Executions rejected by this registry's {@link CommandLimiter} are dropped before the
+     * {@link CommandExecutionEvent} is created, and the user is told they are being rate limited.
      * 
      * @param event The {@link Event} that prompted this call.
      */
     public void getAndExecute(Event event) {
         DiscordEvent transformer = new DiscordEvent(event);
         String attemptedCommand = transformer.getCommandName().toLowerCase();
-        getCommands().forEach(command -> {
-            if (command.getAliases().contains(attemptedCommand)) {
-                CommandExecutionEvent executionEvent = new CommandExecutionEvent(transformer, context, command);
-                ThreadPoolFactory.scheduleCommandTask(context.getGuild().getId().asString(), executionEvent::executeCommand);
+        Command command = aliases.get(attemptedCommand);
+        if (command == null) {
+            return;
+        }
+
+        User user = transformer.getUser();
+        String userId = user == null ? null : user.getId().asString();
+        if (!limiter.tryAcquire(userId, command)) {
+            notifyRateLimited(event);
+            return;
+        }
+        boolean scheduled = false;
+        try {
+            CommandExecutionEvent executionEvent = new CommandExecutionEvent(transformer, context, command);
+            ThreadPoolFactory.scheduleCommandTask(context.getGuild().getId().asString(), userId, () -> limiter.run(executionEvent::executeCommand));
+            scheduled = true;
+        } finally {
+            if (!scheduled) { // The task will never run to release its place
+                limiter.release();
             }
-        });
+        }
+    }
+
+    /**
+     * Tells the user that their command was rejected by the {@link CommandLimiter}, with an ephemeral reply to
+     * an interaction or a reaction to a message. The response is sent without blocking the calling thread.
+     * 
+     * @param event The {@link Event} of the rejected command.
+     */
+    private void notifyRateLimited(Event event) {
+        Mono<?> response;
+        if (event instanceof ChatInputInteractionEvent) {
+            response = ((ChatInputInteractionEvent) event).reply(RATE_LIMITED_MESSAGE).withEphemeral(true);
+        } else if (event instanceof MessageCreateEvent) {
+            response = ((MessageCreateEvent) event).getMessage().addReaction(RATE_LIMITED_REACTION);
+        } else {
+            return;
+        }
+        response.subscribe(null, error -> MultiLogger.logSystem("Could not tell a user they are rate limited: " + error.getMessage(), getClass()));
     }
 
     /**
@@ -164,41 +254,70 @@ public final class CommandRegistry {
     }
 
     /**
-     * Factory method which instantiates and returns a list of all of SOAP Bot's pre-defined {@link Command Commands} for a SoapClient.
+     * Returns the {@link CommandLimiter} admitting executions in this registry.
+     * 
+     * @return The {@link CommandLimiter} of this registry.
+     */
+    public CommandLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Returns an immutable list of all of SOAP Bot's pre-defined {@link Command Commands} for a SoapClient,
+     * in registration order.
      * 
-     * @return A list of all of SOAP Bot's pre-defined {@link Command Commands} for a SoapClient.
+     * @return An immutable list of all of SOAP Bot's pre-defined {@link Command Commands} for a SoapClient.
      */
     public List<Command> getCommands() {
-        List<Command> commandList = new ArrayList<>();
-        commands.forEach(command -> {
-            try { // Commands that need access to high level objects (such as the AudioInterface, EventManager, etc.)
-                commandList.add(command.getDeclaredConstructor(ClientContext.class).newInstance(context));
-            } catch (NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                try { // Commands that don't need access to high level objects
-                    commandList.add(command.getDeclaredConstructor().newInstance());
-                } catch (Exception e1) { //If Exception is still thrown, the command is invalid.
-                    e1.printStackTrace();
-                }
-            }
-        });
-        return commandList;
+        return commands;
     }
 
     /**
-     * Factory method which returns the first {@link Command} with an alias matching the provided {@code alias}, ignoring case.
+     * Returns the {@link Command} with an alias matching the provided {@code alias}, ignoring case.
      * 
      * @param alias The Command alias to search for.
-     * @return The first {@link Command} with the matching alias.
+     * @return The {@link Command} with the matching alias.
      * @throws IllegalArgumentException If no {@link Command} in this registry has a matching alias.
      */
     public Command getCommand(String alias) throws IllegalArgumentException {
-        alias = alias.toLowerCase();
-        for (Command command : getCommands()) {
-            if (command.getAliases().contains(alias)) {
-                return command;
-            }
+        Command command = aliases.get(alias.toLowerCase());
+        if (command == null) {
+            throw new IllegalArgumentException("No Command found with alias: " + alias);
         }
-        throw new IllegalArgumentException("No Command found with alias: " + alias);
+        return command;
+    }
+
+    /**
+     * Returns the {@link CommandParser} of the given {@link ParseableCommand}.
+     * <p>
+     * The parser of each command in this registry is built once when the registry is created and shared by
+     * every execution of the command. Parsers of commands outside this registry are built on every call.
+     * 
+     * @param command The command to get the parser of.
+     * @return The {@link CommandParser} of the command.
+     */
+    public CommandParser getCommandParser(ParseableCommand command) {
+        CommandParser parser = parsers.get(command);
+        return parser == null ? command.getCommandParser() : parser;
+    }
+
+    /**
+     * Summarizes every registry's {@link CommandLimiter} for the system log, totalling their pending and rejected
+     * commands and listing the {@code Guilds} which have had commands rejected.
+     * 
+     * @return The summary.
+     */
+    private static String summarizeLimiters() {
+        int pending = LIMITERS.values().stream().mapToInt(CommandLimiter::getPending).sum();
+        long rejected = LIMITERS.values().stream().mapToLong(CommandLimiter::getRejected).sum();
+        List<String> rejecting = new ArrayList<>();
+        LIMITERS.forEach((guild, guildLimiter) -> {
+            if (guildLimiter.getRejected() > 0) {
+                rejecting.add(guild + ": " + guildLimiter.getRejected());
+            }
+        });
+        return String.format("Command limiters: %d pending, %d rejected across %d guilds%s", pending, rejected,
+                LIMITERS.size(), rejecting.isEmpty() ? "" : ", rejected by guild: " + rejecting);
     }
 
     /**
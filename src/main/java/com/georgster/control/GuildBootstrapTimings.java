@@ -0,0 +1,94 @@
+package com.georgster.control;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * How long each phase of bootstrapping a {@link SoapClient} took when SOAP Bot logged in to its {@code Guild}.
+ * <p>
+ * The phases are the loading of every {@link com.georgster.control.manager.GuildedSoapManager GuildedSoapManager},
+ * the syncing of the {@code Guild's} members into their {@link com.georgster.profile.UserProfile UserProfiles} and the
+ * registration of commands with Discord. Since the phases run concurrently, the total is not their sum.
+ */
+public final class GuildBootstrapTimings {
+    private final String guildName; // The name of the Guild that was bootstrapped
+    private final Map<String, Long> managerLoadMillis; // Manager class name -> how long its load took
+    private final long loadMillis; // How long until every manager had loaded
+    private final long memberSyncMillis; // How long syncing every member's profile took
+    private final long commandRegistrationMillis; // How long registering commands with Discord took
+    private final long totalMillis; // How long the whole bootstrap took
+
+    /**
+     * Creates the timings of a finished bootstrap.
+     *
+     * @param guildName The name of the {@code Guild} that was bootstrapped.
+     * @param managerLoadMillis How long each manager's load took, keyed by the manager's class name.
+     * @param loadMillis How long until every manager had loaded.
+     * @param memberSyncMillis How long syncing every member's profile took.
+     * @param commandRegistrationMillis How long registering commands with Discord took.
+     * @param totalMillis How long the whole bootstrap took.
+     */
+    protected GuildBootstrapTimings(String guildName, Map<String, Long> managerLoadMillis, long loadMillis, long memberSyncMillis, long commandRegistrationMillis, long totalMillis) {
+        this.guildName = guildName;
+        this.managerLoadMillis = Collections.unmodifiableMap(new LinkedHashMap<>(managerLoadMillis));
+        this.loadMillis = loadMillis;
+        this.memberSyncMillis = memberSyncMillis;
+        this.commandRegistrationMillis = commandRegistrationMillis;
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * Returns the name of the {@code Guild} that was bootstrapped.
+     *
+     * @return the name of the {@code Guild}.
+     */
+    public String getGuildName() {
+        return guildName;
+    }
+
+    /**
+     * Returns how long each manager's load took in milliseconds, keyed by the manager's class name.
+     *
+     * @return how long each manager's load took.
+     */
+    public Map<String, Long> getManagerLoadMillis() {
+        return managerLoadMillis;
+    }
+
+    /**
+     * Returns how long it took in milliseconds until every manager had loaded.
+     *
+     * @return how long loading every manager took.
+     */
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * Returns how long syncing every member's profile took in milliseconds.
+     *
+     * @return how long the member sync took.
+     */
+    public long getMemberSyncMillis() {
+        return memberSyncMillis;
+    }
+
+    /**
+     * Returns how long registering commands with Discord took in milliseconds.
+     *
+     * @return how long command registration took.
+     */
+    public long getCommandRegistrationMillis() {
+        return commandRegistrationMillis;
+    }
+
+    /**
+     * Returns how long the whole bootstrap took in milliseconds.
+     *
+     * @return how long the bootstrap took.
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+}
@@ -1,10 +1,15 @@
 package com.georgster.control;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 import com.georgster.control.manager.CollectableManager;
 import com.georgster.control.manager.MentionGroupManager;
 import com.georgster.control.manager.PermissionsManager;
 import com.georgster.control.manager.SoapEventManager;
-import com.georgster.control.manager.SoapManager;
 import com.georgster.control.manager.UserProfileManager;
 import com.georgster.control.util.ClientContext;
 import com.georgster.elo.manager.EloManager;
@@ -14,7 +19,6 @@ import com.georgster.logs.LogDestination;
 import com.georgster.logs.MultiLogger;
 import com.georgster.music.components.AudioContext;
 import com.georgster.profile.UserProfile;
-import com.georgster.util.handler.GuildInteractionHandler;
 import com.georgster.util.thread.ThreadPoolFactory;
 
 import discord4j.common.util.Snowflake;
@@ -33,6 +37,8 @@ import discord4j.core.event.domain.role.RoleUpdateEvent;
 public final class SoapClient {
     private final Snowflake flake;
     private final ClientContext context;
+    private volatile GuildBootstrapTimings bootstrapTimings; // How long each phase of logging in to the Guild took, null until it has finished
+    private CompletableFuture<Void> roleEvents = CompletableFuture.completedFuture(null); // The last role event scheduled, so role events run in the order they were fired
     
     /**
      * Creates a new {@link SoapClient} for the associated {@code Guild} represented
@@ -53,38 +59,71 @@ public final class SoapClient {
                            new EloBattleManager(context),
                            new BattleWizardStateManager(context));
         this.context.setCommandRegistry(new CommandRegistry(context));
-        this.context.getCommandRegistry().registerGlobalCommands();
     }
 
     /**
      * Defines SOAP Bot's actions when a {@link GuildCreateEvent} is fired.
      * <p>
      * Upon the firing of a {@link GuildCreateEvent}, SOAP Bot will initialize
-     * all its {@link GuildedSoapManager SoapManagers} and update all {@link UserProfile UserProfiles}
-     * for the {@code Guild} in the event.
+     * all its {@link GuildedSoapManager SoapManagers}, update all {@link UserProfile UserProfiles}
+     * for the {@code Guild} in the event and register its commands with Discord.
+     * <p>
+     * Managers load concurrently on the {@code Guild's} general thread pool while commands are registered. Profiles are updated as soon as the {@link UserProfileManager} has loaded.
+     * This method returns once every phase has finished, and how long each took is logged and
+     * available from {@link #getBootstrapTimings()}.
      * 
      * @param event The {@link GuildCreateEvent} that was fired.
      */
     protected void onGuildCreate(GuildCreateEvent event) {
         ThreadPoolFactory.createThreadPoolManager(event.getGuild());
+        String guildId = flake.asString();
+        Executor executor = task -> ThreadPoolFactory.scheduleGeneralTask(guildId, task);
+        long start = System.nanoTime();
     
-        MultiLogger logger = new MultiLogger(new GuildInteractionHandler(event.getGuild()), getClass());
+        MultiLogger logger = new MultiLogger(event.getGuild(), getClass());
         logger.append("Logging in to server: " + context.getGuild().getName() + "\n", LogDestination.NONAPI);
 
-        this.context.forEachManager(SoapManager::load);
-        logger.append("- Initialized " + context.getGuild().getName() + "'s management system\n", LogDestination.NONAPI);
+        CompletableFuture<Long> registration = CompletableFuture.supplyAsync(() -> time(context.getCommandRegistry()::registerGlobalCommands), executor);
+        Map<Class<?>, CompletableFuture<Long>> loads = context.loadManagers(executor);
+        CompletableFuture<Long> load = CompletableFuture.allOf(loads.values().toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> System.nanoTime() - start);
+        CompletableFuture<Long> memberSync = loads.get(UserProfileManager.class)
+            .thenApplyAsync(ignored -> time(() -> context.getUserProfileManager().updateFromEvent(event)), executor);
 
-        context.getUserProfileManager().updateFromEvent(event);
-        logger.append("- Updated all user profiles", LogDestination.NONAPI);
+        CompletableFuture.allOf(registration, load, memberSync).join();
+
+        Map<String, Long> managerLoadMillis = new LinkedHashMap<>();
+        loads.forEach((type, managerLoad) -> managerLoadMillis.put(type.getSimpleName(), TimeUnit.NANOSECONDS.toMillis(managerLoad.join())));
+        bootstrapTimings = new GuildBootstrapTimings(context.getGuild().getName(), managerLoadMillis,
+            TimeUnit.NANOSECONDS.toMillis(load.join()), TimeUnit.NANOSECONDS.toMillis(memberSync.join()),
+            TimeUnit.NANOSECONDS.toMillis(registration.join()), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        logger.append("- Initialized " + context.getGuild().getName() + "'s management system in " + bootstrapTimings.getLoadMillis() + "ms " + managerLoadMillis + "\n", LogDestination.NONAPI);
+        logger.append("- Updated all user profiles in " + bootstrapTimings.getMemberSyncMillis() + "ms\n", LogDestination.NONAPI);
+        logger.append("- Registered commands in " + bootstrapTimings.getCommandRegistrationMillis() + "ms\n", LogDestination.NONAPI);
+        logger.append("- Logged in after " + bootstrapTimings.getTotalMillis() + "ms", LogDestination.NONAPI);
 
         logger.sendAll();
     }
 
+    /**
+     * Runs the given task and returns how long it took.
+     * 
+     * @param task The task to run.
+     * @return How long the task took in nanoseconds.
+     */
+    private static long time(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return System.nanoTime() - start;
+    }
+
     /**
      * Defines SOAP Bot's actions when a {@link MemberJoinEvent} is fired.
      * <p>
      * Upon the firing of a {@link MemberJoinEvent}, SOAP Bot will create a new
-     * {@link UserProfile} for the {@link discord4j.core.object.entity.Member Member}.
+     * {@link UserProfile} for the {@link discord4j.core.object.entity.Member Member} in this {@code Guild},
+     * stored on the {@code Guild's} general thread pool rather than the event dispatcher.
      * 
      * @param event The MemberJoinEvent that was fired.
      */
@@ -92,8 +131,7 @@ public final class SoapClient {
         String guildId = flake.asString();
         String memberId = event.getMember().getId().asString();
         String username = event.getMember().getTag();
-        UserProfile profile = new UserProfile(guildId, memberId, username);
-        context.getUserProfileManager().add(profile);
+        ThreadPoolFactory.scheduleGeneralTask(guildId, () -> context.getUserProfileManager().add(new UserProfile(guildId, memberId, username)));
     }
 
     /**
@@ -112,24 +150,38 @@ public final class SoapClient {
      * Defines SOAP Bot's actions when a {@link RoleUpdateEvent} is fired.
      * <p>
      * Upon the firing of a {@link RoleUpdateEvent}, SOAP Bot will update its
-     * {@link PermissionsManager} to reflect the changes made to the {@link discord4j.core.object.entity.Role Role}.
+     * {@link PermissionsManager} to reflect the changes made to the {@link discord4j.core.object.entity.Role Role}
+     * on the {@code Guild's} general thread pool, after every role event fired before it.
      * 
      * @param event The {@link RoleUpdateEvent} that was fired.
      */
     protected void onRoleUpdate(RoleUpdateEvent event) {
-        this.context.getPermissionsManager().updateFromEvent(event);
+        scheduleRoleEvent(() -> this.context.getPermissionsManager().updateFromEvent(event));
     }
 
     /**
      * Defines SOAP Bot's actions when a {@link RoleCreateEvent} is fired.
      * <p>
      * Upon the firing of a {@link RoleCreateEvent}, SOAP Bot will update its
-     * {@link PermissionsManager} with the new {@link discord4j.core.object.entity.Role Role}.
+     * {@link PermissionsManager} with the new {@link discord4j.core.object.entity.Role Role}
+     * on the {@code Guild's} general thread pool, after every role event fired before it.
      * 
      * @param event The {@link RoleCreateEvent} that was fired.
      */
     protected void onRoleCreate(RoleCreateEvent event) {
-        this.context.getPermissionsManager().addFromEvent(event);
+        scheduleRoleEvent(() -> this.context.getPermissionsManager().addFromEvent(event));
+    }
+
+    /**
+     * Runs the given role event task on the {@code Guild's} general thread pool once every role event
+     * scheduled before it has finished, so a role is never updated before it has been added.
+     * 
+     * @param task The task handling the role event.
+     */
+    private synchronized void scheduleRoleEvent(Runnable task) {
+        String guildId = flake.asString();
+        roleEvents = roleEvents.handle((ignored, error) -> null)
+            .thenRunAsync(task, runnable -> ThreadPoolFactory.scheduleGeneralTask(guildId, runnable));
     }
 
     /**
@@ -153,6 +205,15 @@ public final class SoapClient {
         return flake;
     }
 
+    /**
+     * Returns how long each phase of logging in to this client's {@code Guild} took.
+     * 
+     * @return the bootstrap timings, or {@code null} if the bootstrap has not finished.
+     */
+    protected GuildBootstrapTimings getBootstrapTimings() {
+        return bootstrapTimings;
+    }
+
     /**
      * Returns the context of this {@link SoapClient}.
      * 
@@ -1,9 +1,15 @@
 package com.georgster.control;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import com.georgster.control.manager.GlobalSoapManager;
 import com.georgster.control.manager.SoapManager;
@@ -34,8 +40,11 @@ import discord4j.gateway.intent.IntentSet;
  * maintaining the active connection to Discord's API.
  */
 public final class SoapClientManager {
+    private static final int MAX_CONCURRENT_BOOTSTRAPS = 4; // How many Guilds can be logged in to at once
+
     private static Set<GlobalSoapManager<?>> managers = new HashSet<>();
     private final Map<Snowflake, SoapClient> clients; // Maps each Guild's Snowflake ID to its client
+    private final ExecutorService bootstrapper; // Logs in to each Guild off the event dispatcher, a bounded number at a time
     private final GatewayDiscordClient discordClient; //Maintains the connection to Discord
     private final EventDispatcher dispatcher;
     private boolean testMode;
@@ -47,7 +56,8 @@ public final class SoapClientManager {
      * @param token The token used to log in to Discord.
      */
     public SoapClientManager(String token) {
-        clients = new HashMap<>();
+        clients = new ConcurrentHashMap<>();
+        bootstrapper = Executors.newFixedThreadPool(MAX_CONCURRENT_BOOTSTRAPS, runnable -> new Thread(runnable, "GLOBAL-GUILD-BOOTSTRAP"));
 
         discordClient = DiscordClientBuilder.create(token).build().gateway()
         .setEnabledIntents(IntentSet.of(Intent.GUILD_MEMBERS, //The intents the bot will work with
@@ -86,6 +96,11 @@ public final class SoapClientManager {
      * Begins listening to all Discord's events that SOAP Bot needs to handle
      * with permanent listeners.
      * <p>
+     * Events are routed to their {@link SoapClient} by the {@code Guild} ID in their payload, so no listener
+     * makes a request to Discord or otherwise blocks the event dispatcher. Events for a {@code Guild} SOAP Bot
+     * has not logged in to yet are dropped, except that a joining member's {@link UserSettings} are created
+     * on the bootstrap pool whether or not their {@code Guild} has a client, as they are not tied to a {@code Guild}.
+     * <p>
      * These events are currently:
      * <ul>
      * <li>{@link GuildCreateEvent}</li>
@@ -98,40 +113,41 @@ public final class SoapClientManager {
      */
     public void listenToEvents() {
         dispatcher.on(GuildCreateEvent.class)
-        .subscribe(event -> {
-            event.getGuild().getMembers().collectList().block().forEach(member -> {
-                UserSettingsManager manager = getUserSettingsManager();
-                if (!manager.exists(member.getId().asString())) {
-                    manager.add(new UserSettings(member.getId().asString()));
-                }
-            });
-            this.distributeClient(event);
-        }); //Executes onGuildCreate when a GuildCreateEvent is fired
+        .subscribe(event -> bootstrapper.execute(() -> bootstrap(event))); //Executes onGuildCreate when a GuildCreateEvent is fired
 
         dispatcher.on(MessageCreateEvent.class)
         .filter(message -> message.getMessage().getAuthor().map(user -> !user.isBot()).orElse(false))
         .filter(message -> isValidForTestMode(message.getMessage().getContent()))
-        .subscribe(event -> clients.get(event.getGuild().block().getId()).onMessageCreate(event)); //Executes onMessageCreate when a MessageCreateEvent is fired
+        .subscribe(event -> route(event.getGuildId(), client -> client.onMessageCreate(event))); //Executes onMessageCreate when a MessageCreateEvent is fired
 
         dispatcher.on(ChatInputInteractionEvent.class)
         .filter(message -> !testMode) //If test mode is enabled, commands must be sent with the !! notation, slash commands are not supported
-        .subscribe(event -> clients.get(event.getInteraction().getGuildId().get()).onChatInputInteraction(event));
+        .subscribe(event -> route(event.getInteraction().getGuildId(), client -> client.onChatInputInteraction(event)));
 
         dispatcher.on(MemberJoinEvent.class)
         .filter(event -> !event.getMember().isBot())
         .subscribe(event -> {
-            UserSettingsManager manager = getUserSettingsManager();
-            if (!manager.exists(event.getMember().getId().asString())) {
-                manager.add(new UserSettings(event.getMember().getId().asString()));
-            }
-            clients.get(event.getGuildId()).onMemberJoin(event);
+            String memberId = event.getMember().getId().asString();
+            bootstrapper.execute(() -> createUserSettings(memberId));
+            route(Optional.of(event.getGuildId()), client -> client.onMemberJoin(event));
         });
 
         dispatcher.on(RoleUpdateEvent.class)
-        .subscribe(event -> clients.get(event.getCurrent().getGuild().block().getId()).onRoleUpdate(event));
+        .subscribe(event -> route(Optional.of(event.getCurrent().getGuildId()), client -> client.onRoleUpdate(event)));
 
         dispatcher.on(RoleCreateEvent.class)
-        .subscribe(event -> clients.get(event.getGuildId()).onRoleCreate(event));
+        .subscribe(event -> route(Optional.of(event.getGuildId()), client -> client.onRoleCreate(event)));
+    }
+
+    /**
+     * Distributes an event to the {@link SoapClient} of the {@code Guild} with the given ID, if SOAP Bot
+     * has logged in to it.
+     * 
+     * @param guildId The ID of the {@code Guild} the event was fired in, empty if it was not fired in one.
+     * @param handler The action distributing the event to the client.
+     */
+    private void route(Optional<Snowflake> guildId, Consumer<SoapClient> handler) {
+        guildId.map(clients::get).ifPresent(handler);
     }
 
     /**
@@ -148,6 +164,36 @@ public final class SoapClientManager {
         }
     }
 
+    /**
+     * Logs in to the {@code Guild} in the {@link GuildCreateEvent}, creating {@link UserSettings} for any of its
+     * members without them before distributing the event to its {@link SoapClient}.
+     * <p>
+     * Runs on the bootstrap pool, so up to {@link #MAX_CONCURRENT_BOOTSTRAPS} Guilds are logged in to at once
+     * without holding up the event dispatcher.
+     * 
+     * @param event The {@link GuildCreateEvent} that was fired.
+     */
+    private void bootstrap(GuildCreateEvent event) {
+        try {
+            event.getGuild().getMembers().collectList().block().forEach(member -> createUserSettings(member.getId().asString()));
+            this.distributeClient(event);
+        } catch (RuntimeException e) { // Never let one Guild's failure go unnoticed on the pool
+            MultiLogger.logSystem("Could not log in to " + event.getGuild().getName() + ": " + e.getMessage(), getClass());
+        }
+    }
+
+    /**
+     * Creates {@link UserSettings} for the user with the given ID if they have none.
+     * 
+     * @param userId The ID of the user.
+     */
+    private void createUserSettings(String userId) {
+        UserSettingsManager manager = getUserSettingsManager();
+        if (!manager.exists(userId)) {
+            manager.add(new UserSettings(userId));
+        }
+    }
+
     /**
      * Creates a new {@link SoapClient} for the associated {@code Guild} in the
      * {@link GuildCreateEvent} and distributes the event to the new client.
@@ -159,16 +205,17 @@ public final class SoapClientManager {
      * @param event The {@link GuildCreateEvent} that was fired.
      */
     private void distributeClient(GuildCreateEvent event) {
-        if (clients.containsKey(event.getGuild().getId())) {
+        Snowflake flake = event.getGuild().getId();
+        if (clients.containsKey(flake)) {
             return;
         } //If the client already exists, do not create a new one
-        Snowflake flake = event.getGuild().getId();
-        clients.computeIfAbsent(flake, client -> {
-            ClientContext context = new ClientContext(dispatcher, event.getGuild(), discordClient.getRestClient());
-            context.addManagers(managers.toArray(new GlobalSoapManager<?>[managers.size()]));
-            return new SoapClient(context);
-        }); //Creates a new SoapClient if one does not already exist for the Guild
-        clients.get(flake).onGuildCreate(event); //Distributes the event to the client
+        ClientContext context = new ClientContext(dispatcher, event.getGuild(), discordClient.getRestClient());
+        context.addManagers(managers.toArray(new GlobalSoapManager<?>[managers.size()]));
+        SoapClient client = new SoapClient(context);
+        if (clients.putIfAbsent(flake, client) != null) {
+            return;
+        } //Another bootstrap of the same Guild got there first
+        client.onGuildCreate(event); //Distributes the event to the client
     }
 
     /**
@@ -179,6 +226,22 @@ public final class SoapClientManager {
         this.testMode = true;
     }
 
+    /**
+     * Returns how long each phase of logging in to each {@code Guild} took, for every
+     * {@code Guild} SOAP Bot has finished logging in to.
+     * 
+     * @return the bootstrap timings of every logged in {@code Guild}.
+     */
+    public List<GuildBootstrapTimings> getBootstrapTimings() {
+        List<GuildBootstrapTimings> timings = new ArrayList<>();
+        clients.values().forEach(client -> {
+            if (client.getBootstrapTimings() != null) {
+                timings.add(client.getBootstrapTimings());
+            }
+        });
+        return timings;
+    }
+
     /**
      * Returns the {@link UserSettingsManager}.
      * 
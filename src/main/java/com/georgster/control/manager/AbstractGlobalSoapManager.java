@@ -41,9 +41,8 @@ public abstract class AbstractGlobalSoapManager<T extends Manageable> extends Gl
      */
     @Override
     public void add(T observee) {
-        if (!exists(observee.getIdentifier())) {
+        if (observees.add(observee)) {
             dbService.addObjectIfNotExists(observee, identifierName, observee.getIdentifier(), adapter);
-            observees.add(observee);
         }
     }
 
@@ -52,10 +51,7 @@ public abstract class AbstractGlobalSoapManager<T extends Manageable> extends Gl
      */
     @Override
     public void remove(T observee) {
-        if (exists(observee)) {
-            dbService.removeObjectIfExists(identifierName, observee.getIdentifier(), adapter);
-            observees.remove(observee);
-        }
+        remove(observee.getIdentifier());
     }
 
     /**
@@ -63,10 +59,9 @@ public abstract class AbstractGlobalSoapManager<T extends Manageable> extends Gl
      */
     @Override
     public void remove(String identifier) {
-        observees.stream().filter(observee -> observee.getIdentifier().equals(identifier)).forEach(observee -> {
+        if (observees.remove(identifier) != null) {
             dbService.removeObjectIfExists(identifierName, identifier, adapter);
-            observees.remove(observee);
-        });
+        }
     }
 
     /**
@@ -82,9 +77,8 @@ public abstract class AbstractGlobalSoapManager<T extends Manageable> extends Gl
      */
     @Override
     public void update(T observee) {
-        observees.stream().filter(examiner -> examiner.getIdentifier().equals(observee.getIdentifier())).forEach(examiner -> {
-            observees.set(observees.indexOf(examiner), observee); //Replace the old observee with the new one
+        if (observees.replace(observee.getIdentifier(), observee)) { //Replace the old observee with the new one
             dbService.updateObjectIfExists(observee, identifierName, observee.getIdentifier(), adapter);
-        });
+        }
     }
 }
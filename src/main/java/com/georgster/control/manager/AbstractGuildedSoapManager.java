@@ -43,9 +43,8 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public void add(T observee) {
-        if (!exists(observee.getIdentifier())) {
+        if (observees.add(observee)) {
             dbService.addObjectIfNotExists(observee, identifierName, observee.getIdentifier(), adapter);
-            observees.add(observee);
         }
     }
 
@@ -54,7 +53,7 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public boolean exists(T observee) {
-        return observees.contains(observee);
+        return observees.contains(observee.getIdentifier());
     }
 
     /**
@@ -62,7 +61,7 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public boolean exists(String identifier) {
-        return observees.stream().anyMatch(observee -> observee.getIdentifier().equals(identifier));
+        return observees.contains(identifier);
     }
 
     /**
@@ -70,10 +69,7 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public void remove(T observee) {
-        if (exists(observee)) {
-            dbService.removeObjectIfExists(identifierName, observee.getIdentifier(), adapter);
-            observees.remove(observee);
-        }
+        remove(observee.getIdentifier());
     }
 
     /**
@@ -81,10 +77,9 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public void remove(String identifier) {
-        observees.stream().filter(observee -> observee.getIdentifier().equals(identifier)).forEach(observee -> {
+        if (observees.remove(identifier) != null) {
             dbService.removeObjectIfExists(identifierName, identifier, adapter);
-            observees.remove(observee);
-        });
+        }
     }
 
     /**
@@ -100,7 +95,7 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public T get(String identifier) {
-        return observees.stream().filter(observee -> observee.getIdentifier().equals(identifier)).findFirst().orElse(null);
+        return observees.get(identifier);
     }
 
     /**
@@ -108,7 +103,7 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public List<T> getAll() {
-        return observees;
+        return observees.values();
     }
 
     /**
@@ -116,10 +111,9 @@ public abstract class AbstractGuildedSoapManager<T extends Manageable> extends G
      */
     @Override
     public void update(T observee) {
-        observees.stream().filter(examiner -> examiner.getIdentifier().equals(observee.getIdentifier())).forEach(examiner -> {
-            observees.set(observees.indexOf(examiner), observee); //Replace the old observee with the new one
+        if (observees.replace(observee.getIdentifier(), observee)) { //Replace the old observee with the new one
             dbService.updateObjectIfExists(observee, identifierName, observee.getIdentifier(), adapter);
-        });
+        }
     }
 
     /**
@@ -1,10 +1,10 @@
 package com.georgster.control.manager;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import com.georgster.database.DatabaseService;
+import com.georgster.database.ObjectStorage;
 import com.georgster.database.ProfileType;
+import com.georgster.database.Storage;
 
 /**
  * A {@link SoapManager} which manages non-guild-specific, non-extending nor implementing (global) {@link Manageable Manageables} that are stored in SOAPBot's database.
@@ -16,8 +16,8 @@ import com.georgster.database.ProfileType;
  */
 public abstract class GlobalSoapManager<T extends Manageable> implements SoapManager<T> {
     protected String identifierName; // The name of the identifier field in the database.
-    protected List<T> observees; // The objects that this manager is managing.
-    protected DatabaseService<T> dbService; // The service that this manager will use to access the database.
+    protected ObserveeStore<T> observees; // The objects that this manager is managing, indexed by their identifier.
+    protected ObjectStorage<T> dbService; // The storage that this manager will use to access the database.
 
     /**
      * Creates a new {@link GlobalSoapManager} which will access the database using the given paramaters.
@@ -28,8 +28,8 @@ public abstract class GlobalSoapManager<T extends Manageable> implements SoapMan
      * @param identifierName The name of the identifier field in the database.
      */
     protected GlobalSoapManager(ProfileType profileType, Class<T> observeeClass, String identifierName) {
-        this.dbService = new DatabaseService<>("GLOBAL", profileType, observeeClass);
-        this.observees = new ArrayList<>();
+        this.dbService = Storage.open("GLOBAL", profileType, observeeClass);
+        this.observees = new ObserveeStore<>();
         this.identifierName = identifierName;
     }
 
@@ -44,9 +44,8 @@ public abstract class GlobalSoapManager<T extends Manageable> implements SoapMan
      * {@inheritDoc}
      */
     public void add(T observee) {
-        if (!exists(observee.getIdentifier())) {
+        if (observees.add(observee)) {
             dbService.addObjectIfNotExists(observee, identifierName, observee.getIdentifier());
-            observees.add(observee);
         }
     }
 
@@ -54,34 +53,30 @@ public abstract class GlobalSoapManager<T extends Manageable> implements SoapMan
      * {@inheritDoc}
      */
     public boolean exists(T observee) {
-        return observees.contains(observee);
+        return observees.contains(observee.getIdentifier());
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean exists(String identifier) {
-        return observees.stream().anyMatch(observee -> observee.getIdentifier().equals(identifier));
+        return observees.contains(identifier);
     }
 
     /**
      * {@inheritDoc}
      */
     public void remove(T observee) {
-        if (exists(observee)) {
-            dbService.removeObjectIfExists(identifierName, observee.getIdentifier());
-            observees.remove(observee);
-        }
+        remove(observee.getIdentifier());
     }
 
     /**
      * {@inheritDoc}
      */
     public void remove(String identifier) {
-        observees.stream().filter(observee -> observee.getIdentifier().equals(identifier)).forEach(observee -> {
+        if (observees.remove(identifier) != null) {
             dbService.removeObjectIfExists(identifierName, identifier);
-            observees.remove(observee);
-        });
+        }
     }
 
     /**
@@ -96,34 +91,30 @@ public abstract class GlobalSoapManager<T extends Manageable> implements SoapMan
      * {@inheritDoc}
      */
     public T get(String identifier) {
-        return observees.stream().filter(observee -> observee.getIdentifier().equals(identifier)).findFirst().orElse(null);
+        return observees.get(identifier);
     }
 
     /**
      * {@inheritDoc}
      */
     public List<T> getAll() {
-        return observees;
+        return observees.values();
     }
 
     /**
      * {@inheritDoc}
      */
     public void update(T observee) {
-        observees.stream().filter(examiner -> examiner.getIdentifier().equals(observee.getIdentifier())).forEach(examiner -> {
-            observees.set(observees.indexOf(examiner), observee); //Replace the old observee with the new one
-            dbService.updateObjectIfExists(observee, identifierName, observee.getIdentifier());
-        });
+        update(observee.getIdentifier(), observee);
     }
 
     /**
      * {@inheritDoc}
      */
     public void update(String identifier, T observee) {
-        observees.stream().filter(examiner -> examiner.getIdentifier().equals(identifier)).forEach(examiner -> {
-            observees.set(observees.indexOf(examiner), observee); //Replace the old observee with the new one
+        if (observees.replace(identifier, observee)) { //Replace the old observee with the new one
             dbService.updateObjectIfExists(observee, identifierName, identifier);
-        });
+        }
     }
 
     /**
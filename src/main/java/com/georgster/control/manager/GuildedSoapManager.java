@@ -1,11 +1,12 @@
 package com.georgster.control.manager;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import com.georgster.control.util.ClientContext;
-import com.georgster.database.DatabaseService;
+import com.georgster.database.FieldUpdate;
+import com.georgster.database.ObjectStorage;
 import com.georgster.database.ProfileType;
+import com.georgster.database.Storage;
 import com.georgster.util.handler.GuildInteractionHandler;
 
 import discord4j.core.object.entity.Guild;
@@ -20,8 +21,8 @@ import discord4j.core.object.entity.Guild;
  */
 public abstract class GuildedSoapManager<T extends Manageable> implements SoapManager<T> {
     protected String identifierName; // The name of the identifier field in the database.
-    protected List<T> observees; // The objects that this manager is managing.
-    protected DatabaseService<T> dbService; // The service that this manager will use to access the database.
+    protected ObserveeStore<T> observees; // The objects that this manager is managing, indexed by their identifier.
+    protected ObjectStorage<T> dbService; // The storage that this manager will use to access the database.
     protected GuildInteractionHandler handler; // The handler that this manager will use to interact with the guild.
 
     /**
@@ -34,8 +35,8 @@ public abstract class GuildedSoapManager<T extends Manageable> implements SoapMa
      */
     protected GuildedSoapManager(ClientContext context, ProfileType profileType, Class<T> observeeClass, String identifierName) {
         this.handler = new GuildInteractionHandler(context.getGuild());
-        this.dbService = new DatabaseService<>(handler.getId(), profileType, observeeClass);
-        this.observees = new ArrayList<>();
+        this.dbService = Storage.open(handler.getId(), profileType, observeeClass);
+        this.observees = new ObserveeStore<>();
         this.identifierName = identifierName;
     }
 
@@ -50,9 +51,8 @@ public abstract class GuildedSoapManager<T extends Manageable> implements SoapMa
      * {@inheritDoc}
      */
     public void add(T observee) {
-        if (!exists(observee.getIdentifier())) {
+        if (observees.add(observee)) {
             dbService.addObjectIfNotExists(observee, identifierName, observee.getIdentifier());
-            observees.add(observee);
         }
     }
 
@@ -60,34 +60,30 @@ public abstract class GuildedSoapManager<T extends Manageable> implements SoapMa
      * {@inheritDoc}
      */
     public boolean exists(T observee) {
-        return observees.stream().anyMatch(compare -> compare.getIdentifier().equals(observee.getIdentifier()));
+        return observees.contains(observee.getIdentifier());
     }
 
     /**
      * {@inheritDoc}
      */
     public boolean exists(String identifier) {
-        return observees.stream().anyMatch(observee -> observee.getIdentifier().equals(identifier));
+        return observees.contains(identifier);
     }
 
     /**
      * {@inheritDoc}
      */
     public void remove(T observee) {
-        if (exists(observee)) {
-            dbService.removeObjectIfExists(identifierName, observee.getIdentifier());
-            observees.remove(observee);
-        }
+        remove(observee.getIdentifier());
     }
 
     /**
      * {@inheritDoc}
      */
     public void remove(String identifier) {
-        observees.stream().filter(observee -> observee.getIdentifier().equals(identifier)).forEach(observee -> {
+        if (observees.remove(identifier) != null) {
             dbService.removeObjectIfExists(identifierName, identifier);
-            observees.remove(observee);
-        });
+        }
     }
 
     /**
@@ -102,34 +98,44 @@ public abstract class GuildedSoapManager<T extends Manageable> implements SoapMa
      * {@inheritDoc}
      */
     public T get(String identifier) {
-        return observees.stream().filter(observee -> observee.getIdentifier().equals(identifier)).findFirst().orElse(null);
+        return observees.get(identifier);
     }
 
     /**
      * {@inheritDoc}
      */
     public List<T> getAll() {
-        return observees;
+        return observees.values();
     }
 
     /**
      * {@inheritDoc}
      */
     public void update(T observee) {
-        observees.stream().filter(examiner -> examiner.getIdentifier().equals(observee.getIdentifier())).forEach(examiner -> {
-            observees.set(observees.indexOf(examiner), observee); //Replace the old observee with the new one
-            dbService.updateObjectIfExists(observee, identifierName, observee.getIdentifier());
-        });
+        update(observee.getIdentifier(), observee);
     }
 
     /**
      * {@inheritDoc}
      */
     public void update(String identifier, T observee) {
-        observees.stream().filter(examiner -> examiner.getIdentifier().equals(identifier)).forEach(examiner -> {
-            observees.set(observees.indexOf(examiner), observee); //Replace the old observee with the new one
+        if (observees.replace(identifier, observee)) { //Replace the old observee with the new one
+            dbService.updateObjectIfExists(observee, identifierName, identifier);
+        }
+    }
+
+    /**
+     * Writes only the given fields of an observee that was already changed in place, rather than replacing the entire
+     * object in the database. If the object is missing from the database, it is written in its entirety instead.
+     * 
+     * @param observee The observee whose fields were changed.
+     * @param update The changes made to the observee's fields.
+     */
+    protected void updateFields(T observee, FieldUpdate update) {
+        String identifier = observee.getIdentifier();
+        if (observees.contains(identifier) && !dbService.updateFields(identifierName, identifier, update)) {
             dbService.updateObjectIfExists(observee, identifierName, identifier);
-        });
+        }
     }
 
     /**
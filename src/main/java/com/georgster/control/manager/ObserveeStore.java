@@ -0,0 +1,325 @@
+package com.georgster.control.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The local store of {@link Manageable Manageables} held by a {@link SoapManager}.
+ * <p>
+ * Objects are keyed by their {@link Manageable#getIdentifier() identifier} in a concurrent hash index, so
+ * lookups by identifier are constant time, while their insertion order is preserved for iteration and {@link #values()}.
+ * Replacing an object through {@link #replace(String, Manageable)} keeps its original position.
+ * <p>
+ * Managers may register secondary {@link Index Indexes} through {@link #index(Function)} or {@link #indexAll(Function)}
+ * to look objects up by some other key (such as an event's type) without scanning the store.
+ * <p>
+ * Reads never lock, mutations are serialized on the store.
+ *
+ * @param <T> The type of {@link Manageable} held in this store.
+ */
+public final class ObserveeStore<T extends Manageable> implements Iterable<T> {
+    private final Map<String, Entry<T>> entries; // Identifier -> entry
+    private final ConcurrentSkipListMap<Long, Entry<T>> ordered; // Insertion sequence -> entry
+    private final List<Index<?, T>> indexes; // All secondary indexes registered on this store
+    private long nextSequence; // The sequence number given to the next added object
+
+    /**
+     * Creates a new, empty {@link ObserveeStore}.
+     */
+    public ObserveeStore() {
+        this.entries = new ConcurrentHashMap<>();
+        this.ordered = new ConcurrentSkipListMap<>();
+        this.indexes = new CopyOnWriteArrayList<>();
+        this.nextSequence = 0;
+    }
+
+    /**
+     * Adds the object to this store if no object with the same identifier is already present.
+     *
+     * @param observee The object to add.
+     * @return {@code true} if the object was added, {@code false} if its identifier was already present.
+     */
+    public synchronized boolean add(T observee) {
+        String identifier = observee.getIdentifier();
+        if (entries.containsKey(identifier)) {
+            return false;
+        }
+        Entry<T> entry = new Entry<>(nextSequence++, observee);
+        entries.put(identifier, entry);
+        ordered.put(entry.sequence, entry);
+        indexes.forEach(index -> index.insert(entry));
+        return true;
+    }
+
+    /**
+     * Replaces the object with the given identifier with {@code observee}, keeping its position in this store.
+     *
+     * @param identifier The identifier of the object to replace.
+     * @param observee The object to replace it with.
+     * @return {@code true} if an object was replaced, {@code false} if no object with the identifier was present.
+     */
+    public synchronized boolean replace(String identifier, T observee) {
+        Entry<T> entry = entries.get(identifier);
+        if (entry == null) {
+            return false;
+        }
+        indexes.forEach(index -> index.delete(entry));
+        entry.value = observee;
+        if (!identifier.equals(observee.getIdentifier())) {
+            entries.remove(identifier);
+            entries.put(observee.getIdentifier(), entry);
+        }
+        indexes.forEach(index -> index.insert(entry));
+        return true;
+    }
+
+    /**
+     * Removes the object with the given identifier from this store.
+     *
+     * @param identifier The identifier of the object to remove.
+     * @return The removed object, or {@code null} if none was present.
+     */
+    public synchronized T remove(String identifier) {
+        Entry<T> entry = entries.remove(identifier);
+        if (entry == null) {
+            return null;
+        }
+        ordered.remove(entry.sequence);
+        indexes.forEach(index -> index.delete(entry));
+        return entry.value;
+    }
+
+    /**
+     * Removes all objects from this store and its indexes.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        ordered.clear();
+        indexes.forEach(Index::clear);
+    }
+
+    /**
+     * Returns the object with the given identifier, or {@code null} if none exists.
+     *
+     * @param identifier The identifier of the object.
+     * @return The object with the given identifier, or {@code null} if none exists.
+     */
+    public T get(String identifier) {
+        Entry<T> entry = entries.get(identifier);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Returns whether an object with the given identifier is in this store.
+     *
+     * @param identifier The identifier of the object.
+     * @return {@code true} if the object is present, {@code false} otherwise.
+     */
+    public boolean contains(String identifier) {
+        return entries.containsKey(identifier);
+    }
+
+    /**
+     * Returns the number of objects in this store.
+     *
+     * @return The number of objects in this store.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns whether this store is empty.
+     *
+     * @return {@code true} if this store is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Returns a new, mutable {@link List} of all objects in this store in insertion order.
+     * Changes to the returned list do not affect this store.
+     *
+     * @return All objects in this store in insertion order.
+     */
+    public List<T> values() {
+        List<T> values = new ArrayList<>(ordered.size());
+        ordered.values().forEach(entry -> values.add(entry.value));
+        return values;
+    }
+
+    /**
+     * Returns a sequential {@link Stream} of all objects in this store in insertion order.
+     *
+     * @return A stream of all objects in this store.
+     */
+    public Stream<T> stream() {
+        return ordered.values().stream().map(entry -> entry.value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The iterator is weakly consistent and may be used while the store is being modified.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<Entry<T>> iterator = ordered.values().iterator();
+        return new Iterator<>() {
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            public T next() {
+                return iterator.next().value;
+            }
+        };
+    }
+
+    /**
+     * Registers a secondary {@link Index} keyed by a single value of each object.
+     * Objects whose key is {@code null} are not indexed.
+     * <p>
+     * The key must only change through {@link #replace(String, Manageable)}, objects mutated in place
+     * without being replaced will keep the key they were indexed under.
+     *
+     * @param <K> The type of key.
+     * @param keyMapper Returns the key of an object.
+     * @return The new index, already populated with the current contents of this store.
+     */
+    public <K> Index<K, T> index(Function<T, K> keyMapper) {
+        return indexAll(observee -> Collections.singletonList(keyMapper.apply(observee)));
+    }
+
+    /**
+     * Registers a secondary {@link Index} in which each object may be reached through several keys,
+     * such as every participant of a battle. {@code null} keys are not indexed.
+     * <p>
+     * The keys must only change through {@link #replace(String, Manageable)}, objects mutated in place
+     * without being replaced will keep the keys they were indexed under.
+     *
+     * @param <K> The type of key.
+     * @param keyMapper Returns all keys of an object.
+     * @return The new index, already populated with the current contents of this store.
+     */
+    public synchronized <K> Index<K, T> indexAll(Function<T, Collection<K>> keyMapper) {
+        Index<K, T> index = new Index<>(keyMapper);
+        ordered.values().forEach(index::insert);
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * A stored object along with the sequence it was inserted at.
+     */
+    private static final class Entry<T> {
+        private final long sequence;
+        private volatile T value;
+
+        private Entry(long sequence, T value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A secondary index over an {@link ObserveeStore}, which is kept up to date by the store as objects
+     * are added, replaced and removed. Objects under a key are returned in insertion order.
+     *
+     * @param <K> The type of key.
+     * @param <T> The type of {@link Manageable} being indexed.
+     */
+    public static final class Index<K, T extends Manageable> {
+        private final Function<T, Collection<K>> keyMapper; // Returns the keys of an object
+        private final Map<K, ConcurrentSkipListMap<Long, Entry<T>>> buckets; // Key -> entries under that key
+        private final Map<K, Integer> sizes; // Key -> number of entries under that key, as skip list sizes are not constant time
+        private final Map<Long, Collection<K>> indexedKeys; // Sequence -> keys the entry was indexed under
+
+        private Index(Function<T, Collection<K>> keyMapper) {
+            this.keyMapper = keyMapper;
+            this.buckets = new ConcurrentHashMap<>();
+            this.sizes = new ConcurrentHashMap<>();
+            this.indexedKeys = new ConcurrentHashMap<>();
+        }
+
+        private void insert(Entry<T> entry) {
+            List<K> keys = new ArrayList<>();
+            for (K key : keyMapper.apply(entry.value)) {
+                if (key != null && !keys.contains(key)) {
+                    keys.add(key);
+                    buckets.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>()).put(entry.sequence, entry);
+                    sizes.merge(key, 1, Integer::sum);
+                }
+            }
+            indexedKeys.put(entry.sequence, keys);
+        }
+
+        private void delete(Entry<T> entry) {
+            Collection<K> keys = indexedKeys.remove(entry.sequence);
+            if (keys == null) {
+                return;
+            }
+            keys.forEach(key -> {
+                ConcurrentSkipListMap<Long, Entry<T>> bucket = buckets.get(key);
+                if (bucket != null && bucket.remove(entry.sequence) != null) {
+                    if (sizes.merge(key, -1, Integer::sum) <= 0) {
+                        sizes.remove(key);
+                        buckets.remove(key);
+                    }
+                }
+            });
+        }
+
+        private void clear() {
+            buckets.clear();
+            sizes.clear();
+            indexedKeys.clear();
+        }
+
+        /**
+         * Returns a new, mutable {@link List} of all objects indexed under the given key in insertion order.
+         *
+         * @param key The key to look up.
+         * @return All objects indexed under the key, empty if there are none.
+         */
+        public List<T> get(K key) {
+            ConcurrentSkipListMap<Long, Entry<T>> bucket = buckets.get(key);
+            if (bucket == null) {
+                return new ArrayList<>();
+            }
+            List<T> values = new ArrayList<>(bucket.size());
+            bucket.values().forEach(entry -> values.add(entry.value));
+            return values;
+        }
+
+        /**
+         * Returns the number of objects indexed under the given key.
+         *
+         * @param key The key to look up.
+         * @return The number of objects indexed under the key.
+         */
+        public int count(K key) {
+            return sizes.getOrDefault(key, 0);
+        }
+
+        /**
+         * Returns whether any object is indexed under the given key.
+         *
+         * @param key The key to look up.
+         * @return {@code true} if any object is indexed under the key, {@code false} otherwise.
+         */
+        public boolean contains(K key) {
+            return count(key) > 0;
+        }
+    }
+}
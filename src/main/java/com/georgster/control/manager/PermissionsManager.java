@@ -1,13 +1,19 @@
 package com.georgster.control.manager;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.georgster.control.util.ClientContext;
 import com.georgster.database.ProfileType;
 import com.georgster.permissions.PermissibleAction;
 import com.georgster.permissions.PermissionGroup;
 
+import discord4j.common.util.Snowflake;
 import discord4j.core.event.domain.role.RoleCreateEvent;
 import discord4j.core.event.domain.role.RoleUpdateEvent;
 import discord4j.core.object.entity.Member;
@@ -16,8 +22,12 @@ import discord4j.rest.util.Permission;
 
 /**
  * Manages all {@link PermissionGroup PermissionGroups} for a given {@code SoapClient}.
+ * <p>
+ * The effective permissions of each {@link Member} are resolved from their roles once and cached until
+ * their roles or any {@link PermissionGroup} change, so checking a permission never blocks.
  */
 public class PermissionsManager extends GuildedSoapManager<PermissionGroup> {
+    private final Map<String, MemberPermissions> permissionCache; // Member ID -> their effective permissions
 
     /**
      * Constructs a {@link PermissionsManager} for the given {@link ClientContext}
@@ -26,19 +36,29 @@ public class PermissionsManager extends GuildedSoapManager<PermissionGroup> {
      */
     public PermissionsManager(ClientContext context) {
         super(context, ProfileType.PERMISSIONS, PermissionGroup.class, "id");
+        this.permissionCache = new ConcurrentHashMap<>();
     }
 
     /**
      * Sets up a basic configuration for the {@link PermissionGroup PermissionGroups} in this manager based on the roles in the guild
      * if it does not already have a configuration and loads the groups that do into this manager.
+     * <p>
+     * The stored groups of every role are fetched in a single query and placed straight into this manager,
+     * so only the groups of new roles are written to the database.
      */
     @Override
     public void load() {
-        handler.getAllRoles().forEach(role -> {
+        List<Role> roles = handler.getAllRoles();
+        List<String> roleIds = new ArrayList<>();
+        roles.forEach(role -> roleIds.add(role.getId().asString()));
+        Map<String, PermissionGroup> dbgroups = new HashMap<>();
+        dbService.getObjects(identifierName, roleIds).forEach(group -> dbgroups.put(group.getId(), group));
+
+        roles.forEach(role -> {
             if (!role.getName().equalsIgnoreCase("@everyone")) {
-                PermissionGroup dbgroup = dbService.getObject("id", role.getId().asString());
+                PermissionGroup dbgroup = dbgroups.get(role.getId().asString());
                 if (dbgroup != null) {
-                    add(dbgroup);
+                    observees.add(dbgroup); // Already stored, so it is not written back
                 } else {
                     PermissionGroup group = new PermissionGroup(role.getName(), role.getId().asString());
                     if (role.getPermissions().contains(Permission.ADMINISTRATOR)) {
@@ -61,14 +81,20 @@ public class PermissionsManager extends GuildedSoapManager<PermissionGroup> {
                         group.addPermission(PermissibleAction.POLLCOMMAND);
                         group.addPermission(PermissibleAction.BANKCOMMAND);
                     }
-                    add(group);
+                    if (observees.add(group)) {
+                        dbService.addObjectIfNotExists(group, identifierName, group.getIdentifier());
+                    }
                 }
             }
         });
+        invalidatePermissions();
     }
 
     /**
      * Checks if a {@link Member} has a given {@link PermissibleAction} in any of their roles.
+     * <p>
+     * The member's effective permissions are resolved from their roles on their first check and whenever their
+     * roles have changed since, after which each check is a lookup that never blocks.
      * 
      * @param member the {@link Member} to check
      * @param action the {@link PermissibleAction} to check for
@@ -76,17 +102,92 @@ public class PermissionsManager extends GuildedSoapManager<PermissionGroup> {
      */
     public boolean hasPermission(Member member, PermissibleAction action) {
         if (member.getTag().equals("georgster#0")) return true;
-        if (handler.getGuild().getOwner().block().getId().asString().equals(member.getId().asString())) return true;
-        return member.getRoles().any(role -> get(role.getId().asString()).hasPermission(action)).block();
+        if (handler.getGuild().getOwnerId().equals(member.getId())) return true;
+
+        Set<Snowflake> roleIds = member.getRoleIds();
+        MemberPermissions permissions = permissionCache.get(member.getId().asString());
+        if (permissions == null || !permissions.isFor(roleIds)) {
+            permissions = resolvePermissions(roleIds);
+            permissionCache.put(member.getId().asString(), permissions);
+        }
+        return permissions.allows(action);
+    }
+
+    /**
+     * Resolves the combined permissions of the {@link PermissionGroup PermissionGroups} of the given roles.
+     * 
+     * @param roleIds the IDs of the roles to combine
+     * @return the effective permissions of a member with the roles
+     */
+    private MemberPermissions resolvePermissions(Set<Snowflake> roleIds) {
+        EnumSet<PermissibleAction> actions = EnumSet.noneOf(PermissibleAction.class);
+        roleIds.forEach(roleId -> {
+            PermissionGroup group = get(roleId.asString());
+            if (group != null) {
+                actions.addAll(group.getActions());
+            }
+        });
+        if (actions.contains(PermissibleAction.ADMIN)) {
+            actions = EnumSet.allOf(PermissibleAction.class);
+        }
+        return new MemberPermissions(roleIds, actions);
+    }
+
+    /**
+     * Discards every cached member's effective permissions, so they are resolved again on their next check.
+     */
+    private void invalidatePermissions() {
+        permissionCache.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(PermissionGroup observee) {
+        super.add(observee);
+        invalidatePermissions();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(String identifier) {
+        super.remove(identifier);
+        invalidatePermissions();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeAll() {
+        super.removeAll();
+        invalidatePermissions();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(String identifier, PermissionGroup observee) {
+        super.update(identifier, observee);
+        invalidatePermissions();
     }
 
     /**
      * Updates an existing {@link PermissionGroup} based on the update of a Discord Role.
+     * If the Role has no group yet, a group for it is added first.
      * 
      * @param event The event fired from a role update.
      */
     public void updateFromEvent(RoleUpdateEvent event) {
         PermissionGroup group = get(event.getCurrent().getId().asString());
+        if (group == null) {
+            group = new PermissionGroup(event.getCurrent().getName(), event.getCurrent().getId().asString());
+            add(group);
+        }
         group.setName(event.getCurrent());
         if (event.getCurrent().getPermissions().contains(Permission.ADMINISTRATOR)) {
             group.addPermission(PermissibleAction.ADMIN);
@@ -185,4 +286,45 @@ public class PermissionsManager extends GuildedSoapManager<PermissionGroup> {
     public static PermissibleAction getAction(String name) {
         return PermissibleAction.valueOf(name);
     }
+
+    /**
+     * The effective permissions of a {@link Member}, along with the roles they were resolved from.
+     */
+    private static final class MemberPermissions {
+        private final int roleHash; // The hash of the set of role IDs these permissions were resolved from
+        private final Set<Snowflake> roleIds; // The role IDs these permissions were resolved from
+        private final EnumSet<PermissibleAction> actions; // Every action the member may perform
+
+        /**
+         * Creates the effective permissions resolved from the given roles.
+         * 
+         * @param roleIds the IDs of the roles the permissions were resolved from
+         * @param actions every action the member may perform
+         */
+        private MemberPermissions(Set<Snowflake> roleIds, EnumSet<PermissibleAction> actions) {
+            this.roleHash = roleIds.hashCode();
+            this.roleIds = Set.copyOf(roleIds);
+            this.actions = actions;
+        }
+
+        /**
+         * Returns whether these permissions were resolved from exactly the given roles.
+         * 
+         * @param currentRoleIds the IDs of the member's current roles
+         * @return true if the roles are unchanged, false otherwise
+         */
+        private boolean isFor(Set<Snowflake> currentRoleIds) {
+            return roleHash == currentRoleIds.hashCode() && roleIds.equals(currentRoleIds);
+        }
+
+        /**
+         * Returns whether the member may perform the given action.
+         * 
+         * @param action the action to check
+         * @return true if the member may perform the action, false otherwise
+         */
+        private boolean allows(PermissibleAction action) {
+            return actions.contains(action);
+        }
+    }
 }
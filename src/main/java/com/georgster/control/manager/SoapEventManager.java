@@ -1,20 +1,34 @@
 package com.georgster.control.manager;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.georgster.control.util.ClientContext;
 import com.georgster.database.ProfileType;
 import com.georgster.database.adapter.SoapEventClassAdapter;
 import com.georgster.events.SoapEvent;
 import com.georgster.events.SoapEventType;
+import com.georgster.util.DateTimed;
 import com.georgster.util.handler.InteractionHandler.MessageFormatting;
 import com.georgster.util.thread.ThreadPoolFactory;
 
 /**
  * Manages and schedules all {@link SoapEvent SoapEvents} for a given {@code SoapClient}.
+ * <p>
+ * Events do not hold a thread while they wait. Each timed event is armed on a scheduler shared by every
+ * {@code SoapClient} to fire at its deadline, and every event is checked again whenever it is updated,
+ * so events fulfilled by a change in state, such as a reservation filling, fire immediately.
+ * Fulfilled events run on the Guild's event thread pool.
  */
 public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
+    private static final ScheduledThreadPoolExecutor DEADLINES = createDeadlineScheduler(); // Fires the deadlines of every Guild's events
+
+    private final ObserveeStore.Index<SoapEventType, SoapEvent> typeIndex; // All events in this manager by their type
+    private final Map<String, ScheduledFuture<?>> armed; // Event identifier -> its pending deadline
 
     /**
      * Constructs a {@link SoapEventManager} for the given {@code ClientContext}.
@@ -23,6 +37,19 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
      */
     public SoapEventManager(ClientContext context) {
         super(context, ProfileType.EVENTS, SoapEvent.class, "identifier", new SoapEventClassAdapter());
+        this.typeIndex = observees.index(SoapEvent::getType);
+        this.armed = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates the scheduler shared by every {@link SoapEventManager}, which removes cancelled deadlines immediately.
+     * 
+     * @return the scheduler
+     */
+    private static ScheduledThreadPoolExecutor createDeadlineScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> new Thread(runnable, "GLOBAL-EVENT-DEADLINES"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
     }
 
     /**
@@ -31,9 +58,8 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
     @Override
     public void load() {
         dbService.getAllObjects(adapter).forEach(event -> {
-            if (!exists(event)) {
-                observees.add(event);
-                ThreadPoolFactory.scheduleEventTask(handler.getId(), () -> this.scheduleEvent(event));
+            if (observees.add(event)) {
+                arm(event);
             }
         });
     }
@@ -43,13 +69,61 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
      */
     @Override
     public void add(SoapEvent event) {
-        if (!exists(event)) {
-            observees.add(event);
+        if (observees.add(event)) {
             dbService.addObjectIfNotExists(event, "identifier", event.getIdentifier(), adapter);
-            ThreadPoolFactory.scheduleEventTask(handler.getId(), () -> this.scheduleEvent(event));
+            arm(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The event is checked again, so it fires immediately if the update fulfilled it,
+     * or at its new deadline if its time changed.
+     */
+    @Override
+    public void update(SoapEvent event) {
+        super.update(event);
+        if (exists(event.getIdentifier())) {
+            arm(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The event is checked again, so it fires immediately if the update fulfilled it,
+     * or at its new deadline if its time changed.
+     */
+    @Override
+    public void update(String identifier, SoapEvent event) {
+        super.update(identifier, event);
+        if (exists(identifier)) {
+            arm(event);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Removing an event before it has been fulfilled cancels it.
+     */
+    @Override
+    public void remove(String identifier) {
+        SoapEvent event = get(identifier);
+        if (event == null) {
+            return;
+        }
+        synchronized (event) { // Only announce the cancellation if the event was not fired first
+            if (!exists(identifier)) {
+                return;
+            }
+            disarm(identifier);
+            super.remove(identifier);
+        }
+        ThreadPoolFactory.scheduleEventTask(handler.getId(), () -> announceCancelled(event));
+    }
+
     /**
      * Returns whether or not an event with the given identifier and type exists.
      * 
@@ -58,7 +132,8 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
      * @return true if an event with the given identifier and type exists, false otherwise
      */
     public boolean exists(String identifier, SoapEventType type)  {
-        return observees.stream().anyMatch(event -> event.getIdentifier().equals(identifier) && event.getType().equals(type));
+        SoapEvent event = observees.get(identifier);
+        return event != null && event.getType() == type;
     }
 
     /**
@@ -68,7 +143,7 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
      * @return true if this manager has any events of the given type, false otherwise
      */
     public boolean hasAny(SoapEventType type) {
-        return observees.stream().anyMatch(event -> event.getType().equals(type));
+        return typeIndex.contains(type);
     }
 
     /**
@@ -78,7 +153,7 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
      * @return The number of events of the given type.
      */
     public int getCount(SoapEventType type) {
-        return (int) observees.stream().filter(event -> event.getType() == type).count();
+        return typeIndex.count(type);
     }
 
     /**
@@ -89,8 +164,8 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
      * @return true if the given event exists in this manager with the given type, false otherwise
      */
     public boolean exists(SoapEvent event, SoapEventType type) {
-        for (SoapEvent examiner : observees) {
-            if (event.same(examiner) && examiner.getType().equals(type)) {
+        for (SoapEvent examiner : typeIndex.get(type)) {
+            if (event.same(examiner)) {
                 return true;
             }
         }
@@ -104,59 +179,73 @@ public class SoapEventManager extends AbstractGuildedSoapManager<SoapEvent> {
      * @return a list of all events of the given type in this manager
      */
     public List<SoapEvent> getAll(SoapEventType type) {
-        List<SoapEvent> typeEvents = new ArrayList<>();
-        observees.forEach(event -> {
-            if (event.getType() == type) {
-                typeEvents.add(event);
-            }
-        });
-        return typeEvents;
+        return typeIndex.get(type);
     }
 
     /**
-     * Schedules a {@code SoapEvent} to be fulfilled for the Guild the event originated from.
-     * If the event is a {@code ReserveEvent} the active channel is set to the channel the event was reserved in.
-     * This method will wait and block the calling thread until the event has been
-     * cancelled, is no longer valid, or the event's {@code fulfilled()} condition has been met and will
-     * call {@code onFulfill()} on the event if the event is valid.
+     * Schedules the given event to be checked at its deadline, replacing any deadline it already had.
+     * If the event has already been fulfilled it is fired immediately, and if it has no time it is
+     * only checked again when it is updated.
      * 
-     * @param event the event to be scheduled
-     */
-    public void scheduleEvent(final SoapEvent event) {
-        if (this.exists(event.getIdentifier())) {
-            handler.setActiveMessageChannel(handler.getMessageChannel(event.getChannel()));
-            if (validateSoapEvent(event)) {
-                event.onFulfill(handler);
-            } else {
-                handler.sendMessage("Event " + event.getIdentifier() + " has been cancelled", "Event Cancelled", MessageFormatting.INFO);
-            }
-            if (this.exists(event.getIdentifier())) {
-                this.remove(event);
-            }
+     * @param event the event to arm
+     */
+    private void arm(final SoapEvent event) {
+        disarm(event.getIdentifier());
+        if (event.fulfilled()) {
+            ThreadPoolFactory.scheduleEventTask(handler.getId(), () -> fire(event.getIdentifier()));
+        } else if (event instanceof DateTimed && !((DateTimed) event).getTime().equals("99:99")) {
+            long delay = Math.max(1, ((DateTimed) event).until());
+            armed.put(event.getIdentifier(), DEADLINES.schedule(() -> 
+                ThreadPoolFactory.scheduleEventTask(handler.getId(), () -> fire(event.getIdentifier())), delay, TimeUnit.SECONDS));
         }
     }
 
-    
     /**
-     * Validates a {@code SoapEvent} by waiting until the event has been cancelled, is no longer valid
-     * or the event's {@code fulfilled()} condition has been met.
+     * Cancels the pending deadline of the event with the given identifier, if it has one.
      * 
-     * @param event the event to be validated
-     * @return true if the event is valid, false otherwise
-     */
-    private boolean validateSoapEvent(final SoapEvent event) {
-        try {
-            /* Will continue to wait until the event has been removed/cancelled, or the fulfillment condition has been met */
-            while (this.exists(event.getIdentifier()) && !event.fulfilled()) {
-                Thread.sleep(2000);
+     * @param identifier the identifier of the event
+     */
+    private void disarm(String identifier) {
+        ScheduledFuture<?> deadline = armed.remove(identifier);
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+    }
+
+    /**
+     * Fulfills the event with the given identifier if it still exists and its {@code fulfilled()} condition
+     * has been met, calling {@code onFulfill()} in the channel the event was created in and then removing it.
+     * If the event is not yet fulfilled, such as when its time was pushed back, it is armed again.
+     * 
+     * @param identifier the identifier of the event to fire
+     */
+    private void fire(String identifier) {
+        SoapEvent event = get(identifier);
+        if (event == null) {
+            return;
+        }
+        synchronized (event) { // An update, a deadline or a removal may race for the same event
+            if (!exists(identifier)) {
+                return;
             }
-            if (!this.exists(event.getIdentifier())) { //If it was removed we return false
-                return false;
+            if (!event.fulfilled()) {
+                arm(event);
+                return;
             }
-        } catch (Exception e) { //If we are interrupted we return false
-            Thread.currentThread().interrupt();
-            return false;
+            disarm(identifier);
+            super.remove(identifier);
         }
-        return true; //Otherwise we return true
+        handler.setActiveMessageChannel(handler.getMessageChannel(event.getChannel()));
+        event.onFulfill(handler);
+    }
+
+    /**
+     * Informs the channel the given event was created in that it has been cancelled.
+     * 
+     * @param event the cancelled event
+     */
+    private void announceCancelled(SoapEvent event) {
+        handler.setActiveMessageChannel(handler.getMessageChannel(event.getChannel()));
+        handler.sendMessage("Event " + event.getIdentifier() + " has been cancelled", "Event Cancelled", MessageFormatting.INFO);
     }
 }
@@ -3,19 +3,28 @@ package com.georgster.control.manager;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.georgster.coinfactory.model.CoinFactory;
 import com.georgster.collectable.Collected;
 import com.georgster.control.util.ClientContext;
+import com.georgster.database.FieldUpdate;
+import com.georgster.database.ObjectStorage;
 import com.georgster.database.ProfileType;
+import com.georgster.database.Storage;
 import com.georgster.economy.CoinBank;
+import com.georgster.economy.exception.InsufficientCoinsException;
 import com.georgster.gpt.MemberChatCompletions;
+import com.georgster.logs.MultiLogger;
 import com.georgster.profile.UserProfile;
 import com.georgster.util.DateTimed;
-import com.georgster.util.thread.ThreadPoolFactory;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
@@ -26,16 +35,38 @@ import discord4j.core.object.entity.Member;
 
 /**
  * Manages all {@link UserProfile UserProfiles} for a {@link com.georgster.control.SoapClient SoapClient}.
+ * <p>
+ * The {@link MemberChatCompletions} of each profile are stored in their own collection, only loaded when a profile's
+ * completions are first accessed, and evicted again once they have been idle for {@link #COMPLETIONS_IDLE_TIMEOUT} ms.
+ * Idle completions are looked for every {@link #COMPLETIONS_EVICTION_INTERVAL} ms on a thread shared by every manager.
  */
 public class UserProfileManager extends GuildedSoapManager<UserProfile> {
     /**
-     * The interval in milliseconds at which the factories will be processed.
+     * The length in milliseconds of each factory production cycle.
      */
     public static final long FACTORY_PROCESSING_INTERVAL = 3600000;
+    /**
+     * The time in milliseconds after which unused chat completions are released from memory.
+     */
+    public static final long COMPLETIONS_IDLE_TIMEOUT = 1800000;
+    /**
+     * The interval in milliseconds at which idle chat completions are evicted.
+     */
+    public static final long COMPLETIONS_EVICTION_INTERVAL = 300000;
+
+    private static final String BALANCE_PATH = "bank.balance"; // The database path of a profile's coin bank balance
+    private static final String INVESTED_COINS_PATH = "factory.context.investedCoins"; // The database path of a profile's invested factory coins
+    private static final String LAST_PROCESSED_CYCLE_PATH = "factory.context.lastProcessedCycle"; // The database path of a profile's last processed factory cycle
+
+    private static final ScheduledExecutorService COMPLETIONS_EVICTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GLOBAL-COMPLETIONS-EVICT");
+        thread.setDaemon(true);
+        return thread;
+    }); // Evicts every manager's idle chat completions
 
     private static OpenAiService aiService; //The singleton AI Service to communicate with OpenAI's API
-    private boolean isProcessingFactories; //Whether the factories are currently processing
-    private DateTimed nextFactoryProcessTime; //The next time the factories will be processed
+    private final ObjectStorage<MemberChatCompletions> completionsService; //The storage holding each profile's chat completions
+    private final Map<String, CoinSave> coinSaves; //The pending coin save of each profile, by identifier
     
     /**
      * Creates a new UserProfileManager for the given SoapClient's {@link ClientContext}.
@@ -44,68 +75,252 @@ public class UserProfileManager extends GuildedSoapManager<UserProfile> {
      */
     public UserProfileManager(ClientContext context) {
         super(context, ProfileType.PROFILES, UserProfile.class, "memberId");
-        this.isProcessingFactories = false;
+        this.completionsService = Storage.open(handler.getId(), ProfileType.COMPLETIONS, MemberChatCompletions.class);
+        this.coinSaves = new ConcurrentHashMap<>();
         createAiService();
+        COMPLETIONS_EVICTOR.scheduleWithFixedDelay(this::evictIdleCompletions, COMPLETIONS_EVICTION_INTERVAL, COMPLETIONS_EVICTION_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * The {@link UserProfileManager} also begins processing all {@link CoinFactory CoinFactories} upon loading.
+     * Profiles are loaded without their {@link MemberChatCompletions}, which are loaded on first access.
+     * Any {@link CoinFactory} which has never been processed starts producing from the current cycle.
      */
     @Override
     public void load() {
-        dbService.getAllObjects().forEach(event -> {
-            if (!exists(event)) {
-                observees.add(event);
-            }
+        migrateCompletions();
+        dbService.getAllObjects().forEach(profile -> {
+            profile.setCompletionsLoader(this::loadCompletions);
+            observees.add(profile);
         });
-        startProcessingFactories();
-        //ThreadPoolFactory.scheduleGeneralTask(handler.getId(), this::startProcessingFactories);
+        startUnprocessedFactories();
     }
 
     /**
-     * Begins processing all factories in this manager. This manager will call {@link CoinFactory#process()} on each factory every {@link #FACTORY_PROCESSING_INTERVAL} ms.
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(UserProfile observee) {
+        observee.setCompletionsLoader(this::loadCompletions);
+        super.add(observee);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(String identifier, UserProfile observee) {
+        observee.setCompletionsLoader(this::loadCompletions);
+        super.update(identifier, observee);
+    }
+
+    /**
+     * Moves any {@link MemberChatCompletions} still stored inside profile documents into the completions collection.
+     */
+    private void migrateCompletions() {
+        List<MemberChatCompletions> embedded = dbService.getFieldOfAllObjects("completions", MemberChatCompletions.class);
+        if (!embedded.isEmpty()) {
+            embedded.forEach(completions -> completionsService.addObjectIfNotExists(completions, ProfileType.COMPLETIONS.getIdentifierName(), completions.getIdentifier()));
+            dbService.unsetFieldOfAllObjects("completions");
+        }
+    }
+
+    /**
+     * Loads the {@link MemberChatCompletions} of the given member from the database.
+     * 
+     * @param memberId The ID of the member.
+     * @return The member's completions, or new, empty completions if the member has none.
+     */
+    private MemberChatCompletions loadCompletions(String memberId) {
+        MemberChatCompletions completions = completionsService.getObject(ProfileType.COMPLETIONS.getIdentifierName(), memberId);
+        return completions == null ? new MemberChatCompletions(memberId) : completions;
+    }
+
+    /**
+     * Saves the given {@link MemberChatCompletions} to the database.
+     * 
+     * @param completions The completions to save.
+     */
+    private void saveCompletions(MemberChatCompletions completions) {
+        String identifierName = ProfileType.COMPLETIONS.getIdentifierName();
+        if (!completionsService.updateObject(identifierName, completions.getIdentifier(), completions)) {
+            completionsService.addObjectIfNotExists(completions, identifierName, completions.getIdentifier());
+        }
+    }
+
+    /**
+     * Releases the {@link MemberChatCompletions} of every profile which have been idle for {@link #COMPLETIONS_IDLE_TIMEOUT} ms.
+     */
+    private void evictIdleCompletions() {
+        try {
+            observees.forEach(profile -> profile.evictCompletions(COMPLETIONS_IDLE_TIMEOUT));
+        } catch (RuntimeException e) { // Never let a failure stop the scheduled eviction
+            MultiLogger.logSystem("Could not evict idle chat completions: " + e.getMessage(), getClass());
+        }
+    }
+
+    /**
+     * Settles every {@link CoinFactory} which has never been processed, such as those stored before production
+     * cycles were tracked, so they start producing from the current cycle, and saves their processed cycle as one batch.
      * <p>
-     * Factories will only be processed once this method is called and will continue to be processed until {@link #stopProcessingFactories()} is called.
+     * If any of them is missing from the database, all profiles are rewritten instead.
+     */
+    private void startUnprocessedFactories() {
+        Map<String, FieldUpdate> updates = new HashMap<>();
+        observees.forEach(profile -> {
+            CoinFactory factory = profile.getFactory();
+            if (factory != null && factory.getLastProcessedCycle() <= 0) {
+                factory.settle();
+                updates.put(profile.getIdentifier(), new FieldUpdate().set(LAST_PROCESSED_CYCLE_PATH, factory.getLastProcessedCycle()));
+            }
+        });
+
+        if (!updates.isEmpty() && dbService.updateFieldsOfObjects(identifierName, updates) < updates.size()) {
+            dbService.updateAllObjects(observees.values(), identifierName);
+        }
+    }
+
+    /**
+     * Returns an update which saves the invested coins and last processed cycle of the profile's {@link CoinFactory}
+     * as they are in memory, so coins it produced lazily are saved alongside the cycle they were produced up to.
+     * 
+     * @param profile The profile whose factory to save.
+     * @return An update setting the factory's invested coins and last processed cycle.
+     */
+    private FieldUpdate getFactoryUpdate(UserProfile profile) {
+        CoinFactory factory = profile.getFactory();
+        synchronized (factory) {
+            return new FieldUpdate().set(INVESTED_COINS_PATH, factory.getSettledCoins()).set(LAST_PROCESSED_CYCLE_PATH, factory.getLastProcessedCycle());
+        }
+    }
+
+    /**
+     * Saves the profile's bank balance, and its factory's invested coins and last processed cycle if {@code withFactory}
+     * is set, as they are in memory once any save already in progress for the profile finishes.
      * <p>
-     * This method is called automatically when the manager is loaded and will run on a separate {@code GENERAL} task thread.
+     * The values are read under the bank's lock but written after releasing it, so changes to the bank are not held up
+     * by the database. Only one thread writes a profile's coins at a time, so an older balance can never overwrite a
+     * newer one; if a save is already in progress, this returns immediately and the thread saving writes the change too.
+     * 
+     * @param profile The profile whose coins to save.
+     * @param withFactory Whether to also save the profile's factory.
      */
-    private void startProcessingFactories() {
-        if (isProcessingFactories) {
-            return;
+    private void saveCoins(UserProfile profile, boolean withFactory) {
+        CoinSave save = coinSaves.computeIfAbsent(profile.getIdentifier(), identifier -> new CoinSave());
+        synchronized (save) {
+            save.dirty = true;
+            save.withFactory |= withFactory;
+            if (save.running) {
+                return; //The thread already saving will write this change too
+            }
+            save.running = true;
         }
-        isProcessingFactories = true;
-        ThreadPoolFactory.scheduleGeneralTask(handler.getId(), () -> {
-            while (isProcessingFactories) {
-                try {
-                    nextFactoryProcessTime = DateTimed.fromLocalDateTime(DateTimed.getCurrentLocalDateTime().plus(FACTORY_PROCESSING_INTERVAL, ChronoUnit.MILLIS));
-                    Thread.sleep(FACTORY_PROCESSING_INTERVAL);
-                    observees.forEach(profile -> {
-                        profile.getFactory().process();
-                    });
-                    dbService.updateAllObjects(observees);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+        boolean finished = false;
+        try {
+            while (true) {
+                boolean saveFactory;
+                synchronized (save) {
+                    if (!save.dirty) {
+                        save.running = false;
+                        finished = true;
+                        return;
+                    }
+                    saveFactory = save.withFactory;
+                    save.dirty = false;
+                    save.withFactory = false;
+                }
+                FieldUpdate update;
+                synchronized (profile.getBank()) {
+                    update = (saveFactory ? getFactoryUpdate(profile) : new FieldUpdate()).set(BALANCE_PATH, profile.getBank().getBalance());
                 }
+                updateFields(profile, update);
             }
-        });
+        } finally {
+            if (!finished) { //Leave the failed change for the next save to write again
+                synchronized (save) {
+                    save.dirty = true;
+                    save.withFactory |= withFactory;
+                    save.running = false;
+                }
+            }
+        }
     }
 
     /**
-     * Returns the moment {@link DateTimed time} at which the factories will be processed.
+     * Deposits the given amount into the profile's {@link CoinBank} and saves only its resulting balance in the database.
+     * <p>
+     * The final balance is set rather than incremented, so a pending save of the whole profile cannot count the deposit twice.
+     * The balance is saved as described in {@link #saveCoins(UserProfile, boolean)}.
      * 
-     * @return The next time the factories will be processed as a {@link DateTimed}.
+     * @param profile The profile to deposit into.
+     * @param amount The amount to deposit.
      */
-    public DateTimed getNextFactoryProcessTime() {
-        return nextFactoryProcessTime;
+    public void depositCoins(UserProfile profile, long amount) {
+        synchronized (profile.getBank()) {
+            profile.getBank().deposit(amount);
+        }
+        saveCoins(profile, false);
     }
 
     /**
-     * Stops processing all factories in this manager. Following this method call, this manager will no longer call {@link CoinFactory#process()} on each factory every 60 seconds.
+     * Withdrawls the given amount from the profile's {@link CoinBank} and saves only its resulting balance in the database,
+     * as described in {@link #saveCoins(UserProfile, boolean)}.
+     * 
+     * @param profile The profile to withdrawl from.
+     * @param amount The amount to withdrawl.
+     * @throws InsufficientCoinsException If the profile's bank does not have enough balance for the withdrawl.
      */
-    public void stopProcessingFactories() {
-        isProcessingFactories = false;
+    public void withdrawlCoins(UserProfile profile, long amount) throws InsufficientCoinsException {
+        synchronized (profile.getBank()) {
+            profile.getBank().withdrawl(amount);
+        }
+        saveCoins(profile, false);
+    }
+
+    /**
+     * Moves the given amount from the profile's {@link CoinBank} into its {@link CoinFactory}, updating
+     * only the bank balance, invested coins and last processed cycle in the database, as described in
+     * {@link #saveCoins(UserProfile, boolean)}.
+     * 
+     * @param profile The profile to invest for.
+     * @param amount The amount to invest.
+     * @throws IllegalArgumentException If the amount is negative.
+     * @throws InsufficientCoinsException If the profile's bank does not have enough balance to invest.
+     * @see CoinFactory#deposit(long, CoinBank)
+     */
+    public void investFactoryCoins(UserProfile profile, long amount) throws IllegalArgumentException, InsufficientCoinsException {
+        synchronized (profile.getBank()) {
+            profile.getFactory().deposit(amount, profile.getBank());
+        }
+        saveCoins(profile, true);
+    }
+
+    /**
+     * Moves the given amount from the profile's {@link CoinFactory} into its {@link CoinBank}, updating
+     * only the bank balance, invested coins and last processed cycle in the database, as described in
+     * {@link #saveCoins(UserProfile, boolean)}.
+     * 
+     * @param profile The profile to withdraw for.
+     * @param amount The amount to withdraw.
+     * @throws IllegalArgumentException If the amount is negative.
+     * @throws InsufficientCoinsException If the profile's factory does not have enough coins to withdraw.
+     * @see CoinFactory#withdraw(long, CoinBank)
+     */
+    public void withdrawFactoryCoins(UserProfile profile, long amount) throws IllegalArgumentException, InsufficientCoinsException {
+        synchronized (profile.getBank()) {
+            profile.getFactory().withdraw(amount, profile.getBank());
+        }
+        saveCoins(profile, true);
+    }
+
+    /**
+     * Returns the moment {@link DateTimed time} at which the factories will next produce coins.
+     * 
+     * @return The next time the factories will produce coins as a {@link DateTimed}.
+     */
+    public DateTimed getNextFactoryProcessTime() {
+        return CoinFactory.getNextCycleTime();
     }
 
     /**
@@ -124,18 +339,18 @@ public class UserProfileManager extends GuildedSoapManager<UserProfile> {
     }
 
     /**
-     * Updates all user profiles information with the data in the {@link GuildCreateEvent}.
+     * Updates all user profiles information with the data in the {@link GuildCreateEvent},
+     * returning once every member has been updated.
      * 
      * @param event The event with all member information.
      */
     public void updateFromEvent(GuildCreateEvent event) {
-        event.getGuild().getMembers().subscribe(member -> {
+        event.getGuild().getMembers().collectList().block().forEach(member -> {
             String id = member.getId().asString();
             if (exists(id)) {
                 // All manageables must maintained.
                 UserProfile profile = get(id);
-                MemberChatCompletions completions = profile.getCompletions();
-                if (completions == null) completions = new MemberChatCompletions(id);
+                MemberChatCompletions completions = profile.areCompletionsLoaded() ? profile.getCompletions() : null; // Loaded on first access otherwise
                 CoinBank bank = profile.getBank();
                 if (bank == null) bank = new CoinBank(id);
                 List<Collected> collecteds = profile.getCollecteds();
@@ -177,7 +392,7 @@ public class UserProfileManager extends GuildedSoapManager<UserProfile> {
         result.getChoices().forEach(choice -> responses.add(choice.getMessage().getContent()));
         profile.getCompletions().addCompletion(prompt, responses.get(0));
 
-        update(profile);
+        saveCompletions(profile.getCompletions());
 
         return responses;
     }
@@ -201,7 +416,7 @@ public class UserProfileManager extends GuildedSoapManager<UserProfile> {
         String response = result.getChoices().get(0).getMessage().getContent();
         profile.getCompletions().addCompletion(prompt, response);
 
-        update(profile);
+        saveCompletions(profile.getCompletions());
 
         return response;
     }
@@ -312,4 +527,13 @@ public class UserProfileManager extends GuildedSoapManager<UserProfile> {
             })
         );
     }
+
+    /**
+     * The state of saving a profile's coins, guarded by its own lock.
+     */
+    private static final class CoinSave {
+        private boolean dirty; //Whether the profile's coins changed since they were last read for saving
+        private boolean withFactory; //Whether any of those changes were to the profile's factory
+        private boolean running; //Whether a thread is saving the profile's coins
+    }
 }
@@ -1,11 +1,16 @@
 package com.georgster.control.util;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 import com.georgster.control.CommandRegistry;
 import com.georgster.control.manager.CollectableManager;
+import com.georgster.control.manager.GlobalSoapManager;
 import com.georgster.control.manager.Manageable;
 import com.georgster.control.manager.MentionGroupManager;
 import com.georgster.control.manager.PermissionsManager;
@@ -200,6 +205,25 @@ public class ClientContext {
         managers.forEach(action::accept);
     }
 
+    /**
+     * Loads every guild-specific {@link SoapManager} in this context concurrently on the given executor.
+     * No manager reads another while loading, so none waits on another's load. {@link GlobalSoapManager GlobalSoapManagers}
+     * are loaded once at startup by the {@code SoapClientManager} and are skipped.
+     * 
+     * @param executor The executor to load the managers on.
+     * @return The load of each manager keyed by its class, each completing with how long the load took in nanoseconds.
+     */
+    public Map<Class<?>, CompletableFuture<Long>> loadManagers(Executor executor) {
+        Map<Class<?>, CompletableFuture<Long>> loads = new LinkedHashMap<>();
+        managers.stream().filter(manager -> !(manager instanceof GlobalSoapManager))
+            .forEach(manager -> loads.put(manager.getClass(), CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                manager.load();
+                return System.nanoTime() - start;
+            }, executor)));
+        return loads;
+    }
+
     /**
      * Returns the rest client.
      * 
@@ -36,15 +36,18 @@ import discord4j.core.object.entity.channel.GuildMessageChannel;
 /**
  * An Event fired upon the execution of a SOAPBot {@link Command}. This Event packages
  * the data from the {@link DiscordEvent}, as well as various objects a command might need.
+ * <p>
+ * The {@link MultiLogger} and interaction handlers of an event are only created when they are first used,
+ * so creating an event makes no requests to Discord and executions which are rejected early build very little.
  */
 public class CommandExecutionEvent {
     
-    private MultiLogger logger; // Used to log messages about the Event.
+    private MultiLogger logger; // Used to log messages about the Event, created on first use
     private Command command; // The Command that is being executed
     private DiscordEvent discordEvent; // A wrapper used to extract data from the Discord Event that created this Event
     private ClientContext context; // The context of the SoapClient associated with the event.
-    private GuildInteractionHandler handler;
-    private UserInteractionHandler userHandler;
+    private GuildInteractionHandler handler; // Created on first use
+    private UserInteractionHandler userHandler; // Created on first use
     private ParsedArguments parsedArguments;
     private CommandParser parser;
 
@@ -59,20 +62,10 @@ public class CommandExecutionEvent {
         this.discordEvent = event;
         this.context = context;
         this.command = command;
-        this.handler = new GuildInteractionHandler(discordEvent.getGuild()); // Used to manage the Command's interaction with the Guild
-        handler.setActiveMessageChannel((GuildMessageChannel) discordEvent.getChannel());
-        this.userHandler = new UserInteractionHandler(discordEvent.getUser());
-        if (discordEvent.isChatInteraction()) { // If the Event was fired from a slash command
-            handler.setActiveCommandInteraction((ChatInputInteractionEvent) discordEvent.getEvent());
-        }
-
-        this.logger = new MultiLogger(handler, command.getClass()); // Used to log messages about the Event
 
         if (command instanceof ParseableCommand) { // If the Command is parseable, it gets a CommandParser
-            this.parser = ((ParseableCommand) command).getCommandParser();
+            this.parser = context.getCommandRegistry().getCommandParser((ParseableCommand) command);
         }
-
-        this.handler.setUserSettings(context.getUserSettingsManager().get(discordEvent.getUser().getId().asString()));
     }
 
     /**
@@ -85,22 +78,22 @@ public class CommandExecutionEvent {
      * are handled by the event's {@link GuildInteractionHandler}.
      */
     public void executeCommand() {
-        logger.append("**Executing: " + command.getClass().getSimpleName() + "**\n", LogDestination.NONAPI);
-        logger.append("- Platform: " + discordEvent.getPlatform().toString() + "\n", LogDestination.NONAPI);
+        getLogger().append("**Executing: " + command.getClass().getSimpleName() + "**\n", LogDestination.NONAPI);
+        getLogger().append("- Platform: " + discordEvent.getPlatform().toString() + "\n", LogDestination.NONAPI);
 
         List<String> args = null;
         if (command instanceof ParseableCommand) {
             try {
                 parsedArguments = parser.parse(discordEvent.getFormattedMessage());
                 args = parsedArguments.getArguments();
-                logger.append("- Arguments found: " + args.toString() + "\n",LogDestination.NONAPI);
+                getLogger().append("- Arguments found: " + args.toString() + "\n",LogDestination.NONAPI);
                 deferIfNecessary();
                 executeIfPermission(args);
             } catch (Exception e) {
-                logger.append("- Failed to execute, sending a help message\n", LogDestination.NONAPI);
-                logger.append("Caught " + e.getClass().getSimpleName() + ": " + e.getMessage() + "\n", LogDestination.SYSTEM, LogDestination.FILE);
+                getLogger().append("- Failed to execute, sending a help message\n", LogDestination.NONAPI);
+                getLogger().append("Caught " + e.getClass().getSimpleName() + ": " + e.getMessage() + "\n", LogDestination.SYSTEM, LogDestination.FILE);
                 for (StackTraceElement element : e.getStackTrace()) {
-                    logger.append("\t" + element.toString() + "\n", LogDestination.FILE, LogDestination.SYSTEM);
+                    getLogger().append("\t" + element.toString() + "\n", LogDestination.FILE, LogDestination.SYSTEM);
                 }
 
                 InputWizard helpWizard = new IterableStringWizard(this, command.getClass().getSimpleName(), SoapUtility.splitHelpString(command.help()));
@@ -114,7 +107,7 @@ public class CommandExecutionEvent {
             executeIfPermission(args);
         }
 
-        logger.sendAll();
+        getLogger().sendAll();
     }
 
     /**
@@ -127,7 +120,7 @@ public class CommandExecutionEvent {
     private void deferIfNecessary() {
         if (discordEvent.getEvent() instanceof DeferrableInteractionEvent && command.shouldDefer()) {
             DeferrableInteractionEvent event = (DeferrableInteractionEvent) discordEvent.getEvent();
-            handler.deferReply(event);
+            getGuildInteractionHandler().deferReply(event);
         }
     }
 
@@ -140,8 +133,8 @@ public class CommandExecutionEvent {
         if (hasPermission(args)) {
             command.execute(this);
         } else {
-            handler.sendMessage("You need " + command.getRequiredPermission(args) + " to use this command.");
-            logger.append("- User is missing permission: " + command.getRequiredPermission(args) + " to use this command.", LogDestination.NONAPI);
+            getGuildInteractionHandler().sendMessage("You need " + command.getRequiredPermission(args) + " to use this command.");
+            getLogger().append("- User is missing permission: " + command.getRequiredPermission(args) + " to use this command.", LogDestination.NONAPI);
         }
     }
     
@@ -251,7 +244,10 @@ public class CommandExecutionEvent {
      * 
      * @return the {@link MultiLogger} that is used to log messages about the Event.
      */
-    public MultiLogger getLogger() {
+    public synchronized MultiLogger getLogger() {
+        if (logger == null) {
+            logger = new MultiLogger(context.getGuild(), command.getClass());
+        }
         return logger;
     }
 
@@ -260,7 +256,15 @@ public class CommandExecutionEvent {
      * 
      * @return the {@link GuildInteractionHandler} that handles the Command's interaction with the Guild.
      */
-    public GuildInteractionHandler getGuildInteractionHandler() {
+    public synchronized GuildInteractionHandler getGuildInteractionHandler() {
+        if (handler == null) {
+            handler = new GuildInteractionHandler(context.getGuild()); // Used to manage the Command's interaction with the Guild
+            handler.setActiveMessageChannel((GuildMessageChannel) discordEvent.getChannel());
+            if (discordEvent.isChatInteraction()) { // If the Event was fired from a slash command
+                handler.setActiveCommandInteraction((ChatInputInteractionEvent) discordEvent.getEvent());
+            }
+            handler.setUserSettings(context.getUserSettingsManager().get(discordEvent.getUser().getId().asString()));
+        }
         return handler;
     }
 
@@ -269,7 +273,10 @@ public class CommandExecutionEvent {
      * 
      * @return The {@link UserInteractionHandler} that handles the Command's interaction with the {@link User} who executed the command.
      */
-    public UserInteractionHandler getUserInteractionHandler() {
+    public synchronized UserInteractionHandler getUserInteractionHandler() {
+        if (userHandler == null) {
+            userHandler = new UserInteractionHandler(discordEvent.getUser());
+        }
         return userHandler;
     }
 
@@ -0,0 +1,268 @@
+package com.georgster.control.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.georgster.Command;
+
+/**
+ * Decides whether a {@link Command} may be executed in a {@code Guild} before any work is done for it.
+ * <p>
+ * Each user and the {@code Guild} as a whole have a token bucket, which refills at a steady rate up to its capacity.
+ * Executing a {@link Command} takes {@link Command#getCost()} tokens from both the user's and the {@code Guild's}
+ * bucket, and is rejected if either does not have enough. On top of that, at most {@code maxPending} admitted
+ * {@link Command Commands} may be waiting or running in the {@code Guild} at once, so bursts can never build an
+ * unbounded backlog. A {@link Command} waiting on a user, such as one with an open wizard or poll, does not count
+ * as pending while it waits, see {@link #beginBlocking()}.
+ * <p>
+ * Rejection only takes a few arithmetic operations, so spam costs nothing beyond reading the message.
+ */
+public final class CommandLimiter {
+    private static final ThreadLocal<Admission> CURRENT = new ThreadLocal<>(); // The admitted execution running on the current thread, if any
+
+    /** The default number of tokens each user's bucket holds. */
+    public static final int DEFAULT_USER_CAPACITY = 10;
+    /** The default number of tokens each user's bucket regains per second. */
+    public static final double DEFAULT_USER_REFILL = 1;
+    /** The default number of tokens the {@code Guild's} bucket holds. */
+    public static final int DEFAULT_GUILD_CAPACITY = 60;
+    /** The default number of tokens the {@code Guild's} bucket regains per second. */
+    public static final double DEFAULT_GUILD_REFILL = 5;
+    /** The default number of admitted commands that may be waiting or running at once. */
+    public static final int DEFAULT_MAX_PENDING = 60;
+
+    private final int userCapacity; // How many tokens each user's bucket holds
+    private final double userRefill; // How many tokens each user's bucket regains per second
+    private final int maxPending; // How many admitted commands may be waiting or running at once
+    private final TokenBucket guildBucket; // Shared by every user of the guild
+    private final Map<String, TokenBucket> userBuckets; // User ID -> that user's bucket
+    private final AtomicInteger pending; // How many admitted commands are waiting or running
+    private final AtomicLong rejected; // How many commands have been rejected
+
+    /**
+     * Creates a limiter with the default capacities and refill rates.
+     */
+    public CommandLimiter() {
+        this(DEFAULT_USER_CAPACITY, DEFAULT_USER_REFILL, DEFAULT_GUILD_CAPACITY, DEFAULT_GUILD_REFILL, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Creates a limiter with the given capacities and refill rates.
+     *
+     * @param userCapacity How many tokens each user's bucket holds.
+     * @param userRefill How many tokens each user's bucket regains per second.
+     * @param guildCapacity How many tokens the {@code Guild's} bucket holds.
+     * @param guildRefill How many tokens the {@code Guild's} bucket regains per second.
+     * @param maxPending How many admitted commands may be waiting or running at once.
+     */
+    public CommandLimiter(int userCapacity, double userRefill, int guildCapacity, double guildRefill, int maxPending) {
+        this.userCapacity = userCapacity;
+        this.userRefill = userRefill;
+        this.maxPending = maxPending;
+        this.guildBucket = new TokenBucket(guildCapacity, guildRefill);
+        this.userBuckets = new ConcurrentHashMap<>();
+        this.pending = new AtomicInteger();
+        this.rejected = new AtomicLong();
+    }
+
+    /**
+     * Attempts to admit an execution of the {@link Command} by the given user. If admitted, the execution must be
+     * {@link #run(Runnable) run} through this limiter, or {@link #release()} called if it will never run.
+     * <p>
+     * Tokens are only taken if the execution is admitted. A {@link Command} costing more than a bucket's
+     * capacity is treated as costing the whole bucket.
+     *
+     * @param userId The ID of the user executing the {@link Command}, or {@code null} if unknown.
+     * @param command The {@link Command} being executed.
+     * @return {@code true} if the execution is admitted, {@code false} if it was rejected.
+     */
+    public boolean tryAcquire(String userId, Command command) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        int cost = Math.max(1, command.getCost());
+        long now = System.nanoTime();
+        TokenBucket userBucket = userId == null ? null : userBuckets.computeIfAbsent(userId, id -> new TokenBucket(userCapacity, userRefill));
+        if (userBucket != null && !userBucket.tryTake(cost, now)) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        if (!guildBucket.tryTake(cost, now)) {
+            if (userBucket != null) {
+                userBucket.give(cost); // The user is not at fault, so they keep their tokens
+            }
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+
+        if (userBuckets.size() > maxPending * 4) { // Forgets users whose buckets have refilled once there are many
+            userBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+        return true;
+    }
+
+    /**
+     * Marks an admitted execution as finished, making room for another.
+     */
+    public void release() {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * Runs an admitted execution on the current thread, then {@link #release() releases} it. While it runs, the
+     * execution can stop counting as pending with {@link #beginBlocking()}.
+     *
+     * @param execution The admitted execution.
+     */
+    public void run(Runnable execution) {
+        Admission admission = new Admission(this);
+        CURRENT.set(admission);
+        try {
+            execution.run();
+        } finally {
+            CURRENT.remove();
+            if (!admission.parked) {
+                release();
+            }
+        }
+    }
+
+    /**
+     * Stops counting the execution running on the current thread as pending until {@link #endBlocking()} is called,
+     * so a {@link Command} waiting on a user does not use up its {@code Guild's} admissions. Does nothing if the
+     * current thread is not running an execution {@link #run(Runnable) admitted} by a limiter, or it is already parked.
+     */
+    public static void beginBlocking() {
+        Admission admission = CURRENT.get();
+        if (admission != null && !admission.parked) {
+            admission.parked = true;
+            admission.limiter.pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Counts the execution parked by {@link #beginBlocking()} on the current thread as pending again. The execution
+     * continues straight away, even if that briefly puts more than {@code maxPending} executions pending.
+     */
+    public static void endBlocking() {
+        Admission admission = CURRENT.get();
+        if (admission != null && admission.parked) {
+            admission.parked = false;
+            admission.limiter.pending.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns how many admitted {@link Command Commands} are waiting or running.
+     *
+     * @return How many admitted {@link Command Commands} are waiting or running.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Returns how many {@link Command Commands} this limiter has rejected.
+     *
+     * @return How many {@link Command Commands} have been rejected.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * An admitted execution running on a thread.
+     */
+    private static final class Admission {
+        private final CommandLimiter limiter; // The limiter that admitted the execution
+        private boolean parked; // Whether the execution has stopped counting as pending while it blocks
+
+        /**
+         * Creates the admission of an execution about to run.
+         *
+         * @param limiter The limiter that admitted the execution.
+         */
+        private Admission(CommandLimiter limiter) {
+            this.limiter = limiter;
+        }
+    }
+
+    /**
+     * A bucket of tokens which refills at a steady rate up to its capacity.
+     */
+    private static final class TokenBucket {
+        private final double capacity; // The most tokens the bucket holds
+        private final double refillPerNano; // How many tokens the bucket regains per nanosecond
+        private double tokens; // How many tokens the bucket holds as of lastRefill
+        private long lastRefill; // When tokens was last brought up to date, in nanoseconds
+
+        /**
+         * Creates a full bucket.
+         *
+         * @param capacity The most tokens the bucket holds.
+         * @param refillPerSecond How many tokens the bucket regains per second.
+         */
+        private TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1000000000.0;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * Takes the given number of tokens if the bucket holds that many, or is full.
+         *
+         * @param cost How many tokens to take.
+         * @param now The current time in nanoseconds.
+         * @return {@code true} if the tokens were taken, {@code false} otherwise.
+         */
+        private synchronized boolean tryTake(int cost, long now) {
+            refill(now);
+            double needed = Math.min(cost, capacity);
+            if (tokens < needed) {
+                return false;
+            }
+            tokens -= needed;
+            return true;
+        }
+
+        /**
+         * Returns tokens taken by an execution which was rejected afterwards.
+         *
+         * @param cost How many tokens were taken.
+         */
+        private synchronized void give(int cost) {
+            tokens = Math.min(capacity, tokens + Math.min(cost, capacity));
+        }
+
+        /**
+         * Returns whether the bucket has refilled completely, in which case it is no different from a new one.
+         *
+         * @param now The current time in nanoseconds.
+         * @return {@code true} if the bucket can be forgotten, {@code false} otherwise.
+         */
+        private synchronized boolean isIdle(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        /**
+         * Adds the tokens regained since the last refill.
+         *
+         * @param now The current time in nanoseconds.
+         */
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
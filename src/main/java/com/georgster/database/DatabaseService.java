@@ -4,10 +4,19 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.codecs.configuration.CodecProvider;
 import org.bson.codecs.configuration.CodecRegistry;
@@ -16,21 +25,40 @@ import org.bson.conversions.Bson;
 
 import com.georgster.control.manager.Manageable;
 import com.georgster.database.adapter.DatabaseObjectClassAdapter;
+import com.georgster.database.codec.ManageableCodec;
+import com.georgster.database.codec.ManageableCodecProvider;
+import com.georgster.logs.MultiLogger;
 import com.georgster.util.Unwrapper;
-import com.google.gson.reflect.TypeToken;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
 import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
 
 import static com.mongodb.MongoClientSettings.getDefaultCodecRegistry;
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
 import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
 import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.nin;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
 
 /**
- * <p>A service capable of storing and retrieving objects from SOAP Bot's MongoDB database.
+ * <p>The {@link ObjectStorage} capable of storing and retrieving objects from SOAP Bot's MongoDB database.
  * It can be used to store and retrieve any object through any methods, however interfaces
  * or abstract classes must use a {@link DatabaseObjectClassAdapter} to supply this service
  * with the correct class type.</p>
@@ -39,15 +67,41 @@ import static com.mongodb.client.model.Filters.eq;
  * find the object to update or delete. The identifier name is the name of the field in the
  * object to search for and the identifier value is the value of that field.</p>
  * 
+ * <p>Conditional operations such as {@code addObjectIfNotExists}, {@code updateObjectIfExists} and
+ * {@code removeObjectIfExists} are each a single round trip which never deserializes the stored object,
+ * so their {@link DatabaseObjectClassAdapter} overloads no longer need the adapter.</p>
+ * 
+ * <p>Objects are encoded to and decoded from BSON directly by a {@link ManageableCodec}, using the same
+ * {@link Manageable#getGson() Gson} type adapters as before but without an intermediate JSON string.</p>
+ * 
+ * <p>When write-behind mode is {@link #enableWriteBehind(long, int) enabled}, updates made through
+ * {@code updateObjectIfExists} are buffered and coalesced per identifier, then written in batches by a
+ * background flusher rather than on the calling thread. Reads and removals from a collection always
+ * see or supersede its buffered writes.</p>
+ * 
  * @param T The type of object to store or retrieve.
  */
-public class DatabaseService<T extends Manageable> {
+public class DatabaseService<T extends Manageable> implements ObjectStorage<T> {
+    /** The default interval in milliseconds at which buffered writes are flushed in write-behind mode. */
+    public static final long DEFAULT_FLUSH_INTERVAL = 2000;
+    /** The default number of buffered writes to a collection which triggers an early flush in write-behind mode. */
+    public static final int DEFAULT_FLUSH_BATCH_SIZE = 100;
 
     private static final CodecProvider pojoCodecProvider = PojoCodecProvider.builder().automatic(true).build();
-    private static final CodecRegistry pojoCodecRegistry = fromRegistries(getDefaultCodecRegistry(), fromProviders(pojoCodecProvider));
+    private static final CodecRegistry pojoCodecRegistry = fromRegistries(fromProviders(new ManageableCodecProvider()), getDefaultCodecRegistry(), fromProviders(pojoCodecProvider));
     private static MongoClient mongoClient; // The Singleton MongoClient
+    private static final Map<String, WriteBehindQueue> writeBehindQueues = new ConcurrentHashMap<>(); // Maps "database/collection" to its buffered writes
+    private static ScheduledExecutorService writeBehindFlusher; // Flushes buffered writes, null if write-behind mode is disabled
+    private static int writeBehindBatchSize; // The number of buffered writes to a collection which triggers an early flush
+    private static final AtomicLong flushes = new AtomicLong(); // The number of flushes which wrote at least one object
+    private static final AtomicLong writesFlushed = new AtomicLong(); // The number of objects written by flushes
+    private static final AtomicLong lastFlushNanos = new AtomicLong(); // The duration of the last flush
+    private static final AtomicLong totalFlushNanos = new AtomicLong(); // The combined duration of all flushes
+    private static final AtomicLong maxFlushNanos = new AtomicLong(); // The duration of the longest flush
+    private static final Set<String> indexedCollections = ConcurrentHashMap.newKeySet(); // The "database/collection" names whose identifier index has been ensured
     private final Class<T> classType; // The class type of the object to store or retrieve
     private final ProfileType type; // The type of the server's profile to store or retrieve from
+    private final CodecRegistry codecRegistry; // Decodes documents of this service's collection into its class type
     private String id; // The ID of the server to store or retrieve from
 
     /**
@@ -65,9 +119,28 @@ public class DatabaseService<T extends Manageable> {
     public DatabaseService(String guildId, ProfileType type, Class<T> classType) {
         this.classType = classType;
         this.type = type;
+        this.codecRegistry = fromRegistries(fromCodecs(new ManageableCodec<>(classType)), pojoCodecRegistry);
         createClient();
 
         this.id = guildId;
+        ensureIdentifierIndex();
+    }
+
+    /**
+     * Ensures a unique index exists on the {@link ProfileType#getIdentifierName() identifier field} of this service's
+     * collection, so lookups by identifier do not scan the collection. Each collection is only checked once per run.
+     */
+    private void ensureIdentifierIndex() {
+        String collectionName = type.toString().toLowerCase();
+        if (indexedCollections.add(id + "/" + collectionName)) {
+            withDatabase(database -> {
+                try {
+                    database.getCollection(collectionName, Document.class).createIndex(Indexes.ascending(type.getIdentifierName()), new IndexOptions().unique(true));
+                } catch (MongoException e) { // Most likely duplicate identifiers already exist in the collection
+                    MultiLogger.logSystem("Could not create a unique " + type.getIdentifierName() + " index on " + id + "/" + collectionName + ": " + e.getMessage(), getClass());
+                }
+            });
+        }
     }
 
     /**
@@ -92,6 +165,157 @@ public class DatabaseService<T extends Manageable> {
         consumer.accept(mongoClient.getDatabase(id).withCodecRegistry(pojoCodecRegistry));
     }
 
+    /**
+     * Returns this service's collection, decoding its documents into this service's class type.
+     * 
+     * @param database The database of the current server.
+     * @return The collection of this service's {@code ProfileType}.
+     */
+    private MongoCollection<T> getTypedCollection(MongoDatabase database) {
+        return database.getCollection(type.toString().toLowerCase(), classType).withCodecRegistry(codecRegistry);
+    }
+
+    /**
+     * Returns this service's collection, decoding its documents into the class type chosen by the given adapter.
+     * 
+     * @param database The database of the current server.
+     * @param adapter The adapter used to get the class type of each document.
+     * @return The collection of this service's {@code ProfileType}.
+     */
+    private MongoCollection<T> getTypedCollection(MongoDatabase database, DatabaseObjectClassAdapter<T> adapter) {
+        return database.getCollection(type.toString().toLowerCase(), classType)
+                .withCodecRegistry(fromRegistries(fromCodecs(new ManageableCodec<>(classType, adapter)), pojoCodecRegistry));
+    }
+
+    /**
+     * Returns the write-behind queue for this service's collection, creating it if it does not exist.
+     * 
+     * @return The write-behind queue for this service's collection.
+     */
+    private WriteBehindQueue getWriteBehindQueue() {
+        String collectionName = type.toString().toLowerCase();
+        return writeBehindQueues.computeIfAbsent(id + "/" + collectionName, name -> new WriteBehindQueue(name,
+                () -> mongoClient.getDatabase(id).withCodecRegistry(pojoCodecRegistry).getCollection(collectionName, BsonDocument.class)));
+    }
+
+    /**
+     * Writes any buffered writes for this service's collection so that reads observe them.
+     */
+    private void flushPendingWrites() {
+        WriteBehindQueue queue = writeBehindQueues.get(id + "/" + type.toString().toLowerCase());
+        if (queue != null && queue.size() > 0) {
+            flushQueue(queue);
+        }
+    }
+
+    /**
+     * Buffers the object to be upserted by the write-behind flusher, triggering an early flush
+     * of its collection if the batch size has been reached.
+     * 
+     * @param object The object to write.
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     */
+    private void writeBehind(T object, String identifierName, String identifierValue) {
+        WriteBehindQueue queue = getWriteBehindQueue();
+        if (queue.enqueue(object, identifierName, identifierValue) >= writeBehindBatchSize) {
+            ScheduledExecutorService flusher = writeBehindFlusher;
+            if (flusher != null) {
+                flusher.execute(() -> flushQueue(queue));
+            }
+        }
+    }
+
+    /**
+     * Enables write-behind mode for all {@link DatabaseService DatabaseServices}.
+     * <p>
+     * Once enabled, updates are buffered and coalesced per object, then written as one bulk write per collection
+     * every {@code flushInterval} milliseconds, or as soon as {@code batchSize} writes to a collection are buffered.
+     * All buffered writes are flushed when the JVM shuts down, when {@link #flushAll()} is called and
+     * when write-behind mode is {@link #disableWriteBehind() disabled}.
+     * 
+     * @param flushInterval The interval in milliseconds at which buffered writes are flushed.
+     * @param batchSize The number of buffered writes to a collection which triggers an early flush.
+     */
+    public static synchronized void enableWriteBehind(long flushInterval, int batchSize) {
+        if (writeBehindFlusher != null) {
+            return;
+        }
+        writeBehindBatchSize = batchSize;
+        writeBehindFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "GLOBAL-DATABASE-FLUSH"));
+        writeBehindFlusher.scheduleWithFixedDelay(DatabaseService::flushAll, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseService::flushAll, "GLOBAL-DATABASE-SHUTDOWN"));
+    }
+
+    /**
+     * Disables write-behind mode after flushing all buffered writes. Following this call, updates are
+     * written on the calling thread again.
+     */
+    public static synchronized void disableWriteBehind() {
+        if (writeBehindFlusher == null) {
+            return;
+        }
+        writeBehindFlusher.shutdown();
+        writeBehindFlusher = null;
+        flushAll();
+    }
+
+    /**
+     * Returns whether write-behind mode is enabled.
+     * 
+     * @return {@code true} if updates are buffered, {@code false} if they are written immediately.
+     */
+    public static boolean isWriteBehindEnabled() {
+        return writeBehindFlusher != null;
+    }
+
+    /**
+     * Immediately writes all buffered writes for every collection on the calling thread.
+     */
+    public static void flushAll() {
+        writeBehindQueues.values().forEach(DatabaseService::flushQueue);
+    }
+
+    /**
+     * Flushes the given queue and records its latency.
+     * 
+     * @param queue The queue to flush.
+     */
+    private static void flushQueue(WriteBehindQueue queue) {
+        long start = System.nanoTime();
+        try {
+            int written = queue.flush();
+            if (written > 0) {
+                long elapsed = System.nanoTime() - start;
+                flushes.incrementAndGet();
+                writesFlushed.addAndGet(written);
+                lastFlushNanos.set(elapsed);
+                totalFlushNanos.addAndGet(elapsed);
+                maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+            }
+        } catch (Exception e) { // Never let a failure kill the scheduled flusher
+            MultiLogger.logSystem("Unexpected error during a write-behind flush: " + e.getMessage(), DatabaseService.class);
+        }
+    }
+
+    /**
+     * Returns the number of writes currently buffered across all collections.
+     * 
+     * @return The write-behind queue depth.
+     */
+    public static int getWriteBehindQueueDepth() {
+        return writeBehindQueues.values().stream().mapToInt(WriteBehindQueue::size).sum();
+    }
+
+    /**
+     * Returns a snapshot of the current write-behind queue depth and flush latency.
+     * 
+     * @return The current {@link WriteBehindMetrics}.
+     */
+    public static WriteBehindMetrics getWriteBehindMetrics() {
+        return new WriteBehindMetrics(getWriteBehindQueueDepth(), writeBehindQueues.values().stream().mapToLong(WriteBehindQueue::getDeadLetterCount).sum(), flushes.get(), writesFlushed.get(), lastFlushNanos.get(), totalFlushNanos.get(), maxFlushNanos.get());
+    }
+
     /**
      * Adds the given object to the database unconditionally.
      * 
@@ -99,10 +323,8 @@ public class DatabaseService<T extends Manageable> {
      */
     public void addObject(T object) {
         withDatabase(database -> {
-            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
-            
-            Document document = Document.parse(object.deserialize());
-            collection.insertOne(document);
+            MongoCollection<BsonDocument> collection = database.getCollection(type.toString().toLowerCase(), BsonDocument.class);
+            collection.insertOne(ManageableCodec.toBsonDocument(object));
         });
     }
 
@@ -112,32 +334,164 @@ public class DatabaseService<T extends Manageable> {
      * @param identifierName The name of the field to search for.
      * @param identifierValue The value of the field to search for.
      * @param object The object to update with.
+     * @return {@code true} if an object was found and replaced, {@code false} otherwise.
      */
-    public void updateObject(String identifierName, String identifierValue, T object) {
+    public boolean updateObject(String identifierName, String identifierValue, T object) {
+        Unwrapper<Boolean> updated = new Unwrapper<>();
         withDatabase(database -> {
-            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
+            MongoCollection<BsonDocument> collection = database.getCollection(type.toString().toLowerCase(), BsonDocument.class);
             Bson filter = eq(identifierName, identifierValue);
 
-            Document document = Document.parse(object.deserialize());
-            collection.replaceOne(filter, document);
+            updated.setObject(collection.replaceOne(filter, ManageableCodec.toBsonDocument(object)).getMatchedCount() > 0);
         });
+        return updated.getObject();
     }
 
     /**
-     * Updates all objects in the database for this service's {@code ProfileType} with the given objects.
+     * Updates all objects in the database for this service's {@code ProfileType} with the given objects,
+     * removing any objects in the database which are not among them.
+     * <p>
+     * Each object is replaced, or inserted if absent, in place as part of a single unordered bulk write, so the
+     * collection is never left empty or partially written while the update is in progress.
      * 
      * @param objects The objects to update the database with.
+     * @param identifierName The name of the identifier field of the objects.
      */
-    public void updateAllObjects(List<T> objects) {
+    public void updateAllObjects(List<T> objects, String identifierName) {
+        withDatabase(database -> {
+            MongoCollection<BsonDocument> collection = database.getCollection(type.toString().toLowerCase(), BsonDocument.class);
+
+            List<WriteModel<BsonDocument>> writes = new ArrayList<>();
+            List<String> identifiers = new ArrayList<>();
+            ReplaceOptions upsert = new ReplaceOptions().upsert(true);
+            objects.forEach(object -> {
+                identifiers.add(object.getIdentifier());
+                writes.add(new ReplaceOneModel<>(eq(identifierName, object.getIdentifier()), ManageableCodec.toBsonDocument(object), upsert));
+            });
+            writes.add(new DeleteManyModel<>(nin(identifierName, identifiers)));
+
+            getWriteBehindQueue().writeThroughAll(() -> collection.bulkWrite(writes, new BulkWriteOptions().ordered(false)));
+        });
+    }
+
+    /**
+     * Sets a single field of each of the identified objects, rather than replacing the entire objects,
+     * as one unordered bulk write of {@code $set} updates.
+     * <p>
+     * The {@code fieldPath} may use dot notation to reach into sub-documents, such as {@code factory.context.investedCoins}.
+     * Values must be encodable by the database, such as primitives, Strings or {@link Document Documents}.
+     * 
+     * @param identifierName The name of the identifier field of the objects.
+     * @param fieldPath The path of the field to set.
+     * @param values The new value of the field for each object, mapped by the object's identifier value.
+     * @return The number of objects that were found in the database.
+     */
+    public int setFieldOfObjects(String identifierName, String fieldPath, Map<String, ?> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        Unwrapper<Integer> matched = new Unwrapper<>();
         withDatabase(database -> {
             MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
 
-            List<Document> documents = new ArrayList<>();
-            objects.forEach(object -> documents.add(Document.parse(object.deserialize())));
+            List<WriteModel<Document>> writes = new ArrayList<>(values.size());
+            values.forEach((identifierValue, value) -> writes.add(new UpdateOneModel<>(eq(identifierName, identifierValue), set(fieldPath, value))));
+
+            getWriteBehindQueue().writeAlongside(values.keySet(), () -> matched.setObject(collection.bulkWrite(writes, new BulkWriteOptions().ordered(false)).getMatchedCount()));
+        });
+        return matched.getObject();
+    }
+
+    /**
+     * Applies the given {@link FieldUpdate} to the object found by the given identifier name and value,
+     * changing only the updated fields rather than replacing the entire object.
+     * 
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param update The fields to update.
+     * @return {@code true} if an object was found and updated, {@code false} otherwise.
+     */
+    public boolean updateFields(String identifierName, String identifierValue, FieldUpdate update) {
+        if (update.isEmpty()) {
+            return objectExists(identifierName, identifierValue);
+        }
+        Unwrapper<Boolean> updated = new Unwrapper<>();
+        withDatabase(database -> {
+            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
+            Bson filter = eq(identifierName, identifierValue);
 
-            collection.drop();
-            collection.insertMany(documents);
+            getWriteBehindQueue().writeAlongside(List.of(identifierValue), () -> updated.setObject(collection.updateOne(filter, update.toBson()).getMatchedCount() > 0));
         });
+        return updated.getObject();
+    }
+
+    /**
+     * Applies each {@link FieldUpdate} to the object found by its identifier value as one unordered bulk write,
+     * changing only the updated fields rather than replacing the entire objects.
+     * Each update must change at least one field.
+     * 
+     * @param identifierName The name of the identifier field of the objects.
+     * @param updates The fields to update of each object, mapped by the object's identifier value.
+     * @return The number of objects that were found in the database.
+     */
+    public int updateFieldsOfObjects(String identifierName, Map<String, FieldUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        Unwrapper<Integer> matched = new Unwrapper<>();
+        withDatabase(database -> {
+            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
+
+            List<WriteModel<Document>> writes = new ArrayList<>(updates.size());
+            updates.forEach((identifierValue, update) -> writes.add(new UpdateOneModel<>(eq(identifierName, identifierValue), update.toBson())));
+
+            getWriteBehindQueue().writeAlongside(updates.keySet(), () -> matched.setObject(collection.bulkWrite(writes, new BulkWriteOptions().ordered(false)).getMatchedCount()));
+        });
+        return matched.getObject();
+    }
+
+    /**
+     * Returns the value of the given top level field of every object in the database for this service's {@code ProfileType}
+     * which has that field, deserialized as the given class. Only the field itself is read from the database.
+     * <p>
+     * Generally used to move a field which has been split out of an object into its own collection.
+     * 
+     * @param <F> The type of the field's value.
+     * @param fieldName The name of the field to read.
+     * @param fieldType The concrete class of the field's value.
+     * @return The value of the field of every object which has it.
+     */
+    public <F extends Manageable> List<F> getFieldOfAllObjects(String fieldName, Class<F> fieldType) {
+        flushPendingWrites();
+        Unwrapper<List<F>> values = new Unwrapper<>();
+        withDatabase(database -> {
+            MongoCollection<BsonDocument> collection = database.getCollection(type.toString().toLowerCase(), BsonDocument.class);
+            Bson projection = Projections.fields(Projections.include(fieldName), Projections.excludeId());
+
+            List<F> list = new ArrayList<>();
+            collection.find(exists(fieldName)).projection(projection).forEach(document -> {
+                if (document.isDocument(fieldName)) {
+                    list.add(ManageableCodec.fromBsonDocument(document.getDocument(fieldName), fieldType));
+                }
+            });
+            values.setObject(list);
+        });
+        return values.getObject();
+    }
+
+    /**
+     * Removes the given field from every object in the database for this service's {@code ProfileType}.
+     * 
+     * @param fieldPath The path of the field to remove.
+     * @return The number of objects the field was removed from.
+     */
+    public long unsetFieldOfAllObjects(String fieldPath) {
+        Unwrapper<Long> modified = new Unwrapper<>();
+        withDatabase(database -> {
+            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
+            getWriteBehindQueue().writeAlongside(null, () -> modified.setObject(collection.updateMany(exists(fieldPath), unset(fieldPath)).getModifiedCount()));
+        });
+        return modified.getObject();
     }
 
     /**
@@ -145,13 +499,38 @@ public class DatabaseService<T extends Manageable> {
      * 
      * @param identifierName The name of the field to search for.
      * @param identifierValue The value of the field to search for.
+     * @return {@code true} if an object was found and removed, {@code false} otherwise.
      */
-    public void removeObject(String identifierName, String identifierValue) {
+    public boolean removeObject(String identifierName, String identifierValue) {
+        Unwrapper<Boolean> removed = new Unwrapper<>();
         withDatabase(database -> {
             MongoCollection<T> collection = database.getCollection(type.toString().toLowerCase(), classType);
             Bson query = eq(identifierName, identifierValue);
-            collection.deleteOne(query);
+            getWriteBehindQueue().writeThrough(identifierValue, () -> removed.setObject(collection.deleteOne(query).getDeletedCount() > 0));
         });
+        return removed.getObject();
+    }
+
+    /**
+     * Inserts the given object unless an object with the given identifier name and value already exists,
+     * as a single upsert which only sets the object's fields on insertion.
+     * 
+     * @param object The object to insert.
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @return {@code true} if the object was inserted, {@code false} if one already existed.
+     */
+    private boolean insertIfAbsent(T object, String identifierName, String identifierValue) {
+        Unwrapper<Boolean> inserted = new Unwrapper<>();
+        withDatabase(database -> {
+            MongoCollection<BsonDocument> collection = database.getCollection(type.toString().toLowerCase(), BsonDocument.class);
+            Bson filter = eq(identifierName, identifierValue);
+
+            BsonDocument document = ManageableCodec.toBsonDocument(object);
+            UpdateResult result = collection.updateOne(filter, new BsonDocument("$setOnInsert", document), new UpdateOptions().upsert(true));
+            inserted.setObject(result.getUpsertedId() != null);
+        });
+        return inserted.getObject();
     }
 
     /**
@@ -162,7 +541,16 @@ public class DatabaseService<T extends Manageable> {
      * @return Whether or not an object exists in the database with the given identifier name and value.
      */
     public boolean objectExists(String identifierName, String identifierValue) {
-        return getObject(identifierName, identifierValue) != null;
+        flushPendingWrites();
+        Unwrapper<Boolean> exists = new Unwrapper<>();
+        withDatabase(database -> {
+            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
+            Bson query = eq(identifierName, identifierValue);
+            Bson projection = Projections.include("_id");
+
+            exists.setObject(collection.find(query).projection(projection).first() != null);
+        });
+        return exists.getObject();
     }
 
     /**
@@ -175,7 +563,7 @@ public class DatabaseService<T extends Manageable> {
      * @return Whether or not an object exists in the database with the given identifier name and value of
      */
     public boolean objectExists(String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
-        return getObject(identifierName, identifierValue, deserializer) != null;
+        return objectExists(identifierName, identifierValue);
     }
 
     /**
@@ -186,14 +574,15 @@ public class DatabaseService<T extends Manageable> {
      * @return The object found by the given identifier name and value.
      */
     public T getObject(String identifierName, String identifierValue) {
+        flushPendingWrites();
         Unwrapper<T> object = new Unwrapper<>();
         withDatabase(database -> {
-            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
+            MongoCollection<T> collection = getTypedCollection(database);
             Bson query = eq(identifierName, identifierValue);
             Bson projection = Projections.fields(Projections.excludeId());
             
             try {
-                object.setObject(Manageable.serialize(collection.find(query).projection(projection).first().toJson(), classType));
+                object.setObject(collection.find(query).projection(projection).first());
             } catch (Exception e) {
                 object.setObject(null);
             }
@@ -211,16 +600,15 @@ public class DatabaseService<T extends Manageable> {
      * @return The object found by the given identifier name and value of the class type specified by the given deserializer.
      */
     public T getObject(String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
+        flushPendingWrites();
         Unwrapper<T> object = new Unwrapper<>();
         withDatabase(database -> {
-            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
+            MongoCollection<T> collection = getTypedCollection(database, deserializer);
             Bson query = eq(identifierName, identifierValue);
             Bson projection = Projections.fields(Projections.excludeId());
-            
 
             try {
-                String json = collection.find(query).projection(projection).first().toJson();
-                object.setObject(Manageable.serialize(json, TypeToken.get(deserializer.getClass(json)).getType()));
+                object.setObject(collection.find(query).projection(projection).first());
             } catch (Exception e) {
                 object.setObject(null);
             }
@@ -229,18 +617,37 @@ public class DatabaseService<T extends Manageable> {
         return object.getObject();
     }
 
+    /**
+     * Returns every object whose identifier field has one of the given values, fetched with a single {@code $in} query.
+     * 
+     * @param identifierName The name of the field to search for.
+     * @param identifierValues The values of the field to search for.
+     * @return The objects found, in no particular order. Values without an object are skipped.
+     */
+    public List<T> getObjects(String identifierName, Collection<String> identifierValues) {
+        if (identifierValues.isEmpty()) return Collections.emptyList();
+        flushPendingWrites();
+        Unwrapper<List<T>> objects = new Unwrapper<>();
+        withDatabase(database -> {
+            MongoCollection<T> collection = getTypedCollection(database);
+            Bson projection = Projections.fields(Projections.excludeId());
+            objects.setObject(collection.find(in(identifierName, identifierValues)).projection(projection).into(new ArrayList<>()));
+        });
+        if (objects.getObject() == null) return Collections.emptyList();
+        return objects.getObject();
+    }
+
     /**
      * Returns all objects in the database for this service's {@code ProfileType}.
      * 
      * @return All objects in the database for this service's {@code ProfileType}.
      */
     public List<T> getAllObjects() {
+        flushPendingWrites();
         Unwrapper<List<T>> objects = new Unwrapper<>();
         withDatabase(database -> {
-            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
-            List<T> list = new ArrayList<>();
-            collection.find().forEach((Consumer<Document>) document -> list.add(Manageable.serialize(document.toJson(), classType)));
-            objects.setObject(list);
+            MongoCollection<T> collection = getTypedCollection(database);
+            objects.setObject(collection.find().into(new ArrayList<>()));
         });
         if (objects.getObject() == null) return Collections.emptyList();
         return objects.getObject();
@@ -253,18 +660,11 @@ public class DatabaseService<T extends Manageable> {
      * @return All objects in the database for this service's {@code ProfileType} of the class type specified by the given deserializer.
      */
     public List<T> getAllObjects(DatabaseObjectClassAdapter<T> deserializer) {
+        flushPendingWrites();
         Unwrapper<List<T>> objects = new Unwrapper<>();
         withDatabase(database -> {
-            MongoCollection<Document> collection = database.getCollection(type.toString().toLowerCase(), Document.class);
-            List<T> list = new ArrayList<>();
-            collection.find().forEach((Consumer<Document>) document -> {
-                
-                String json = document.toJson();
-                if (!json.isEmpty()) {
-                    list.add(Manageable.serialize(json, TypeToken.get(deserializer.getClass(json)).getType()));
-                }
-            });
-            objects.setObject(list);
+            MongoCollection<T> collection = getTypedCollection(database, deserializer);
+            objects.setObject(collection.find().into(new ArrayList<>()));
         });
         if (objects.getObject() == null) return Collections.emptyList();
         return objects.getObject();
@@ -277,9 +677,7 @@ public class DatabaseService<T extends Manageable> {
      * @param identifierValue The value of the field to search for.
      */
     public void removeObjectIfExists(String identifierName, String identifierValue) {
-        if (objectExists(identifierName, identifierValue)) {
-            removeObject(identifierName, identifierValue);
-        }
+        removeObject(identifierName, identifierValue);
     }
 
     /**
@@ -290,9 +688,7 @@ public class DatabaseService<T extends Manageable> {
      * @param deserializer The deserializer to use to get the class type of the object to search for.
      */
     public void removeObjectIfExists(String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
-        if (objectExists(identifierName, identifierValue, deserializer)) {
-            removeObject(identifierName, identifierValue);
-        }
+        removeObject(identifierName, identifierValue);
     }
 
     /**
@@ -303,9 +699,7 @@ public class DatabaseService<T extends Manageable> {
      * @param identifierValue The value of the field to search for.
      */
     public void addObjectIfNotExists(T object, String identifierName, String identifierValue) {
-        if (!objectExists(identifierName, identifierValue)) {
-            addObject(object);
-        }
+        insertIfAbsent(object, identifierName, identifierValue);
     }
 
     /**
@@ -317,26 +711,30 @@ public class DatabaseService<T extends Manageable> {
      * @param deserializer The deserializer to use to get the class type of the object to search for.
      */
     public void addObjectIfNotExists(T object, String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
-        if (!objectExists(identifierName, identifierValue, deserializer)) {
-            addObject(object);
-        }
+        insertIfAbsent(object, identifierName, identifierValue);
     }
 
     /**
      * Updates the object found by the given identifier name and value if it exists in the database.
+     * <p>
+     * In write-behind mode the update is buffered and later upserted, rather than written immediately.
      * 
      * @param object The object to update the database with.
      * @param identifierName The name of the field to search for.
      * @param identifierValue The value of the field to search for.
      */
     public void updateObjectIfExists(T object, String identifierName, String identifierValue) {
-        if (objectExists(identifierName, identifierValue)) {
+        if (isWriteBehindEnabled()) {
+            writeBehind(object, identifierName, identifierValue);
+        } else {
             updateObject(identifierName, identifierValue, object);
         }
     }
 
     /**
      * Updates the object found by the given identifier name and value of the class type specified by the given deserializer if it exists in the database.
+     * <p>
+     * In write-behind mode the update is buffered and later upserted, rather than written immediately.
      * 
      * @param object The object to update the database with.
      * @param identifierName The name of the field to search for.
@@ -344,15 +742,18 @@ public class DatabaseService<T extends Manageable> {
      * @param deserializer The deserializer to use to get the class type of the object to search for.
      */
     public void updateObjectIfExists(T object, String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
-        if (objectExists(identifierName, identifierValue, deserializer)) {
+        if (isWriteBehindEnabled()) {
+            writeBehind(object, identifierName, identifierValue);
+        } else {
             updateObject(identifierName, identifierValue, object);
         }
     }
 
     /**
-     * Closes the connection to the database.
+     * Flushes all buffered writes and closes the connection to the database.
      */
     public static void close() {
+        disableWriteBehind();
         mongoClient.close();
     }
 }
@@ -0,0 +1,74 @@
+package com.georgster.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.conversions.Bson;
+
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * A targeted update to individual fields of a stored object, such as setting {@code bank.balance},
+ * which is applied by the database atomically without replacing the rest of the object.
+ * <p>
+ * Field paths use dot notation to reach into sub-documents. A later {@link #set(String, Object) set}
+ * of a path replaces an earlier one.
+ *
+ * @see DatabaseService#updateFields(String, String, FieldUpdate)
+ */
+public final class FieldUpdate {
+    private final Map<String, Object> values; // Field path -> value to set
+
+    /**
+     * Creates a new, empty {@link FieldUpdate}.
+     */
+    public FieldUpdate() {
+        this.values = new LinkedHashMap<>();
+    }
+
+    /**
+     * Sets the field at the given path to the given value. Values must be encodable by the database,
+     * such as primitives, Strings or {@link org.bson.Document Documents}.
+     *
+     * @param fieldPath The path of the field to set.
+     * @param value The value to set the field to.
+     * @return This update.
+     */
+    public FieldUpdate set(String fieldPath, Object value) {
+        values.put(fieldPath, value);
+        return this;
+    }
+
+    /**
+     * Returns whether this update changes no fields.
+     *
+     * @return {@code true} if this update is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Returns the value each field is set to, mapped by field path.
+     *
+     * @return An unmodifiable view of this update's set values.
+     */
+    public Map<String, Object> getValues() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Returns the {@code $set} operators of this update.
+     *
+     * @return This update as a database update document.
+     */
+    Bson toBson() {
+        List<Bson> updates = new ArrayList<>(values.size());
+        values.forEach((fieldPath, value) -> updates.add(set(fieldPath, value)));
+        return combine(updates);
+    }
+}
@@ -0,0 +1,30 @@
+package com.georgster.database;
+
+import com.georgster.control.manager.Manageable;
+
+/**
+ * The {@link StorageProvider} which stores objects in SOAP Bot's MongoDB database through {@link DatabaseService DatabaseServices}.
+ */
+public final class MongoStorageProvider implements StorageProvider {
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T extends Manageable> ObjectStorage<T> open(String guildId, ProfileType type, Class<T> classType) {
+        return new DatabaseService<>(guildId, type, classType);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void flush() {
+        DatabaseService.flushAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void close() {
+        DatabaseService.close();
+    }
+}
@@ -0,0 +1,239 @@
+package com.georgster.database;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.georgster.control.manager.Manageable;
+import com.georgster.database.adapter.DatabaseObjectClassAdapter;
+
+/**
+ * Stores and retrieves the objects of a single {@link ProfileType} for a single Discord server (or the global profile).
+ * {@link com.georgster.control.manager.SoapManager SoapManagers} only ever talk to their storage through this interface,
+ * and obtain it from the configured {@link StorageProvider} through {@link Storage#open(String, ProfileType, Class)}.
+ * <p>
+ * Methods which require an "identifierName" and "identifierValue" parameter are used to find the object to update
+ * or delete. The identifier name is the name of the field in the object to search for and the identifier value
+ * is the value of that field.
+ * <p>
+ * If the stored type is an interface or abstract class, a {@link DatabaseObjectClassAdapter} must be used to read
+ * objects so the storage can determine the extending class type.
+ *
+ * @param <T> The type of object to store or retrieve.
+ * @see DatabaseService for the MongoDB implementation.
+ */
+public interface ObjectStorage<T extends Manageable> {
+
+    /**
+     * Adds the given object unconditionally.
+     *
+     * @param object The object to add.
+     */
+    public void addObject(T object);
+
+    /**
+     * Attempts to update the object found by the given identifier name and value.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param object The object to update with.
+     * @return {@code true} if an object was found and replaced, {@code false} otherwise.
+     */
+    public boolean updateObject(String identifierName, String identifierValue, T object);
+
+    /**
+     * Updates all stored objects with the given objects, removing any stored objects which are not among them.
+     *
+     * @param objects The objects to update the storage with.
+     * @param identifierName The name of the identifier field of the objects.
+     */
+    public void updateAllObjects(List<T> objects, String identifierName);
+
+    /**
+     * Sets a single field of each of the identified objects, rather than replacing the entire objects.
+     * The {@code fieldPath} may use dot notation to reach into sub-documents.
+     *
+     * @param identifierName The name of the identifier field of the objects.
+     * @param fieldPath The path of the field to set.
+     * @param values The new value of the field for each object, mapped by the object's identifier value.
+     * @return The number of objects that were found.
+     */
+    public int setFieldOfObjects(String identifierName, String fieldPath, Map<String, ?> values);
+
+    /**
+     * Applies the given {@link FieldUpdate} to the object found by the given identifier name and value,
+     * changing only the updated fields rather than replacing the entire object.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param update The fields to update.
+     * @return {@code true} if an object was found and updated, {@code false} otherwise.
+     */
+    public boolean updateFields(String identifierName, String identifierValue, FieldUpdate update);
+
+    /**
+     * Applies each {@link FieldUpdate} to the object found by its identifier value, as one batch,
+     * changing only the updated fields rather than replacing the entire objects.
+     *
+     * @param identifierName The name of the identifier field of the objects.
+     * @param updates The fields to update of each object, mapped by the object's identifier value.
+     * @return The number of objects that were found.
+     */
+    public int updateFieldsOfObjects(String identifierName, Map<String, FieldUpdate> updates);
+
+    /**
+     * Returns the value of the given top level field of every stored object which has that field,
+     * deserialized as the given class.
+     *
+     * @param <F> The type of the field's value.
+     * @param fieldName The name of the field to read.
+     * @param fieldType The concrete class of the field's value.
+     * @return The value of the field of every object which has it.
+     */
+    public <F extends Manageable> List<F> getFieldOfAllObjects(String fieldName, Class<F> fieldType);
+
+    /**
+     * Removes the given field from every stored object.
+     *
+     * @param fieldPath The path of the field to remove.
+     * @return The number of objects the field was removed from.
+     */
+    public long unsetFieldOfAllObjects(String fieldPath);
+
+    /**
+     * Attempts to remove the object found by the given identifier name and value.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @return {@code true} if an object was found and removed, {@code false} otherwise.
+     */
+    public boolean removeObject(String identifierName, String identifierValue);
+
+    /**
+     * Returns whether or not an object is stored with the given identifier name and value.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @return Whether or not an object is stored with the given identifier name and value.
+     */
+    public boolean objectExists(String identifierName, String identifierValue);
+
+    /**
+     * Returns whether or not an object is stored with the given identifier name and value of
+     * the class type specified by the given deserializer.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param deserializer The deserializer to use to get the class type of the object to search for.
+     * @return Whether or not an object is stored with the given identifier name and value.
+     */
+    public default boolean objectExists(String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
+        return objectExists(identifierName, identifierValue);
+    }
+
+    /**
+     * Returns the object found by the given identifier name and value.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @return The object found by the given identifier name and value, or {@code null} if none was found.
+     */
+    public T getObject(String identifierName, String identifierValue);
+
+    /**
+     * Returns the object found by the given identifier name and value of the class type specified by the given deserializer.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param deserializer The deserializer to use to get the class type of the object to search for.
+     * @return The object found by the given identifier name and value, or {@code null} if none was found.
+     */
+    public T getObject(String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer);
+
+    /**
+     * Returns every object whose identifier field has one of the given values, in a single lookup.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValues The values of the field to search for.
+     * @return The objects found, in no particular order. Values without an object are skipped.
+     */
+    public List<T> getObjects(String identifierName, Collection<String> identifierValues);
+
+    /**
+     * Returns all stored objects.
+     *
+     * @return All stored objects.
+     */
+    public List<T> getAllObjects();
+
+    /**
+     * Returns all stored objects of the class type specified by the given deserializer.
+     *
+     * @param deserializer The deserializer to use to get the class type of the objects.
+     * @return All stored objects.
+     */
+    public List<T> getAllObjects(DatabaseObjectClassAdapter<T> deserializer);
+
+    /**
+     * Removes the object found by the given identifier name and value if it exists.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     */
+    public default void removeObjectIfExists(String identifierName, String identifierValue) {
+        removeObject(identifierName, identifierValue);
+    }
+
+    /**
+     * Removes the object found by the given identifier name and value of the class type specified by the given deserializer if it exists.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param deserializer The deserializer to use to get the class type of the object to search for.
+     */
+    public default void removeObjectIfExists(String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
+        removeObject(identifierName, identifierValue);
+    }
+
+    /**
+     * Adds the given object if it does not already exist.
+     *
+     * @param object The object to add.
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     */
+    public void addObjectIfNotExists(T object, String identifierName, String identifierValue);
+
+    /**
+     * Adds the given object if it does not already exist.
+     *
+     * @param object The object to add.
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param deserializer The deserializer to use to get the class type of the object to search for.
+     */
+    public default void addObjectIfNotExists(T object, String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
+        addObjectIfNotExists(object, identifierName, identifierValue);
+    }
+
+    /**
+     * Updates the object found by the given identifier name and value if it exists.
+     *
+     * @param object The object to update the storage with.
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     */
+    public void updateObjectIfExists(T object, String identifierName, String identifierValue);
+
+    /**
+     * Updates the object found by the given identifier name and value of the class type specified by the given deserializer if it exists.
+     *
+     * @param object The object to update the storage with.
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param deserializer The deserializer to use to get the class type of the object to search for.
+     */
+    public default void updateObjectIfExists(T object, String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
+        updateObjectIfExists(object, identifierName, identifierValue);
+    }
+}
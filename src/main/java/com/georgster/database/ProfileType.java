@@ -7,37 +7,56 @@ public enum ProfileType {
     /**
      * Represents a guild's user profiles profile.
      */
-    PROFILES,
+    PROFILES("memberId"),
+    /**
+     * Represents a guild's user chat completions profile.
+     */
+    COMPLETIONS("memberId"),
     /**
      * Represents a guild's events profile.
      */
-    EVENTS,
+    EVENTS("identifier"),
     /**
      * Represents a guild's permissions profile.
      */
-    PERMISSIONS,
+    PERMISSIONS("id"),
     /**
      * Represents a guild's collectables profile.
      */
-    COLLECTABLES,
+    COLLECTABLES("id"),
     /**
      * Represents a guild's mention groups profile.
      */
-    MENTIONGROUPS,
+    MENTIONGROUPS("name"),
     /**
      * Represents the global user settings profile.
      */
-    SETTINGS,
+    SETTINGS("id"),
     /**
      * Represents a guild's elo ratings profile.
      */
-    ELO_RATINGS,
+    ELO_RATINGS("memberId"),
     /**
      * Represents a guild's elo battles profile.
      */
-    ELO_BATTLES,
+    ELO_BATTLES("battleId"),
     /**
      * Represents a guild's battle wizard states profile.
      */
-    BATTLE_WIZARD_STATES
+    BATTLE_WIZARD_STATES("userId");
+
+    private final String identifierName; // The name of the identifier field of this profile's objects
+
+    ProfileType(String identifierName) {
+        this.identifierName = identifierName;
+    }
+
+    /**
+     * Returns the name of the field which uniquely identifies each object in this profile.
+     * 
+     * @return The name of the identifier field of this profile's objects.
+     */
+    public String getIdentifierName() {
+        return identifierName;
+    }
 }
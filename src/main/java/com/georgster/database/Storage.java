@@ -0,0 +1,50 @@
+package com.georgster.database;
+
+import com.georgster.control.manager.Manageable;
+
+/**
+ * Holds the {@link StorageProvider} every {@link com.georgster.control.manager.SoapManager SoapManager} opens its
+ * {@link ObjectStorage} from. Unless another provider is chosen at startup, objects are stored in MongoDB.
+ */
+public final class Storage {
+    private static StorageProvider provider; // The provider all storage is opened from, null until first used
+
+    private Storage() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Sets the {@link StorageProvider} all storage will be opened from. Should be called once at
+     * startup, before any {@link ObjectStorage} is opened.
+     *
+     * @param storageProvider The provider to use.
+     */
+    public static synchronized void use(StorageProvider storageProvider) {
+        provider = storageProvider;
+    }
+
+    /**
+     * Returns the {@link StorageProvider} in use, defaulting to a {@link MongoStorageProvider}.
+     *
+     * @return The provider in use.
+     */
+    public static synchronized StorageProvider getProvider() {
+        if (provider == null) {
+            provider = new MongoStorageProvider();
+        }
+        return provider;
+    }
+
+    /**
+     * Opens the storage of the given {@link ProfileType} for the given Discord server from the {@link StorageProvider} in use.
+     *
+     * @param <T> The type of object to store or retrieve.
+     * @param guildId The ID of the Discord server, or {@code GLOBAL} for the global profile.
+     * @param type The type of the server's profile to store or retrieve from.
+     * @param classType The class type of the object to store or retrieve.
+     * @return The storage of the profile.
+     */
+    public static <T extends Manageable> ObjectStorage<T> open(String guildId, ProfileType type, Class<T> classType) {
+        return getProvider().open(guildId, type, classType);
+    }
+}
@@ -0,0 +1,34 @@
+package com.georgster.database;
+
+import com.georgster.control.manager.Manageable;
+
+/**
+ * A backend capable of opening {@link ObjectStorage} for each Discord server and {@link ProfileType}.
+ * The provider in use is chosen once at startup through {@link Storage#use(StorageProvider)}.
+ *
+ * @see MongoStorageProvider
+ * @see com.georgster.database.embedded.EmbeddedStorageProvider EmbeddedStorageProvider
+ */
+public interface StorageProvider {
+
+    /**
+     * Opens the storage of the given {@link ProfileType} for the given Discord server.
+     *
+     * @param <T> The type of object to store or retrieve.
+     * @param guildId The ID of the Discord server, or {@code GLOBAL} for the global profile.
+     * @param type The type of the server's profile to store or retrieve from.
+     * @param classType The class type of the object to store or retrieve.
+     * @return The storage of the profile.
+     */
+    public <T extends Manageable> ObjectStorage<T> open(String guildId, ProfileType type, Class<T> classType);
+
+    /**
+     * Immediately persists any writes this provider has buffered.
+     */
+    public void flush();
+
+    /**
+     * Persists any buffered writes and releases all resources held by this provider.
+     */
+    public void close();
+}
@@ -0,0 +1,109 @@
+package com.georgster.database;
+
+/**
+ * A snapshot of the {@link DatabaseService DatabaseService's} write-behind activity at the moment it was taken.
+ *
+ * @see DatabaseService#getWriteBehindMetrics()
+ */
+public final class WriteBehindMetrics {
+    private final int queueDepth;
+    private final long deadLetters;
+    private final long flushes;
+    private final long writesFlushed;
+    private final double lastFlushMillis;
+    private final double averageFlushMillis;
+    private final double maxFlushMillis;
+
+    /**
+     * Creates a new snapshot of write-behind metrics.
+     *
+     * @param queueDepth The number of writes waiting to be flushed across all collections.
+     * @param deadLetters The number of writes dropped after repeatedly failing to be written.
+     * @param flushes The number of flushes which wrote at least one object.
+     * @param writesFlushed The total number of objects written by flushes.
+     * @param lastFlushNanos The duration of the most recent flush in nanoseconds.
+     * @param totalFlushNanos The combined duration of all flushes in nanoseconds.
+     * @param maxFlushNanos The duration of the longest flush in nanoseconds.
+     */
+    WriteBehindMetrics(int queueDepth, long deadLetters, long flushes, long writesFlushed, long lastFlushNanos, long totalFlushNanos, long maxFlushNanos) {
+        this.queueDepth = queueDepth;
+        this.deadLetters = deadLetters;
+        this.flushes = flushes;
+        this.writesFlushed = writesFlushed;
+        this.lastFlushMillis = lastFlushNanos / 1_000_000.0;
+        this.averageFlushMillis = flushes == 0 ? 0 : (totalFlushNanos / (double) flushes) / 1_000_000.0;
+        this.maxFlushMillis = maxFlushNanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns the number of writes waiting to be flushed across all collections.
+     *
+     * @return The number of pending writes.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Returns the number of writes dropped after repeatedly failing to be written.
+     *
+     * @return The number of dead-lettered writes.
+     */
+    public long getDeadLetters() {
+        return deadLetters;
+    }
+
+    /**
+     * Returns the number of flushes which wrote at least one object.
+     *
+     * @return The number of flushes.
+     */
+    public long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * Returns the total number of objects written by flushes.
+     *
+     * @return The number of objects written.
+     */
+    public long getWritesFlushed() {
+        return writesFlushed;
+    }
+
+    /**
+     * Returns the duration of the most recent flush in milliseconds.
+     *
+     * @return The latency of the last flush.
+     */
+    public double getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    /**
+     * Returns the average duration of a flush in milliseconds.
+     *
+     * @return The average flush latency.
+     */
+    public double getAverageFlushMillis() {
+        return averageFlushMillis;
+    }
+
+    /**
+     * Returns the duration of the longest flush in milliseconds.
+     *
+     * @return The maximum flush latency.
+     */
+    public double getMaxFlushMillis() {
+        return maxFlushMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("Write-behind: %d pending, %d dead-lettered, %d writes in %d flushes, last %.1fms, avg %.1fms, max %.1fms",
+                queueDepth, deadLetters, writesFlushed, flushes, lastFlushMillis, averageFlushMillis, maxFlushMillis);
+    }
+}
@@ -0,0 +1,282 @@
+package com.georgster.database;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.bson.BsonDocument;
+
+import com.georgster.control.manager.Manageable;
+import com.georgster.database.codec.ManageableCodec;
+import com.georgster.logs.MultiLogger;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * Buffers updates to a single database collection for the {@link DatabaseService DatabaseService's} write-behind mode.
+ * <p>
+ * Pending writes are coalesced per identifier, so only the most recent state of an object is ever written, and are
+ * sent to the database as a single unordered {@code bulkWrite} of upserts when this queue is {@link #flush() flushed}.
+ * Objects are serialized when they are enqueued, on the thread which changed them, so the flusher never reads an
+ * object while it is being modified and a write which cannot be serialized fails for its caller.
+ * <p>
+ * A write which fails to be written is retried on the following flushes, up to {@value #MAX_ATTEMPTS} times,
+ * after which it is dead-lettered: logged along with its document and dropped, so one bad write cannot be
+ * retried forever.
+ */
+final class WriteBehindQueue {
+    private static final int MAX_ATTEMPTS = 5; // How many times a write is attempted before it is dead-lettered
+
+    private final String name; // The database and collection name of this queue, used for logging
+    private final Supplier<MongoCollection<BsonDocument>> collection; // Supplies the collection this queue writes to
+    private final Map<String, PendingWrite> pending; // Identifier value -> latest pending write, in first-enqueued order
+    private final ReentrantLock flushLock; // Held while writing to the collection, so removals can't race an in-flight batch
+    private final AtomicLong deadLetters; // The number of writes dropped after failing MAX_ATTEMPTS times
+
+    /**
+     * Creates a new {@link WriteBehindQueue} which writes to the supplied collection.
+     *
+     * @param name The database and collection name of this queue.
+     * @param collection Supplies the collection this queue writes to.
+     */
+    WriteBehindQueue(String name, Supplier<MongoCollection<BsonDocument>> collection) {
+        this.name = name;
+        this.collection = collection;
+        this.pending = new LinkedHashMap<>();
+        this.flushLock = new ReentrantLock();
+        this.deadLetters = new AtomicLong();
+    }
+
+    /**
+     * Serializes the object and queues it to be upserted on the next flush, replacing any write already
+     * pending for its identifier.
+     *
+     * @param object The object to write.
+     * @param identifierName The name of the identifier field of the object.
+     * @param identifierValue The value of the identifier field of the object.
+     * @return The number of writes pending in this queue after enqueuing.
+     */
+    int enqueue(Manageable object, String identifierName, String identifierValue) {
+        PendingWrite write = new PendingWrite(ManageableCodec.toBsonDocument(object), identifierName, identifierValue);
+        synchronized (this) {
+            pending.put(identifierValue, write);
+            return pending.size();
+        }
+    }
+
+    /**
+     * Runs the given write against the collection while no batch from this queue is in flight, after
+     * discarding any pending write for the identifier. Used for writes which would be undone by a stale
+     * pending upsert, such as removals.
+     *
+     * @param identifierValue The identifier value of the object being written.
+     * @param write The write to perform.
+     */
+    void writeThrough(String identifierValue, Runnable write) {
+        flushLock.lock();
+        try {
+            synchronized (this) {
+                pending.remove(identifierValue);
+            }
+            write.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the given write against the collection while no batch from this queue is in flight, after first
+     * writing any pending writes of the objects it changes. Used for partial updates, which must land after
+     * the older serialized states pending for the same objects rather than be overwritten by them.
+     *
+     * @param identifierValues The identifier values of the objects being written, or {@code null} if it may change any object.
+     * @param write The write to perform.
+     * @throws MongoException If the pending writes could not be written, in which case the write is not performed.
+     */
+    void writeAlongside(Collection<String> identifierValues, Runnable write) throws MongoException {
+        flushLock.lock();
+        try {
+            List<PendingWrite> batch = new ArrayList<>();
+            synchronized (this) {
+                if (identifierValues == null) {
+                    batch.addAll(pending.values());
+                    pending.clear();
+                } else {
+                    identifierValues.forEach(identifierValue -> {
+                        PendingWrite pendingWrite = pending.remove(identifierValue);
+                        if (pendingWrite != null) {
+                            batch.add(pendingWrite);
+                        }
+                    });
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            write.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Discards every pending write and runs the given write while no batch from this queue is in flight.
+     * Used for writes which replace the entire collection.
+     *
+     * @param write The write to perform.
+     */
+    void writeThroughAll(Runnable write) {
+        flushLock.lock();
+        try {
+            synchronized (this) {
+                pending.clear();
+            }
+            write.run();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes all pending objects to the database as a single unordered bulk write of upserts.
+     * <p>
+     * Writes which fail are put back into this queue, unless a newer write for the same identifier was
+     * queued in the meantime, and retried on the next flush until they are dead-lettered.
+     *
+     * @return The number of objects written.
+     */
+    int flush() {
+        flushLock.lock();
+        try {
+            List<PendingWrite> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            try {
+                write(batch);
+                return batch.size();
+            } catch (MongoException e) {
+                return 0;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the given batch as a single unordered bulk write of upserts. Must be called while holding the flush lock.
+     * <p>
+     * If the bulk write fails, each failed write is put back into this queue to be retried, or dead-lettered
+     * if it has been attempted {@value #MAX_ATTEMPTS} times. When the database reports which writes failed,
+     * only those are retried.
+     *
+     * @param batch The writes to write.
+     * @throws MongoException If any write in the batch failed.
+     */
+    private void write(List<PendingWrite> batch) throws MongoException {
+        List<WriteModel<BsonDocument>> models = new ArrayList<>(batch.size());
+        ReplaceOptions upsert = new ReplaceOptions().upsert(true);
+        batch.forEach(write -> models.add(new ReplaceOneModel<>(eq(write.identifierName, write.identifierValue), write.document, upsert)));
+        try {
+            collection.get().bulkWrite(models, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            List<PendingWrite> failed = new ArrayList<>();
+            e.getWriteErrors().forEach(error -> failed.add(batch.get(error.getIndex())));
+            retry(e.getWriteConcernError() == null ? failed : batch, e);
+            throw e;
+        } catch (MongoException e) {
+            retry(batch, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Puts each failed write back into this queue if no newer write for its identifier has been queued,
+     * dead-lettering those which have been attempted {@value #MAX_ATTEMPTS} times.
+     *
+     * @param failed The writes which failed.
+     * @param cause Why they failed.
+     */
+    private void retry(List<PendingWrite> failed, MongoException cause) {
+        int retried = 0;
+        for (PendingWrite write : failed) {
+            PendingWrite next = write.nextAttempt();
+            if (next.attempts >= MAX_ATTEMPTS) {
+                deadLetters.incrementAndGet();
+                MultiLogger.logSystem("Dead-lettered the write-behind write of " + write.identifierValue + " to " + name + " after "
+                    + next.attempts + " failed attempts (" + cause.getMessage() + "): " + write.document.toJson(), getClass());
+            } else {
+                synchronized (this) {
+                    pending.putIfAbsent(write.identifierValue, next);
+                }
+                retried++;
+            }
+        }
+        MultiLogger.logSystem("Write-behind write of " + failed.size() + " objects to " + name + " failed, retrying " + retried
+            + " on the next flush: " + cause.getMessage(), getClass());
+    }
+
+    /**
+     * Returns the number of writes pending in this queue.
+     *
+     * @return The number of writes pending in this queue.
+     */
+    synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of writes this queue dropped after they failed {@value #MAX_ATTEMPTS} times.
+     *
+     * @return The number of dead-lettered writes.
+     */
+    long getDeadLetterCount() {
+        return deadLetters.get();
+    }
+
+    /**
+     * A serialized object waiting to be written, along with the filter that identifies it.
+     */
+    private static final class PendingWrite {
+        private final BsonDocument document;
+        private final String identifierName;
+        private final String identifierValue;
+        private final int attempts; // The number of times writing this document has failed
+
+        private PendingWrite(BsonDocument document, String identifierName, String identifierValue) {
+            this(document, identifierName, identifierValue, 0);
+        }
+
+        private PendingWrite(BsonDocument document, String identifierName, String identifierValue, int attempts) {
+            this.document = document;
+            this.identifierName = identifierName;
+            this.identifierValue = identifierValue;
+            this.attempts = attempts;
+        }
+
+        /**
+         * Returns this write after one more failed attempt.
+         *
+         * @return The same write with its attempts incremented.
+         */
+        private PendingWrite nextAttempt() {
+            return new PendingWrite(document, identifierName, identifierValue, attempts + 1);
+        }
+    }
+}
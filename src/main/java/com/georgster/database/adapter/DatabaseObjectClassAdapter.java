@@ -1,5 +1,6 @@
 package com.georgster.database.adapter;
 
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
 /**
@@ -51,4 +52,21 @@ public abstract class DatabaseObjectClassAdapter<T> {
         }
         throw new JsonParseException("Could not find a matching type for the given json");
     }
+
+    /**
+     * Returns the type of object that matches the given json tree. The top level fields of the
+     * tree are checked for a unique identifier first, before falling back to {@link #getClass(String)}.
+     * 
+     * @param json the json tree to match
+     * @return the type of object that matches the given json tree
+     * @throws JsonParseException if no object matches the given json tree
+     */
+    public Class<? extends T> getClass(JsonObject json) throws JsonParseException {
+        for (String identifier : uniqueIdentifiers) {
+            if (json.has(identifier)) {
+                return getType(identifier);
+            }
+        }
+        return getClass(json.toString());
+    }
 }
@@ -3,7 +3,7 @@ package com.georgster.database.adapter;
 import java.io.IOException;
 
 import com.georgster.coinfactory.model.upgrades.FactoryUpgrade;
-import com.georgster.coinfactory.model.upgrades.tracks.FactoryUpgradeTracks;
+import com.georgster.coinfactory.model.upgrades.tracks.FactoryUpgradeRegistry;
 import com.google.gson.JsonParseException;
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
@@ -12,6 +12,8 @@ import com.google.gson.stream.JsonWriter;
 
 /**
  * A {@link TypeAdapter} for {@link FactoryUpgrade FactoryUpgrades}.
+ * <p>
+ * Upgrades are read as the shared instances of the {@link FactoryUpgradeRegistry}.
  */
 public final class FactoryUpgradeTypeAdapter extends TypeAdapter<FactoryUpgrade> {
     /**
@@ -68,7 +70,7 @@ public final class FactoryUpgradeTypeAdapter extends TypeAdapter<FactoryUpgrade>
         }
 
         try {
-            return FactoryUpgradeTracks.getUpgrade(trackName, upgradeName);
+            return FactoryUpgradeRegistry.getUpgrade(trackName, upgradeName);
         } catch (IllegalArgumentException e) {
             throw new JsonParseException("Error while converting JSON to FactoryUpgrade: " + e.getMessage(), e);
         }
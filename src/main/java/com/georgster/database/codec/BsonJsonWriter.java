@@ -0,0 +1,306 @@
+package com.georgster.database.codec;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import org.bson.BsonWriter;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * A {@link JsonWriter} which streams everything Gson writes to it directly into a {@link BsonWriter},
+ * so objects can be serialized with their existing Gson {@link com.google.gson.TypeAdapter TypeAdapters}
+ * without ever being rendered as JSON text.
+ * <p>
+ * Values are written with the same BSON types {@code Document.parse} would give their JSON text: whole numbers
+ * become {@code int32} when they fit and {@code int64} otherwise, and decimal numbers become {@code double}.
+ */
+public final class BsonJsonWriter extends JsonWriter {
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private final BsonWriter writer; // The writer all values are streamed to
+    private final Deque<Boolean> scopes; // Whether each open scope is an array (true) or a document (false)
+    private String pendingName; // The name of the next document field, written along with its value
+
+    /**
+     * Creates a new {@link BsonJsonWriter} which writes to the given {@link BsonWriter}.
+     *
+     * @param writer The writer to stream all values to.
+     */
+    public BsonJsonWriter(BsonWriter writer) {
+        super(UNWRITABLE_WRITER);
+        this.writer = writer;
+        this.scopes = new ArrayDeque<>();
+    }
+
+    /**
+     * Writes the pending field name, if any, ahead of a value.
+     */
+    private void writePendingName() {
+        if (pendingName != null) {
+            writer.writeName(pendingName);
+            pendingName = null;
+        } else if (!scopes.isEmpty() && Boolean.FALSE.equals(scopes.peek())) {
+            throw new IllegalStateException("A value was written inside a document without a name.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        if (scopes.isEmpty()) {
+            throw new IllegalStateException("A BSON document must be an object, not an array.");
+        }
+        writePendingName();
+        writer.writeStartArray();
+        scopes.push(true);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter endArray() throws IOException {
+        scopes.pop();
+        writer.writeEndArray();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        if (!scopes.isEmpty()) {
+            writePendingName();
+        }
+        writer.writeStartDocument();
+        scopes.push(false);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter endObject() throws IOException {
+        scopes.pop();
+        writer.writeEndDocument();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (pendingName != null || scopes.isEmpty() || Boolean.TRUE.equals(scopes.peek())) {
+            throw new IllegalStateException("A name may only be written once, inside a document.");
+        }
+        pendingName = name;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writePendingName();
+        writer.writeString(value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The raw JSON is parsed and written as its equivalent BSON value.
+     */
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeElement(JsonParser.parseString(value));
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Null document fields are skipped unless {@link #getSerializeNulls() nulls are serialized}, as Gson does for text.
+     */
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (pendingName != null && !getSerializeNulls()) {
+            pendingName = null;
+            return this;
+        }
+        writePendingName();
+        writer.writeNull();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        writePendingName();
+        writer.writeBoolean(value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.booleanValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter value(float value) throws IOException {
+        return value(Double.parseDouble(Float.toString(value))); // Keeps the shortest decimal form, as JSON text would
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        writePendingName();
+        writer.writeDouble(value);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        writePendingName();
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            writer.writeInt32((int) value);
+        } else {
+            writer.writeInt64(value);
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        } else if (value instanceof Float) {
+            return value(value.floatValue());
+        } else if (value instanceof Double) {
+            return value(value.doubleValue());
+        }
+
+        String text = value.toString(); // Such as LazilyParsedNumber or BigDecimal, decided the way JSON text would be
+        if (text.contains(".") || text.contains("e") || text.contains("E")) {
+            return value(Double.parseDouble(text));
+        }
+        BigDecimal whole = new BigDecimal(text);
+        try {
+            return value(whole.longValueExact());
+        } catch (ArithmeticException e) {
+            return value(whole.doubleValue());
+        }
+    }
+
+    /**
+     * Writes a Gson {@link JsonElement} tree as its equivalent BSON value.
+     *
+     * @param element The element to write.
+     * @throws IOException If the element could not be written.
+     */
+    private void writeElement(JsonElement element) throws IOException {
+        if (element.isJsonNull()) {
+            nullValue();
+        } else if (element.isJsonObject()) {
+            beginObject();
+            for (Map.Entry<String, JsonElement> entry : ((JsonObject) element).entrySet()) {
+                name(entry.getKey());
+                writeElement(entry.getValue());
+            }
+            endObject();
+        } else if (element.isJsonArray()) {
+            beginArray();
+            for (JsonElement child : (JsonArray) element) {
+                writeElement(child);
+            }
+            endArray();
+        } else {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                value(primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                value(primitive.getAsNumber());
+            } else {
+                value(primitive.getAsString());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (!scopes.isEmpty()) {
+            throw new IOException("Incomplete document");
+        }
+    }
+}
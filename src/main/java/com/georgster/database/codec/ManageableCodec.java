@@ -0,0 +1,174 @@
+package com.georgster.database.codec;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import com.georgster.control.manager.Manageable;
+import com.georgster.database.adapter.DatabaseObjectClassAdapter;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * A {@link Codec} which encodes and decodes {@link Manageable Manageables} directly to and from BSON using
+ * {@link Manageable#getGson() the Manageable Gson instance}, so every existing {@link com.google.gson.TypeAdapter TypeAdapter}
+ * keeps applying while objects are never rendered to, or parsed from, JSON text.
+ * <p>
+ * Stored documents keep exactly the shape they had when written through {@code Document.parse(object.deserialize())}.
+ * When decoding, the top level {@code _id} field is ignored, and if this codec was given a {@link DatabaseObjectClassAdapter}
+ * it is used to pick the concrete class of each document.
+ *
+ * @param <T> The type of {@link Manageable} this codec encodes and decodes.
+ */
+public final class ManageableCodec<T extends Manageable> implements Codec<T> {
+    private final Class<T> type; // The class this codec encodes and decodes
+    private final DatabaseObjectClassAdapter<T> adapter; // Picks the concrete class of decoded documents, null if type is concrete
+
+    /**
+     * Creates a new {@link ManageableCodec} for the given concrete class.
+     *
+     * @param type The class to encode and decode.
+     */
+    public ManageableCodec(Class<T> type) {
+        this(type, null);
+    }
+
+    /**
+     * Creates a new {@link ManageableCodec} for the given class, using the adapter to determine the
+     * concrete class of each decoded document if the class is abstract or an interface.
+     *
+     * @param type The class to encode and decode.
+     * @param adapter The adapter to pick the concrete class of decoded documents with, or {@code null} if {@code type} is concrete.
+     */
+    public ManageableCodec(Class<T> type, DatabaseObjectClassAdapter<T> adapter) {
+        this.type = type;
+        this.adapter = adapter;
+    }
+
+    /**
+     * Serializes the object into a new {@link BsonDocument} the same way this codec would encode it.
+     *
+     * @param object The object to serialize.
+     * @return The BSON representation of the object.
+     */
+    public static BsonDocument toBsonDocument(Manageable object) {
+        BsonDocument document = new BsonDocument();
+        Manageable.getGson().toJson(object, object.getClass(), new BsonJsonWriter(new BsonDocumentWriter(document)));
+        return document;
+    }
+
+    /**
+     * Deserializes the {@link BsonDocument} into an object of the given concrete class, the same way this codec would decode it.
+     *
+     * @param <T> The type of the object.
+     * @param document The BSON representation of the object.
+     * @param type The concrete class of the object.
+     * @return The deserialized object.
+     */
+    public static <T extends Manageable> T fromBsonDocument(BsonDocument document, Class<T> type) {
+        return new ManageableCodec<>(type).decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void encode(BsonWriter writer, T value, EncoderContext encoderContext) {
+        Manageable.getGson().toJson(value, value.getClass(), new BsonJsonWriter(writer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T decode(BsonReader reader, DecoderContext decoderContext) {
+        JsonObject tree = new JsonObject();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (name.equals("_id")) {
+                reader.skipValue();
+            } else {
+                JsonElement value = readValue(reader);
+                if (value != null) {
+                    tree.add(name, value);
+                }
+            }
+        }
+        reader.readEndDocument();
+
+        Class<? extends T> concreteType = adapter == null ? type : adapter.getClass(tree);
+        return Manageable.getGson().fromJson(tree, concreteType);
+    }
+
+    /**
+     * Reads the current BSON value into its equivalent Gson {@link JsonElement}.
+     *
+     * @param reader The reader positioned at the value.
+     * @return The equivalent element, or {@code null} if the value has no JSON equivalent and was skipped.
+     */
+    private static JsonElement readValue(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case DOCUMENT:
+                JsonObject object = new JsonObject();
+                reader.readStartDocument();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    String name = reader.readName();
+                    JsonElement value = readValue(reader);
+                    if (value != null) {
+                        object.add(name, value);
+                    }
+                }
+                reader.readEndDocument();
+                return object;
+            case ARRAY:
+                JsonArray array = new JsonArray();
+                reader.readStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    JsonElement value = readValue(reader);
+                    array.add(value == null ? JsonNull.INSTANCE : value);
+                }
+                reader.readEndArray();
+                return array;
+            case STRING:
+                return new JsonPrimitive(reader.readString());
+            case INT32:
+                return new JsonPrimitive(reader.readInt32());
+            case INT64:
+                return new JsonPrimitive(reader.readInt64());
+            case DOUBLE:
+                return new JsonPrimitive(reader.readDouble());
+            case DECIMAL128:
+                return new JsonPrimitive(reader.readDecimal128().bigDecimalValue());
+            case BOOLEAN:
+                return new JsonPrimitive(reader.readBoolean());
+            case OBJECT_ID:
+                return new JsonPrimitive(reader.readObjectId().toHexString());
+            case DATE_TIME:
+                return new JsonPrimitive(reader.readDateTime());
+            case NULL:
+                reader.readNull();
+                return JsonNull.INSTANCE;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Class<T> getEncoderClass() {
+        return type;
+    }
+}
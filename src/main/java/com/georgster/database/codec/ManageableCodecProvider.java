@@ -0,0 +1,29 @@
+package com.georgster.database.codec;
+
+import java.lang.reflect.Modifier;
+
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import com.georgster.control.manager.Manageable;
+
+/**
+ * A {@link CodecProvider} which supplies a {@link ManageableCodec} for every concrete {@link Manageable} class.
+ * Abstract {@link Manageable Manageables} need a {@link com.georgster.database.adapter.DatabaseObjectClassAdapter DatabaseObjectClassAdapter}
+ * to be decoded, and so must be given a {@link ManageableCodec} explicitly.
+ */
+public final class ManageableCodecProvider implements CodecProvider {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        if (Manageable.class.isAssignableFrom(clazz) && !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers())) {
+            return (Codec<T>) new ManageableCodec<>(clazz.asSubclass(Manageable.class));
+        }
+        return null;
+    }
+}
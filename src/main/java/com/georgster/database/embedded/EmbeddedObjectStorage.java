@@ -0,0 +1,403 @@
+package com.georgster.database.embedded;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.BsonValueCodecProvider;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodecProvider;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.IterableCodecProvider;
+import org.bson.codecs.MapCodecProvider;
+import org.bson.codecs.ValueCodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+
+import com.georgster.control.manager.Manageable;
+import com.georgster.database.FieldUpdate;
+import com.georgster.database.ObjectStorage;
+import com.georgster.database.ProfileType;
+import com.georgster.database.adapter.DatabaseObjectClassAdapter;
+import com.georgster.database.codec.ManageableCodec;
+
+import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
+
+/**
+ * The {@link ObjectStorage} of one profile of one guild in an {@link EmbeddedStorageProvider}, stored as BSON
+ * records in a {@link StorageLog}.
+ * <p>
+ * Objects are keyed in the log by the value of their {@link ProfileType#getIdentifierName() profile's identifier field},
+ * so lookups by that field are constant time. Lookups by any other field scan the stored objects.
+ * Partial updates such as {@link #updateFields(String, String, FieldUpdate)} are applied to the stored
+ * document and appended as its new contents.
+ *
+ * @param <T> The type of object to store or retrieve.
+ */
+public final class EmbeddedObjectStorage<T extends Manageable> implements ObjectStorage<T> {
+    private static final BsonDocumentCodec DOCUMENT_CODEC = new BsonDocumentCodec();
+    private static final CodecRegistry VALUE_CODEC_REGISTRY = fromProviders(new ValueCodecProvider(), new BsonValueCodecProvider(),
+            new DocumentCodecProvider(), new IterableCodecProvider(), new MapCodecProvider()); // Converts set values to BSON
+
+    private final StorageLog log; // The log the objects are stored in
+    private final ProfileType type; // The type of profile stored
+    private final Class<T> classType; // The class type of the objects stored
+    private final ManageableCodec<T> codec; // Decodes stored objects into their class type
+
+    /**
+     * Creates a new {@link EmbeddedObjectStorage} for the objects of the given profile stored in the log.
+     *
+     * @param log The log the objects are stored in.
+     * @param type The type of profile stored.
+     * @param classType The class type of the objects stored.
+     */
+    EmbeddedObjectStorage(StorageLog log, ProfileType type, Class<T> classType) {
+        this.log = log;
+        this.type = type;
+        this.classType = classType;
+        this.codec = new ManageableCodec<>(classType);
+    }
+
+    /**
+     * Encodes the document into its binary BSON representation.
+     *
+     * @param document The document to encode.
+     * @return The encoded document.
+     */
+    private static byte[] toBytes(BsonDocument document) {
+        BasicOutputBuffer output = new BasicOutputBuffer();
+        DOCUMENT_CODEC.encode(new BsonBinaryWriter(output), document, EncoderContext.builder().build());
+        return output.toByteArray();
+    }
+
+    /**
+     * Decodes the binary BSON representation of a document into a mutable {@link BsonDocument}.
+     *
+     * @param bytes The encoded document.
+     * @return The decoded document.
+     */
+    private static BsonDocument toDocument(byte[] bytes) {
+        return DOCUMENT_CODEC.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+
+    /**
+     * Decodes the binary BSON representation of an object with the given codec.
+     *
+     * @param bytes The encoded object.
+     * @param objectCodec The codec to decode the object with.
+     * @return The decoded object.
+     */
+    private static <T extends Manageable> T decode(byte[] bytes, ManageableCodec<T> objectCodec) {
+        return objectCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+    }
+
+    /**
+     * Converts a value to set into its BSON equivalent.
+     *
+     * @param value The value to convert.
+     * @return The BSON equivalent of the value.
+     */
+    private static BsonValue toBsonValue(Object value) {
+        return new Document("value", value).toBsonDocument(BsonDocument.class, VALUE_CODEC_REGISTRY).get("value");
+    }
+
+    /**
+     * Returns the key in the log of the object found by the given identifier name and value.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @return The key of the object, or {@code null} if none was found.
+     */
+    private String find(String identifierName, String identifierValue) {
+        if (identifierName.equals(type.getIdentifierName())) {
+            return log.contains(identifierValue) ? identifierValue : null;
+        }
+        for (String key : log.identifiers()) {
+            byte[] bytes = log.get(key);
+            if (bytes != null) {
+                BsonValue value = new RawBsonDocument(bytes).get(identifierName);
+                if (value != null && value.isString() && value.asString().getValue().equals(identifierValue)) {
+                    return key;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the document holding the last field of the dot-notation path, optionally creating missing documents along the way.
+     *
+     * @param document The document the path starts at.
+     * @param segments The segments of the path.
+     * @param create Whether missing documents along the path should be created.
+     * @return The document holding the last field, or {@code null} if it does not exist and {@code create} is {@code false}.
+     */
+    private static BsonDocument parentOf(BsonDocument document, String[] segments, boolean create) {
+        BsonDocument parent = document;
+        for (int i = 0; i < segments.length - 1; i++) {
+            BsonValue child = parent.get(segments[i]);
+            if (child == null || !child.isDocument()) {
+                if (!create) {
+                    return null;
+                }
+                child = new BsonDocument();
+                parent.put(segments[i], child);
+            }
+            parent = child.asDocument();
+        }
+        return parent;
+    }
+
+    /**
+     * Sets the field at the dot-notation path of the document.
+     *
+     * @param document The document to update.
+     * @param fieldPath The path of the field.
+     * @param value The value to set the field to.
+     */
+    private static void set(BsonDocument document, String fieldPath, BsonValue value) {
+        String[] segments = fieldPath.split("\\.");
+        parentOf(document, segments, true).put(segments[segments.length - 1], value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addObject(T object) {
+        log.put(object.getIdentifier(), toBytes(ManageableCodec.toBsonDocument(object)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean updateObject(String identifierName, String identifierValue, T object) {
+        synchronized (log) {
+            String key = find(identifierName, identifierValue);
+            if (key == null) {
+                return false;
+            }
+            log.put(key, toBytes(ManageableCodec.toBsonDocument(object)));
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void updateAllObjects(List<T> objects, String identifierName) {
+        synchronized (log) {
+            Set<String> keys = new HashSet<>();
+            objects.forEach(object -> {
+                keys.add(object.getIdentifier());
+                log.put(object.getIdentifier(), toBytes(ManageableCodec.toBsonDocument(object)));
+            });
+            log.identifiers().stream().filter(key -> !keys.contains(key)).forEach(log::delete);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int setFieldOfObjects(String identifierName, String fieldPath, Map<String, ?> values) {
+        synchronized (log) {
+            int matched = 0;
+            for (Map.Entry<String, ?> entry : values.entrySet()) {
+                String key = find(identifierName, entry.getKey());
+                if (key != null) {
+                    BsonDocument document = toDocument(log.get(key));
+                    set(document, fieldPath, toBsonValue(entry.getValue()));
+                    log.put(key, toBytes(document));
+                    matched++;
+                }
+            }
+            return matched;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean updateFields(String identifierName, String identifierValue, FieldUpdate update) {
+        synchronized (log) {
+            String key = find(identifierName, identifierValue);
+            if (key == null) {
+                return false;
+            }
+            if (!update.isEmpty()) {
+                BsonDocument document = toDocument(log.get(key));
+                update.getValues().forEach((fieldPath, value) -> set(document, fieldPath, toBsonValue(value)));
+                log.put(key, toBytes(document));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int updateFieldsOfObjects(String identifierName, Map<String, FieldUpdate> updates) {
+        synchronized (log) {
+            int matched = 0;
+            for (Map.Entry<String, FieldUpdate> entry : updates.entrySet()) {
+                if (updateFields(identifierName, entry.getKey(), entry.getValue())) {
+                    matched++;
+                }
+            }
+            return matched;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <F extends Manageable> List<F> getFieldOfAllObjects(String fieldName, Class<F> fieldType) {
+        List<F> values = new ArrayList<>();
+        log.values().forEach(bytes -> {
+            RawBsonDocument document = new RawBsonDocument(bytes);
+            if (document.isDocument(fieldName)) {
+                values.add(ManageableCodec.fromBsonDocument(document.getDocument(fieldName), fieldType));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long unsetFieldOfAllObjects(String fieldPath) {
+        synchronized (log) {
+            String[] segments = fieldPath.split("\\.");
+            long modified = 0;
+            for (String key : log.identifiers()) {
+                BsonDocument document = toDocument(log.get(key));
+                BsonDocument parent = parentOf(document, segments, false);
+                if (parent != null && parent.remove(segments[segments.length - 1]) != null) {
+                    log.put(key, toBytes(document));
+                    modified++;
+                }
+            }
+            return modified;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean removeObject(String identifierName, String identifierValue) {
+        synchronized (log) {
+            String key = find(identifierName, identifierValue);
+            return key != null && log.delete(key);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean objectExists(String identifierName, String identifierValue) {
+        return find(identifierName, identifierValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T getObject(String identifierName, String identifierValue) {
+        return getObject(identifierName, identifierValue, codec);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T getObject(String identifierName, String identifierValue, DatabaseObjectClassAdapter<T> deserializer) {
+        return getObject(identifierName, identifierValue, new ManageableCodec<>(classType, deserializer));
+    }
+
+    /**
+     * Returns the object found by the given identifier name and value, decoded with the given codec.
+     *
+     * @param identifierName The name of the field to search for.
+     * @param identifierValue The value of the field to search for.
+     * @param objectCodec The codec to decode the object with.
+     * @return The object found, or {@code null} if none was found or it could not be decoded.
+     */
+    private T getObject(String identifierName, String identifierValue, ManageableCodec<T> objectCodec) {
+        try {
+            String key = find(identifierName, identifierValue);
+            byte[] bytes = key == null ? null : log.get(key);
+            return bytes == null ? null : decode(bytes, objectCodec);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<T> getObjects(String identifierName, Collection<String> identifierValues) {
+        List<T> objects = new ArrayList<>();
+        if (identifierName.equals(type.getIdentifierName())) {
+            new HashSet<>(identifierValues).forEach(value -> {
+                byte[] bytes = log.get(value);
+                if (bytes != null) {
+                    objects.add(decode(bytes, codec));
+                }
+            });
+        } else {
+            Set<String> values = new HashSet<>(identifierValues);
+            log.values().forEach(bytes -> {
+                BsonValue value = new RawBsonDocument(bytes).get(identifierName);
+                if (value != null && value.isString() && values.contains(value.asString().getValue())) {
+                    objects.add(decode(bytes, codec));
+                }
+            });
+        }
+        return objects;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<T> getAllObjects() {
+        List<T> objects = new ArrayList<>();
+        log.values().forEach(bytes -> objects.add(decode(bytes, codec)));
+        return objects;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public List<T> getAllObjects(DatabaseObjectClassAdapter<T> deserializer) {
+        ManageableCodec<T> adaptedCodec = new ManageableCodec<>(classType, deserializer);
+        List<T> objects = new ArrayList<>();
+        log.values().forEach(bytes -> objects.add(decode(bytes, adaptedCodec)));
+        return objects;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void addObjectIfNotExists(T object, String identifierName, String identifierValue) {
+        synchronized (log) {
+            if (find(identifierName, identifierValue) == null) {
+                addObject(object);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void updateObjectIfExists(T object, String identifierName, String identifierValue) {
+        updateObject(identifierName, identifierValue, object);
+    }
+}
@@ -0,0 +1,87 @@
+package com.georgster.database.embedded;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.georgster.control.manager.Manageable;
+import com.georgster.database.ObjectStorage;
+import com.georgster.database.ProfileType;
+import com.georgster.database.StorageProvider;
+import com.georgster.logs.MultiLogger;
+
+/**
+ * A {@link StorageProvider} which stores every object on the local disk, so SOAP Bot can run without a database server.
+ * <p>
+ * Each profile of each guild is kept in its own append-only, memory-mapped {@link StorageLog} under
+ * {@code directory/guildId/profile.log}, indexed in memory when first opened. Logs in which superseded records
+ * take up at least as much space as live ones are compacted every {@code compactionInterval} milliseconds.
+ */
+public final class EmbeddedStorageProvider implements StorageProvider {
+    /** The default interval in milliseconds at which wasteful logs are compacted. */
+    public static final long DEFAULT_COMPACTION_INTERVAL = 600000;
+
+    private static final long MINIMUM_COMPACTION_BYTES = 1024 * 1024; // The smallest amount of superseded records worth compacting
+
+    private final Path directory; // The directory all logs are stored under
+    private final Map<String, StorageLog> logs; // Maps "guildId/profile" to its open log
+    private final ScheduledExecutorService compactor; // Periodically compacts wasteful logs
+
+    /**
+     * Creates a new {@link EmbeddedStorageProvider} which stores all logs under the given directory.
+     *
+     * @param directory The directory to store all logs under.
+     * @param compactionInterval The interval in milliseconds at which wasteful logs are compacted.
+     */
+    public EmbeddedStorageProvider(Path directory, long compactionInterval) {
+        this.directory = directory;
+        this.logs = new ConcurrentHashMap<>();
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "GLOBAL-STORAGE-COMPACT"));
+        compactor.scheduleWithFixedDelay(this::compactAll, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "GLOBAL-STORAGE-SHUTDOWN"));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T extends Manageable> ObjectStorage<T> open(String guildId, ProfileType type, Class<T> classType) {
+        String profileName = type.toString().toLowerCase();
+        StorageLog log = logs.computeIfAbsent(guildId + "/" + profileName, name -> new StorageLog(directory.resolve(guildId).resolve(profileName + ".log")));
+        return new EmbeddedObjectStorage<>(log, type, classType);
+    }
+
+    /**
+     * Compacts every log in which superseded records take up at least as much space as live ones.
+     */
+    public void compactAll() {
+        logs.forEach((name, log) -> {
+            try {
+                if (log.isWasteful(MINIMUM_COMPACTION_BYTES)) {
+                    log.compact();
+                }
+            } catch (UncheckedIOException e) { // Never let a failure kill the scheduled compactor
+                MultiLogger.logSystem("Could not compact storage log " + name + ": " + e.getMessage(), getClass());
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void flush() {
+        logs.values().forEach(StorageLog::force);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void close() {
+        compactor.shutdown();
+        logs.values().forEach(StorageLog::close);
+        logs.clear();
+    }
+}
@@ -0,0 +1,454 @@
+package com.georgster.database.embedded;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.georgster.logs.MultiLogger;
+
+/**
+ * An append-only, memory-mapped log of records keyed by identifier, holding the objects of one profile of one guild.
+ * <p>
+ * Every write appends a record to the end of the log, either the new contents of an object or a tombstone marking
+ * its removal, and an in-memory index maps each live identifier to its latest record so reads never scan the log.
+ * Records made obsolete by later writes are only reclaimed when the log is {@link #compact() compacted}, which rewrites
+ * the live records into a new file and atomically replaces the old one. The old mapping is released before the file is
+ * replaced, as some platforms, such as Windows, refuse to replace a file while it is mapped.
+ * <p>
+ * Each record is laid out as {@code [int length][byte kind][int identifierLength][identifier][payload]}, where
+ * {@code length} counts every byte after itself. The mapped file is grown as needed, and the length following the
+ * last record is always zero, so a record length of zero marks the end of the log.
+ * <p>
+ * If the file cannot be reopened after it is compacted, the log is left closed and {@link #isFailed() failed}, and
+ * every later read or write throws an {@link IllegalStateException} until the log is opened again on restart.
+ */
+final class StorageLog {
+    private static final byte PUT = 1; // A record holding the new contents of an object
+    private static final byte DELETE = 2; // A record marking the removal of an object
+    private static final int HEADER_SIZE = Integer.BYTES + 1 + Integer.BYTES; // The length, kind and identifier length of a record
+    private static final int INITIAL_SIZE = 64 * 1024; // The size a new log is mapped with
+    private static final int REOPEN_ATTEMPTS = 3; // How many times reopening the file after a compaction is attempted
+    private static final Consumer<ByteBuffer> UNMAPPER = findUnmapper(); // Releases a mapping straight away, if the JVM allows it
+
+    private final Path path; // The file of this log
+    private final Map<String, Integer> index; // Identifier -> position of its latest record, in first-written order
+    private FileChannel channel; // The open channel to the file of this log
+    private MappedByteBuffer buffer; // The mapped contents of the file of this log
+    private int end; // The position the next record will be written at
+    private long liveBytes; // The combined size of every record in the index
+    private long deadBytes; // The combined size of every record superseded by a later one
+    private boolean failed; // Whether the file could not be reopened after a compaction, leaving the log closed
+
+    /**
+     * Opens the log stored in the given file, creating it if it does not exist, and indexes all of its records.
+     *
+     * @param path The file of the log.
+     * @throws UncheckedIOException If the file could not be opened.
+     */
+    StorageLog(Path path) throws UncheckedIOException {
+        this.path = path;
+        this.index = new LinkedHashMap<>();
+        try {
+            Files.createDirectories(path.getParent());
+            open();
+        } catch (IOException e) {
+            release();
+            throw new UncheckedIOException("Could not open storage log " + path, e);
+        }
+    }
+
+    /**
+     * Maps the file of this log and rebuilds the index by replaying every record in it.
+     * A partially written record at the end of the log, left by a crash, is discarded.
+     *
+     * @throws IOException If the file could not be mapped.
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_SIZE, channel.size()));
+        index.clear();
+        end = 0;
+        liveBytes = 0;
+        deadBytes = 0;
+
+        while (end + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(end);
+            if (length < HEADER_SIZE - Integer.BYTES || end + Integer.BYTES + length > buffer.capacity()) {
+                break;
+            }
+            int identifierLength = buffer.getInt(end + Integer.BYTES + 1);
+            if (identifierLength < 0 || identifierLength > length - (HEADER_SIZE - Integer.BYTES)) {
+                break;
+            }
+            byte kind = buffer.get(end + Integer.BYTES);
+            if (kind == PUT) {
+                supersede(readIdentifier(end));
+                index.put(readIdentifier(end), end);
+                liveBytes += Integer.BYTES + length;
+            } else if (kind == DELETE) {
+                supersede(readIdentifier(end));
+                index.remove(readIdentifier(end));
+                deadBytes += Integer.BYTES + length;
+            } else {
+                break;
+            }
+            end += Integer.BYTES + length;
+        }
+        if (end + Integer.BYTES <= buffer.capacity()) {
+            buffer.putInt(end, 0); // Discards any torn record
+        }
+    }
+
+    /**
+     * Maps the file of this log again after it was closed for a compaction, retrying if it cannot be.
+     * If every attempt fails, the log is left closed and marked as failed.
+     *
+     * @throws IOException If the file could not be mapped by any attempt.
+     */
+    private void reopen() throws IOException {
+        IOException failure = null;
+        for (int attempt = 1; attempt <= REOPEN_ATTEMPTS; attempt++) {
+            try {
+                open();
+                return;
+            } catch (IOException e) {
+                release();
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        index.clear();
+        end = 0;
+        liveBytes = 0;
+        deadBytes = 0;
+        failed = true;
+        MultiLogger.logSystem("Storage log " + path + " could not be reopened after compaction and is unusable until restarted: "
+            + failure.getMessage(), StorageLog.class);
+        throw failure;
+    }
+
+    /**
+     * Closes the channel and unmaps the buffer of this log, if either is open, ignoring any failure to do so.
+     */
+    private void release() {
+        if (buffer != null) {
+            UNMAPPER.accept(buffer);
+            buffer = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already unusable, nothing more to release
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Ensures this log can still be read and written.
+     *
+     * @throws IllegalStateException If the log failed to reopen after a compaction.
+     */
+    private void checkOpen() throws IllegalStateException {
+        if (failed) {
+            throw new IllegalStateException("Storage log " + path + " could not be reopened after compaction");
+        }
+    }
+
+    /**
+     * Marks the current record of the identifier, if any, as superseded.
+     *
+     * @param identifier The identifier whose record is being replaced or removed.
+     */
+    private void supersede(String identifier) {
+        Integer position = index.get(identifier);
+        if (position != null) {
+            int size = Integer.BYTES + buffer.getInt(position);
+            liveBytes -= size;
+            deadBytes += size;
+        }
+    }
+
+    /**
+     * Reads the identifier of the record at the given position.
+     *
+     * @param position The position of the record.
+     * @return The identifier of the record.
+     */
+    private String readIdentifier(int position) {
+        byte[] identifier = new byte[buffer.getInt(position + Integer.BYTES + 1)];
+        buffer.get(position + HEADER_SIZE, identifier);
+        return new String(identifier, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the payload of the record at the given position.
+     *
+     * @param position The position of the record.
+     * @return The payload of the record.
+     */
+    private byte[] readPayload(int position) {
+        int length = buffer.getInt(position);
+        int identifierLength = buffer.getInt(position + Integer.BYTES + 1);
+        byte[] payload = new byte[length - (HEADER_SIZE - Integer.BYTES) - identifierLength];
+        buffer.get(position + HEADER_SIZE + identifierLength, payload);
+        return payload;
+    }
+
+    /**
+     * Appends a record to the end of this log, growing the mapped file if needed.
+     *
+     * @param kind The kind of record.
+     * @param identifier The identifier of the record.
+     * @param payload The payload of the record.
+     * @return The position the record was written at.
+     */
+    private int append(byte kind, byte[] identifier, byte[] payload) {
+        int size = HEADER_SIZE + identifier.length + payload.length;
+        ensureCapacity((long) end + size + HEADER_SIZE);
+
+        int position = end;
+        buffer.put(position + HEADER_SIZE, identifier);
+        buffer.put(position + HEADER_SIZE + identifier.length, payload);
+        buffer.put(position + Integer.BYTES, kind);
+        buffer.putInt(position + Integer.BYTES + 1, identifier.length);
+        buffer.putInt(position + size, 0); // Ends the log after this record, in case older bytes follow it
+        buffer.putInt(position, size - Integer.BYTES); // Written last, so a torn record is never mistaken for a complete one
+        end += size;
+        return position;
+    }
+
+    /**
+     * Remaps the file of this log so it can hold at least the given number of bytes.
+     *
+     * @param capacity The number of bytes the mapping must hold.
+     */
+    private void ensureCapacity(long capacity) {
+        if (capacity <= buffer.capacity()) {
+            return;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Storage log " + path + " has exceeded its maximum size");
+        }
+        try {
+            buffer.force();
+            MappedByteBuffer previous = buffer;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(capacity, (long) buffer.capacity() * 2)));
+            UNMAPPER.accept(previous);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow storage log " + path, e);
+        }
+    }
+
+    /**
+     * Writes the payload as the new contents of the object with the given identifier.
+     *
+     * @param identifier The identifier of the object.
+     * @param payload The contents of the object.
+     * @throws IllegalStateException If the log failed to reopen after a compaction.
+     */
+    synchronized void put(String identifier, byte[] payload) {
+        checkOpen();
+        byte[] encodedIdentifier = identifier.getBytes(StandardCharsets.UTF_8);
+        supersede(identifier);
+        int position = append(PUT, encodedIdentifier, payload);
+        index.put(identifier, position);
+        liveBytes += end - position;
+    }
+
+    /**
+     * Removes the object with the given identifier.
+     *
+     * @param identifier The identifier of the object.
+     * @return {@code true} if the object existed, {@code false} otherwise.
+     * @throws IllegalStateException If the log failed to reopen after a compaction.
+     */
+    synchronized boolean delete(String identifier) {
+        checkOpen();
+        if (!index.containsKey(identifier)) {
+            return false;
+        }
+        supersede(identifier);
+        index.remove(identifier);
+        int position = append(DELETE, identifier.getBytes(StandardCharsets.UTF_8), new byte[0]);
+        deadBytes += end - position;
+        return true;
+    }
+
+    /**
+     * Returns the contents of the object with the given identifier.
+     *
+     * @param identifier The identifier of the object.
+     * @return The contents of the object, or {@code null} if it does not exist.
+     * @throws IllegalStateException If the log failed to reopen after a compaction.
+     */
+    synchronized byte[] get(String identifier) {
+        checkOpen();
+        Integer position = index.get(identifier);
+        return position == null ? null : readPayload(position);
+    }
+
+    /**
+     * Returns whether an object with the given identifier exists.
+     *
+     * @param identifier The identifier of the object.
+     * @return {@code true} if the object exists, {@code false} otherwise.
+     * @throws IllegalStateException If the log failed to reopen after a compaction.
+     */
+    synchronized boolean contains(String identifier) {
+        checkOpen();
+        return index.containsKey(identifier);
+    }
+
+    /**
+     * Returns the identifiers of every object in this log, in the order they were first written.
+     *
+     * @return The identifiers of every object.
+     * @throws IllegalStateException If the log failed to reopen after a compaction.
+     */
+    synchronized List<String> identifiers() {
+        checkOpen();
+        return new ArrayList<>(index.keySet());
+    }
+
+    /**
+     * Returns the contents of every object in this log, in the order they were first written.
+     *
+     * @return The contents of every object.
+     * @throws IllegalStateException If the log failed to reopen after a compaction.
+     */
+    synchronized List<byte[]> values() {
+        checkOpen();
+        List<byte[]> values = new ArrayList<>(index.size());
+        index.values().forEach(position -> values.add(readPayload(position)));
+        return values;
+    }
+
+    /**
+     * Returns whether at least as many bytes of this log are taken by superseded records as by live ones,
+     * and there are at least {@code minimumBytes} of them to reclaim.
+     *
+     * @param minimumBytes The smallest number of superseded bytes worth compacting.
+     * @return {@code true} if this log should be compacted, {@code false} otherwise.
+     */
+    synchronized boolean isWasteful(long minimumBytes) {
+        return !failed && deadBytes >= minimumBytes && deadBytes >= liveBytes;
+    }
+
+    /**
+     * Rewrites only the live records of this log into a new file, which then atomically replaces the current one.
+     * The current file is closed and unmapped before it is replaced, and is reopened as it was if it cannot be.
+     * If the file cannot be reopened either way, the log is left closed and {@link #isFailed() failed}.
+     *
+     * @throws UncheckedIOException If the log could not be rewritten or reopened.
+     * @throws IllegalStateException If the log already failed to reopen after a compaction.
+     */
+    synchronized void compact() throws UncheckedIOException, IllegalStateException {
+        checkOpen();
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            try (FileChannel output = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (int position : index.values()) {
+                    ByteBuffer record = buffer.duplicate();
+                    record.position(position).limit(position + Integer.BYTES + buffer.getInt(position));
+                    while (record.hasRemaining()) {
+                        output.write(record);
+                    }
+                }
+                output.force(true);
+            }
+            buffer.force();
+            release(); // Must not be read again until reopened
+            IOException moveFailure = null;
+            try {
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                moveFailure = e;
+            }
+            reopen(); // The compacted file if it was moved, otherwise the untouched current one
+            if (moveFailure != null) {
+                throw moveFailure;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact storage log " + path, e);
+        }
+    }
+
+    /**
+     * Returns whether the file of this log could not be reopened after a compaction, leaving the log unusable.
+     *
+     * @return {@code true} if the log failed, {@code false} otherwise.
+     */
+    synchronized boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Forces all written records to the storage device, unless the log failed and has nothing left to force.
+     */
+    synchronized void force() {
+        if (!failed) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Forces all written records to the storage device and closes the file of this log, unless it is already closed
+     * after failing to reopen.
+     */
+    synchronized void close() {
+        if (failed) {
+            return;
+        }
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close storage log " + path, e);
+        }
+    }
+
+    /**
+     * Finds a way to release a {@link MappedByteBuffer} straight away rather than when it is garbage collected,
+     * through {@code sun.misc.Unsafe#invokeCleaner}. If the JVM does not allow it, mappings are left to the
+     * garbage collector, which is enough everywhere but on platforms that refuse to replace mapped files.
+     *
+     * @return A consumer which releases the mapping of the buffers given to it.
+     */
+    private static Consumer<ByteBuffer> findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            return mapped -> {
+                try {
+                    invokeCleaner.invoke(unsafe, mapped);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // Left to the garbage collector
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return mapped -> { };
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.georgster.elo.manager;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import com.georgster.control.util.ClientContext;
 import com.georgster.control.manager.GuildedSoapManager;
+import com.georgster.control.manager.ObserveeStore;
 import com.georgster.database.ProfileType;
 import com.georgster.elo.model.EloBattle;
 import com.georgster.elo.model.EloBattle.BattleStatus;
@@ -16,6 +18,7 @@ import com.georgster.elo.model.EloBattle.BattleStatus;
 public class EloBattleManager extends GuildedSoapManager<EloBattle> {
     
     private final ClientContext context;
+    private final ObserveeStore.Index<String, EloBattle> participantIndex; // All battles by the IDs of their participants
 
     /**
      * Creates a new EloBattleManager for the given ClientContext.
@@ -25,6 +28,7 @@ public class EloBattleManager extends GuildedSoapManager<EloBattle> {
     public EloBattleManager(ClientContext context) {
         super(context, ProfileType.ELO_BATTLES, EloBattle.class, "battleId");
         this.context = context;
+        this.participantIndex = observees.indexAll(battle -> Arrays.asList(battle.getChallengerId(), battle.getChallengedId()));
     }
 
     /**
@@ -61,9 +65,7 @@ public class EloBattleManager extends GuildedSoapManager<EloBattle> {
      * @return List of battles involving the player
      */
     public List<EloBattle> getBattlesForPlayer(String playerId) {
-        return observees.stream()
-                .filter(battle -> battle.isParticipant(playerId))
-                .collect(Collectors.toList());
+        return participantIndex.get(playerId);
     }
 
     /**
@@ -73,8 +75,10 @@ public class EloBattleManager extends GuildedSoapManager<EloBattle> {
      * @return List of active battles involving the player
      */
     public List<EloBattle> getActiveBattlesForPlayer(String playerId) {
-        return getActiveBattles().stream()
-                .filter(battle -> battle.isParticipant(playerId))
+        return participantIndex.get(playerId).stream()
+                .filter(battle -> battle.getStatus() == BattleStatus.PENDING_ACCEPTANCE ||
+                                battle.getStatus() == BattleStatus.IN_PROGRESS)
+                .filter(battle -> !battle.isExpired())
                 .collect(Collectors.toList());
     }
 
@@ -85,7 +89,7 @@ public class EloBattleManager extends GuildedSoapManager<EloBattle> {
      * @return List of battles waiting for this player's acceptance
      */
     public List<EloBattle> getPendingBattlesForPlayer(String playerId) {
-        return observees.stream()
+        return participantIndex.get(playerId).stream()
                 .filter(battle -> battle.getStatus() == BattleStatus.PENDING_ACCEPTANCE)
                 .filter(battle -> battle.getChallengedId().equals(playerId))
                 .filter(battle -> !battle.isExpired())
@@ -235,8 +239,7 @@ public class EloBattleManager extends GuildedSoapManager<EloBattle> {
      * @return Number of completed battles
      */
     public int getCompletedBattlesCount(String playerId) {
-        return (int) observees.stream()
-                .filter(battle -> battle.isParticipant(playerId))
+        return (int) participantIndex.get(playerId).stream()
                 .filter(battle -> battle.getStatus() == BattleStatus.COMPLETED)
                 .count();
     }
@@ -248,7 +251,7 @@ public class EloBattleManager extends GuildedSoapManager<EloBattle> {
      * @return Number of won battles
      */
     public int getWonBattlesCount(String playerId) {
-        return (int) observees.stream()
+        return (int) participantIndex.get(playerId).stream()
                 .filter(battle -> battle.getStatus() == BattleStatus.COMPLETED)
                 .filter(battle -> playerId.equals(battle.getWinnerId()))
                 .count();
@@ -98,8 +98,7 @@ public abstract class DiscordGame extends UniqueIdBased {
     public void withdrawlEntryAmount() throws InsufficientCoinsException {
         UserProfile profile = event.getUserProfileManager().get(owner.getId().asString());
         try {
-            profile.getBank().withdrawl(entryAmount);
-            event.getUserProfileManager().update(profile);
+            event.getUserProfileManager().withdrawlCoins(profile, entryAmount);
         } catch (IllegalArgumentException e) {
             throw new InsufficientCoinsException(profile.getBank(), entryAmount);
         }
@@ -120,8 +119,7 @@ public abstract class DiscordGame extends UniqueIdBased {
     private void depositRewardAmount() {
         UserProfile profile = event.getUserProfileManager().get(owner.getId().asString());
 
-        profile.getBank().deposit(rewardAmount);
-        event.getUserProfileManager().update(profile);
+        event.getUserProfileManager().depositCoins(profile, rewardAmount);
     }
 
     /**
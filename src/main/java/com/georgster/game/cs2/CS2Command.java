@@ -1,5 +1,6 @@
 package com.georgster.game.cs2;
 
+import com.georgster.Command;
 import com.georgster.ParseableCommand;
 import com.georgster.api.faceit.exception.FaceitAPIException;
 import com.georgster.control.util.CommandExecutionEvent;
@@ -18,6 +19,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Main router command for CS2 Faceit integration.
@@ -40,6 +43,22 @@ public class CS2Command implements ParseableCommand {
     
     private static final Logger logger = LoggerFactory.getLogger(CS2Command.class);
     
+    private final Map<String, Command> subcommandInstances = new ConcurrentHashMap<>(); // Subcommand name -> its shared instance, built on first use
+
+    /**
+     * Creates a Faceit backed subcommand, which may fail if the Faceit API client cannot be initialized.
+     */
+    @FunctionalInterface
+    private interface SubcommandFactory {
+        /**
+         * Creates a new instance of the subcommand.
+         * 
+         * @return The new subcommand.
+         * @throws FaceitAPIException If the Faceit API client cannot be initialized.
+         */
+        Command create() throws FaceitAPIException;
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -63,8 +82,7 @@ public class CS2Command implements ParseableCommand {
             // Link subcommand
             subcommands.on(p -> {
                 try {
-                    CS2LinkCommand linkCommand = new CS2LinkCommand();
-                    linkCommand.execute(event);
+                    getSubcommand("link", CS2LinkCommand::new).execute(event);
                 } catch (FaceitAPIException e) {
                     logger.error("Failed to initialize CS2LinkCommand: {}", e.getMessage(), e);
                     handler.sendMessage("Failed to initialize Faceit API client. Please contact server admins.", 
@@ -87,8 +105,7 @@ public class CS2Command implements ParseableCommand {
             // Match subcommand
             subcommands.on(p -> {
                 try {
-                    CS2MatchCommand matchCommand = new CS2MatchCommand();
-                    matchCommand.execute(event);
+                    getSubcommand("match", CS2MatchCommand::new).execute(event);
                 } catch (FaceitAPIException e) {
                     logger.error("Failed to initialize CS2MatchCommand: {}", e.getMessage(), e);
                     handler.sendMessage("Failed to initialize Faceit API client. Please contact server admins.", 
@@ -99,8 +116,7 @@ public class CS2Command implements ParseableCommand {
             // Stats subcommand (Phase 5)
             subcommands.on(p -> {
                 try {
-                    CS2StatsCommand statsCommand = new CS2StatsCommand();
-                    statsCommand.execute(event);
+                    getSubcommand("stats", CS2StatsCommand::new).execute(event);
                 } catch (FaceitAPIException e) {
                     logger.error("Failed to initialize CS2StatsCommand: {}", e.getMessage(), e);
                     handler.sendMessage("Failed to initialize Faceit API client. Please contact server admins.", 
@@ -111,8 +127,7 @@ public class CS2Command implements ParseableCommand {
             // History subcommand (Phase 8)
             subcommands.on(p -> {
                 try {
-                    CS2HistoryCommand historyCommand = new CS2HistoryCommand();
-                    historyCommand.execute(event);
+                    getSubcommand("history", CS2HistoryCommand::new).execute(event);
                 } catch (FaceitAPIException e) {
                     logger.error("Failed to initialize CS2HistoryCommand: {}", e.getMessage(), e);
                     handler.sendMessage("Failed to initialize Faceit API client. Please contact server admins.", 
@@ -123,8 +138,7 @@ public class CS2Command implements ParseableCommand {
             // Compare subcommand (Phase 6)
             subcommands.on(p -> {
                 try {
-                    CS2CompareCommand compareCommand = new CS2CompareCommand();
-                    compareCommand.execute(event);
+                    getSubcommand("compare", CS2CompareCommand::new).execute(event);
                 } catch (FaceitAPIException e) {
                     logger.error("Failed to initialize CS2CompareCommand: {}", e.getMessage(), e);
                     handler.sendMessage("Failed to initialize Faceit API client. Please contact server admins.", 
@@ -135,8 +149,7 @@ public class CS2Command implements ParseableCommand {
             // Leaderboard subcommand (Phase 7)
             subcommands.on(p -> {
                 try {
-                    CS2LeaderboardCommand leaderboardCommand = new CS2LeaderboardCommand();
-                    leaderboardCommand.execute(event);
+                    getSubcommand("leaderboard", CS2LeaderboardCommand::new).execute(event);
                 } catch (FaceitAPIException e) {
                     logger.error("Failed to initialize CS2LeaderboardCommand: {}", e.getMessage(), e);
                     handler.sendMessage("Failed to initialize Faceit API client. Please contact server admins.", 
@@ -288,4 +301,39 @@ public class CS2Command implements ParseableCommand {
     public boolean shouldDefer() {
         return true;
     }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @return 4 (most executions make several Faceit API requests)
+     */
+    @Override
+    public int getCost() {
+        return 4;
+    }
+
+    /**
+     * Returns the shared instance of the subcommand with the given name, creating it with the given factory on first use.
+     * <p>
+     * The Faceit backed subcommands each hold an API client and a cache, so they are only built once per router
+     * instead of once per execution. A subcommand which fails to build is attempted again on its next use.
+     * 
+     * @param name The name of the subcommand.
+     * @param factory The factory creating the subcommand.
+     * @return The shared instance of the subcommand.
+     * @throws FaceitAPIException If the subcommand had to be created and could not be.
+     */
+    private Command getSubcommand(String name, SubcommandFactory factory) throws FaceitAPIException {
+        Command subcommand = subcommandInstances.get(name);
+        if (subcommand == null) {
+            synchronized (subcommandInstances) {
+                subcommand = subcommandInstances.get(name);
+                if (subcommand == null) {
+                    subcommand = factory.create();
+                    subcommandInstances.put(name, subcommand);
+                }
+            }
+        }
+        return subcommand;
+    }
 }
@@ -75,7 +75,7 @@ public class CS2LeaderboardCommand implements ParseableCommand {
         GuildInteractionHandler handler = event.getGuildInteractionHandler();
         UserProfileManager profileManager = event.getClientContext().getUserProfileManager();
         
-        String guildId = event.getDiscordEvent().getGuild().getId().asString();
+        String guildId = event.getDiscordEvent().getGuildId().asString();
         String executorId = event.getDiscordEvent().getUser().getId().asString();
         
         logger.info("CS2LeaderboardCommand invoked in guild {} by user {}", guildId, executorId);
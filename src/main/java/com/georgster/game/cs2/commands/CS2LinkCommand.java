@@ -100,7 +100,7 @@ public class CS2LinkCommand implements ParseableCommand {
             if (profile == null) {
                 // Create new profile if doesn't exist
                 String username = event.getDiscordEvent().getUser().getUsername();
-                String guildId = event.getDiscordEvent().getGuild().getId().asString();
+                String guildId = event.getDiscordEvent().getGuildId().asString();
                 profile = new UserProfile(guildId, userId, username);
             }
             
@@ -72,7 +72,7 @@ public class CS2MatchCommand implements ParseableCommand {
         GuildInteractionHandler handler = event.getGuildInteractionHandler();
         UserProfileManager profileManager = event.getClientContext().getUserProfileManager();
         
-        String guildId = event.getDiscordEvent().getGuild().getId().asString();
+        String guildId = event.getDiscordEvent().getGuildId().asString();
         String executorId = event.getDiscordEvent().getUser().getId().asString();
         
         List<String> args = event.getParsedArguments().getArguments();
@@ -119,8 +119,7 @@ public class PlinkoGame extends DiscordGame {
         }
         long reward = calculateReward(spot - 11);
         handler.sendMessage("Your reward is " + reward + " coins", "Plinko");
-        profile.getBank().deposit(reward);
-        profileManager.update(profile);
+        profileManager.depositCoins(profile, reward);
     }
     
     /**
@@ -118,5 +118,14 @@ public class GPTCommand implements ParseableCommand {
     public boolean shouldDefer() {
         return true;
     }
-    
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @return 8 (every execution is a paid OpenAI request)
+     */
+    @Override
+    public int getCost() {
+        return 8;
+    }
 }
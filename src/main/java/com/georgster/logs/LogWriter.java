@@ -0,0 +1,473 @@
+package com.georgster.logs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.LoggerFactory;
+
+import com.georgster.api.ActionWriter;
+import com.georgster.util.handler.GuildInteractionHandler;
+import com.georgster.util.handler.InteractionHandler.MessageFormatting;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.Guild;
+import discord4j.core.object.entity.channel.GuildMessageChannel;
+
+/**
+ * Writes the logs sent by every {@link MultiLogger} on a single background thread.
+ * <p>
+ * Loggers {@link #enqueue(Entry) enqueue} their logs onto a bounded, lock-free buffer and return immediately. When the
+ * buffer is full, new logs are dropped and counted rather than blocking the logging thread, and the number dropped is
+ * reported to the console on the next drain. The total dropped since startup is also logged by the {@link MetricsReporter}.
+ * <p>
+ * The writer drains the buffer every {@link #DRAIN_INTERVAL} milliseconds. File logs go through one long-lived buffered
+ * writer, which is rotated once the log file grows past {@link #MAX_LOG_FILE_SIZE} bytes. Discord logs are coalesced per
+ * {@code Guild} and posted to its bot-logs channel as one digest message every {@link #DIGEST_INTERVAL} milliseconds, or
+ * sooner if a digest fills a message. Digests are posted by a separate poster thread, so a slow or failing Discord request
+ * never holds up the writer. At most {@link #POSTER_CAPACITY} digests wait for the poster; beyond that, digests are dropped
+ * and their logs counted as dropped, like logs which do not fit in the buffer. Everything buffered is written when the JVM
+ * shuts down.
+ */
+final class LogWriter {
+    private static final int CAPACITY = 8192; // The most logs which can be buffered at once
+    private static final long DRAIN_INTERVAL = 200; // Milliseconds between each drain of the buffer
+    private static final long DIGEST_INTERVAL = 5000; // Milliseconds between each Discord digest of a channel
+    private static final int POSTER_CAPACITY = 64; // The most digests which can wait to be posted at once
+    private static final int MAX_DIGEST_LENGTH = 4000; // The most characters in one digest, within Discord's embed description limit
+    private static final long MAX_LOG_FILE_SIZE = 10L * 1024 * 1024; // Bytes the log file may grow to before it is rotated
+    private static final int MAX_ROTATED_FILES = 3; // The number of rotated log files kept
+    private static final long SHUTDOWN_POST_TIMEOUT = 5; // Seconds to wait for the last digests to be posted when the JVM shuts down
+    private static final Path LOG_FILE = Paths.get(System.getProperty("user.dir"), "src", "main", "java", "com", "georgster", "logs", "data", "log.txt");
+
+    private static final Queue<Entry> buffer = new ConcurrentLinkedQueue<>(); // Logs waiting to be written, bounded by size
+    private static final AtomicInteger size = new AtomicInteger(); // The number of logs in the buffer
+    private static final AtomicLong dropped = new AtomicLong(); // Logs dropped since the last drain because the buffer or the poster was full
+    private static final AtomicLong totalDropped = new AtomicLong(); // Logs dropped since startup
+
+    private static final Map<Snowflake, Digest> digests = new LinkedHashMap<>(); // Guild ID -> its pending digest, only touched by the writer
+    private static final ExecutorService poster = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(POSTER_CAPACITY), runnable -> {
+        Thread thread = new Thread(runnable, "GLOBAL-LOG-POSTER");
+        thread.setDaemon(true);
+        return thread;
+    }); // Posts digests to Discord in the order they were made, rejecting digests once POSTER_CAPACITY are waiting
+    private static final Object fileLock = new Object(); // Guards the log file between the writer and wipes
+    private static BufferedWriter fileWriter; // The open writer to the log file, null until the next file log
+    private static long fileSize; // The size in bytes of the log file, including unflushed writes
+    private static long lastDigest = System.currentTimeMillis(); // When Discord digests were last posted
+
+    static {
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GLOBAL-LOG-WRITER");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(() -> drain(false), DRAIN_INTERVAL, DRAIN_INTERVAL, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(LogWriter::shutdown, "GLOBAL-LOG-SHUTDOWN"));
+        MetricsReporter.register(() -> "Logs: " + size.get() + " buffered, " + totalDropped.get() + " dropped since startup");
+    }
+
+    /**
+     * Utility class.
+     */
+    private LogWriter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Buffers the entry to be written, or drops and counts it if the buffer is full.
+     *
+     * @param entry The logs to write.
+     * @return {@code true} if the entry was buffered, {@code false} if it was dropped.
+     */
+    static boolean enqueue(Entry entry) {
+        if (size.incrementAndGet() > CAPACITY) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+            totalDropped.incrementAndGet();
+            return false;
+        }
+        buffer.offer(entry);
+        return true;
+    }
+
+    /**
+     * Returns how many logs have been dropped since startup because the buffer or the poster was full.
+     *
+     * @return The number of dropped logs.
+     */
+    static long getDroppedCount() {
+        return totalDropped.get();
+    }
+
+    /**
+     * Empties the log file, discarding any file logs which have not been written yet.
+     */
+    static void wipeLogFile() {
+        synchronized (fileLock) {
+            closeFile();
+            try {
+                Files.createDirectories(LOG_FILE.getParent());
+                Files.write(LOG_FILE, new byte[0]);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Writes every buffered entry and posts every pending digest, then waits briefly for the digests to reach Discord.
+     */
+    private static void shutdown() {
+        drain(true);
+        poster.shutdown();
+        try {
+            poster.awaitTermination(SHUTDOWN_POST_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes every buffered entry, then hands any Discord digests which are due to the poster.
+     * <p>
+     * Only ever runs on the writer thread, or on the shutdown thread once the JVM is exiting.
+     *
+     * @param flushDigests Whether to post every pending Discord digest regardless of when digests were last posted,
+     *                     and close the log file, as the JVM is shutting down.
+     */
+    private static synchronized void drain(boolean flushDigests) {
+        try {
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                MultiLogger.logSystem("Dropped " + lost + " logs as logging fell behind\n", LogWriter.class);
+            }
+
+            Entry entry;
+            while ((entry = buffer.poll()) != null) {
+                size.decrementAndGet();
+                write(entry);
+            }
+            flushFile();
+
+            long now = System.currentTimeMillis();
+            if (flushDigests || now - lastDigest >= DIGEST_INTERVAL) {
+                postDigests();
+                lastDigest = now;
+            }
+            if (flushDigests) { // Shutting down
+                synchronized (fileLock) {
+                    closeFile();
+                }
+            }
+        } catch (Exception e) { // Never let a failure kill the scheduled writer
+            MultiLogger.logSystem("Unexpected error while writing logs: " + e.getMessage(), LogWriter.class);
+        }
+    }
+
+    /**
+     * Writes the logs of an entry to each of their destinations, in the order a {@link MultiLogger} sends them.
+     *
+     * @param entry The entry to write.
+     */
+    private static void write(Entry entry) {
+        writeDiscord(entry, entry.discord);
+        writeSystem(entry, entry.system);
+        writeFile(entry, entry.file);
+        writeApi(entry.api);
+        writeDiscord(entry, entry.nonApi);
+        writeSystem(entry, entry.nonApi);
+        writeFile(entry, entry.nonApi);
+    }
+
+    /**
+     * Adds a log to the digest of its {@code Guild}. The bot-logs channel is only resolved when the digest is posted.
+     *
+     * @param entry The entry the log is from.
+     * @param text The log.
+     */
+    private static void writeDiscord(Entry entry, String text) {
+        if (text.isEmpty() || entry.guild == null) {
+            return;
+        }
+        Digest digest = digests.computeIfAbsent(entry.guild.getId(), id -> new Digest(entry.guild));
+        String formatted = Digest.format(text);
+        if (digest.length() > 0 && digest.length() + formatted.length() > MAX_DIGEST_LENGTH) {
+            digest.post();
+        }
+        digest.add(formatted);
+    }
+
+    /**
+     * Logs to the system's console.
+     *
+     * @param entry The entry the log is from.
+     * @param text The log.
+     */
+    private static void writeSystem(Entry entry, String text) {
+        if (!text.isEmpty()) {
+            LoggerFactory.getLogger(entry.source).info(text.replace("- ", "\t"));
+        }
+    }
+
+    /**
+     * Writes to the log file through the long-lived writer, rotating the file first if it has grown too large.
+     *
+     * @param entry The entry the log is from.
+     * @param text The log.
+     */
+    private static void writeFile(Entry entry, String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        String line = entry.source.getName() + ": " + text.replace("- ", "\t") + "\n";
+        synchronized (fileLock) {
+            try {
+                if (fileWriter != null && fileSize >= MAX_LOG_FILE_SIZE) {
+                    rotate();
+                }
+                if (fileWriter == null) {
+                    openFile();
+                }
+                fileWriter.write(line);
+                fileSize += line.getBytes(StandardCharsets.UTF_8).length;
+            } catch (IOException e) {
+                e.printStackTrace();
+                closeFile();
+            }
+        }
+    }
+
+    /**
+     * Writes to SOAP Bot's {@code ActionWriter}.
+     *
+     * @param text The log.
+     */
+    private static void writeApi(String text) {
+        if (!text.isEmpty()) {
+            ActionWriter.writeAction(text.replace("\t", "").replace("\n", "").replace("- ", ""));
+        }
+    }
+
+    /**
+     * Hands the pending digest of every {@code Guild} to the poster.
+     */
+    private static void postDigests() {
+        digests.values().forEach(Digest::post);
+        digests.values().removeIf(digest -> digest.length() == 0);
+    }
+
+    /**
+     * Opens the log file for appending.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    private static void openFile() throws IOException {
+        Files.createDirectories(LOG_FILE.getParent());
+        fileWriter = Files.newBufferedWriter(LOG_FILE, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileSize = Files.size(LOG_FILE);
+    }
+
+    /**
+     * Flushes the log file writer, if it is open.
+     */
+    private static void flushFile() {
+        synchronized (fileLock) {
+            if (fileWriter != null) {
+                try {
+                    fileWriter.flush();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    closeFile();
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the log file writer, if it is open.
+     */
+    private static void closeFile() {
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            fileWriter = null;
+        }
+    }
+
+    /**
+     * Closes the log file and shifts it into the rotated files, discarding the oldest.
+     * The log file is opened again, empty, on the next write.
+     *
+     * @throws IOException If the files could not be moved.
+     */
+    private static void rotate() throws IOException {
+        closeFile();
+        String name = LOG_FILE.getFileName().toString();
+        String base = name.contains(".") ? name.substring(0, name.lastIndexOf('.')) : name;
+        String extension = name.contains(".") ? name.substring(name.lastIndexOf('.')) : "";
+        for (int i = MAX_ROTATED_FILES - 1; i >= 1; i--) {
+            Path older = LOG_FILE.resolveSibling(base + "." + i + extension);
+            if (Files.exists(older)) {
+                Files.move(older, LOG_FILE.resolveSibling(base + "." + (i + 1) + extension), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(LOG_FILE, LOG_FILE.resolveSibling(base + ".1" + extension), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * The logs sent by a {@link MultiLogger} at once, by destination. Logs with no text for a destination are empty.
+     */
+    static final class Entry {
+        private final Guild guild; // The Guild whose bot-logs channel Discord logs go to, null if none
+        private final Class<?> source; // The class that logged
+        private final String discord;
+        private final String system;
+        private final String file;
+        private final String api;
+        private final String nonApi; // Sent to the DISCORD, SYSTEM and FILE destinations
+
+        /**
+         * Creates an entry of logs from the given source.
+         *
+         * @param guild The Guild whose bot-logs channel Discord logs go to, null if none.
+         * @param source The class that logged.
+         * @param discord The DISCORD log.
+         * @param system The SYSTEM log.
+         * @param file The FILE log.
+         * @param api The API log.
+         * @param nonApi The NONAPI log.
+         */
+        Entry(Guild guild, Class<?> source, String discord, String system, String file, String api, String nonApi) {
+            this.guild = guild;
+            this.source = source;
+            this.discord = discord;
+            this.system = system;
+            this.file = file;
+            this.api = api;
+            this.nonApi = nonApi;
+        }
+    }
+
+    /**
+     * The Discord logs waiting to be posted to one {@code Guild's} bot-logs channel as a single message.
+     * <p>
+     * Logs are added on the writer thread, and the handler is only used on the poster thread.
+     */
+    private static final class Digest {
+        private final Guild guild; // The Guild whose bot-logs channel is posted to
+        private final GuildInteractionHandler handler; // Posts to the channel
+        private final StringBuilder text; // The pending logs
+        private int count; // The number of pending logs
+
+        /**
+         * Creates an empty digest for the given {@code Guild}.
+         *
+         * @param guild The Guild whose bot-logs channel is posted to.
+         */
+        private Digest(Guild guild) {
+            this.guild = guild;
+            this.handler = new GuildInteractionHandler(guild);
+            this.text = new StringBuilder();
+        }
+
+        /**
+         * Formats a log for a digest, bolding its first line as the log's title and keeping it within a digest.
+         *
+         * @param log The log.
+         * @return The formatted log.
+         */
+        private static String format(String log) {
+            int newline = log.indexOf('\n');
+            String formatted = newline == -1 ? log : "**" + log.substring(0, newline).replace("*", "") + "**" + log.substring(newline);
+            if (!formatted.endsWith("\n")) {
+                formatted += "\n";
+            }
+            return formatted.length() > MAX_DIGEST_LENGTH ? formatted.substring(0, MAX_DIGEST_LENGTH - 4) + "...\n" : formatted;
+        }
+
+        /**
+         * Adds a formatted log to this digest.
+         *
+         * @param log The formatted log.
+         */
+        private void add(String log) {
+            text.append(log);
+            count++;
+        }
+
+        /**
+         * Returns the number of characters pending in this digest.
+         *
+         * @return The length of this digest.
+         */
+        private int length() {
+            return text.length();
+        }
+
+        /**
+         * Empties this digest and hands its pending logs to the poster as one message, if any logs are pending.
+         * If too many digests are already waiting for the poster, the logs are dropped and counted instead.
+         */
+        private void post() {
+            if (count == 0) {
+                return;
+            }
+            int logs = count;
+            String title = logs == 1 ? "Log" : logs + " Logs";
+            String body = text.toString();
+            text.setLength(0);
+            count = 0;
+            try {
+                poster.execute(() -> send(body, title));
+            } catch (RejectedExecutionException e) {
+                if (poster.isShutdown()) {
+                    MultiLogger.logSystem("Could not post a log digest as logging is shutting down", LogWriter.class);
+                } else { // Discord is not keeping up with the digests
+                    dropped.addAndGet(logs);
+                    totalDropped.addAndGet(logs);
+                }
+            }
+        }
+
+        /**
+         * Posts a message to the {@code Guild's} bot-logs channel, if it has one. Only runs on the poster thread.
+         *
+         * @param body The logs.
+         * @param title The title of the message.
+         */
+        private void send(String body, String title) {
+            try {
+                Optional<GuildMessageChannel> channel = MultiLogger.getLoggingChannel(guild);
+                if (channel.isPresent()) {
+                    handler.setActiveMessageChannel(channel.get());
+                    handler.sendMessage(body, title, MessageFormatting.INFO);
+                }
+            } catch (RuntimeException e) { // The channel may have been deleted since it was resolved
+                MultiLogger.logSystem("Could not post a log digest: " + e.getMessage(), LogWriter.class);
+            }
+        }
+    }
+}
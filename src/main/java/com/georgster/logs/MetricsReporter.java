@@ -0,0 +1,68 @@
+package com.georgster.logs;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Periodically logs the metrics of SOAP Bot's systems to the system log.
+ * <p>
+ * Each system {@link #register(Supplier) registers} a supplier of a snapshot of its metrics, whose
+ * {@code toString()} is logged every interval once the reporter is {@link #start(long) started}.
+ */
+public final class MetricsReporter {
+    /** The default interval in minutes at which metrics are logged. */
+    public static final long DEFAULT_INTERVAL = 5;
+
+    private static final List<Supplier<?>> METRICS = new CopyOnWriteArrayList<>(); // Supplies each system's metrics, in registration order
+    private static ScheduledExecutorService reporter; // Logs the metrics, null until started
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private MetricsReporter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Registers a supplier of a system's metrics, logged by their {@code toString()} each time metrics are reported.
+     *
+     * @param metrics Supplies a snapshot of the system's metrics.
+     */
+    public static void register(Supplier<?> metrics) {
+        METRICS.add(metrics);
+    }
+
+    /**
+     * Starts logging every registered system's metrics at the given interval, if not already started.
+     *
+     * @param interval The interval in minutes at which metrics are logged.
+     */
+    public static synchronized void start(long interval) {
+        if (reporter != null) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GLOBAL-METRICS");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(MetricsReporter::report, interval, interval, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Logs the metrics of every registered system.
+     */
+    private static void report() {
+        for (Supplier<?> metrics : METRICS) {
+            try {
+                MultiLogger.logSystem(String.valueOf(metrics.get()), MetricsReporter.class);
+            } catch (RuntimeException e) { // Never let one system's metrics stop the others being reported
+                MultiLogger.logSystem("Could not report metrics: " + e.getMessage(), MetricsReporter.class);
+            }
+        }
+    }
+}
@@ -1,65 +1,80 @@
 package com.georgster.logs;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.EnumMap;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.georgster.api.ActionWriter;
-import com.georgster.util.SoapUtility;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.georgster.util.handler.GuildInteractionHandler;
-import com.georgster.util.handler.InteractionHandler.MessageFormatting;
 
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.Guild;
 import discord4j.core.object.entity.channel.GuildMessageChannel;
 
 /**
  * Logs information to {@code LogDestinations} about SOAP Bot's systems.
+ * <p>
+ * Messages are appended into a builder per destination and handed to the {@link LogWriter} when sent, which writes
+ * them on its own thread. Sending never waits on the console, the log file or Discord, and logs to a {@code Guild's}
+ * bot-logs channel are posted in periodic digests rather than one message per send.
  */
 public class MultiLogger {
-    private static final String LOGFILELOCATION = Paths.get(System.getProperty("user.dir"),"src", "main", "java", "com", "georgster", "logs", "data").toString();
+    private static final String LOGGING_CHANNEL_NAME = "bot-logs";
+    private static final int LOGGING_CHANNEL_TTL = 5; // Minutes a Guild's resolved bot-logs channel is reused before it is looked up again
 
-    private final EnumMap<LogDestination, String> logs; //Each log message is mapped to its destination
-    private final GuildInteractionHandler handler;
+    private static final Cache<Snowflake, Optional<GuildMessageChannel>> LOGGING_CHANNELS = Caffeine.newBuilder()
+            .expireAfterWrite(LOGGING_CHANNEL_TTL, TimeUnit.MINUTES)
+            .build(); // Guild ID -> its bot-logs channel, empty if it has none
+
+    private final EnumMap<LogDestination, StringBuilder> logs; //Each log message is mapped to its destination
+    private final Guild guild; //The Guild logs are sent to
     private final Class<?> source;
 
     /**
      * Creates a MultiLogger for the associated {@code Guild} in the {@code GuildInteractionHandler}
      * from the source of the specified class.
-     * 
+     *
      * @param manager The handler of the {@code Guild} for logs to be sent to.
      * @param source The class of the object that is logging.
      */
     public MultiLogger(GuildInteractionHandler handler, Class<?> source) {
-        logs = new EnumMap<>(LogDestination.class);
-        this.handler = new GuildInteractionHandler(handler.getGuild()); // New handler created as to not interfere with any other one
+        this(handler.getGuild(), source);
+    }
+
+    /**
+     * Creates a MultiLogger for the given {@code Guild} from the source of the specified class.
+     * <p>
+     * Nothing is requested from Discord until a message is logged to the {@code Guild's} bot-logs channel,
+     * which is resolved once per {@code Guild} and shared by every logger for a few minutes.
+     *
+     * @param guild The {@code Guild} for logs to be sent to.
+     * @param source The class of the object that is logging.
+     */
+    public MultiLogger(Guild guild, Class<?> source) {
+        this.logs = new EnumMap<>(LogDestination.class);
+        this.guild = guild;
         this.source = source;
-        if (canLog()) {
-            getLoggingChannel().ifPresent(this.handler::setActiveMessageChannel);
-        }
     }
 
     /**
      * Appends a message to the log that is bound for its {@code LogDestination}.
-     * 
+     *
      * @param text The message to be appended.
      * @param destinations The {@code LogDestination} where the message will be sent.
      */
     public void append(String text, LogDestination ...destinations) {
         for (LogDestination destination : destinations) {
-            logs.put(destination, logs.getOrDefault(destination, "") + text);
+            logs.computeIfAbsent(destination, d -> new StringBuilder()).append(text);
         }
     }
 
     /**
      * Removes log messages from a destination, if any exist, from the log.
-     * 
+     *
      * @param destination The destination to wipe.
      */
     public void remove(LogDestination destination) {
@@ -76,25 +91,25 @@ public class MultiLogger {
     /**
      * Sends the log messages bound for the specified {@code LogDestination} to their
      * associated {@code LogDestinations}, then clears the log for that destination.
-     * 
+     *
      * @param destination The destination to send.
      */
     public void send(LogDestination destination) {
         switch (destination) {
             case DISCORD:
-                logDiscord(logs.getOrDefault(LogDestination.DISCORD, ""));
+                logDiscord(get(LogDestination.DISCORD));
                 break;
             case SYSTEM:
-                logSystem(logs.getOrDefault(LogDestination.SYSTEM, ""));
+                logSystem(get(LogDestination.SYSTEM));
                 break;
             case FILE:
-                logFile(logs.getOrDefault(LogDestination.FILE, ""));
+                logFile(get(LogDestination.FILE));
                 break;
             case API:
-                logApi(logs.getOrDefault(LogDestination.API, ""));
+                logApi(get(LogDestination.API));
                 break;
             case NONAPI:
-                logNonApi(logs.getOrDefault(LogDestination.NONAPI, ""));
+                logNonApi(get(LogDestination.NONAPI));
         }
         remove(destination);
     }
@@ -104,128 +119,126 @@ public class MultiLogger {
      * then clears the log.
      */
     public void sendAll() {
-        logDiscord(logs.getOrDefault(LogDestination.DISCORD, ""));
-        logSystem(logs.getOrDefault(LogDestination.SYSTEM, ""));
-        logFile(logs.getOrDefault(LogDestination.FILE, ""));
-        logApi(logs.getOrDefault(LogDestination.API, ""));
-        logNonApi(logs.getOrDefault(LogDestination.NONAPI, ""));
+        if (!logs.isEmpty()) {
+            enqueue(get(LogDestination.DISCORD), get(LogDestination.SYSTEM), get(LogDestination.FILE), get(LogDestination.API), get(LogDestination.NONAPI));
+        }
         clear();
     }
 
     /**
      * Logs a message to the DISCORD, SYSTEM and FILE {@code LogDestinations}.
-     * 
+     *
      * @param nonApi The message to be logged.
      */
     public void logNonApi(String nonApi) {
-        if (!nonApi.isEmpty()) {
-            logDiscord(nonApi);
-            logSystem(nonApi);
-            logFile(nonApi);
-        }
+        enqueue("", "", "", "", nonApi);
     }
 
     /**
      * Logs a message to the {@code Guild's} bot-logs channel.
-     * 
+     *
      * @param discord The message to be logged.
      */
     public void logDiscord(String discord) {
-        if (canLog() && !discord.isEmpty()) {
-            String[] output = SoapUtility.splitFirst(discord);
-            handler.sendMessage(output[1], output[0], MessageFormatting.INFO);
-        }
+        enqueue(discord, "", "", "", "");
     }
 
     /**
      * Logs a message to the system's console.
-     * 
+     *
      * @param system The message to be logged.
      */
     public void logSystem(String system) {
-        if (!system.isEmpty()) {
-            system = system.replace("- ", "\t");
-            Logger logger = LoggerFactory.getLogger(source);
-            logger.info(system);
-        }
+        enqueue("", system, "", "", "");
     }
 
     /**
      * Logs a message to SOAP Bot's log file.
-     * 
+     *
      * @param file The message to be logged.
      */
     public void logFile(String file) {
-        if (!file.isEmpty()) {
-            try (FileWriter writer = new FileWriter(Paths.get(LOGFILELOCATION, "log.txt").toString(), true)) {
-                writer.write(source.getName() + ": " + file.replace("- ", "\t") + "\n");
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        enqueue("", "", file, "", "");
     }
 
     /**
      * Logs a message to SOAP Bot's {@code ActionWriter} which
      * communicates with the SOAP Api.
-     * 
+     *
      * @param api The message to be logged.
      */
     public void logApi(String api) {
-        if (!api.isEmpty()) {
-            api = api.replace("\t", "").replace("\n", "").replace("- ", "");
-            ActionWriter.writeAction(api);
-        }
+        enqueue("", "", "", api, "");
     }
 
     /**
-     * Returns whether or not this logger can log to the {@code Guild's} bot-logs channel.
-     * 
-     * @return {@code true} if the bot-logs channel can be logged to, {@code false} otherwise.
+     * Returns the log messages bound for the given destination.
+     *
+     * @param destination The destination.
+     * @return The messages bound for the destination, empty if there are none.
      */
-    private boolean canLog() {
-        return (handler.getMessageChannel("bot-logs") != null);
+    private String get(LogDestination destination) {
+        StringBuilder log = logs.get(destination);
+        return log == null ? "" : log.toString();
+    }
+
+    /**
+     * Hands the given messages to the {@link LogWriter}, unless they are all empty.
+     *
+     * @param discord The message for the bot-logs channel.
+     * @param system The message for the console.
+     * @param file The message for the log file.
+     * @param api The message for the SOAP Api.
+     * @param nonApi The message for the bot-logs channel, the console and the log file.
+     */
+    private void enqueue(String discord, String system, String file, String api, String nonApi) {
+        if (!(discord.isEmpty() && system.isEmpty() && file.isEmpty() && api.isEmpty() && nonApi.isEmpty())) {
+            LogWriter.enqueue(new LogWriter.Entry(guild, source, discord, system, file, api, nonApi));
+        }
     }
 
     /**
      * Returns the {@code Guild's} bot-logs channel, if present.
-     * 
+     * <p>
+     * The channel is looked up once per {@code Guild} and reused by every logger for {@link #LOGGING_CHANNEL_TTL}
+     * minutes, so a created, renamed or deleted channel is picked up after at most that long.
+     *
      * @return The {@code Guild's} bot-logs channel.
      */
     public Optional<GuildMessageChannel> getLoggingChannel() {
-        return Optional.of(handler.getMessageChannel("bot-logs"));
+        return getLoggingChannel(guild);
     }
 
     /**
-     * Wipes the log file.
+     * Returns the bot-logs channel of the given {@code Guild}, if present.
+     *
+     * @param guild The {@code Guild}.
+     * @return The {@code Guild's} bot-logs channel.
+     * @see #getLoggingChannel()
      */
-    public static void wipeFileLogs() {
-        verifyLogFile();
-        try {
-            Files.delete(Path.of(LOGFILELOCATION, "log.txt"));
-            Files.createFile(Path.of(LOGFILELOCATION, "log.txt"));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    static Optional<GuildMessageChannel> getLoggingChannel(Guild guild) {
+        return LOGGING_CHANNELS.get(guild.getId(), id -> Optional.ofNullable(new GuildInteractionHandler(guild).getMessageChannel(LOGGING_CHANNEL_NAME)));
     }
 
     /**
-     * Verifies that the log file exists, and creates it if it does not.
+     * Returns how many logs have been dropped since startup because too many were waiting to be written.
+     *
+     * @return The number of dropped logs.
      */
-    private static void verifyLogFile() {
-        if (!Files.exists(Path.of(LOGFILELOCATION, "log.txt"))) {
-            try {
-                new File(LOGFILELOCATION).mkdir();
-                Files.createFile(Path.of(LOGFILELOCATION, "log.txt"));
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+    public static long getDroppedLogCount() {
+        return LogWriter.getDroppedCount();
+    }
+
+    /**
+     * Wipes the log file.
+     */
+    public static void wipeFileLogs() {
+        LogWriter.wipeLogFile();
     }
 
     /**
      * Logs a message to the system's console from the specified class.
-     * 
+     *
      * @param system The message to be logged.
      * @param source The class of the object that is logging.
      */
@@ -46,16 +46,16 @@ public class HelpCommand implements ParseableCommand {
         MultiLogger logger = event.getLogger();
         ParsedArguments parser = event.getParsedArguments();
 
-        for (Command command : register.getCommands()) {
-            if (command.getAliases().contains(parser.get(0))) {
-                logger.append("- Command found: " + command.getClass().getSimpleName() + "\n", LogDestination.NONAPI);
-
-                InputWizard helpWizard = new IterableStringWizard(event, command.getClass().getSimpleName(), SoapUtility.splitHelpString(command.help()));
-                Message msg = event.getGuildInteractionHandler().sendMessage(command.help(), command.getClass().getSimpleName());
-                InputWizard switcher = new SwappingWizard(event, msg, helpWizard);
-                switcher.begin();
-                break;
-            }
+        try {
+            Command command = register.getCommand(parser.get(0));
+            logger.append("- Command found: " + command.getClass().getSimpleName() + "\n", LogDestination.NONAPI);
+
+            InputWizard helpWizard = new IterableStringWizard(event, command.getClass().getSimpleName(), SoapUtility.splitHelpString(command.help()));
+            Message msg = event.getGuildInteractionHandler().sendMessage(command.help(), command.getClass().getSimpleName());
+            InputWizard switcher = new SwappingWizard(event, msg, helpWizard);
+            switcher.begin();
+        } catch (IllegalArgumentException e) {
+            logger.append("- No command found with alias " + parser.get(0) + "\n", LogDestination.NONAPI);
         }
         logger.append("Responding to a !help command request", LogDestination.API);
     }
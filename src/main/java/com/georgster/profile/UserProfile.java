@@ -2,6 +2,7 @@ package com.georgster.profile;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import com.georgster.coinfactory.model.CoinFactory;
 import com.georgster.collectable.Collected;
@@ -16,12 +17,18 @@ import com.georgster.gpt.MemberChatCompletions;
  * A {@link UserProfile} contains {@code Member}-specific information such as
  * their {@link MemberChatCompletions}, {@link CoinBank}, etc.
  * <p>
+ * The {@link MemberChatCompletions} of a {@link UserProfile} are not stored with the rest of the profile. If a
+ * {@link #setCompletionsLoader(Function) completions loader} is set, they are only loaded on first access and may
+ * later be {@link #evictCompletions(long) evicted} to be loaded again when next needed.
+ * <p>
  * This {@link UserProfile} is identified by Member's {@code Snowflake} ID.
  */
 public final class UserProfile extends MemberIdentified {
     private final String guildId; //Snowflake Guild ID associated with this user's profile in a guild
     private String username; //User's discord username
-    private final MemberChatCompletions completions;
+    private transient MemberChatCompletions completions; // Stored separately, null until loaded
+    private transient Function<String, MemberChatCompletions> completionsLoader; // Loads the completions by member ID, null if they are never evicted
+    private transient long completionsLastAccessed; // The last time in milliseconds the completions were accessed
     private final CoinBank bank;
     private final CoinFactory factory;
     private final List<Collected> collecteds;
@@ -39,6 +46,7 @@ public final class UserProfile extends MemberIdentified {
         this.guildId = serverId;
         this.username = user;
         this.completions = new MemberChatCompletions(userId);
+        this.completionsLastAccessed = System.currentTimeMillis();
         this.bank = new CoinBank(userId);
         this.collecteds = new ArrayList<>();
         this.factory = new CoinFactory(userId);
@@ -53,7 +61,7 @@ public final class UserProfile extends MemberIdentified {
      * @param serverId The {@code Snowflake} ID of the {@code Guild} this profile exists in.
      * @param userId The {@code Snowflake} ID of the {@code Member} this profile is for.
      * @param user The username of the user
-     * @param completions The {@link MemberChatCompletions} of the user
+     * @param completions The {@link MemberChatCompletions} of the user, or {@code null} to load them on first access
      * @param bank The {@link CoinBank} of the user
      * @param factory The {@link CoinFactory} of the user
      * @param collecteds The {@link Collected} items of the user
@@ -64,6 +72,7 @@ public final class UserProfile extends MemberIdentified {
         this.guildId = serverId;
         this.username = user;
         this.completions = completions;
+        this.completionsLastAccessed = System.currentTimeMillis();
         this.bank = bank;
         this.collecteds = collecteds;
         this.factory = factory;
@@ -102,10 +111,48 @@ public final class UserProfile extends MemberIdentified {
      * 
      * @return The {@link MemberChatCompletions} of the Member associated with this profile.
      */
-    public MemberChatCompletions getCompletions() {
+    public synchronized MemberChatCompletions getCompletions() {
+        if (completions == null) {
+            completions = completionsLoader == null ? new MemberChatCompletions(getMemberId()) : completionsLoader.apply(getMemberId());
+        }
+        completionsLastAccessed = System.currentTimeMillis();
         return completions;
     }
 
+    /**
+     * Returns whether the {@link MemberChatCompletions} of this profile are currently held in memory.
+     * 
+     * @return {@code true} if the completions are loaded, {@code false} if they will be loaded on next access.
+     */
+    public synchronized boolean areCompletionsLoaded() {
+        return completions != null;
+    }
+
+    /**
+     * Sets the function used to load the {@link MemberChatCompletions} of this profile by the member's ID when they
+     * are first accessed or accessed after being evicted.
+     * 
+     * @param completionsLoader The function which loads this profile's completions.
+     */
+    public synchronized void setCompletionsLoader(Function<String, MemberChatCompletions> completionsLoader) {
+        this.completionsLoader = completionsLoader;
+    }
+
+    /**
+     * Releases the {@link MemberChatCompletions} of this profile if they have not been accessed for the given amount of time.
+     * Completions are only evicted if a {@link #setCompletionsLoader(Function) completions loader} is set to load them again.
+     * 
+     * @param idleMillis The time in milliseconds the completions must have been idle for.
+     * @return {@code true} if the completions were evicted, {@code false} otherwise.
+     */
+    public synchronized boolean evictCompletions(long idleMillis) {
+        if (completions == null || completionsLoader == null || System.currentTimeMillis() - completionsLastAccessed < idleMillis) {
+            return false;
+        }
+        completions = null;
+        return true;
+    }
+
     /**
      * Gets the {@link Collected Collecteds} of the {@code Member} associated with this profile.
      * 
@@ -160,4 +160,14 @@ public class SummaryCommand implements Command {
     public boolean shouldDefer() {
         return true;
     }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @return 8 (every execution reads 100 messages and makes an OpenAI request)
+     */
+    @Override
+    public int getCost() {
+        return 8;
+    }
 }
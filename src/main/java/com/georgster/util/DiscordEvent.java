@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import discord4j.common.util.Snowflake;
 import discord4j.core.event.domain.Event;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
 import discord4j.core.event.domain.message.MessageCreateEvent;
@@ -66,6 +67,28 @@ public class DiscordEvent {
         }
     }
 
+    /**
+     * Returns the ID of the guild that the event was triggered in, read from the event's payload
+     * without a request to Discord.
+     * Compatiable with the following Discord {@code Events}:
+     * <ul>
+     * <li>{@code MessageCreateEvent}</li>
+     * <li>{@code ChatInputInteractionEvent}</li>
+     * </ul>
+     * 
+     * @return the ID of the guild that the event was triggered in,
+     *        or {@code null} if the event was not triggered in a guild.
+     */
+    public Snowflake getGuildId() {
+        if (event instanceof MessageCreateEvent) {
+            return ((MessageCreateEvent) event).getGuildId().orElse(null);
+        } else if (event instanceof ChatInputInteractionEvent) {
+            return ((ChatInputInteractionEvent) event).getInteraction().getGuildId().orElse(null);
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Returns the name of the command that triggered the event in this pipeline.
      * Compatiable with the following Discord {@code Events}:
@@ -49,7 +49,20 @@ public final class SoapNumbers {
      * @return a random double between min and max (inclusive)
      */
     public static double getRandomDouble(double min, double max) {
-        return round(3, min + (RAND.nextDouble() * (max - min)));
+        return getRandomDouble(RAND, min, max);
+    }
+
+    /**
+     * Generates a random double between the specified minimum and maximum values (inclusive)
+     * using the given {@link Random}, such as a seeded one for reproducible results.
+     * 
+     * @param random the {@link Random} to generate the number with
+     * @param min the minimum value (inclusive)
+     * @param max the maximum value (inclusive)
+     * @return a random double between min and max (inclusive)
+     */
+    public static double getRandomDouble(Random random, double min, double max) {
+        return round(3, min + (random.nextDouble() * (max - min)));
     }
 
     /**
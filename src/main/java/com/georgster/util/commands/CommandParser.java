@@ -2,7 +2,11 @@ package com.georgster.util.commands;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.georgster.util.commands.exception.CommandParserException;
 import com.georgster.util.commands.exception.ParseInputException;
@@ -58,23 +62,52 @@ import com.georgster.ParseableCommand;
  * but with the identifier "command", it would now return "testing the", "command parser".
  * <p>
  * If no variable arguments are present, identifiers are not necessary.
+ * <p>
+ * <h3>Compilation</h3>
+ * The pattern and rules are compiled once, when they are set, into per-argument word counts, requirements and rule
+ * bitmasks, so parsing never reads their Strings again. A parser is only modified while it is configured, so once
+ * configured it may be cached and used by any number of threads at once.
  * @see {@link #setRules(String...)}
  */
 public final class CommandParser {
     private static final List<String> AVAILABLE_RULES = List.of("X", "N", "T", "D", "Z", "C", "S", "F", "L", "M", "I", "<", ">");
 
+    private static final String[] NO_WORDS = new String[0]; // The words of an unassigned argument
+
+    private static final int NO_RULE = 1 << AVAILABLE_RULES.indexOf("X"); // Each rule's bit is its index in AVAILABLE_RULES
+    private static final int NUMBER = 1 << AVAILABLE_RULES.indexOf("N");
+    private static final int TIME = 1 << AVAILABLE_RULES.indexOf("T");
+    private static final int DATE = 1 << AVAILABLE_RULES.indexOf("D");
+    private static final int FUTURE_INCREMENT = 1 << AVAILABLE_RULES.indexOf("Z");
+    private static final int HAS_CHARACTER = 1 << AVAILABLE_RULES.indexOf("C");
+    private static final int ONLY_CHARACTERS = 1 << AVAILABLE_RULES.indexOf("S");
+    private static final int FIRST = 1 << AVAILABLE_RULES.indexOf("F");
+    private static final int LAST = 1 << AVAILABLE_RULES.indexOf("L");
+    private static final int MIDDLE = 1 << AVAILABLE_RULES.indexOf("M");
+    private static final int IDENTIFIER = 1 << AVAILABLE_RULES.indexOf("I");
+    private static final int BEFORE_IDENTIFIER = 1 << AVAILABLE_RULES.indexOf("<");
+    private static final int AFTER_IDENTIFIER = 1 << AVAILABLE_RULES.indexOf(">");
+
     private boolean autoFormat; //Whether or not the parser should automatically format the arguments
     private List<String> rulesList; //A list of the rules split by spaces
-    private List<String> patternList; //A list of the pattern split by spaces
-    private List<String> identifiers; //A list of the identifiers
+    private final List<String> patternList; //A list of the pattern split by spaces
+    private final Set<String> identifiers; //The identifiers, in the order they were added
+
+    private final int[] wordCounts; //The number of words each argument is matched with, 1 for variable arguments
+    private final boolean[] variable; //Whether each argument has a variable number of words
+    private final boolean[] required; //Whether each argument is required
+    private final boolean hasRequiredArg; //Whether any argument is required
+    private int[] ruleMasks; //The bitmask of the rules of each argument
 
     /**
      * A context for an ongoing {@link CommandParser#parse(String)}.
      */
     protected final class ParseContext {
-        private String inputString;
-        private List<String> currentArgs;
-        private List<String> inputWords;
+        private final String inputString;
+        private final List<String> currentArgs;
+        private final String[][] currentWords; // The words of each argument in currentArgs, empty if it is unassigned
+        private final List<String> inputWords;
+        private Map<String, Integer> inputWordFrequencies; // Each input word -> how many times it appears, built on first use
 
         /**
          * Creates a ParseContext from the provided input String.
@@ -83,10 +116,12 @@ public final class CommandParser {
          */
         protected ParseContext(String input) {
             this.inputString = input;
-            this.currentArgs = new ArrayList<>();
-            this.inputWords = new ArrayList<>(List.of(inputString.split(" ")));
+            this.currentArgs = new ArrayList<>(patternList.size());
+            this.currentWords = new String[patternList.size()][];
+            this.inputWords = Arrays.asList(inputString.split(" "));
             for (int i = 0; i < patternList.size(); i++) {
                 currentArgs.add(" "); // Ensures there are elements at each index when assigning to prevent oob
+                currentWords[i] = NO_WORDS;
             }
         }
 
@@ -110,6 +145,7 @@ public final class CommandParser {
          */
         protected void assign(String arg, int index) {
             currentArgs.set(index, arg);
+            currentWords[index] = arg.split(" ");
         }
 
         /**
@@ -156,13 +192,13 @@ public final class CommandParser {
          * @return The frequency of the provided {@code word} in the input words list.
          */
         protected int getInputWordFrequency(String word) {
-            int count = 0;
-            for (String inputWord : inputWords) {
-                if (inputWord.equals(word)) {
-                    count++;
+            if (inputWordFrequencies == null) {
+                inputWordFrequencies = new HashMap<>();
+                for (String inputWord : inputWords) {
+                    inputWordFrequencies.merge(inputWord, 1, Integer::sum);
                 }
             }
-            return count;
+            return inputWordFrequencies.getOrDefault(word, 0);
         }
 
         /**
@@ -173,9 +209,12 @@ public final class CommandParser {
          */
         protected int getCurrentWordFrequency(String word) {
             int count = 0;
-            for (String currentArg : currentArgs) {
-                if (List.of(currentArg.split(" ")).contains(word)) {
-                    count++;
+            for (String[] words : currentWords) {
+                for (String currentWord : words) {
+                    if (currentWord.equals(word)) {
+                        count++;
+                        break;
+                    }
                 }
             }
             return count;
@@ -216,6 +255,7 @@ public final class CommandParser {
          */
         protected void reset(int index) {
             currentArgs.set(index, " ");
+            currentWords[index] = NO_WORDS;
         }
 
         /**
@@ -235,7 +275,7 @@ public final class CommandParser {
         protected int getWordCountBetween(int startIndex, int endIndex) {
             int count = 0;
             for (int i = startIndex; i < endIndex; i++) {
-                count += currentArgs.get(i).split(" ").length;
+                count += currentWords[i].length;
             }
             return count;
         }
@@ -247,11 +287,10 @@ public final class CommandParser {
          * @return A String of the words in the range combined (separated by spaces).
          */
         protected String getCombined(int start, int end) {
-            StringBuilder output = new StringBuilder();
-            for (int i = start; i < end; i++) {
-                output.append(inputWords.get(i) + " ");
+            if (end - start == 1) {
+                return inputWords.get(start).trim();
             }
-            return output.toString().trim();
+            return String.join(" ", inputWords.subList(start, end)).trim();
         }
     }
 
@@ -263,15 +302,30 @@ public final class CommandParser {
      * @see {@link CommandParser} For pattern rules
      */
     public CommandParser(String... pattern) throws CommandParserException {
-        this.patternList = new ArrayList<>();
-
         validatePattern(pattern);
-        for (String argDescriptor : pattern) {
-            this.patternList.add(argDescriptor.toUpperCase());
+
+        List<String> patterns = new ArrayList<>(pattern.length);
+        this.wordCounts = new int[pattern.length];
+        this.variable = new boolean[pattern.length];
+        this.required = new boolean[pattern.length];
+        boolean anyRequired = false;
+        for (int i = 0; i < pattern.length; i++) {
+            String argDescriptor = pattern[i].toUpperCase();
+            patterns.add(argDescriptor);
+
+            String count = getPatternCount(argDescriptor);
+            variable[i] = count.equals("V");
+            wordCounts[i] = variable[i] ? 1 : Integer.parseInt(count);
+            required[i] = getPatternRequired(argDescriptor).equals("R");
+            anyRequired |= required[i];
         }
+        this.patternList = List.copyOf(patterns);
+        this.hasRequiredArg = anyRequired;
 
         this.rulesList = new ArrayList<>();
-        this.identifiers = new ArrayList<>();
+        this.ruleMasks = new int[pattern.length];
+        Arrays.fill(ruleMasks, NO_RULE);
+        this.identifiers = new LinkedHashSet<>();
         this.autoFormat = true;
     }
 
@@ -354,70 +408,75 @@ public final class CommandParser {
         validateRules(rules);
 
         rulesList = new ArrayList<>();
+        ruleMasks = new int[rules.length];
 
-        for (String rule : rules) {
-            this.rulesList.add(rule.toUpperCase());
+        for (int i = 0; i < rules.length; i++) {
+            String rule = rules[i].toUpperCase();
+            this.rulesList.add(rule);
+            for (int j = 0; j < rule.length(); j++) {
+                ruleMasks[i] |= 1 << AVAILABLE_RULES.indexOf(String.valueOf(rule.charAt(j)));
+            }
         }
     }
 
     /**
-     * Returns if the {@code arg} matches the {@code rule} for given the provided {@link ParseContext}.
+     * Returns if the {@code arg} matches the compiled {@code rules} for given the provided {@link ParseContext}.
      * 
      * @param arg The arg to verify rules for.
-     * @param rule The rule to verify.
+     * @param rules The bitmask of the rules to verify.
      * @param currentParse The current parse context.
-     * @return True if the rule matches, false otherwise
+     * @return True if the rules match, false otherwise
      */
-    private boolean matchesRule(String arg, String rule, ParseContext currentParse) {
-        if (rule.contains("X")) {
+    private boolean matchesRule(String arg, int rules, ParseContext currentParse) {
+        if ((rules & NO_RULE) != 0) {
             return true;
         }
 
-        if (rule.contains("N") && !ParserRulesAdvice.isNumber(arg)) {
+        if ((rules & NUMBER) != 0 && !ParserRulesAdvice.isNumber(arg)) {
             return false;
         }
 
-        if (rule.contains("T") && !ParserRulesAdvice.isTime(arg)) {
+        if ((rules & TIME) != 0 && !ParserRulesAdvice.isTime(arg)) {
             return false;
         }
 
-        if (rule.contains("D") && !ParserRulesAdvice.isDate(arg)) {
+        if ((rules & DATE) != 0 && !ParserRulesAdvice.isDate(arg)) {
             return false;
         }
 
-        if (rule.contains("Z") && !ParserRulesAdvice.isFutureTimeIncrement(arg)) {
+        if ((rules & FUTURE_INCREMENT) != 0 && !ParserRulesAdvice.isFutureTimeIncrement(arg)) {
             return false;
         }
 
-        if (rule.contains("C") && !ParserRulesAdvice.hasCharacter(arg)) {
+        if ((rules & HAS_CHARACTER) != 0 && !ParserRulesAdvice.hasCharacter(arg)) {
             return false;
         }
 
-        if (rule.contains("S") && !ParserRulesAdvice.isOnlyCharacters(arg)) {
+        if ((rules & ONLY_CHARACTERS) != 0 && !ParserRulesAdvice.isOnlyCharacters(arg)) {
             return false;
         }
 
-        if (rule.contains("F") && !ParserRulesAdvice.isFirst(arg, currentParse)) {
+        if ((rules & FIRST) != 0 && !ParserRulesAdvice.isFirst(arg, currentParse)) {
             return false;
         }
 
-        if (rule.contains("L") && !ParserRulesAdvice.isLast(arg, currentParse)) {
+        if ((rules & LAST) != 0 && !ParserRulesAdvice.isLast(arg, currentParse)) {
             return false;
         }
 
-        if (rule.contains("M") && !ParserRulesAdvice.isMiddle(arg, currentParse)) {
+        if ((rules & MIDDLE) != 0 && !ParserRulesAdvice.isMiddle(arg, currentParse)) {
             return false;
         }
 
-        if (rule.contains("I") && !isIdentifier(arg)) {
+        if ((rules & IDENTIFIER) != 0 && !isIdentifier(arg)) {
             return false;
         }
 
-        if (rule.contains("<") && !ParserRulesAdvice.isBeforeIdentifier(arg, currentParse, identifiers)) {
+        if ((rules & BEFORE_IDENTIFIER) != 0 && !ParserRulesAdvice.isBeforeIdentifier(arg, currentParse, identifiers)) {
             return false;
         }
 
-        if (rule.contains(">") && !ParserRulesAdvice.isAfterIdentifier(arg, currentParse, identifiers)) {
+        if ((rules & AFTER_IDENTIFIER) != 0 && !ParserRulesAdvice.isAfterIdentifier(arg, currentParse, identifiers)) {
             return false;
         }
 
@@ -431,9 +490,7 @@ public final class CommandParser {
      * @see {@link CommandParser} for identifier information.
      */
     public void addIdentifiers(String... identifiers) {
-        for (String identifier : identifiers) {
-            this.identifiers.add(identifier);
-        }
+        this.identifiers.addAll(Arrays.asList(identifiers));
     }
 
     /**
@@ -456,20 +513,6 @@ public final class CommandParser {
         return argPattern.substring(1, 2);
     }
 
-    /**
-     * Returns true if this parser has at least one required argument in its pattern, false otherwise.
-     * 
-     * @return True if this parser has at least one required argument in its pattern, false otherwise.
-     */
-    private boolean hasRequiredArg() {
-        for (String pattern : patternList) {
-            if (pattern.contains("R")) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Parses the given input string based on this parser's pattern, rules and identifiers.
      * The first arguments which match this parser's configuration will be returned.
@@ -493,7 +536,7 @@ public final class CommandParser {
         }
 
         if (input.isEmpty()) {
-            if (!hasRequiredArg()) {
+            if (!hasRequiredArg) {
                 return new ParsedArguments(new ArrayList<>(), this, originalInput);
             } else {
                 throw new ParseInputException(input, this);
@@ -504,10 +547,6 @@ public final class CommandParser {
             input = input.toLowerCase().trim();
         }
 
-        if (rulesList.isEmpty()) {
-            patternList.forEach(s -> rulesList.add("X"));
-        }
-
         ParseContext currentParse = new ParseContext(input);
 
         parseRequired(currentParse);
@@ -532,21 +571,11 @@ public final class CommandParser {
         List<String> all = currentParse.getInputWords();
 
         for (int j = 0; j < patternList.size(); j++) {
-            String argPattern = patternList.get(j);
-            String associatedRule = rulesList.get(j);
-
-            String count = getPatternCount(argPattern);
-            String required = getPatternRequired(argPattern);
+            int associatedRule = ruleMasks[j];
 
-            if (required.equals("R")) {
+            if (required[j]) {
+                int requiredSpaces = wordCounts[j];
                 for (int i = 0; i < all.size(); i++) {
-                    int requiredSpaces = 0;
-                    if (count.equals("V")) {
-                        requiredSpaces = 1;
-                    } else {
-                        requiredSpaces = Integer.parseInt(count);
-                    }
-
                     try {
                         String checkedArg = currentParse.getCombined(i, i + requiredSpaces);
                         if (matchesRule(checkedArg, associatedRule, currentParse)) {
@@ -585,17 +614,7 @@ public final class CommandParser {
         int requiredSpaces = currentArg.split(" ").length;
 
         for (int i = 0; i < patternList.size(); i++) {
-            String associatedRule = rulesList.get(i);
-            String count = getPatternCount(patternList.get(i));
-            int ruleCount = 0;
-
-            if (count.equals("V")) {
-                ruleCount = 1;
-            } else {
-                ruleCount = Integer.parseInt(count);
-            }
-
-            if (ruleCount == requiredSpaces && i != index && matchesRule(currentArg, associatedRule, currentParse)) {
+            if (wordCounts[i] == requiredSpaces && i != index && matchesRule(currentArg, ruleMasks[i], currentParse)) {
                 if (currentParse.isFilled(i)) {
                     return reassign(i, currentParse);
                 } else {
@@ -623,7 +642,7 @@ public final class CommandParser {
         for (int i = 0; i < all.size(); i++) {
             String checkedArg = currentParse.getCombined(i, i + requiredSpaces);
 
-            if (!currentParse.isAssigned(checkedArg) && matchesRule(checkedArg, rulesList.get(index), currentParse)) {
+            if (!currentParse.isAssigned(checkedArg) && matchesRule(checkedArg, ruleMasks[index], currentParse)) {
                 currentParse.assign(checkedArg, index);
                 return true;
             }
@@ -643,21 +662,11 @@ public final class CommandParser {
         List<String> all = currentParse.getInputWords();
 
         for (int j = 0; j < patternList.size(); j++) {
-            String argPattern = patternList.get(j);
-            String associatedRule = rulesList.get(j);
+            int associatedRule = ruleMasks[j];
 
-            String count = getPatternCount(argPattern);
-            String required = getPatternRequired(argPattern);
-
-            if (required.equals("O")) {
+            if (!required[j]) {
+                int requiredSpaces = wordCounts[j];
                 for (int i = 0; i < all.size(); i++) {
-                    int requiredSpaces = 0;
-                    if (count.equals("V")) {
-                        requiredSpaces = 1;
-                    } else {
-                        requiredSpaces = Integer.parseInt(count);
-                    }
-
                     try {
                         String checkedArg = currentParse.getCombined(i, i + requiredSpaces);
                         if (matchesRule(checkedArg, associatedRule, currentParse)) {
@@ -697,10 +706,8 @@ public final class CommandParser {
             if (i >= all.size()) { // Edge case where variable optional arguments in the latter half of a pattern would cause oob on short inputs
                 return currentParse;
             }
-            String argPattern = patternList.get(i);
-            String associatedRule = rulesList.get(i);
+            int associatedRule = ruleMasks[i];
 
-            String count = getPatternCount(argPattern);
             int startingIndex = -1;
             if (currentParse.isFilled(i)) {
                 startingIndex = all.indexOf(current.get(i));
@@ -708,7 +715,7 @@ public final class CommandParser {
                 startingIndex = currentParse.getWordCountBetween(0, i + 1);
             }
 
-            if (count.equals("V")) {
+            if (variable[i]) {
                 int x = 2;
                 for (int j = startingIndex; j < all.size() - 1; j++) {
                     String word = all.get(j + 1);
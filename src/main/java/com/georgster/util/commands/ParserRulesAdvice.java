@@ -1,6 +1,7 @@
 package com.georgster.util.commands;
 
 import java.util.List;
+import java.util.Set;
 
 import com.georgster.util.SoapUtility;
 import com.georgster.util.commands.CommandParser.ParseContext;
@@ -83,7 +84,7 @@ public class ParserRulesAdvice {
         return argIndex == 0 || argIndex == (all.size() - 1);
     }
 
-    protected static boolean isBeforeIdentifier(String arg, ParseContext parse, List<String> identifiers) {
+    protected static boolean isBeforeIdentifier(String arg, ParseContext parse, Set<String> identifiers) {
         List<String> all = parse.getInputWords();
         try {
             String[] argWords = arg.split(" ");
@@ -95,7 +96,7 @@ public class ParserRulesAdvice {
         }
     }
 
-    protected static boolean isAfterIdentifier(String arg, ParseContext parse, List<String> identifiers) {
+    protected static boolean isAfterIdentifier(String arg, ParseContext parse, Set<String> identifiers) {
         List<String> all = parse.getInputWords();
         try {
             int argIndex = all.indexOf(arg.split(" ")[0]);
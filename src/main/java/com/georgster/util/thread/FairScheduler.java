@@ -0,0 +1,371 @@
+package com.georgster.util.thread;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.georgster.logs.MultiLogger;
+
+/**
+ * Schedules one kind of task, such as commands or events, for every {@code Guild} on a single shared set of threads.
+ * <p>
+ * Each {@code Guild} has its own queue. Queues are served in weighted round robin order, so a {@code Guild} with a
+ * weight of {@code n} may start up to {@code n} tasks each time its turn comes up, and a {@code Guild} with a long
+ * queue can never keep the others waiting for more than one round. A task only starts while all of the following hold:
+ * <ul>
+ *  <li>Fewer than {@code maxRunning} tasks are running for all {@code Guilds}.</li>
+ *  <li>Fewer than its {@code Guild's} concurrency quota are running for its {@code Guild}.</li>
+ *  <li>Fewer than the user quota are running for its user in its {@code Guild}, if it has a user.</li>
+ * </ul>
+ * A task that cannot start because of its user's quota is passed over for later tasks of the same {@code Guild}.
+ * <p>
+ * A task which is about to wait a long time, such as a wizard waiting for a user to respond, can give up its place with
+ * {@link #beginBlocking()} and take it back with {@link #endBlocking()}. While it waits it counts against none of the
+ * quotas, so open wizards and polls never keep their user, their {@code Guild} or any other {@code Guild} from running
+ * new tasks.
+ * <p>
+ * Started tasks are handed to a shared {@link Executor}, so any idle thread runs the next task of any {@code Guild}
+ * and the number of threads depends on how much work is running, not on how many {@code Guilds} there are.
+ * Scheduling decisions are made by whichever thread submits or finishes a task, there is no dispatcher thread.
+ */
+final class FairScheduler {
+    private static final ThreadLocal<Slot> CURRENT = new ThreadLocal<>(); // The slot of the task running on the current thread, if any
+
+    private final String descriptor; // The descriptor threads are named with while running a task
+    private final int maxRunning; // The most tasks that can run at once for all guilds
+    private final Executor workers; // Runs every started task
+    private final Map<String, GuildQueue> queues; // Guild ID -> that guild's queue
+    private final ArrayDeque<GuildQueue> ready; // The guilds with queued tasks, in the order they will be served
+    private final int defaultGuildLimit; // The concurrency quota of guilds without their own
+    private int userLimit; // The most tasks that can run at once for one user in one guild
+    private int running; // How many tasks are running for all guilds
+
+    /**
+     * Creates a scheduler which starts its tasks on the given executor.
+     *
+     * @param descriptor The descriptor threads are named with while running a task, after the name of the task's guild.
+     * @param maxRunning The most tasks that can run at once for all guilds.
+     * @param guildLimit The most tasks that can run at once for one guild, unless changed with {@link #setGuildQuota}.
+     * @param userLimit The most tasks that can run at once for one user in one guild.
+     * @param workers The executor every started task runs on.
+     */
+    FairScheduler(String descriptor, int maxRunning, int guildLimit, int userLimit, Executor workers) {
+        this.descriptor = descriptor.toUpperCase();
+        this.maxRunning = maxRunning;
+        this.defaultGuildLimit = guildLimit;
+        this.userLimit = userLimit;
+        this.workers = workers;
+        this.queues = new HashMap<>();
+        this.ready = new ArrayDeque<>();
+    }
+
+    /**
+     * Queues a task for the given guild, starting it as soon as the quotas allow.
+     *
+     * @param guildId The ID of the guild the task is for.
+     * @param guildName The name of the guild, which the thread running the task is named after.
+     * @param userId The ID of the user the task is for, or {@code null} if it is not limited by a user quota.
+     * @param task The task.
+     */
+    synchronized void submit(String guildId, String guildName, String userId, Runnable task) {
+        GuildQueue queue = queues.computeIfAbsent(guildId, id -> new GuildQueue(defaultGuildLimit));
+        queue.guildName = guildName;
+        queue.tasks.add(new Task(task, userId, System.nanoTime()));
+        wake(queue);
+        drain();
+    }
+
+    /**
+     * Sets how many tasks can run at once for the given guild, and how many it may start each turn.
+     *
+     * @param guildId The ID of the guild.
+     * @param limit The most tasks that can run at once for the guild.
+     * @param weight How many tasks the guild may start each turn, at least one.
+     */
+    synchronized void setGuildQuota(String guildId, int limit, int weight) {
+        GuildQueue queue = queues.computeIfAbsent(guildId, id -> new GuildQueue(defaultGuildLimit));
+        queue.limit = limit;
+        queue.weight = Math.max(1, weight);
+        wake(queue);
+        drain();
+    }
+
+    /**
+     * Sets how many tasks can run at once for one user in one guild.
+     *
+     * @param limit The most tasks that can run at once for one user in one guild.
+     */
+    synchronized void setUserQuota(int limit) {
+        userLimit = limit;
+        queues.values().forEach(this::wake);
+        drain();
+    }
+
+    /**
+     * Returns a snapshot of every guild's queue.
+     *
+     * @return The metrics of every guild's queue.
+     */
+    synchronized List<GuildQueueMetrics> getMetrics() {
+        long now = System.nanoTime();
+        List<GuildQueueMetrics> metrics = new ArrayList<>(queues.size());
+        queues.forEach((guildId, queue) -> {
+            long oldestWait = queue.tasks.isEmpty() ? 0 : now - queue.tasks.peekFirst().queuedAt;
+            long averageWait = queue.started == 0 ? 0 : queue.totalWait / queue.started;
+            metrics.add(new GuildQueueMetrics(guildId, queue.guildName, queue.tasks.size(), queue.running, queue.completed,
+                    TimeUnit.NANOSECONDS.toMillis(averageWait), TimeUnit.NANOSECONDS.toMillis(Math.max(queue.maxWait, oldestWait))));
+        });
+        return metrics;
+    }
+
+    /**
+     * Starts queued tasks, one round robin turn per guild at a time, until the shared limit is reached
+     * or no guild has a task which can start. Must be called while holding this scheduler's lock.
+     */
+    private void drain() {
+        while (running < maxRunning && !ready.isEmpty()) {
+            GuildQueue queue = ready.pollFirst();
+            int started = 0;
+            Task task;
+            while (started < queue.weight && running < maxRunning && (task = queue.poll(userLimit)) != null) {
+                start(queue, task);
+                started++;
+            }
+            if (started > 0 && !queue.tasks.isEmpty()) {
+                ready.addLast(queue);
+            } else {
+                queue.isReady = false; // Blocked by its quotas or empty, woken again when one of its tasks finishes
+            }
+        }
+    }
+
+    /**
+     * Puts the guild back in line if it has queued tasks and is not already waiting for its turn.
+     * Must be called while holding this scheduler's lock.
+     *
+     * @param queue The guild's queue.
+     */
+    private void wake(GuildQueue queue) {
+        if (!queue.isReady && !queue.tasks.isEmpty()) {
+            queue.isReady = true;
+            ready.addLast(queue);
+        }
+    }
+
+    /**
+     * Counts the task as running and hands it to the workers. Must be called while holding this scheduler's lock.
+     *
+     * @param queue The queue of the task's guild.
+     * @param task The task.
+     */
+    private void start(GuildQueue queue, Task task) {
+        long wait = System.nanoTime() - task.queuedAt;
+        queue.totalWait += wait;
+        queue.maxWait = Math.max(queue.maxWait, wait);
+        queue.started++;
+        queue.running++;
+        if (task.userId != null) {
+            queue.userRunning.merge(task.userId, 1, Integer::sum);
+        }
+        running++;
+        String threadName = queue.guildName + "-" + descriptor;
+        workers.execute(() -> run(queue, task, threadName));
+    }
+
+    /**
+     * Runs the task on the current thread, named after its guild while it runs, then lets the next task start.
+     * Like {@link java.util.concurrent.ExecutorService#submit(Runnable)}, a task which throws does not affect any other task.
+     *
+     * @param queue The queue of the task's guild.
+     * @param task The task.
+     * @param threadName The name of the thread while the task runs.
+     */
+    private void run(GuildQueue queue, Task task, String threadName) {
+        Thread thread = Thread.currentThread();
+        String previousName = thread.getName();
+        thread.setName(threadName);
+        Slot slot = new Slot(this, queue, task);
+        CURRENT.set(slot);
+        try {
+            task.runnable.run();
+        } catch (RuntimeException e) {
+            MultiLogger.logSystem("A " + descriptor.toLowerCase() + " task failed in " + queue.guildName + ": " + e.getMessage(), getClass());
+        } finally {
+            CURRENT.remove();
+            thread.setName(previousName);
+            if (slot.released) {
+                reacquire(queue, task);
+            }
+            finish(queue, task);
+        }
+    }
+
+    /**
+     * Gives up the shared, guild and user slots of the task running on the current thread until {@link #endBlocking()}
+     * is called, letting other tasks start in its place. Does nothing if the current thread is not running a task of a
+     * scheduler, or has already given up its slots.
+     */
+    static void beginBlocking() {
+        Slot slot = CURRENT.get();
+        if (slot != null && !slot.released) {
+            slot.released = true;
+            slot.scheduler.release(slot.queue, slot.task);
+        }
+    }
+
+    /**
+     * Takes back the slots given up by {@link #beginBlocking()}. The task continues straight away, even if that
+     * briefly puts its user, its guild or the scheduler over their quota.
+     */
+    static void endBlocking() {
+        Slot slot = CURRENT.get();
+        if (slot != null && slot.released) {
+            slot.released = false;
+            slot.scheduler.reacquire(slot.queue, slot.task);
+        }
+    }
+
+    /**
+     * Stops counting a blocked task against any quota and starts whatever can start in its place.
+     *
+     * @param queue The queue of the task's guild.
+     * @param task The blocked task.
+     */
+    private synchronized void release(GuildQueue queue, Task task) {
+        running--;
+        queue.running--;
+        if (task.userId != null) {
+            queue.userRunning.computeIfPresent(task.userId, (id, count) -> count == 1 ? null : count - 1);
+        }
+        wake(queue);
+        drain();
+    }
+
+    /**
+     * Counts a task which finished blocking against its quotas again.
+     *
+     * @param queue The queue of the task's guild.
+     * @param task The task.
+     */
+    private synchronized void reacquire(GuildQueue queue, Task task) {
+        running++;
+        queue.running++;
+        if (task.userId != null) {
+            queue.userRunning.merge(task.userId, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Releases the quotas held by a finished task and starts whatever can start in its place.
+     *
+     * @param queue The queue of the task's guild.
+     * @param task The finished task.
+     */
+    private synchronized void finish(GuildQueue queue, Task task) {
+        running--;
+        queue.running--;
+        queue.completed++;
+        if (task.userId != null) {
+            queue.userRunning.computeIfPresent(task.userId, (id, count) -> count == 1 ? null : count - 1);
+        }
+        wake(queue);
+        drain();
+    }
+
+    /**
+     * The slots held by the task running on a thread.
+     */
+    private static final class Slot {
+        private final FairScheduler scheduler; // The scheduler that started the task
+        private final GuildQueue queue; // The queue of the task's guild
+        private final Task task; // The running task
+        private boolean released; // Whether the task has given up its slots while it blocks
+
+        /**
+         * Creates the slots of a task that was just started.
+         *
+         * @param scheduler The scheduler that started the task.
+         * @param queue The queue of the task's guild.
+         * @param task The task.
+         */
+        private Slot(FairScheduler scheduler, GuildQueue queue, Task task) {
+            this.scheduler = scheduler;
+            this.queue = queue;
+            this.task = task;
+        }
+    }
+
+    /**
+     * A queued task.
+     */
+    private static final class Task {
+        private final Runnable runnable; // The work itself
+        private final String userId; // The user the task is for, null if none
+        private final long queuedAt; // When the task was queued, in nanoseconds
+
+        /**
+         * Creates a queued task.
+         *
+         * @param runnable The work itself.
+         * @param userId The user the task is for, or {@code null} if none.
+         * @param queuedAt When the task was queued, in nanoseconds.
+         */
+        private Task(Runnable runnable, String userId, long queuedAt) {
+            this.runnable = runnable;
+            this.userId = userId;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    /**
+     * The queue and running tasks of one guild. Only accessed while holding the scheduler's lock.
+     */
+    private static final class GuildQueue {
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>(); // Queued tasks, oldest first
+        private final Map<String, Integer> userRunning = new HashMap<>(); // User ID -> how many of their tasks are running
+        private String guildName = "UNKNOWN"; // The name of the guild
+        private int limit; // The most tasks that can run at once for the guild
+        private int weight = 1; // How many tasks the guild may start each turn
+        private boolean isReady; // Whether the guild is waiting for its turn
+        private int running; // How many of the guild's tasks are running
+        private long started; // How many of the guild's tasks have started
+        private long completed; // How many of the guild's tasks have finished
+        private long totalWait; // How long every started task waited in the queue, in nanoseconds
+        private long maxWait; // The longest any started task waited in the queue, in nanoseconds
+
+        /**
+         * Creates an empty queue.
+         *
+         * @param limit The most tasks that can run at once for the guild.
+         */
+        private GuildQueue(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Removes and returns the oldest task which can start under the guild's and its user's quota.
+         *
+         * @param userLimit The most tasks that can run at once for one user in the guild.
+         * @return The oldest task which can start, or {@code null} if there is none.
+         */
+        private Task poll(int userLimit) {
+            if (running >= limit) {
+                return null;
+            }
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                if (task.userId == null || userRunning.getOrDefault(task.userId, 0) < userLimit) {
+                    iterator.remove();
+                    return task;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -5,10 +5,13 @@ import java.util.concurrent.ThreadFactory;
 /**
  * A {@link ThreadFactory} that provides basic threads with naming schemes
  * based on a Guild's name and a general descriptor. Intended to be used with an ExecutorService.
+ * <p>
+ * The factory can create either platform threads or virtual threads, both named the same way.
  */
 public class GuildBasedThreadFactory implements ThreadFactory {
     private final String descriptor;
     private final String guildName;
+    private final boolean virtual; // Whether virtual threads are created rather than platform threads
 
     /**
      * Creates a GuildBasedThreadFactory which will name Threads based on the
@@ -18,8 +21,21 @@ public class GuildBasedThreadFactory implements ThreadFactory {
      * @param descriptor A general descriptor for created threads.
      */
     protected GuildBasedThreadFactory(String guildName, String descriptor) {
+        this(guildName, descriptor, false);
+    }
+
+    /**
+     * Creates a GuildBasedThreadFactory which will name Threads based on the
+     * guildName and descriptor, creating virtual threads if {@code virtual} is true.
+     * 
+     * @param guildName The name of the guild.
+     * @param descriptor A general descriptor for created threads.
+     * @param virtual Whether to create virtual threads rather than platform threads.
+     */
+    protected GuildBasedThreadFactory(String guildName, String descriptor, boolean virtual) {
         this.descriptor = descriptor.toUpperCase();
         this.guildName = guildName;
+        this.virtual = virtual;
     }
 
     /**
@@ -27,6 +43,6 @@ public class GuildBasedThreadFactory implements ThreadFactory {
      */
     public Thread newThread(Runnable runnable) {
         String name = guildName + "-" + descriptor;
-        return new Thread(runnable, name);
+        return virtual ? VirtualThreads.newThread(name, runnable) : new Thread(runnable, name);
     }
 }
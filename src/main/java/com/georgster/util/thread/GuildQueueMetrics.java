@@ -0,0 +1,110 @@
+package com.georgster.util.thread;
+
+/**
+ * A snapshot of one {@code Guild's} queue in a scheduler shared by every {@code Guild}, such as the one
+ * running commands or the one running events.
+ * <p>
+ * Wait times are measured from when a task was queued until it started running.
+ */
+public final class GuildQueueMetrics {
+    private final String guildId; // The ID of the Guild the queue is for
+    private final String guildName; // The name of the Guild the queue is for
+    private final int queued; // How many tasks are waiting to start
+    private final int running; // How many tasks are running
+    private final long completed; // How many tasks have finished
+    private final long averageWaitMillis; // How long started tasks waited on average
+    private final long maxWaitMillis; // The longest any task has waited, including those still queued
+
+    /**
+     * Creates a snapshot of a {@code Guild's} queue.
+     *
+     * @param guildId The ID of the {@code Guild}.
+     * @param guildName The name of the {@code Guild}.
+     * @param queued How many tasks are waiting to start.
+     * @param running How many tasks are running.
+     * @param completed How many tasks have finished.
+     * @param averageWaitMillis How long started tasks waited on average.
+     * @param maxWaitMillis The longest any task has waited, including those still queued.
+     */
+    protected GuildQueueMetrics(String guildId, String guildName, int queued, int running, long completed, long averageWaitMillis, long maxWaitMillis) {
+        this.guildId = guildId;
+        this.guildName = guildName;
+        this.queued = queued;
+        this.running = running;
+        this.completed = completed;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Returns the ID of the {@code Guild} the queue is for.
+     *
+     * @return the ID of the {@code Guild}.
+     */
+    public String getGuildId() {
+        return guildId;
+    }
+
+    /**
+     * Returns the name of the {@code Guild} the queue is for.
+     *
+     * @return the name of the {@code Guild}.
+     */
+    public String getGuildName() {
+        return guildName;
+    }
+
+    /**
+     * Returns how many tasks are waiting to start.
+     *
+     * @return the depth of the queue.
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Returns how many tasks are running.
+     *
+     * @return how many tasks are running.
+     */
+    public int getRunning() {
+        return running;
+    }
+
+    /**
+     * Returns how many tasks have finished.
+     *
+     * @return how many tasks have finished.
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Returns how long tasks which have started waited on average, in milliseconds.
+     *
+     * @return the average wait.
+     */
+    public long getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    /**
+     * Returns the longest any task has waited in milliseconds, including tasks that are still queued.
+     *
+     * @return the longest wait.
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%s (%s): %d queued, %d running, %d completed, avg wait %dms, max wait %dms",
+                guildName, guildId, queued, running, completed, averageWaitMillis, maxWaitMillis);
+    }
+}
@@ -1,7 +1,14 @@
 package com.georgster.util.thread;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.georgster.logs.MetricsReporter;
+import com.georgster.logs.MultiLogger;
 
 import discord4j.core.object.entity.Guild;
 
@@ -12,12 +19,28 @@ import discord4j.core.object.entity.Guild;
  * <ul>
  *  <li>General: unlimited</li>
  *  <li>Event: 30</li>
- *  <li>Command: 30</li>
+ *  <li>Command: 30, and 3 for each user</li>
  *  <li>Voice: 1</li>
  *  <li>Global Discord API calls: 1</li>
+ * </ul>
+ * Event and command tasks of every Guild share one scheduler each, which runs at most 100 tasks at once and serves
+ * the Guilds' queues in turn, so a busy Guild cannot starve the others. The quotas can be changed with
+ * {@link #setGuildQuota(String, int, int)} and {@link #setUserQuota(int)}, and each Guild's queue is measured by
+ * {@link #getCommandQueueMetrics()} and {@link #getEventQueueMetrics()} and summarized in the system log by the
+ * {@link MetricsReporter}. A task that waits a long time, such as a wizard waiting for a response, frees its place in
+ * every quota with {@link #beginBlocking()} while it waits.
+ * <p>
+ * If {@link #useVirtualThreads()} was called at startup, general, event and command tasks run on virtual threads.
  */
 public class ThreadPoolFactory {
+    private static final int SHARED_LIMIT = 100; // The most event or command tasks that can run at once for all guilds
+    private static final int GUILD_LIMIT = 30; // The most event or command tasks that can run at once for one guild
+    private static final int USER_LIMIT = 3; // The most command tasks that can run at once for one user
+
     private static final Map<String, ThreadPoolManager> CLIENT_THREAD_POOL_MANAGERS = new ConcurrentHashMap<>(); // Maps guild IDs to thread pool managers
+    private static volatile boolean virtualThreads = false; // Whether new thread pool managers run tasks on virtual threads
+    private static FairScheduler eventScheduler; // Runs every guild's event tasks, created with the first thread pool manager
+    private static FairScheduler commandScheduler; // Runs every guild's command tasks, created with the first thread pool manager
 
     /**
      * Private constructor to prevent instantiation.
@@ -26,13 +49,147 @@ public class ThreadPoolFactory {
         throw new IllegalStateException("Utility factory class");
     }
 
+    /**
+     * Makes every thread pool manager created from now on run general, event and command tasks on
+     * virtual threads, if the running JVM supports them. Should be called once at startup, before
+     * any thread pool manager is created.
+     * 
+     * @return {@code true} if virtual threads will be used, {@code false} if the JVM does not support them
+     */
+    public static boolean useVirtualThreads() {
+        if (!VirtualThreads.isSupported()) {
+            MultiLogger.logSystem("Virtual threads are not supported by this JVM, falling back to platform thread pools", ThreadPoolFactory.class);
+            return false;
+        }
+        virtualThreads = true;
+        return true;
+    }
+
     /**
      * Creates a new thread pool manager for the given guild ID if one does not already exist.
      * 
      * @param guildId The guild ID to create a thread pool manager for
      */
     public static void createThreadPoolManager(Guild guild) {
-        CLIENT_THREAD_POOL_MANAGERS.computeIfAbsent(guild.getId().asString(), id -> new ThreadPoolManager(id, guild.getName()));
+        createThreadPoolManager(guild.getId().asString(), guild.getName());
+    }
+
+    /**
+     * Creates a new thread pool manager for the guild with the given ID and name if one does not already exist.
+     * 
+     * @param guildId The guild ID to create a thread pool manager for
+     * @param guildName The name of the guild, used to name its threads
+     */
+    static void createThreadPoolManager(String guildId, String guildName) {
+        createSharedSchedulers();
+        CLIENT_THREAD_POOL_MANAGERS.computeIfAbsent(guildId, id -> new ThreadPoolManager(id, guildName, virtualThreads, eventScheduler, commandScheduler));
+    }
+
+    /**
+     * Creates the schedulers shared by every guild's event and command tasks if they do not already exist,
+     * running their tasks on virtual threads if {@link #useVirtualThreads()} was called.
+     */
+    private static synchronized void createSharedSchedulers() {
+        if (commandScheduler != null) {
+            return;
+        }
+        eventScheduler = new FairScheduler("EVENTS", SHARED_LIMIT, GUILD_LIMIT, Integer.MAX_VALUE, sharedWorkers("EVENTS"));
+        commandScheduler = new FairScheduler("COMMANDS", SHARED_LIMIT, GUILD_LIMIT, USER_LIMIT, sharedWorkers("COMMANDS"));
+        MetricsReporter.register(() -> summarize("Event queues", eventScheduler.getMetrics()));
+        MetricsReporter.register(() -> summarize("Command queues", commandScheduler.getMetrics()));
+    }
+
+    /**
+     * Summarizes the queues of a shared scheduler for the system log, totalling every guild's queue and
+     * listing only the guilds with tasks waiting.
+     * 
+     * @param name The name of the scheduler's queues
+     * @param metrics The metrics of each guild's queue
+     * @return The summary
+     */
+    private static String summarize(String name, List<GuildQueueMetrics> metrics) {
+        int queued = metrics.stream().mapToInt(GuildQueueMetrics::getQueued).sum();
+        int running = metrics.stream().mapToInt(GuildQueueMetrics::getRunning).sum();
+        long completed = metrics.stream().mapToLong(GuildQueueMetrics::getCompleted).sum();
+        List<GuildQueueMetrics> waiting = metrics.stream().filter(guild -> guild.getQueued() > 0).collect(Collectors.toList());
+        return String.format("%s: %d queued, %d running, %d completed across %d guilds%s", name, queued, running, completed,
+                metrics.size(), waiting.isEmpty() ? "" : ", waiting: " + waiting);
+    }
+
+    /**
+     * Creates the executor a shared scheduler runs its tasks on. Platform threads are kept alive
+     * for reuse by any guild's next task, virtual threads are created for each task.
+     * 
+     * @param descriptor The descriptor of the scheduler's threads when idle
+     * @return The executor
+     */
+    private static Executor sharedWorkers(String descriptor) {
+        if (virtualThreads) {
+            GuildBasedThreadFactory factory = new GuildBasedThreadFactory("GLOBAL", descriptor, true);
+            return task -> factory.newThread(task).start();
+        }
+        return Executors.newCachedThreadPool(new GuildBasedThreadFactory("GLOBAL", descriptor));
+    }
+
+    /**
+     * Sets how many event and command tasks can run at once for the given guild, and how many it may
+     * start each time its turn comes up in the shared schedulers. Guilds default to 30 tasks and a weight of 1.
+     * 
+     * @param guildId The guild ID to set the quota of
+     * @param concurrency The most event or command tasks that can run at once for the guild
+     * @param weight How many tasks the guild may start each turn
+     */
+    public static void setGuildQuota(String guildId, int concurrency, int weight) {
+        createSharedSchedulers();
+        eventScheduler.setGuildQuota(guildId, concurrency, weight);
+        commandScheduler.setGuildQuota(guildId, concurrency, weight);
+    }
+
+    /**
+     * Sets how many command tasks can run at once for one user in each guild, counted separately for
+     * every guild they use commands in. Defaults to 3.
+     * 
+     * @param concurrency The most command tasks that can run at once for one user in one guild
+     */
+    public static void setUserQuota(int concurrency) {
+        createSharedSchedulers();
+        commandScheduler.setUserQuota(concurrency);
+    }
+
+    /**
+     * Returns a snapshot of each guild's queue in the shared command scheduler.
+     * 
+     * @return The metrics of each guild's command queue
+     */
+    public static List<GuildQueueMetrics> getCommandQueueMetrics() {
+        createSharedSchedulers();
+        return commandScheduler.getMetrics();
+    }
+
+    /**
+     * Returns a snapshot of each guild's queue in the shared event scheduler.
+     * 
+     * @return The metrics of each guild's event queue
+     */
+    public static List<GuildQueueMetrics> getEventQueueMetrics() {
+        createSharedSchedulers();
+        return eventScheduler.getMetrics();
+    }
+
+    /**
+     * Frees the shared, guild and user slots held by the event or command task running on the current thread until
+     * {@link #endBlocking()} is called, so a task waiting on a user, such as an open wizard or poll, never keeps any
+     * other task from starting. Does nothing on any other thread.
+     */
+    public static void beginBlocking() {
+        FairScheduler.beginBlocking();
+    }
+
+    /**
+     * Takes back the slots freed by {@link #beginBlocking()} on the current thread.
+     */
+    public static void endBlocking() {
+        FairScheduler.endBlocking();
     }
 
     /**
@@ -64,7 +221,19 @@ public class ThreadPoolFactory {
      * @param task The task to be executed
      */
     public static void scheduleCommandTask(String guildId, Runnable task) {
-        CLIENT_THREAD_POOL_MANAGERS.get(guildId).scheduleCommandTask(task);
+        scheduleCommandTask(guildId, null, task);
+    }
+
+    /**
+     * Schedules a task to be executed by the command thread pool manager for the given guild ID on behalf of a user.
+     * Each Guild can schedule up to 30 commands at a time, and each user up to 3.
+     * 
+     * @param guildId The guild ID to schedule the task for
+     * @param userId The ID of the user the task is for, or {@code null} if it is not limited by a user quota
+     * @param task The task to be executed
+     */
+    public static void scheduleCommandTask(String guildId, String userId, Runnable task) {
+        CLIENT_THREAD_POOL_MANAGERS.get(guildId).scheduleCommandTask(userId, task);
     }
 
     /**
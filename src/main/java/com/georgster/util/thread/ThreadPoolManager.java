@@ -1,7 +1,9 @@
 package com.georgster.util.thread;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
 /**
  * <p>Manages thread pools for each {@code SoapClient}.</p>
@@ -9,11 +11,14 @@ import java.util.concurrent.Executors;
  * <p>Maximum concurrent tasks for each thread pool:</p>
  * <ul>
  *  <li>General: unlimited</li>
- *  <li>Event: 30</li>
- *  <li>Command: 30</li>
+ *  <li>Event: the guild's quota in the shared event scheduler</li>
+ *  <li>Command: the guild's quota in the shared command scheduler</li>
  *  <li>Voice: 1</li>
  *  <li>Global Discord API calls: 1</li>
  * </ul>
+ * <p>Event and command tasks are not run by pools of their own, but queued in {@link FairScheduler FairSchedulers}
+ * shared by every guild. In virtual thread mode, each general task instead runs on its own virtual thread.
+ * Voice tasks always run on a single platform thread so they stay in order.</p>
  */
 public class ThreadPoolManager {
     private String guildId; // The guild ID that this thread pool manager is for
@@ -21,24 +26,44 @@ public class ThreadPoolManager {
 
     private static final ExecutorService GLOBAL_DISCORD_API_CALL_POOL = Executors.newSingleThreadExecutor(new GuildBasedThreadFactory("GLOBAL", "API-CALLS")); // Responsible for all global Discord API calls
 
-    private final ExecutorService generalThreadPool; 
-    private final ExecutorService eventThreadPool; //Can schedule 30 events at once
-    private final ExecutorService commandThreadPool; // Can schedule 30 commands at once
-    private final ExecutorService voiceThreadPool; // Can schedule 1 voice task at once
+    private final Executor generalThreadPool; 
+    private final FairScheduler eventScheduler; // Shared by every guild
+    private final FairScheduler commandScheduler; // Shared by every guild
+    private final Executor voiceThreadPool; // Can schedule 1 voice task at once
 
     /**
-     * Creates a new thread pool manager for the given guild ID and name.
+     * Creates a new thread pool manager for the given guild ID and name, running general tasks on
+     * virtual threads if {@code virtual} is true, and event and command tasks on the given shared schedulers.
      * 
      * @param guildId The guild ID to create a thread pool manager for
      * @param guildName The guild name to create a thread pool manager for
+     * @param virtual Whether to run general tasks on virtual threads
+     * @param eventScheduler The scheduler shared by every guild's event tasks
+     * @param commandScheduler The scheduler shared by every guild's command tasks
      */
-    protected ThreadPoolManager(String guildId, String guildName) {
+    protected ThreadPoolManager(String guildId, String guildName, boolean virtual, FairScheduler eventScheduler, FairScheduler commandScheduler) {
         this.guildId = guildId;
         this.guildName = guildName;
-        generalThreadPool = Executors.newCachedThreadPool(new GuildBasedThreadFactory(guildName, "GENERAL")); 
-        eventThreadPool = Executors.newFixedThreadPool(30, new GuildBasedThreadFactory(guildName, "EVENTS"));
-        commandThreadPool = Executors.newFixedThreadPool(30, new GuildBasedThreadFactory(guildName, "COMMANDS"));
-        voiceThreadPool = Executors.newSingleThreadExecutor(new GuildBasedThreadFactory(guildName, "VOICE"));
+        if (virtual) {
+            generalThreadPool = virtualExecutor(new GuildBasedThreadFactory(guildName, "GENERAL", true));
+        } else {
+            generalThreadPool = Executors.newCachedThreadPool(new GuildBasedThreadFactory(guildName, "GENERAL"))::submit; 
+        }
+        this.eventScheduler = eventScheduler;
+        this.commandScheduler = commandScheduler;
+        voiceThreadPool = Executors.newSingleThreadExecutor(new GuildBasedThreadFactory(guildName, "VOICE"))::submit;
+    }
+
+    /**
+     * Creates an executor which runs each task on a new thread from the factory.
+     * <p>
+     * Like {@link ExecutorService#submit(Runnable)}, a task which throws does not affect any other task.
+     * 
+     * @param factory The factory to create each task's thread with
+     * @return The executor
+     */
+    private static Executor virtualExecutor(GuildBasedThreadFactory factory) {
+        return task -> factory.newThread(new FutureTask<>(task, null)).start();
     }
 
     /**
@@ -65,7 +90,7 @@ public class ThreadPoolManager {
      * @param task The task to be executed
      */
     protected void scheduleGeneralTask(Runnable task) {
-        generalThreadPool.submit(task);
+        generalThreadPool.execute(task);
     }
 
     /**
@@ -74,16 +99,18 @@ public class ThreadPoolManager {
      * @param task The task to be executed
      */
     protected void scheduleEventTask(Runnable task) {
-        eventThreadPool.submit(task);
+        eventScheduler.submit(guildId, guildName, null, task);
     }
 
     /**
-     * Schedule a task to be executed by the command thread pool manager.
+     * Schedule a task to be executed by the command thread pool manager on behalf of a user,
+     * counting towards that user's quota.
      * 
+     * @param userId The ID of the user the task is for, or {@code null} if it is not limited by a user quota
      * @param task The task to be executed
      */
-    protected void scheduleCommandTask(Runnable task) {
-        commandThreadPool.submit(task);
+    protected void scheduleCommandTask(String userId, Runnable task) {
+        commandScheduler.submit(guildId, guildName, userId, task);
     }
 
     /**
@@ -92,7 +119,7 @@ public class ThreadPoolManager {
      * @param task The task to be executed
      */
     protected void scheduleVoiceTask(Runnable task) {
-        voiceThreadPool.submit(task);
+        voiceThreadPool.execute(task);
     }
 
     /**
@@ -0,0 +1,65 @@
+package com.georgster.util.thread;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates virtual threads when the running JVM supports them.
+ * <p>
+ * SOAP Bot is compiled for Java 19, where virtual threads are a preview API that is only available
+ * when the JVM is started with {@code --enable-preview}, so they are created reflectively. On any JVM
+ * where they are unavailable, {@link #isSupported()} returns {@code false}.
+ */
+final class VirtualThreads {
+    private static final Method OF_VIRTUAL; // Thread.ofVirtual(), null if unsupported
+    private static final Method NAME; // Thread.Builder.OfVirtual.name(String), null if unsupported
+    private static final Method UNSTARTED; // Thread.Builder.OfVirtual.unstarted(Runnable), null if unsupported
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = ofVirtual.getReturnType().getMethod("name", String.class);
+            unstarted = ofVirtual.getReturnType().getMethod("unstarted", Runnable.class);
+            unstarted.invoke(ofVirtual.invoke(null), (Runnable) () -> {}); // Throws if preview features are disabled
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private VirtualThreads() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns whether the running JVM can create virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported, {@code false} otherwise.
+     */
+    static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates an unstarted virtual thread with the given name which will run the given task.
+     *
+     * @param name The name of the thread.
+     * @param task The task the thread will run.
+     * @return The new virtual thread.
+     * @throws UnsupportedOperationException If virtual threads are not supported.
+     */
+    static Thread newThread(String name, Runnable task) throws UnsupportedOperationException {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        try {
+            return (Thread) UNSTARTED.invoke(NAME.invoke(OF_VIRTUAL.invoke(null), name), task);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Could not create a virtual thread", e);
+        }
+    }
+}
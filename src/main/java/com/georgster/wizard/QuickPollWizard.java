@@ -25,7 +25,7 @@ public class QuickPollWizard extends InputWizard {
      * @param event The PollEvent (a quickpoll).
      */
     public QuickPollWizard(CommandExecutionEvent executionEvent, PollEvent event) {
-        super(executionEvent, InputListenerFactory.createReactionListener(executionEvent, event.getIdentifier()).builder().withApiCallsOnSeparateThread(true).allowAllResponses(true).withXReaction(false).withTimeoutDuration(120000).build());
+        super(executionEvent, InputListenerFactory.createReactionListener(executionEvent, event.getIdentifier()).builder().withApiCallsOnSeparateThread(true).allowAllResponses(true).withXReaction(false).withTimeoutDuration(getTimeout(event)).build());
         this.pollEvent = event;
         this.eventManager = executionEvent.getEventManager();
     }
@@ -40,6 +40,16 @@ public class QuickPollWizard extends InputWizard {
         this.eventManager = executionEvent.getEventManager();
     }
 
+    /**
+     * Returns how long the voting window for the given poll should stay open (in ms), which is until the poll ends.
+     * 
+     * @param event The PollEvent (a quickpoll).
+     * @return The time in ms until the poll ends, at least one second.
+     */
+    private static int getTimeout(PollEvent event) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1000L, event.until() * 1000L));
+    }
+
     /**
      * Begins the wizard with the quick poll voting page as the first window.
      */
@@ -104,7 +114,7 @@ public class QuickPollWizard extends InputWizard {
         } else {
             withResponse((response -> {
                 pollEvent = (PollEvent) eventManager.get(response);
-                setDefaultListener(InputListenerFactory.createReactionListener(event, pollEvent.getIdentifier()).builder().withApiCallsOnSeparateThread(true).allowAllResponses(true).withXReaction(false).withTimeoutDuration(120000).build());
+                setDefaultListener(InputListenerFactory.createReactionListener(event, pollEvent.getIdentifier()).builder().withApiCallsOnSeparateThread(true).allowAllResponses(true).withXReaction(false).withTimeoutDuration(getTimeout(pollEvent)).build());
                 nextWindow("voteForPoll");
             }), false, prompt, prompts.toArray(new String[prompts.size()]));
         }
@@ -10,7 +10,8 @@ import discord4j.core.spec.EmbedCreateSpec;
  * A bridge between the {@link InputWizard} and the {@link com.georgster.wizard.input.InputListener InputListener}.
  */
 public class WizardState {
-    private boolean hasEnded;
+    private volatile boolean hasEnded;
+    private volatile Runnable endAction; // Run when the wizard ends, if set
     private String message;
     private String notes;
     private String[] options;
@@ -145,6 +146,23 @@ public class WizardState {
      */
     public void end() {
         hasEnded = true;
+        Runnable action = endAction;
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    /**
+     * Sets the action to run when the wizard ends, replacing any previous action.
+     * If the wizard has already ended, the action is run immediately.
+     * 
+     * @param action The action to run, or {@code null} to run nothing.
+     */
+    public void onEnd(Runnable action) {
+        endAction = action;
+        if (action != null && hasEnded) {
+            action.run();
+        }
     }
 
     /**
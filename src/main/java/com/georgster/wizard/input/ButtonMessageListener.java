@@ -7,8 +7,6 @@ import java.util.List;
 import com.georgster.control.util.CommandExecutionEvent;
 import com.georgster.wizard.WizardState;
 
-import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
-import discord4j.core.event.domain.message.MessageCreateEvent;
 import discord4j.core.object.component.ActionRow;
 import discord4j.core.object.component.Button;
 import discord4j.core.object.entity.Attachment;
@@ -79,18 +77,15 @@ public class ButtonMessageListener extends InputListener {
             sendPromptMessage(prompt, getRowsFromButtons(buttons)));
 
         // Create a listener that listens for the user to click a button
-        createListener(dispatcher -> dispatcher.on(ButtonInteractionEvent.class)
-            .filter(event -> event.getInteraction().getUser().getId().asString().equals(user.getId().asString()))
-            .filter(event -> event.getMessage().get().getId().asString().equals(message.getMessage().getId().asString()))
-            .subscribe(event -> {
-                setResponse(event.getCustomId().toLowerCase(), event.getInteraction().getUser());
+        onButton(event -> {
+            if (event.getInteraction().getUser().getId().equals(user.getId())) {
                 handler.setActiveComponentInteraction(event);
-            }));
+                setResponse(event.getCustomId().toLowerCase(), event.getInteraction().getUser());
+            }
+        });
 
-        createListener(dispatcher -> dispatcher.on(MessageCreateEvent.class)
-            .filter(event -> event.getMessage().getAuthor().orElse(user).getId().asString().equals(user.getId().asString()))
-            .filter(event -> event.getMessage().getChannelId().equals(message.getMessage().getChannelId()))
-            .subscribe(event -> {
+        onMessage(event -> {
+            if (event.getMessage().getAuthor().orElse(user).getId().equals(user.getId())) {
                 List<Attachment> attachments = event.getMessage().getAttachments();
                 if (attachments.isEmpty()) {
                     setResponse(event.getMessage().getContent(), event.getMessage().getAuthor().orElse(user));
@@ -98,7 +93,8 @@ public class ButtonMessageListener extends InputListener {
                     setResponse(attachments.get(0).getUrl(), event.getMessage().getAuthor().orElse(user));
                 }
                 setResponseMessage(event.getMessage());
-            }));
+            }
+        });
             
         return waitForResponse(inputState);
     }
@@ -2,17 +2,29 @@ package com.georgster.wizard.input;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import com.georgster.control.util.CommandExecutionEvent;
+import com.georgster.control.util.CommandLimiter;
 import com.georgster.util.handler.GuildInteractionHandler;
 import com.georgster.util.handler.InteractionHandler;
 import com.georgster.util.thread.ThreadPoolFactory;
 import com.georgster.wizard.InputWizard;
 import com.georgster.wizard.WizardState;
 
+import discord4j.common.util.Snowflake;
 import discord4j.core.event.EventDispatcher;
+import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
+import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
 import discord4j.core.event.domain.message.MessageCreateEvent;
 import discord4j.core.event.domain.message.ReactionAddEvent;
+import discord4j.core.event.domain.message.ReactionRemoveEvent;
 import discord4j.core.object.component.LayoutComponent;
 import discord4j.core.object.entity.Message;
 import discord4j.core.object.entity.User;
@@ -28,21 +40,31 @@ import reactor.core.Disposable;
  * Implementations must define {@link #prompt(WizardState)} which is how outside
  * wizard's indicate a need to prompt a user.
  * <p>
- * {@link #prompt(WizardState)} should create {@link Disposable} listeners via {@link #createListener(ListenerFactory)},
- * keeping in mind verification for user, channel and message IDs is not covered automatically,
+ * {@link #prompt(WizardState)} should listen for responses to its current message through the {@link WizardRouter} with
+ * {@link #onMessage(Consumer)}, {@link #onButton(Consumer)} and the like, or create other {@link Disposable} listeners via
+ * {@link #createListener(ListenerFactory)}, keeping in mind verification for user IDs is not covered automatically,
  * send the prompt message with {@link #sendPromptMessage(String, LayoutComponent...)}, and handle 
  * creating the output {@link WizardState} after listening for a response with {@link #waitForResponse(WizardState)}.
+ * <p>
+ * While waiting, the prompting thread is parked on a future that a response, the end of the {@link WizardState} or a
+ * timeout on a scheduler shared by every listener completes, so it resumes as soon as any of them happen. The wait is
+ * still a blocking wait on the prompting thread: the waiting task gives up its scheduler and limiter slots, but each idle
+ * wizard keeps its thread. Only when guild tasks run on virtual threads ({@code -Dsoap.threads=virtual}) does an idle
+ * wizard cost no platform thread, as the parked virtual thread is unmounted from its carrier. On platform threads every
+ * open wizard holds one pool thread until it ends.
  * 
  * @see com.georgster.wizard.InputWizard
  */
 public abstract class InputListener {
+    private static final ScheduledExecutorService TIMEOUTS = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "GLOBAL-WIZARD-TIMEOUTS")); // Times out every listener's prompts
 
-    private int timeoutTime = 300; // will wait 30s for a response (is in ms)
+    private int timeoutTime = 30000; // will wait 30s for a response (is in ms)
 
     // Configuration properties
     protected final String endString; // String to type to cancel the listener
     protected String title; // The title to attach to messages
     private final EventDispatcher dispatcher; // Dispatcher sending events
+    private final WizardRouter router; // Routes the dispatcher's events to the listeners they concern
     protected InteractionHandler handler; // Handler to interact with the Guild or User
     protected User user; // The initial user of the listener
     private final List<Disposable> listeners; // The Disposable listeners
@@ -64,6 +86,7 @@ public abstract class InputListener {
     protected WizardMessage message; // This listener's most recent message (to edit)
     private WizardState recentState; // The most recent state of the communicating InputWizard
     private StringBuilder responseContainer; // The users most recent response
+    private CompletableFuture<Boolean> pendingResponse; // Completes true on a response, false on the end of the prompt
 
     /**
      * Creates an InputListener from the provided event, title, and String to end the listener.
@@ -76,6 +99,7 @@ public abstract class InputListener {
         this.endString = endString;
         this.title = title;
         this.dispatcher = event.getEventDispatcher();
+        this.router = WizardRouter.of(dispatcher);
         this.handler = event.getGuildInteractionHandler();
         this.user = event.getDiscordEvent().getUser();
         this.listeners = new ArrayList<>();
@@ -87,8 +111,9 @@ public abstract class InputListener {
         this.allowAllUsers = false;
         this.apiCallOnSeparateThread = false;
         this.autoFormat = true;
-        this.timeoutTime = 300;
+        this.timeoutTime = 30000;
         this.responseContainer = new StringBuilder();
+        this.pendingResponse = CompletableFuture.completedFuture(false);
     }
 
     /**
@@ -122,6 +147,53 @@ public abstract class InputListener {
         listeners.add(listener.createListener(dispatcher));
     }
 
+    /**
+     * Passes every message sent in the channel of this listener's current {@link Message} to the given
+     * listener until the current prompt ends. Unlike {@link #createListener(ListenerFactory)}, the message
+     * is only seen by listeners of its channel.
+     * 
+     * @param listener The listener of the messages.
+     */
+    protected void onMessage(Consumer<MessageCreateEvent> listener) {
+        listeners.add(router.onMessage(message.getMessage().getChannelId(), listener));
+    }
+
+    /**
+     * Passes every reaction added to this listener's current {@link Message} to the given listener until the current prompt ends.
+     * 
+     * @param listener The listener of the reactions.
+     */
+    protected void onReactionAdd(Consumer<ReactionAddEvent> listener) {
+        listeners.add(router.onReactionAdd(message.getMessage().getId(), listener));
+    }
+
+    /**
+     * Passes every reaction removed from this listener's current {@link Message} to the given listener until the current prompt ends.
+     * 
+     * @param listener The listener of the reactions.
+     */
+    protected void onReactionRemove(Consumer<ReactionRemoveEvent> listener) {
+        listeners.add(router.onReactionRemove(message.getMessage().getId(), listener));
+    }
+
+    /**
+     * Passes every click of a button on this listener's current {@link Message} to the given listener until the current prompt ends.
+     * 
+     * @param listener The listener of the clicks.
+     */
+    protected void onButton(Consumer<ButtonInteractionEvent> listener) {
+        listeners.add(router.onButton(message.getMessage().getId(), listener));
+    }
+
+    /**
+     * Passes every selection in a menu on this listener's current {@link Message} to the given listener until the current prompt ends.
+     * 
+     * @param listener The listener of the selections.
+     */
+    protected void onSelectMenu(Consumer<SelectMenuInteractionEvent> listener) {
+        listeners.add(router.onSelectMenu(message.getMessage().getId(), listener));
+    }
+
     /**
      * Sends a message containing their prompt as the content and the optional
      * LayoutComponents attached.
@@ -193,21 +265,23 @@ public abstract class InputListener {
             this.message.getMessage().addReaction(ReactionEmoji.unicode("❌")).block();
         }
         // Create a listener that listens for the user to end the wizard by reacting
-        createListener(eventDispatcher -> eventDispatcher.on(ReactionAddEvent.class)
-            .filter(event -> event.getUser().block().getId().asString().equals(user.getId().asString()))
-            .filter(event -> event.getEmoji().equals(ReactionEmoji.unicode("❌")))
-            .subscribe(event -> recentState.end()));
+        onReactionAdd(event -> {
+            if (event.getUserId().equals(user.getId()) && event.getEmoji().equals(ReactionEmoji.unicode("❌"))) {
+                recentState.end();
+            }
+        });
     }
 
     /**
      * Creates a listener that ends the most recent {@link WizardState} when this listener's user types the {@link #endString}.
      */
     private void addEndMessageListener() {
-        createListener(eventDispatcher -> dispatcher.on(MessageCreateEvent.class)
-            .filter(event -> event.getMessage().getAuthor().get().getId().asString().equals(user.getId().asString()))
-            .filter(event -> event.getMessage().getChannelId().equals(message.getMessage().getChannelId()))
-            .filter(event -> event.getMessage().getContent().toLowerCase().equals(endString))
-            .subscribe(event -> recentState.end()));
+        onMessage(event -> {
+            boolean fromUser = event.getMessage().getAuthor().map(author -> author.getId().equals(user.getId())).orElse(false);
+            if (fromUser && event.getMessage().getContent().toLowerCase().equals(endString)) {
+                recentState.end();
+            }
+        });
     }
 
     /**
@@ -357,6 +431,17 @@ public abstract class InputListener {
      */
     public abstract WizardState prompt(WizardState inputState);
 
+    /**
+     * Returns whether the user with the given ID may respond to this listener, so events from other users
+     * can be ignored before their {@link User} is fetched.
+     * 
+     * @param userId The ID of the user.
+     * @return {@code true} if all users may respond or the ID is this listener's user's, {@code false} otherwise.
+     */
+    protected boolean canRespond(Snowflake userId) {
+        return allowAllUsers || userId.equals(user.getId());
+    }
+
     /**
      * Sets the response of this listener, in accordance with its matching rules.
      * <p>
@@ -372,9 +457,9 @@ public abstract class InputListener {
      * 
      * @param response
      */
-    protected void setResponse(String response, User responder, String... notes) {
-        if (!allowAllUsers && !responder.equals(user)) {
-            return;
+    protected synchronized void setResponse(String response, User responder, String... notes) {
+        if (pendingResponse.isDone() || (!allowAllUsers && !responder.equals(user))) {
+            return; // Only the first valid response to a prompt is recorded
         }
         List<String> options = new ArrayList<>(List.of(recentState.getOptions()));
         
@@ -393,6 +478,7 @@ public abstract class InputListener {
                 this.responseContainer.append(fullResponse);
             }
             this.recentState.setUser(responder);
+            pendingResponse.complete(true);
             return; // ?
         }
         if (options.contains(response) || ((mustMatchLenient && (options.size() > 2 || (options.contains("back") && options.size() == 2) || options.size() == 1)) && !mustMatchStrict)) {
@@ -403,6 +489,7 @@ public abstract class InputListener {
                 this.responseContainer.append(fullResponse);
             }
             this.recentState.setUser(responder);
+            pendingResponse.complete(true);
         }
     }
 
@@ -416,33 +503,48 @@ public abstract class InputListener {
     /**
      * Waits for a listener to send a valid response via {@link #setResponse(String)}, for the user to end the listener,
      * or for it to timeout, and processes the output {@link WizardState} accordingly.
+     * <p>
+     * Blocks the calling thread until then, which only frees the underlying platform thread in virtual thread mode.
      * 
      * @param inputState The input state from an InputWizard.
      * @return The output state of the InputWizard.
      */
     protected WizardState waitForResponse(WizardState inputState) {
-        this.recentState = inputState;
-        responseContainer = new StringBuilder();
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+        synchronized (this) {
+            this.recentState = inputState;
+            responseContainer = new StringBuilder();
+            pendingResponse = pending;
+        }
 
         addEndMessageListener();
-        int timeout = 0;
-        while (responseContainer.isEmpty()) { // Wait for the user to send a message
-            try {
-                if (recentState.hasEnded() || timeout > timeoutTime) {
-                    listeners.forEach(Disposable::dispose);
-                    listeners.clear();
-                    recentState.end();
-                    return recentState;
-                }
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                Thread.currentThread().interrupt();
-            }
-            timeout ++;
+        inputState.onEnd(() -> pending.complete(false));
+        ScheduledFuture<?> timeout = TIMEOUTS.schedule(() -> pending.complete(false), timeoutTime, TimeUnit.MILLISECONDS);
+        boolean responded;
+        ThreadPoolFactory.beginBlocking(); // Other tasks may run while the user decides
+        CommandLimiter.beginBlocking(); // And the guild may admit other commands
+        try { // Wait for the user to respond, end the listener or time out
+            responded = pending.get();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            Thread.currentThread().interrupt();
+            responded = false;
+        } catch (ExecutionException e) {
+            responded = false;
+        } finally {
+            CommandLimiter.endBlocking();
+            ThreadPoolFactory.endBlocking();
+            timeout.cancel(false);
+            inputState.onEnd(null);
+            listeners.forEach(Disposable::dispose);
+            listeners.clear();
+        }
+
+        if (!responded) {
+            pending.complete(false); // Rejects any response still on its way
+            recentState.end();
+            return recentState;
         }
-        listeners.forEach(Disposable::dispose);
-        listeners.clear();
         recentState.setMessage(responseContainer.toString());
 
         return recentState;
@@ -5,8 +5,6 @@ import java.util.List;
 import com.georgster.control.util.CommandExecutionEvent;
 import com.georgster.wizard.WizardState;
 
-import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
-import discord4j.core.event.domain.message.MessageCreateEvent;
 import discord4j.core.object.component.ActionRow;
 import discord4j.core.object.component.SelectMenu;
 import discord4j.core.object.entity.Attachment;
@@ -64,25 +62,21 @@ public class MenuMessageListener extends InputListener {
             sendPromptMessage(prompt.toString(), ActionRow.of(menu)));
 
         // Create a listener that listens for the user's next message
-        createListener(dispatcher -> dispatcher.on(MessageCreateEvent.class)
-            .filter(event -> event.getMessage().getChannelId().equals(message.getMessage().getChannelId()))
-            .subscribe(event -> {
-                List<Attachment> attachments = event.getMessage().getAttachments();
-                if (attachments.isEmpty()) {
-                    setResponse(event.getMessage().getContent(), event.getMessage().getAuthor().orElse(user));
-                } else {
-                    setResponse(attachments.get(0).getUrl(), event.getMessage().getAuthor().orElse(user));
-                }
-                setResponseMessage(event.getMessage());
-            }));
+        onMessage(event -> {
+            List<Attachment> attachments = event.getMessage().getAttachments();
+            if (attachments.isEmpty()) {
+                setResponse(event.getMessage().getContent(), event.getMessage().getAuthor().orElse(user));
+            } else {
+                setResponse(attachments.get(0).getUrl(), event.getMessage().getAuthor().orElse(user));
+            }
+            setResponseMessage(event.getMessage());
+        });
 
         // Create a listener that listens for the user to select an option
-        createListener(dispatcher -> dispatcher.on(SelectMenuInteractionEvent.class)
-            .filter(event -> event.getMessage().get().getId().asString().equals(message.getMessage().getId().asString()))
-            .subscribe(event -> {
-                setResponse(event.getValues().get(0), event.getInteraction().getUser());
-                handler.setActiveComponentInteraction(event);
-            }));
+        onSelectMenu(event -> {
+            handler.setActiveComponentInteraction(event);
+            setResponse(event.getValues().get(0), event.getInteraction().getUser());
+        });
 
         return waitForResponse(inputState);
     }
@@ -5,7 +5,6 @@ import java.util.List;
 import com.georgster.control.util.CommandExecutionEvent;
 import com.georgster.wizard.WizardState;
 
-import discord4j.core.event.domain.message.MessageCreateEvent;
 import discord4j.core.object.entity.Attachment;
 
 /**
@@ -47,17 +46,15 @@ public class MessageListener extends InputListener {
         inputState.getEmbed().ifPresentOrElse(this::sendPromptMessage,
         () -> sendPromptMessage(prompt.toString()));
 
-        createListener(dispatcher -> dispatcher.on(MessageCreateEvent.class)
-            .filter(event -> event.getMessage().getChannelId().equals(message.getMessage().getChannelId()))
-            .subscribe(event -> {
-                List<Attachment> attachments = event.getMessage().getAttachments();
-                if (attachments.isEmpty()) {
-                    setResponse(event.getMessage().getContent(), event.getMessage().getAuthor().orElse(user));
-                } else {
-                    setResponse(attachments.get(0).getUrl(), event.getMessage().getAuthor().orElse(user));
-                }
-                setResponseMessage(event.getMessage());
-            }));
+        onMessage(event -> {
+            List<Attachment> attachments = event.getMessage().getAttachments();
+            if (attachments.isEmpty()) {
+                setResponse(event.getMessage().getContent(), event.getMessage().getAuthor().orElse(user));
+            } else {
+                setResponse(attachments.get(0).getUrl(), event.getMessage().getAuthor().orElse(user));
+            }
+            setResponseMessage(event.getMessage());
+        });
             
         return waitForResponse(inputState);
     }
@@ -4,11 +4,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.georgster.control.util.CommandExecutionEvent;
+import com.georgster.logs.MultiLogger;
 import com.georgster.wizard.WizardState;
 
-import discord4j.core.event.domain.message.ReactionAddEvent;
-import discord4j.core.event.domain.message.ReactionRemoveEvent;
+import discord4j.core.object.entity.User;
 import discord4j.core.object.reaction.ReactionEmoji;
+import reactor.core.publisher.Mono;
 
 /**
  * Sends a message with reaction emojis and records when one is presented.
@@ -53,30 +54,51 @@ public class ReactionListener extends InputListener {
             message.getMessage().addReaction(emoji).block();
         }
 
-        createListener(dispatcher ->  dispatcher.on(ReactionAddEvent.class)
-            .filter(event -> !event.getUser().block().isBot())
-            .filter(event -> emojis.stream().anyMatch(event.getEmoji()::equals))
-            .subscribe(event -> { // The event returns the emoji itself, not the codepoint, so we must get it from our options array
-                for (int i = 0; i < options.length; i++) { // Matches the emoji from the event to the input options
-                    if (emojis.get(i).equals(event.getEmoji())) {
-                        setResponse(options[i], event.getUser().block(), "added"); // Returns the input codepoint from the options array
-                    }
+        onReactionAdd(event -> { // The event returns the emoji itself, not the codepoint, so we must get it from our options array
+            if (!canRespond(event.getUserId())) {
+                return;
+            }
+            for (int i = 0; i < options.length; i++) { // Matches the emoji from the event to the input options
+                if (emojis.get(i).equals(event.getEmoji())) {
+                    String option = options[i]; // Returns the input codepoint from the options array
+                    respondIfHuman(Mono.justOrEmpty(event.getMember()).cast(User.class).switchIfEmpty(Mono.defer(event::getUser)), option, "added"); // Only fetched outside of Guilds
                 }
-            })
-        );
+            }
+        });
 
-        createListener(dispatcher ->  dispatcher.on(ReactionRemoveEvent.class)
-            .filter(event -> !event.getUser().block().isBot())
-            .filter(event -> emojis.stream().anyMatch(event.getEmoji()::equals))
-            .subscribe(event -> {
-                for (int i = 0; i < options.length; i++) {
-                    if (emojis.get(i).equals(event.getEmoji())) {
-                        setResponse(options[i], event.getUser().block(), "removed");
-                    }
+        onReactionRemove(event -> {
+            if (!canRespond(event.getUserId())) {
+                return;
+            }
+            for (int i = 0; i < options.length; i++) {
+                if (emojis.get(i).equals(event.getEmoji())) { // The user is only fetched for reactions to our options
+                    respondIfHuman(event.getUser(), options[i], "removed");
                 }
-            })
-        );
+            }
+        });
 
         return waitForResponse(inputState);
     }
+
+    /**
+     * Records the option as the response once the {@link User} who reacted is known, unless they are a bot.
+     * The user is resolved without blocking the thread the reaction was routed on.
+     * 
+     * @param reactor The user who reacted, fetched only if the reaction's payload did not include them.
+     * @param option The codepoint of the option reacted with.
+     * @param note Whether the reaction was "added" or "removed".
+     */
+    private void respondIfHuman(Mono<User> reactor, String option, String note) {
+        reactor.filter(user -> !user.isBot())
+            .subscribe(user -> setResponse(option, user, note), this::logUserFetchFailure);
+    }
+
+    /**
+     * Logs that the {@link User} who reacted could not be fetched, in which case their reaction is ignored.
+     * 
+     * @param error The error the fetch failed with.
+     */
+    private void logUserFetchFailure(Throwable error) {
+        MultiLogger.logSystem("Could not fetch the user who reacted: " + error.getMessage(), getClass());
+    }
 }
@@ -0,0 +1,174 @@
+package com.georgster.wizard.input;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.georgster.logs.MultiLogger;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.event.EventDispatcher;
+import discord4j.core.event.domain.interaction.ButtonInteractionEvent;
+import discord4j.core.event.domain.interaction.SelectMenuInteractionEvent;
+import discord4j.core.event.domain.message.MessageCreateEvent;
+import discord4j.core.event.domain.message.ReactionAddEvent;
+import discord4j.core.event.domain.message.ReactionRemoveEvent;
+import discord4j.core.object.entity.Message;
+import reactor.core.Disposable;
+
+/**
+ * Routes the Discord events {@link InputListener InputListeners} listen for to the listeners they concern.
+ * <p>
+ * Each {@link EventDispatcher} has a single router, which holds one subscription per event type no matter
+ * how many listeners are open. Messages are routed by the ID of their channel, and reactions and component
+ * interactions by the ID of the {@link Message} they were made on, so each event is only seen by the listeners
+ * of that channel or message. Every key is read from the event's payload without any API calls.
+ * Whether a reaction came from a bot is left to the listeners, which only check once a reaction matches their prompt.
+ */
+public final class WizardRouter {
+    private static final Map<EventDispatcher, WizardRouter> ROUTERS = new ConcurrentHashMap<>(); // The router of each dispatcher
+
+    private final Routes<MessageCreateEvent> messages; // Channel ID -> listeners of new messages
+    private final Routes<ReactionAddEvent> reactionAdds; // Message ID -> listeners of added reactions
+    private final Routes<ReactionRemoveEvent> reactionRemoves; // Message ID -> listeners of removed reactions
+    private final Routes<ButtonInteractionEvent> buttons; // Message ID -> listeners of button clicks
+    private final Routes<SelectMenuInteractionEvent> menus; // Message ID -> listeners of menu selections
+
+    /**
+     * Creates a router and subscribes it to every event type it routes.
+     *
+     * @param dispatcher The dispatcher to subscribe to.
+     */
+    private WizardRouter(EventDispatcher dispatcher) {
+        this.messages = new Routes<>();
+        this.reactionAdds = new Routes<>();
+        this.reactionRemoves = new Routes<>();
+        this.buttons = new Routes<>();
+        this.menus = new Routes<>();
+
+        dispatcher.on(MessageCreateEvent.class).subscribe(event -> messages.dispatch(event.getMessage().getChannelId(), event));
+        dispatcher.on(ReactionAddEvent.class)
+            .filter(event -> !event.getUserId().equals(event.getClient().getSelfId())) // SOAP Bot's own reactions are never responses
+            .subscribe(event -> reactionAdds.dispatch(event.getMessageId(), event));
+        dispatcher.on(ReactionRemoveEvent.class)
+            .filter(event -> !event.getUserId().equals(event.getClient().getSelfId()))
+            .subscribe(event -> reactionRemoves.dispatch(event.getMessageId(), event));
+        dispatcher.on(ButtonInteractionEvent.class).subscribe(event -> buttons.dispatch(event.getMessageId(), event));
+        dispatcher.on(SelectMenuInteractionEvent.class).subscribe(event -> menus.dispatch(event.getMessageId(), event));
+    }
+
+    /**
+     * Returns the router of the given {@link EventDispatcher}, creating it on first use.
+     *
+     * @param dispatcher The dispatcher whose events are routed.
+     * @return The dispatcher's router.
+     */
+    public static WizardRouter of(EventDispatcher dispatcher) {
+        return ROUTERS.computeIfAbsent(dispatcher, WizardRouter::new);
+    }
+
+    /**
+     * Routes every message sent in the given channel to the listener until the returned {@link Disposable} is disposed.
+     *
+     * @param channelId The ID of the channel.
+     * @param listener The listener of the messages.
+     * @return The route, which is removed when disposed.
+     */
+    public Disposable onMessage(Snowflake channelId, Consumer<MessageCreateEvent> listener) {
+        return messages.register(channelId, listener);
+    }
+
+    /**
+     * Routes every reaction added to the given message to the listener until the returned {@link Disposable} is disposed.
+     *
+     * @param messageId The ID of the message.
+     * @param listener The listener of the reactions.
+     * @return The route, which is removed when disposed.
+     */
+    public Disposable onReactionAdd(Snowflake messageId, Consumer<ReactionAddEvent> listener) {
+        return reactionAdds.register(messageId, listener);
+    }
+
+    /**
+     * Routes every reaction removed from the given message to the listener until the returned {@link Disposable} is disposed.
+     *
+     * @param messageId The ID of the message.
+     * @param listener The listener of the reactions.
+     * @return The route, which is removed when disposed.
+     */
+    public Disposable onReactionRemove(Snowflake messageId, Consumer<ReactionRemoveEvent> listener) {
+        return reactionRemoves.register(messageId, listener);
+    }
+
+    /**
+     * Routes every click of a button on the given message to the listener until the returned {@link Disposable} is disposed.
+     *
+     * @param messageId The ID of the message.
+     * @param listener The listener of the clicks.
+     * @return The route, which is removed when disposed.
+     */
+    public Disposable onButton(Snowflake messageId, Consumer<ButtonInteractionEvent> listener) {
+        return buttons.register(messageId, listener);
+    }
+
+    /**
+     * Routes every selection in a menu on the given message to the listener until the returned {@link Disposable} is disposed.
+     *
+     * @param messageId The ID of the message.
+     * @param listener The listener of the selections.
+     * @return The route, which is removed when disposed.
+     */
+    public Disposable onSelectMenu(Snowflake messageId, Consumer<SelectMenuInteractionEvent> listener) {
+        return menus.register(messageId, listener);
+    }
+
+    /**
+     * The listeners of one event type, keyed by the ID the events are routed by.
+     *
+     * @param <E> The type of event routed.
+     */
+    private static final class Routes<E> {
+        private final Map<Snowflake, Set<Consumer<E>>> routes = new ConcurrentHashMap<>(); // Key -> every listener of that key
+
+        /**
+         * Adds a listener of the given key.
+         *
+         * @param key The key to listen to.
+         * @param listener The listener.
+         * @return A {@link Disposable} which removes the listener.
+         */
+        private Disposable register(Snowflake key, Consumer<E> listener) {
+            Consumer<E> route = listener::accept; // A distinct instance, so the same listener can be routed twice
+            routes.compute(key, (k, listeners) -> {
+                Set<Consumer<E>> keyListeners = listeners == null ? ConcurrentHashMap.newKeySet() : listeners;
+                keyListeners.add(route);
+                return keyListeners;
+            });
+            return () -> routes.computeIfPresent(key, (k, listeners) -> {
+                listeners.remove(route);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+
+        /**
+         * Passes the event to every listener of the given key. A listener which throws does not affect any other.
+         *
+         * @param key The key the event is routed by.
+         * @param event The event.
+         */
+        private void dispatch(Snowflake key, E event) {
+            Set<Consumer<E>> listeners = routes.get(key);
+            if (listeners == null) {
+                return;
+            }
+            listeners.forEach(listener -> {
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) { // Never let one listener end the router's subscription
+                    MultiLogger.logSystem("A wizard listener failed: " + e.getMessage(), WizardRouter.class);
+                }
+            });
+        }
+    }
+}